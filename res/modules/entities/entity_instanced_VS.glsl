@@ -0,0 +1,28 @@
+#version 430
+
+layout (location = 0) in vec3 position;
+layout (location = 1) in vec2 textureCoord;
+layout (location = 2) in vec3 normal;
+// one per instance, stored row by row as the engine keeps its matrices, so it arrives transposed
+layout (location = 4) in mat4 m_ModelRows;
+
+out vec2 pass_textureCoord;
+out vec3 pass_surfaceNormal;
+out vec3 pass_worldPosition;
+out vec3 pass_toCameraVector;
+
+uniform mat4 m_ViewProjection;
+
+uniform vec3 cameraPosition;
+
+void main(void){
+
+	mat4 m_Model = transpose(m_ModelRows);
+
+	pass_worldPosition = (m_Model * vec4(position, 1.0)).xyz;
+	gl_Position = m_ViewProjection * vec4(pass_worldPosition, 1.0);
+	
+	pass_textureCoord = textureCoord;
+	pass_surfaceNormal = mat3(transpose(inverse(m_Model))) * normal;
+	pass_toCameraVector = normalize(cameraPosition - pass_worldPosition);
+}
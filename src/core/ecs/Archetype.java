@@ -0,0 +1,141 @@
+package core.ecs;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * <h1>Archetype Class</h1>
+ * <p>
+ * The set of every entity that has exactly the same component types. The
+ * entities are packed into chunks with no gaps, an entity removed from the
+ * middle is replaced by the last entity of the archetype, so every chunk but the
+ * last is always full.
+ *
+ * @author Graham
+ * @version 2.0.0
+ * @since 2026-10-18
+ */
+public class Archetype {
+
+	private final long mask;
+	private final ComponentType[] types;
+	// the column index of each component type id, -1 for types not in this archetype
+	private final int[] columns;
+
+	private final List<Chunk> chunks;
+	private int size;
+
+	Archetype(long mask, ComponentType[] types) {
+		this.mask = mask;
+		this.types = types;
+
+		columns = new int[ComponentType.MAX_TYPES];
+		Arrays.fill(columns, -1);
+		for(int i = 0; i < types.length; i++)
+			columns[types[i].getId()] = i;
+
+		chunks = new ArrayList<Chunk>();
+	}
+
+	/**
+	 * adds an entity to the end of this archetype, its component values are zero
+	 *
+	 * @return The row of the entity within the archetype
+	 */
+	int add(int entity) {
+		int chunk = size / Chunk.CAPACITY;
+		if(chunk == chunks.size())
+			chunks.add(new Chunk(this));
+
+		chunks.get(chunk).add(entity);
+		return size++;
+	}
+
+	/**
+	 * removes the entity in a row by moving the last entity of this archetype into
+	 * its place
+	 *
+	 * @param row The row of the entity to remove
+	 *
+	 * @return The id of the entity moved into the row, or -1 if the removed entity was the last
+	 */
+	int remove(int row) {
+		int last = size - 1;
+		Chunk lastChunk = chunks.get(last / Chunk.CAPACITY);
+		int moved = -1;
+
+		if(row != last) {
+			copyRow(this, last, row);
+			moved = lastChunk.getEntity(last % Chunk.CAPACITY);
+			getChunk(row).getEntities()[row % Chunk.CAPACITY] = moved;
+		}
+
+		lastChunk.removeLast();
+		size--;
+		return moved;
+	}
+
+	/**
+	 * copies the values of every component this archetype shares with another from
+	 * a row of the other archetype into a row of this one
+	 */
+	void copyRow(Archetype from, int fromRow, int toRow) {
+		Chunk source = from.getChunk(fromRow);
+		Chunk dest = getChunk(toRow);
+		int s = fromRow % Chunk.CAPACITY;
+		int d = toRow % Chunk.CAPACITY;
+
+		for(int i = 0; i < types.length; i++) {
+			int column = from.columns[types[i].getId()];
+			if(column < 0)
+				continue;
+
+			int width = types[i].getWidth();
+			System.arraycopy(source.getColumn(column), s * width, dest.getColumn(i), d * width, width);
+		}
+	}
+
+	/**
+	 * @return The chunk holding a row of this archetype
+	 */
+	Chunk getChunk(int row) {
+		return chunks.get(row / Chunk.CAPACITY);
+	}
+
+	/**
+	 * @return The column index of a component type in this archetypes chunks
+	 */
+	int getColumn(ComponentType type) {
+		int column = columns[type.getId()];
+		if(column < 0)
+			throw new IllegalArgumentException("Component " + type + " is not part of this archetype");
+		return column;
+	}
+
+	/**
+	 * @return True if this archetype has every component type in the mask
+	 */
+	public boolean matches(long required) {
+		return (mask & required) == required;
+	}
+
+	public long getMask() {
+		return mask;
+	}
+
+	public ComponentType[] getTypes() {
+		return types;
+	}
+
+	/**
+	 * @return The chunks of this archetype, all full except possibly the last
+	 */
+	public List<Chunk> getChunks() {
+		return chunks;
+	}
+
+	public int size() {
+		return size;
+	}
+}
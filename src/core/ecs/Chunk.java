@@ -0,0 +1,105 @@
+package core.ecs;
+
+import java.util.Arrays;
+
+/**
+ * <h1>Chunk Class</h1>
+ * <p>
+ * A fixed size block of entities that all share one archetype. Each component
+ * of the archetype is stored as its own packed column, component values of the
+ * entity in row r start at index r * width of the column, so a system walks the
+ * columns it needs in order without touching anything else.
+ *
+ * @author Graham
+ * @version 2.0.0
+ * @since 2026-10-18
+ */
+public class Chunk {
+
+	public static final int CAPACITY = 1024;
+
+	private final Archetype archetype;
+	private final int[] entities;
+	private final Object[] columns;
+	private int size;
+
+	Chunk(Archetype archetype) {
+		this.archetype = archetype;
+		entities = new int[CAPACITY];
+
+		ComponentType[] types = archetype.getTypes();
+		columns = new Object[types.length];
+		for(int i = 0; i < types.length; i++)
+			columns[i] = types[i].createColumn(CAPACITY);
+	}
+
+	/**
+	 * returns the float column of a component
+	 *
+	 * @param type A float component of this chunks archetype
+	 *
+	 * @return The packed column of the component, only the first size() entries are in use
+	 */
+	public float[] getFloats(ComponentType type) {
+		return (float[]) columns[archetype.getColumn(type)];
+	}
+
+	/**
+	 * returns the int column of a component
+	 *
+	 * @param type An int component of this chunks archetype
+	 *
+	 * @return The packed column of the component, only the first size() entries are in use
+	 */
+	public int[] getInts(ComponentType type) {
+		return (int[]) columns[archetype.getColumn(type)];
+	}
+
+	/**
+	 * @return The id of the entity in a row of this chunk
+	 */
+	public int getEntity(int row) {
+		return entities[row];
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public Archetype getArchetype() {
+		return archetype;
+	}
+
+	/**
+	 * adds an entity to the end of this chunk, its component values are zero
+	 *
+	 * @return The row of the entity
+	 */
+	int add(int entity) {
+		int row = size++;
+		entities[row] = entity;
+		for(int i = 0; i < columns.length; i++) {
+			int width = archetype.getTypes()[i].getWidth();
+			if(columns[i] instanceof float[])
+				Arrays.fill((float[]) columns[i], row * width, (row + 1) * width, 0);
+			else
+				Arrays.fill((int[]) columns[i], row * width, (row + 1) * width, 0);
+		}
+		return row;
+	}
+
+	/**
+	 * removes the last entity of this chunk
+	 */
+	void removeLast() {
+		size--;
+	}
+
+	int[] getEntities() {
+		return entities;
+	}
+
+	Object getColumn(int index) {
+		return columns[index];
+	}
+}
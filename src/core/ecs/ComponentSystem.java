@@ -0,0 +1,48 @@
+package core.ecs;
+
+/**
+ * <h1>ComponentSystem Class</h1>
+ * <p>
+ * The logic half of the entity component system. A system names the component
+ * types it needs and is handed every chunk whose archetype has all of them, one
+ * chunk at a time, each update of the world.
+ *
+ * @author Graham
+ * @version 2.0.0
+ * @since 2026-10-18
+ */
+public abstract class ComponentSystem {
+
+	private final long mask;
+
+	/**
+	 * @param required The component types an entity must have to be updated by this system
+	 */
+	protected ComponentSystem(ComponentType... required) {
+		long mask = 0;
+		for(ComponentType type : required)
+			mask |= type.getBit();
+		this.mask = mask;
+	}
+
+	/**
+	 * updates every entity in a chunk. Entities must not be created, destroyed or
+	 * have components added or removed while a system runs, use World.destroyLater
+	 * instead
+	 *
+	 * @param chunk A chunk with every required component
+	 * @param delta The time since the last update in seconds
+	 */
+	public abstract void update(Chunk chunk, float delta);
+
+	/**
+	 * @return True if this system only touches the chunk it is given, so several chunks can be updated at once on the job system. False by default
+	 */
+	public boolean isParallel() {
+		return false;
+	}
+
+	public long getMask() {
+		return mask;
+	}
+}
@@ -0,0 +1,105 @@
+package core.ecs;
+
+/**
+ * <h1>ComponentType Class</h1>
+ * <p>
+ * Describes one kind of component in the entity component system. A component
+ * is plain data, a fixed number of floats or ints per entity, and is stored in a
+ * packed primitive column in every chunk of every archetype that has it. Each
+ * type is given a unique id between 0 and MAX_TYPES - 1, used as its bit in an
+ * archetype mask.
+ *
+ * @author Graham
+ * @version 2.0.0
+ * @since 2026-10-18
+ */
+public class ComponentType {
+
+	// archetypes are identified by a long bit mask, one bit per component type
+	public static final int MAX_TYPES = 64;
+
+	private static int nextId = 0;
+	private static final ComponentType[] types = new ComponentType[MAX_TYPES];
+
+	private final int id;
+	private final String name;
+	private final int width;
+	private final boolean ints;
+
+	private ComponentType(String name, int width, boolean ints) {
+		if(nextId == MAX_TYPES)
+			throw new IllegalStateException("Cannot create more than " + MAX_TYPES + " component types");
+		if(width < 1)
+			throw new IllegalArgumentException("A component must hold at least one value");
+
+		this.id = nextId++;
+		this.name = name;
+		this.width = width;
+		this.ints = ints;
+		types[id] = this;
+	}
+
+	/**
+	 * creates a component type made of floats
+	 *
+	 * @param name The name of the component, used when printing
+	 * @param width The amount of floats each entity has of this component
+	 *
+	 * @return The new component type
+	 */
+	public static synchronized ComponentType floats(String name, int width) {
+		return new ComponentType(name, width, false);
+	}
+
+	/**
+	 * creates a component type made of ints
+	 *
+	 * @param name The name of the component, used when printing
+	 * @param width The amount of ints each entity has of this component
+	 *
+	 * @return The new component type
+	 */
+	public static synchronized ComponentType ints(String name, int width) {
+		return new ComponentType(name, width, true);
+	}
+
+	/**
+	 * @return The component type with an id, or null if no type has that id yet
+	 */
+	static ComponentType get(int id) {
+		return types[id];
+	}
+
+	/**
+	 * creates an empty column able to hold this component for the specified
+	 * amount of entities
+	 */
+	Object createColumn(int capacity) {
+		return ints ? new int[capacity * width] : new float[capacity * width];
+	}
+
+	public int getId() {
+		return id;
+	}
+
+	public long getBit() {
+		return 1L << id;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public int getWidth() {
+		return width;
+	}
+
+	public boolean isInts() {
+		return ints;
+	}
+
+	@Override
+	public String toString() {
+		return name;
+	}
+}
@@ -0,0 +1,25 @@
+package core.ecs;
+
+/**
+ * <h1>Components Class</h1>
+ * <p>
+ * The component types built into the engine. Games can create their own with
+ * ComponentType.floats and ComponentType.ints, up to ComponentType.MAX_TYPES in
+ * total.
+ *
+ * @author Graham
+ * @version 2.0.0
+ * @since 2026-10-18
+ */
+public class Components {
+
+	// x, y, z world position
+	public static final ComponentType POSITION = ComponentType.floats("Position", 3);
+	// x, y, z world units per second
+	public static final ComponentType VELOCITY = ComponentType.floats("Velocity", 3);
+	// handle of a transform in the TransformStore, rendered objects copy their position into it
+	public static final ComponentType TRANSFORM = ComponentType.ints("Transform", 1);
+
+	private Components() {
+	}
+}
@@ -0,0 +1,32 @@
+package core.ecs;
+
+/**
+ * <h1>MovementSystem Class</h1>
+ * <p>
+ * Moves every entity with a position and a velocity by its velocity each update.
+ *
+ * @author Graham
+ * @version 2.0.0
+ * @since 2026-10-18
+ */
+public class MovementSystem extends ComponentSystem {
+
+	public MovementSystem() {
+		super(Components.POSITION, Components.VELOCITY);
+	}
+
+	@Override
+	public void update(Chunk chunk, float delta) {
+		float[] positions = chunk.getFloats(Components.POSITION);
+		float[] velocities = chunk.getFloats(Components.VELOCITY);
+
+		int count = chunk.size() * 3;
+		for(int i = 0; i < count; i++)
+			positions[i] += velocities[i] * delta;
+	}
+
+	@Override
+	public boolean isParallel() {
+		return true;
+	}
+}
@@ -0,0 +1,42 @@
+package core.ecs;
+
+import core.maths.TransformStore;
+
+/**
+ * <h1>TransformSystem Class</h1>
+ * <p>
+ * Copies the position of every entity that is linked to a transform into the
+ * TransformStore, so entities moved by systems are drawn where they are. The
+ * store only marks a transform dirty if its translation actually changed.
+ *
+ * @author Graham
+ * @version 2.0.0
+ * @since 2026-10-18
+ */
+public class TransformSystem extends ComponentSystem {
+
+	private final TransformStore store;
+
+	public TransformSystem() {
+		this(TransformStore.getInstance());
+	}
+
+	public TransformSystem(TransformStore store) {
+		super(Components.POSITION, Components.TRANSFORM);
+		this.store = store;
+	}
+
+	@Override
+	public void update(Chunk chunk, float delta) {
+		float[] positions = chunk.getFloats(Components.POSITION);
+		int[] handles = chunk.getInts(Components.TRANSFORM);
+
+		for(int i = 0; i < chunk.size(); i++)
+			store.setTranslation(handles[i], positions[i * 3], positions[i * 3 + 1], positions[i * 3 + 2]);
+	}
+
+	@Override
+	public boolean isParallel() {
+		return true;
+	}
+}
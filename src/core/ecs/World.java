@@ -0,0 +1,347 @@
+package core.ecs;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+import core.kernel.JobSystem;
+import core.utils.IntList;
+
+/**
+ * <h1>World Class</h1>
+ * <p>
+ * The entity component system of the engine, living alongside the Node
+ * hierarchy for scenes with more objects than the hierarchy can update each
+ * frame. Entities are generation tagged int ids, the low INDEX_BITS bits are the
+ * index of the entity and the bits above are its generation, which changes every
+ * time the index is reused so an id kept after its entity is destroyed never
+ * refers to a new entity.
+ * <p>
+ * Entities are grouped by the exact set of components they have into
+ * archetypes, which store the component data in packed chunks. Systems are run
+ * over the chunks of every archetype that has the components they need.
+ *
+ * @author Graham
+ * @version 2.0.0
+ * @since 2026-10-18
+ */
+public class World {
+
+	public static final int INDEX_BITS = 22;
+	public static final int MAX_ENTITIES = 1 << INDEX_BITS;
+	private static final int INDEX_MASK = MAX_ENTITIES - 1;
+	// kept below the sign bit so every id is positive and -1 can mean no entity
+	private static final int GENERATION_MASK = (1 << (31 - INDEX_BITS)) - 1;
+
+	// engine only runs one world, so the class is a single instance class
+	private static World instance = null;
+
+	// indexed by entity index
+	private int[] generations;
+	private Archetype[] archetypeOf;
+	private int[] rows;
+	private int entityCount;
+	private int nextIndex;
+	private int[] freeIndices;
+	private int freeCount;
+
+	private HashMap<Long, Archetype> archetypes;
+	private List<Archetype> archetypeList;
+	private List<ComponentSystem> systems;
+	// the chunks the system being run is updating, reused between runs
+	private List<Chunk> matching;
+
+	private IntList pendingDestroy;
+	private boolean updating;
+
+	/**
+	 * returns the current instance of the world, or if none exists, it creates a
+	 * new current instance before returning it
+	 *
+	 * @return the current instance of the world
+	 */
+	public static World getInstance() {
+		if(instance == null)
+			instance = new World();
+		return instance;
+	}
+
+	public World() {
+		generations = new int[256];
+		archetypeOf = new Archetype[256];
+		rows = new int[256];
+		freeIndices = new int[16];
+
+		archetypes = new HashMap<Long, Archetype>();
+		archetypeList = new ArrayList<Archetype>();
+		systems = new ArrayList<ComponentSystem>();
+		matching = new ArrayList<Chunk>();
+		pendingDestroy = new IntList();
+	}
+
+	/**
+	 * creates an entity with the passed in components, all set to zero
+	 *
+	 * @param types The components of the new entity
+	 *
+	 * @return The id of the new entity
+	 */
+	public int create(ComponentType... types) {
+		checkNotUpdating();
+
+		int index;
+		if(freeCount > 0) {
+			index = freeIndices[--freeCount];
+		}else {
+			if(nextIndex == MAX_ENTITIES)
+				throw new IllegalStateException("Cannot create more than " + MAX_ENTITIES + " entities");
+			if(nextIndex == generations.length) {
+				int capacity = Math.min(MAX_ENTITIES, nextIndex * 2);
+				generations = Arrays.copyOf(generations, capacity);
+				archetypeOf = Arrays.copyOf(archetypeOf, capacity);
+				rows = Arrays.copyOf(rows, capacity);
+			}
+			index = nextIndex++;
+		}
+
+		long mask = 0;
+		for(ComponentType type : types)
+			mask |= type.getBit();
+
+		int entity = (generations[index] << INDEX_BITS) | index;
+		Archetype archetype = getArchetype(mask);
+		archetypeOf[index] = archetype;
+		rows[index] = archetype.add(entity);
+		entityCount++;
+
+		return entity;
+	}
+
+	/**
+	 * destroys an entity, its id and any copies of it are no longer alive
+	 *
+	 * @param entity The id of the entity to destroy
+	 */
+	public void destroy(int entity) {
+		checkNotUpdating();
+		int index = checkAlive(entity);
+
+		removeFromArchetype(index);
+		archetypeOf[index] = null;
+		generations[index] = (generations[index] + 1) & GENERATION_MASK;
+		entityCount--;
+
+		if(freeCount == freeIndices.length)
+			freeIndices = Arrays.copyOf(freeIndices, freeCount * 2);
+		freeIndices[freeCount++] = index;
+	}
+
+	/**
+	 * destroys an entity once the current update has finished, safe to call from
+	 * within a system
+	 *
+	 * @param entity The id of the entity to destroy
+	 */
+	public void destroyLater(int entity) {
+		if(updating)
+			pendingDestroy.add(entity);
+		else
+			destroy(entity);
+	}
+
+	/**
+	 * @return True if the entity has not been destroyed
+	 */
+	public boolean isAlive(int entity) {
+		int index = entity & INDEX_MASK;
+		return entity >= 0 && index < nextIndex && archetypeOf[index] != null
+				&& generations[index] == entity >>> INDEX_BITS;
+	}
+
+	/**
+	 * adds a component to an entity, moving it to the archetype with its new set of
+	 * components. The new component is set to zero, the rest keep their values
+	 */
+	public void addComponent(int entity, ComponentType type) {
+		int index = checkAlive(entity);
+		Archetype from = archetypeOf[index];
+		if((from.getMask() & type.getBit()) == 0)
+			move(index, getArchetype(from.getMask() | type.getBit()));
+	}
+
+	/**
+	 * removes a component from an entity, moving it to the archetype with its new
+	 * set of components. The rest of its components keep their values
+	 */
+	public void removeComponent(int entity, ComponentType type) {
+		int index = checkAlive(entity);
+		Archetype from = archetypeOf[index];
+		if((from.getMask() & type.getBit()) != 0)
+			move(index, getArchetype(from.getMask() & ~type.getBit()));
+	}
+
+	public boolean hasComponent(int entity, ComponentType type) {
+		return (archetypeOf[checkAlive(entity)].getMask() & type.getBit()) != 0;
+	}
+
+	public float getFloat(int entity, ComponentType type, int element) {
+		int index = checkAlive(entity);
+		int row = rows[index];
+		return archetypeOf[index].getChunk(row).getFloats(type)[(row % Chunk.CAPACITY) * type.getWidth() + element];
+	}
+
+	public void setFloat(int entity, ComponentType type, int element, float value) {
+		int index = checkAlive(entity);
+		int row = rows[index];
+		archetypeOf[index].getChunk(row).getFloats(type)[(row % Chunk.CAPACITY) * type.getWidth() + element] = value;
+	}
+
+	public int getInt(int entity, ComponentType type, int element) {
+		int index = checkAlive(entity);
+		int row = rows[index];
+		return archetypeOf[index].getChunk(row).getInts(type)[(row % Chunk.CAPACITY) * type.getWidth() + element];
+	}
+
+	public void setInt(int entity, ComponentType type, int element, int value) {
+		int index = checkAlive(entity);
+		int row = rows[index];
+		archetypeOf[index].getChunk(row).getInts(type)[(row % Chunk.CAPACITY) * type.getWidth() + element] = value;
+	}
+
+	/**
+	 * adds a system to be run every update, systems run in the order they are
+	 * added
+	 */
+	public void addSystem(ComponentSystem system) {
+		systems.add(system);
+	}
+
+	public void removeSystem(ComponentSystem system) {
+		systems.remove(system);
+	}
+
+	/**
+	 * runs every system over every chunk with the components it needs, then
+	 * destroys any entity passed to destroyLater during the update
+	 *
+	 * @param delta The time since the last update in seconds
+	 */
+	public void update(float delta) {
+		updating = true;
+		try {
+			for(int i = 0; i < systems.size(); i++)
+				run(systems.get(i), delta);
+		} finally {
+			updating = false;
+		}
+
+		for(int i = 0; i < pendingDestroy.size(); i++)
+			if(isAlive(pendingDestroy.get(i)))
+				destroy(pendingDestroy.get(i));
+		pendingDestroy.clear();
+	}
+
+	/**
+	 * runs a single system over every chunk with the components it needs. The
+	 * chunks of a parallel system are spread over the job system
+	 */
+	public void run(ComponentSystem system, float delta) {
+		long mask = system.getMask();
+
+		matching.clear();
+		for(int i = 0; i < archetypeList.size(); i++) {
+			Archetype archetype = archetypeList.get(i);
+			if(archetype.size() == 0 || !archetype.matches(mask))
+				continue;
+
+			List<Chunk> chunks = archetype.getChunks();
+			for(int j = 0; j < chunks.size(); j++)
+				if(chunks.get(j).size() > 0)
+					matching.add(chunks.get(j));
+		}
+
+		if(system.isParallel() && matching.size() > 1) {
+			JobSystem.getInstance().parallelFor(0, matching.size(), 1, (from, to) -> {
+				for(int i = from; i < to; i++)
+					system.update(matching.get(i), delta);
+			});
+		}else {
+			for(int i = 0; i < matching.size(); i++)
+				system.update(matching.get(i), delta);
+		}
+	}
+
+	/**
+	 * returns the archetype with exactly the component types in a mask, creating
+	 * it if it does not exist yet
+	 */
+	private Archetype getArchetype(long mask) {
+		Archetype archetype = archetypes.get(mask);
+		if(archetype != null)
+			return archetype;
+
+		List<ComponentType> types = new ArrayList<ComponentType>();
+		for(int id = 0; id < ComponentType.MAX_TYPES; id++)
+			if((mask & (1L << id)) != 0)
+				types.add(ComponentType.get(id));
+
+		archetype = new Archetype(mask, types.toArray(new ComponentType[types.size()]));
+		archetypes.put(mask, archetype);
+		archetypeList.add(archetype);
+		return archetype;
+	}
+
+	private void move(int index, Archetype to) {
+		checkNotUpdating();
+
+		Archetype from = archetypeOf[index];
+		int fromRow = rows[index];
+
+		int toRow = to.add(from.getChunk(fromRow).getEntity(fromRow % Chunk.CAPACITY));
+		to.copyRow(from, fromRow, toRow);
+
+		removeFromArchetype(index);
+		archetypeOf[index] = to;
+		rows[index] = toRow;
+	}
+
+	/**
+	 * removes an entity from its archetype, updating the row of the entity moved
+	 * into its place
+	 */
+	private void removeFromArchetype(int index) {
+		int moved = archetypeOf[index].remove(rows[index]);
+		if(moved >= 0)
+			rows[moved & INDEX_MASK] = rows[index];
+	}
+
+	private int checkAlive(int entity) {
+		if(!isAlive(entity))
+			throw new IllegalArgumentException("Entity " + entity + " is not alive");
+		return entity & INDEX_MASK;
+	}
+
+	private void checkNotUpdating() {
+		if(updating)
+			throw new IllegalStateException("Entities cannot be created or changed while systems are running");
+	}
+
+	/**
+	 * @return The amount of living entities
+	 */
+	public int getEntityCount() {
+		return entityCount;
+	}
+
+	public List<Archetype> getArchetypes() {
+		return archetypeList;
+	}
+
+	/**
+	 * destroys the current world, to be called when the engine is shutting down
+	 */
+	public static void cleanUp() {
+		instance = null;
+	}
+}
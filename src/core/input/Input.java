@@ -6,6 +6,7 @@ import org.lwjgl.input.Mouse;
 import org.lwjgl.opengl.Display;
 
 import core.maths.vector.Vector2f;
+import core.utils.logging.Logger;
 
 /**
  * <h1>Input Class</h1>
@@ -20,6 +21,8 @@ import core.maths.vector.Vector2f;
  */
 public class Input {
 
+	private static final Logger log = Logger.getLogger(Input.class);
+
 	public static final int MAX_KEYCODES = 256;
 	public static final int MAX_MOUSECODES = 8;
 
@@ -43,6 +46,18 @@ public class Input {
 
 	private float scrollOffset;
 
+	// device state for the current update, read either from the devices or the samples
+	private boolean[] downKeys = new boolean[MAX_KEYCODES];
+	private boolean[] downButtons = new boolean[MAX_MOUSECODES];
+
+	// gathered by sample on the window thread until the next update
+	private boolean sampledExternally;
+	private boolean[] sampledKeys = new boolean[MAX_KEYCODES];
+	private boolean[] sampledButtons = new boolean[MAX_MOUSECODES];
+	private float sampledScroll;
+	private float sampledCursorX, sampledCursorY;
+	private boolean hasSample;
+
 	/**
 	 * Returns the instance of the Input class and creates one if one did not
 	 * previously exist
@@ -63,59 +78,107 @@ public class Input {
 		try {
 			Keyboard.create();
 		} catch (LWJGLException e) {
-			System.err.println("Could not initialize keyboard interfacing");
-			e.printStackTrace();
+			log.error("Could not initialize keyboard interfacing", e);
 			System.exit(1);
 		}
 
 		try {
 			Mouse.create();
 		} catch (LWJGLException e) {
-			System.err.println("Could not initialize mosue interfacing");
-			e.printStackTrace();
+			log.error("Could not initialize mosue interfacing", e);
 			System.exit(1);
 		}
 	}
 
 	/**
 	 * Updates the lists of all pressed, released, and held buttons for both the
-	 * keyboard and mouse as well as updating the scroll wheel offset
+	 * keyboard and mouse as well as updating the scroll wheel offset. When input
+	 * is sampled externally the state is taken from the samples gathered since
+	 * the last update instead of from the devices
 	 */
 	public void update() {
-
-		for (int i = 0; i < releasedKeys.length; i++) {
-			releasedKeys[i] = false;
-			if (!key(i) && currentKeys[i])
-				releasedKeys[i] = true;
+		if(sampledExternally) {
+			synchronized(this) {
+				if(!hasSample) {
+					// nothing was sampled since the last update, so every key is held as it was
+					clear(pressedKeys);
+					clear(releasedKeys);
+					clear(pressedButtons);
+					clear(releasedButtons);
+					scrollOffset = 0;
+					return;
+				}
+
+				System.arraycopy(sampledKeys, 0, downKeys, 0, MAX_KEYCODES);
+				System.arraycopy(sampledButtons, 0, downButtons, 0, MAX_MOUSECODES);
+				scrollOffset = sampledScroll;
+				cursorPosition.set(sampledCursorX, sampledCursorY);
+
+				clear(sampledKeys);
+				clear(sampledButtons);
+				sampledScroll = 0;
+				hasSample = false;
+			}
+		}else {
+			for(int i = 0; i < MAX_KEYCODES; i++)
+				downKeys[i] = key(i);
+			for(int i = 0; i < MAX_MOUSECODES; i++)
+				downButtons[i] = mouse(i);
+			scrollOffset = Mouse.getDWheel();
+			cursorPosition.set(Mouse.getX(), Mouse.getY());
 		}
 
-		for (int i = 0; i < pressedKeys.length; i++) {
-			pressedKeys[i] = false;
-			if (key(i) && !currentKeys[i])
-				pressedKeys[i] = true;
-		}
+		for(int i = 0; i < releasedKeys.length; i++)
+			releasedKeys[i] = !downKeys[i] && currentKeys[i];
 
-		for (int i = 0; i < currentKeys.length; i++) {
-			currentKeys[i] = false;
-			if (key(i))
-				currentKeys[i] = true;
-		}
+		for(int i = 0; i < pressedKeys.length; i++)
+			pressedKeys[i] = downKeys[i] && !currentKeys[i];
 
-		for (int i = 0; i < releasedButtons.length; i++) {
-			releasedButtons[i] = false;
-			if (!mouse(i) && currentButtons[i])
-				releasedButtons[i] = true;
-		}
+		for(int i = 0; i < currentKeys.length; i++)
+			currentKeys[i] = downKeys[i];
 
-		for (int i = 0; i < pressedButtons.length; i++) {
-			pressedButtons[i] = false;
-			if (mouse(i) && !currentButtons[i])
-				pressedButtons[i] = true;
-		}
+		for(int i = 0; i < releasedButtons.length; i++)
+			releasedButtons[i] = !downButtons[i] && currentButtons[i];
+
+		for(int i = 0; i < pressedButtons.length; i++)
+			pressedButtons[i] = downButtons[i] && !currentButtons[i];
 		
 		//TODO: loop for current buttons
+	}
+
+	/**
+	 * Samples the keyboard and mouse for the next call to update, for when update
+	 * is called on a different thread to the one that owns the window. A key held
+	 * during any sample since the last update counts as held, so short presses
+	 * between updates are not lost. Must be called on the thread that owns the
+	 * window
+	 */
+	public synchronized void sample() {
+		for(int i = 0; i < MAX_KEYCODES; i++)
+			if(key(i))
+				sampledKeys[i] = true;
+
+		for(int i = 0; i < MAX_MOUSECODES; i++)
+			if(mouse(i))
+				sampledButtons[i] = true;
+
+		sampledScroll += Mouse.getDWheel();
+		sampledCursorX = Mouse.getX();
+		sampledCursorY = Mouse.getY();
+		hasSample = true;
+	}
+
+	/**
+	 * Sets whether update reads the devices itself, or uses the samples taken by
+	 * the sample method
+	 */
+	public void setSampledExternally(boolean sampledExternally) {
+		this.sampledExternally = sampledExternally;
+	}
 
-		scrollOffset = Mouse.getDWheel();
+	private static void clear(boolean[] values) {
+		for(int i = 0; i < values.length; i++)
+			values[i] = false;
 	}
 
 	private boolean key(int keyCode) {
@@ -232,7 +295,7 @@ public class Input {
 	 *            The vector representing the x,y position of the cursor
 	 */
 	public void setCursorPosition(Vector2f position) {
-		this.cursorPosition = position;
+		cursorPosition.set(position);
 		Mouse.setCursorPosition((int) position.getX(), (int) position.getY());
 	}
 
@@ -310,7 +373,8 @@ public class Input {
 	}
 
 	/**
-	 * Gets the position of the mouse cursor relative to the OpenGL window origin
+	 * Gets the position of the mouse cursor relative to the OpenGL window origin,
+	 * the bottom left corner, as of the last update
 	 * 
 	 * @return The vector representing the x,y position of the cursor
 	 */
@@ -2,6 +2,7 @@ package core.kernel;
 
 import core.input.Input;
 import core.input.Keys;
+import core.maths.Frustum;
 import core.maths.Quaternion;
 import core.maths.matrix.Matrix4f;
 import core.maths.vector.Vector3f;
@@ -36,8 +37,16 @@ public class Camera {
 	private Matrix4f viewMatrix, projectionMatrix, viewProjectionMatrix;
 	private Matrix4f previousViewMatrix, previousViewProjectionMatrix;
 	
+	// scratch values for update, so a frame of camera movement allocates nothing
+	private Vector3f direction = new Vector3f(), hAxis = new Vector3f(), inversePosition = new Vector3f();
+	private Matrix4f viewRotation = new Matrix4f(), viewTranslation = new Matrix4f();
+	
 	private boolean camMoved, camRotated;
 	
+	// incremented whenever the view projection matrix changes, so cached matrices built from it know to update
+	private int viewProjectionVersion;
+	private boolean projectionChanged;
+	
 	private float width, height, fovY;
 	
 	private float rotYstride, rotYamt, rotYcounter;
@@ -46,7 +55,9 @@ public class Camera {
 	
 	private float mouseSensitivity = 0.8f;
 	
-	private Quaternion[] frustumPlanes = new Quaternion[8];
+	// extracted from the view projection matrix every update, the planes and corners are copies of it
+	private Frustum frustum = new Frustum();
+	private Quaternion[] frustumPlanes = new Quaternion[Frustum.PLANES];
 	private Vector3f[] frustumCorners=  new Vector3f[8];
 	
 	/**
@@ -65,18 +76,27 @@ public class Camera {
 	 */
 	protected Camera() {
 		setPosition(new Vector3f(0,0,0));
-		setForward(zAxis);
-		setUp(yAxis);
+		//copies, as the camera rotates its forward and up vectors in place
+		setForward(new Vector3f(zAxis));
+		setUp(new Vector3f(yAxis));
+		
+		previousPosition = new Vector3f(position);
+		previousForward = new Vector3f(forward);
 		
 		setProjection(70, Window.getInstance().getWidth(), Window.getInstance().getHeight());
 		
-		setViewMatrix(new Matrix4f().setView(forward, up).mul(new Matrix4f().setTranslation(position.mul(-1))));
+		setViewMatrix(new Matrix4f());
+		updateViewMatrix();
 		
 		setViewProjectionMatrix(new Matrix4f().setZero());
 		
 		previousViewMatrix = new Matrix4f().setZero();
 		previousViewProjectionMatrix = new Matrix4f().setZero();
 		
+		for(int i = 0; i < frustumPlanes.length; i++)
+			frustumPlanes[i] = new Quaternion(0,0,0,0);
+		for(int i = 0; i < frustumCorners.length; i++)
+			frustumCorners[i] = new Vector3f();
 	}
 	
 	/**
@@ -84,8 +104,8 @@ public class Camera {
 	 * and changes the view matrix accordingly
 	 */
 	public void update() {
-		previousPosition = new Vector3f(position);
-		previousForward = new Vector3f(forward);
+		previousPosition.set(position);
+		previousForward.set(forward);
 		
 		camMoved = false;
 		camRotated = false;
@@ -100,9 +120,9 @@ public class Camera {
 		if(Input.getInstance().getKey(Keys.KEY_S))
 			move(getForward(), -moveAmt);
 		if(Input.getInstance().getKey(Keys.KEY_A))
-			move(getLeft(), moveAmt);
+			move(forward.cross(up, direction).normalize(), moveAmt);
 		if(Input.getInstance().getKey(Keys.KEY_D))
-			move(getRight(), moveAmt);
+			move(up.cross(forward, direction).normalize(), moveAmt);
 		
 		if(Input.getInstance().getKey(Keys.KEY_UP))
 			rotateX(-rotAmt/8f);
@@ -123,11 +143,44 @@ public class Camera {
 		if(!forward.equals(previousForward))
 			camRotated = true;
 		
+		//the current and previous matrices swap places, and the new current ones are
+		//calculated in place over the matrices from two frames ago
+		Matrix4f swap = previousViewMatrix;
 		previousViewMatrix = viewMatrix;
+		viewMatrix = swap;
+		
+		swap = previousViewProjectionMatrix;
 		previousViewProjectionMatrix = viewProjectionMatrix;
+		viewProjectionMatrix = swap;
+		
+		updateViewMatrix();
+		projectionMatrix.mul(viewMatrix, viewProjectionMatrix);
+		updateFrustum();
 		
-		setViewMatrix(new Matrix4f().setView(forward, up).mul(new Matrix4f().setTranslation(position.mul(-1))));
-		setViewProjectionMatrix(projectionMatrix.mul(viewMatrix));
+		if(camMoved || camRotated || projectionChanged)
+			viewProjectionVersion++;
+		projectionChanged = false;
+	}
+	
+	/**
+	 * calculates the view matrix (view rotation * inverse translation) from the
+	 * cameras current position and orientation, in place
+	 */
+	private void updateViewMatrix() {
+		viewRotation.setView(forward, up);
+		viewTranslation.setTranslation(position.mul(-1, inversePosition));
+		viewRotation.mul(viewTranslation, viewMatrix);
+	}
+	
+	/**
+	 * extracts the view frustum from the current view projection matrix, along with
+	 * its planes and corners
+	 */
+	private void updateFrustum() {
+		frustum.extract(viewProjectionMatrix);
+		for(int i = 0; i < Frustum.PLANES; i++)
+			frustum.getPlane(i, frustumPlanes[i]);
+		frustum.getCorners(frustumCorners);
 	}
 	
 	/**
@@ -137,7 +190,8 @@ public class Camera {
 	 * @param amount the magnitude of the displacement
 	 */
 	public void move(Vector3f direction, float amount) {
-		setPosition(position.add(direction.mul(amount)));
+		position.set(position.getX() + direction.getX() * amount, position.getY() + direction.getY() * amount,
+				position.getZ() + direction.getZ() * amount);
 	}
 	
 	/**
@@ -145,11 +199,11 @@ public class Camera {
 	 * @param angle the angle of rotation to displace the camera by
 	 */
 	public void rotateY(float angle) {
-		Vector3f hAxis = yAxis.cross(forward).normalize();
+		yAxis.cross(forward, hAxis).normalize();
 		
 		forward.rotate(angle, yAxis).normalize();
 		
-		up = forward.cross(hAxis).normalize();
+		forward.cross(hAxis, up).normalize();
 	}
 	
 	/**
@@ -157,11 +211,11 @@ public class Camera {
 	 * @param angle the angle of rotation to displace the camera by
 	 */
 	public void rotateX(float angle) {
-		Vector3f hAxis = yAxis.cross(forward).normalize();
+		yAxis.cross(forward, hAxis).normalize();
 		
 		forward.rotate(angle, hAxis).normalize();
 		
-		up = forward.cross(hAxis).normalize();
+		forward.cross(hAxis, up).normalize();
 	}
 	
 	public Vector3f getRight() {
@@ -184,6 +238,7 @@ public class Camera {
 		this.height = height;
 		
 		this.projectionMatrix = new Matrix4f().setPerspectiveProjection(fovY, width, height, Constants.ZNEAR, Constants.ZFAR);
+		projectionChanged = true;
 	}
 
 	public Vector3f getPosition() {
@@ -224,6 +279,7 @@ public class Camera {
 
 	public void setProjectionMatrix(Matrix4f projectionMatrix) {
 		this.projectionMatrix = projectionMatrix;
+		projectionChanged = true;
 	}
 
 	public Matrix4f getViewProjectionMatrix() {
@@ -232,6 +288,15 @@ public class Camera {
 
 	public void setViewProjectionMatrix(Matrix4f viewProjectionMatrix) {
 		this.viewProjectionMatrix = viewProjectionMatrix;
+		viewProjectionVersion++;
+	}
+	
+	/**
+	 * @return The version of the view projection matrix, which changes every time
+	 *         the view projection matrix does
+	 */
+	public int getViewProjectionVersion() {
+		return viewProjectionVersion;
 	}
 
 	public boolean isCamMoved() {
@@ -274,6 +339,13 @@ public class Camera {
 		this.fovY = fovY;
 	}
 
+	/**
+	 * @return The view frustum of the last update, facing inwards
+	 */
+	public Frustum getFrustum() {
+		return frustum;
+	}
+
 	public Quaternion[] getFrustumPlanes() {
 		return frustumPlanes;
 	}
@@ -5,10 +5,21 @@ import org.lwjgl.opengl.GL31;
 import org.lwjgl.opengl.GL40;
 import org.lwjgl.opengl.GL43;
 
+import core.ecs.MovementSystem;
+import core.ecs.TransformSystem;
+import core.ecs.World;
 import core.input.Input;
+import core.input.Keys;
+import core.maths.TransformStore;
+import core.spatial.Picker;
+import core.spatial.SpatialIndex;
 import core.utils.Constants;
 import core.utils.RenderUtil;
+import core.utils.fileIO.ResourceManager;
+import core.utils.logging.Logger;
 import core.window.Window;
+import rendering.RenderQueue;
+import rendering.state.GLStateCache;
 
 /**
  * <h1>CoreEngine Class</h1>
@@ -24,18 +35,45 @@ import core.window.Window;
  */
 public class CoreEngine {
 
+	private static final Logger log = Logger.getLogger(CoreEngine.class);
+
 	private static int fps;
 	private static float framerate = 200;
 	private static float frameTime = 1.0f/framerate;
+	// how often a frame is drawn, independent of the update rate, zero to draw as often as possible
+	private static float displayRate = 144;
+	private static boolean threaded = false;
+	private static float interpolationAlpha = 1;
+	// the most updates run in one frame before the loop gives up on catching up
+	private static final int MAX_CATCH_UP_STEPS = 5;
+	// how many times a tick the render thread checks for a snapshot the simulation is late publishing
+	private static final int SNAPSHOT_POLLS = 8;
 	private boolean isRunning;
 	private RenderEngine renderEngine;
 	
+	private Profiler profiler;
+	private Profiler.Scope updateScope, inputScope, cameraScope, resourceScope, worldScope, sceneUpdateScope;
+	private Profiler.Scope renderScope, interpolateScope, sceneRenderScope, waitScope;
+	
 	/**
 	 * initializes any subsystems that the core engine is responsible for managing and
 	 * prints out the properties of the device the engine is running on
 	 */
 	public CoreEngine() {
 		renderEngine = new RenderEngine();
+		
+		profiler = Profiler.getInstance();
+		updateScope = profiler.createScope("Update");
+		inputScope = profiler.createScope("Input");
+		cameraScope = profiler.createScope("Camera");
+		resourceScope = profiler.createScope("Resources");
+		worldScope = profiler.createScope("World");
+		sceneUpdateScope = profiler.createScope("Scene Update");
+		renderScope = profiler.createScope("Render");
+		interpolateScope = profiler.createScope("Interpolate");
+		sceneRenderScope = profiler.createScope("Scene Render");
+		waitScope = profiler.createScope("Wait");
+		
 		getDeviceProperties();	
 	}
 	
@@ -45,6 +83,8 @@ public class CoreEngine {
 	 */
 	public void  init() {
 		RenderUtil.init();
+		World.getInstance().addSystem(new MovementSystem());
+		World.getInstance().addSystem(new TransformSystem());
 		renderEngine.init();
 	}
 	
@@ -59,80 +99,258 @@ public class CoreEngine {
 	}
 	
 	/**
-	 * method which contains the runtime loop for the engine. Handles simple timing
-	 * of engine execution to ensure everything runs smoothly as well as profiles and 
-	 * displays FPS to the terminal
+	 * method which contains the runtime loop for the engine. Updates run at a fixed
+	 * step of frameTime, catching up by at most MAX_CATCH_UP_STEPS updates a frame,
+	 * and frames are drawn at the display rate, each interpolated between the last
+	 * two updates. Between them the loop waits for whichever of the next update or
+	 * the next frame falls due first rather than sleeping a fixed amount. Also
+	 * profiles and displays FPS to the terminal
 	 */
 	private void run() {
+		if(threaded) {
+			runThreaded();
+			return;
+		}
+		
 		isRunning = true;
+		FrameClock clock = new FrameClock();
 		
 		int frames = 0;
 		long frameCounter = 0;
 		
 		long lastTime = System.nanoTime();
-		double unprocessedTime = 0;
+		long unprocessedTime = 0;
+		long nextFrame = lastTime;
 		
 		while(isRunning) {
 			if(Window.getInstance().isCloseRequested())
 				stop();
-			boolean render = false;
 			
+			long tickTime = (long) (frameTime * Constants.NANOSECOND);
+			long displayTime = getDisplayTime();
 			long startTime = System.nanoTime();
 			long passedTime = startTime - lastTime;
 			lastTime = startTime;
 			
-			unprocessedTime += passedTime / (double) Constants.NANOSECOND;
+			unprocessedTime += passedTime;
 			frameCounter += passedTime;
 			
-			while(unprocessedTime > frameTime) {
-				render = true;
-				unprocessedTime -= frameTime;
+			int steps = 0;
+			while(unprocessedTime >= tickTime) {
+				if(steps == MAX_CATCH_UP_STEPS) {
+					// too far behind to ever catch up, so the backlog is dropped instead of simulated
+					unprocessedTime %= tickTime;
+					break;
+				}
+				unprocessedTime -= tickTime;
+				steps++;
 				
 				if(Window.getInstance().isCloseRequested())
 					stop();
 				
 				update();
-				
-				if(frameCounter >= Constants.NANOSECOND) {
-					fps = frames;
-					System.out.println("fps: " + frames);
-					frames = 0;
-					frameCounter = 0;
-				}
 			}
 			
-			if(render) {
-				render();
+			// drawn whenever a frame is due, rather than only after an update, so alpha covers the whole tick
+			if(startTime - nextFrame >= 0) {
+				profiler.frame();
+				render(unprocessedTime / (float) tickTime);
 				frames++;
-			}else {
-				try {
-					Thread.sleep(10);
-				} catch (InterruptedException e) {
-					e.printStackTrace();
+				nextFrame = nextFrame(nextFrame, startTime, displayTime);
+			}
+			
+			if(frameCounter >= Constants.NANOSECOND) {
+				fps = frames;
+				log.info("fps: {}, {}, {}", frames, profiler.getSummary(), GLStateCache.getInstance().getSummary());
+				frames = 0;
+				frameCounter = 0;
+			}
+			
+			long nextTick = startTime + tickTime - unprocessedTime;
+			waitScope.begin();
+			clock.waitUntil(nextTick - nextFrame < 0 ? nextTick : nextFrame);
+			waitScope.end();
+		}
+		
+		cleanUp();
+	}
+	
+	/**
+	 * runtime loop for when the simulation runs on its own thread. This thread keeps
+	 * the window and OpenGL context, sampling input for the simulation, finishing
+	 * loaded resources and drawing the newest snapshot the simulation has published
+	 */
+	private void runThreaded() {
+		isRunning = true;
+		Input.getInstance().setSampledExternally(true);
+		
+		SimulationThread simulation = new SimulationThread(new SimulationThread.Simulation() {
+			public void update(float delta) {
+				CoreEngine.this.update();
+			}
+			
+			public void capture(FrameSnapshot snapshot, long tick) {
+				snapshot.capture(TransformStore.getInstance(), Camera.getInstance(), tick);
+				renderEngine.capture(snapshot);
+			}
+		}, frameTime);
+		simulation.start();
+		FrameClock clock = new FrameClock();
+		
+		int frames = 0;
+		long frameCounter = 0;
+		long lastTime = System.nanoTime();
+		long lastTick = -1;
+		long nextFrame = lastTime;
+		
+		while(isRunning) {
+			if(Window.getInstance().isCloseRequested())
+				stop();
+			if(simulation.getFailure() != null) {
+				log.error("Simulation thread stopped unexpectedly", simulation.getFailure());
+				stop();
+			}
+			
+			long displayTime = getDisplayTime();
+			long startTime = System.nanoTime();
+			frameCounter += startTime - lastTime;
+			lastTime = startTime;
+			
+			Input.getInstance().sample();
+			resourceScope.begin();
+			ResourceManager.getInstance().update();
+			resourceScope.end();
+			
+			if(startTime - nextFrame >= 0) {
+				FrameSnapshot snapshot = simulation.getSnapshots().acquire();
+				if(snapshot != null && snapshot.getTick() != lastTick) {
+					lastTick = snapshot.getTick();
+					profiler.frame();
+					render(snapshot);
+					frames++;
+					nextFrame = nextFrame(nextFrame, startTime, displayTime);
 				}
 			}
+			
+			if(frameCounter >= Constants.NANOSECOND) {
+				fps = frames;
+				log.info("fps: {}, {}, {}", frames, profiler.getSummary(), GLStateCache.getInstance().getSummary());
+				frames = 0;
+				frameCounter = 0;
+			}
+			
+			// a new snapshot can only be published once the simulation has run its next tick, and is
+			// only drawn once a frame is due, so the wait lasts until both
+			long nextTick = simulation.getNextTickTime();
+			long now = System.nanoTime();
+			if(nextTick - now <= 0)
+				nextTick = now + (long) (frameTime * Constants.NANOSECOND) / SNAPSHOT_POLLS;
+			waitScope.begin();
+			clock.waitUntil(nextTick - nextFrame > 0 ? nextTick : nextFrame);
+			waitScope.end();
 		}
 		
+		simulation.stop();
 		cleanUp();
 	}
 	
+	/**
+	 * @return The time between frames at the display rate in nanoseconds, zero if
+	 * frames are drawn as often as possible
+	 */
+	private static long getDisplayTime() {
+		return displayRate > 0 ? (long) (Constants.NANOSECOND / displayRate) : 0;
+	}
+	
+	/**
+	 * @return When the frame after one drawn at startTime falls due, skipping any
+	 * frames missed rather than drawing them back to back
+	 */
+	private static long nextFrame(long frame, long startTime, long displayTime) {
+		frame += displayTime;
+		return startTime - frame >= 0 ? startTime + displayTime : frame;
+	}
+	
 	/**
 	 * method to update all engine subsystems and core processes
 	 */
 	private void update() {
+		updateScope.begin();
+		TransformStore.getInstance().saveState();
+		
+		inputScope.begin();
 		Input.getInstance().update();
+		inputScope.end();
+		
+		if(Input.getInstance().isKeyPushed(Keys.KEY_F3))
+			dumpProfile();
+		
+		cameraScope.begin();
 		Camera.getInstance().update();
+		cameraScope.end();
+		
+		// when threaded the resources are finished on the render thread, which owns the context,
+		// but their callbacks change the scene so are always run here
+		resourceScope.begin();
+		if(!threaded)
+			ResourceManager.getInstance().update();
+		ResourceManager.getInstance().dispatch();
+		resourceScope.end();
+		
+		worldScope.begin();
+		World.getInstance().update(frameTime);
+		worldScope.end();
+		
+		sceneUpdateScope.begin();
 		renderEngine.update();
+		renderEngine.updateWorldTransforms();
+		sceneUpdateScope.end();
+		updateScope.end();
 	}
 	
 	/**
-	 * method to render all engine subsystems as well as last minute updates
-	 * to core processes to ensure a more accurate rendering
+	 * method to render all engine subsystems, with every moving transform drawn part
+	 * way between the last two updates
+	 * 
+	 * @param alpha How far past the last update this frame is, as a fraction of frameTime
 	 */
-	private void render() {
-		Input.getInstance().update();
-		Camera.getInstance().update();
+	private void render(float alpha) {
+		renderScope.begin();
+		interpolationAlpha = alpha;
+		// blends or recalculates every moved objects model matrix on the job workers before any are drawn
+		interpolateScope.begin();
+		TransformStore.getInstance().interpolateParallel(alpha);
+		interpolateScope.end();
+		
+		sceneRenderScope.begin();
 		renderEngine.render();
+		sceneRenderScope.end();
+		renderScope.end();
+	}
+	
+	/**
+	 * renders a snapshot published by the simulation thread, reading nothing the
+	 * simulation is still writing
+	 */
+	private void render(FrameSnapshot snapshot) {
+		renderScope.begin();
+		FrameSnapshot.setDrawing(snapshot);
+		try {
+			renderEngine.render();
+		} finally {
+			FrameSnapshot.setDrawing(null);
+			renderScope.end();
+		}
+	}
+	
+	/**
+	 * writes the profilers frame history to a Chrome trace file named after the
+	 * current time, in the working directory
+	 */
+	private void dumpProfile() {
+		String file = "profile-" + System.currentTimeMillis() + ".json";
+		if(profiler.writeChromeTrace(file))
+			log.info("Profile written to {}", file);
 	}
 	
 	private void stop() {
@@ -141,17 +359,26 @@ public class CoreEngine {
 	}
 	
 	private void cleanUp() {
+		ResourceManager.cleanUp();
+		renderEngine.shutdown();
+		World.cleanUp();
+		JobSystem.cleanUp();
+		Profiler.cleanUp();
+		RenderQueue.cleanUp();
+		SpatialIndex.cleanUp();
+		Picker.cleanUp();
+		GLStateCache.cleanUp();
 		Window.getInstance().destroyWindow();
 		System.exit(0);
 	}
 	
 	private void getDeviceProperties() {
-		System.out.println("OpenGL Version: " + GL11.glGetString(GL11.GL_VERSION));
-		System.out.println("Max Geometry Uniform Blocks: " + GL31.GL_MAX_GEOMETRY_UNIFORM_BLOCKS);
-		System.out.println("Max Geometry Shader Invocations: " + GL40.GL_MAX_GEOMETRY_SHADER_INVOCATIONS);
-		System.out.println("Max Uniform Buffer Bindings: " + GL31.GL_MAX_UNIFORM_BUFFER_BINDINGS);
-		System.out.println("Max Uniform Block Size: " + GL31.GL_MAX_UNIFORM_BLOCK_SIZE);
-		System.out.println("Max SSBO Block Size: " + GL43.GL_MAX_SHADER_STORAGE_BLOCK_SIZE);
+		log.info("OpenGL Version: {}", GL11.glGetString(GL11.GL_VERSION));
+		log.info("Max Geometry Uniform Blocks: {}", GL31.GL_MAX_GEOMETRY_UNIFORM_BLOCKS);
+		log.info("Max Geometry Shader Invocations: {}", GL40.GL_MAX_GEOMETRY_SHADER_INVOCATIONS);
+		log.info("Max Uniform Buffer Bindings: {}", GL31.GL_MAX_UNIFORM_BUFFER_BINDINGS);
+		log.info("Max Uniform Block Size: {}", GL31.GL_MAX_UNIFORM_BLOCK_SIZE);
+		log.info("Max SSBO Block Size: {}", GL43.GL_MAX_SHADER_STORAGE_BLOCK_SIZE);
 	}
 
 	public static float getFrameTime() {
@@ -162,7 +389,50 @@ public class CoreEngine {
 		return fps;
 	}
 
+	/**
+	 * sets whether the simulation runs on a thread of its own, separate from
+	 * rendering. Must be set before the engine is started. When threaded, resources
+	 * are finished on the render thread and their callbacks run on the simulation
+	 * thread in its next update
+	 * 
+	 * @param threaded True to run the simulation and rendering on separate threads
+	 */
+	public static void setThreaded(boolean threaded) {
+		CoreEngine.threaded = threaded;
+	}
+	
+	public static boolean isThreaded() {
+		return threaded;
+	}
+	
 	public static void setFramerate(float framerate) {
 		CoreEngine.framerate = framerate;
+		CoreEngine.frameTime = 1.0f/framerate;
+	}
+	
+	public static float getFramerate() {
+		return framerate;
+	}
+	
+	/**
+	 * sets how often frames are drawn, independent of how often the engine updates.
+	 * Each frame is interpolated between the last two updates
+	 * 
+	 * @param displayRate The frames to draw a second, zero to draw as often as possible
+	 */
+	public static void setDisplayRate(float displayRate) {
+		CoreEngine.displayRate = displayRate;
+	}
+	
+	public static float getDisplayRate() {
+		return displayRate;
+	}
+	
+	/**
+	 * @return How far past the last update the frame being rendered is, as a
+	 * fraction of the frame time. Always 1 when the simulation is threaded
+	 */
+	public static float getInterpolationAlpha() {
+		return interpolationAlpha;
 	}
 }
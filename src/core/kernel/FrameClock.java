@@ -0,0 +1,64 @@
+package core.kernel;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * <h1>FrameClock Class</h1>
+ * <p>
+ * Waits until a deadline far more precisely than Thread.sleep. The thread is
+ * parked for most of the wait and spins through the rest, with the length of the
+ * spin set by how late the scheduler has been waking the thread up, so as little
+ * time as possible is spent spinning while deadlines are still met.
+ *
+ * @author Graham
+ * @version 2.0.0
+ * @since 2026-10-18
+ */
+public class FrameClock {
+
+	// bounds of the time left to spin after parking, in nanoseconds
+	private static final long MIN_SLACK = 50000;
+	private static final long MAX_SLACK = 4000000;
+
+	// how late a park is expected to wake up, grows at once and shrinks slowly
+	private long slack;
+
+	public FrameClock() {
+		slack = 1000000;
+	}
+
+	/**
+	 * waits until System.nanoTime reaches the deadline, returning at once if it
+	 * already has
+	 *
+	 * @param deadline The System.nanoTime to wait until
+	 */
+	public void waitUntil(long deadline) {
+		long remaining = deadline - System.nanoTime();
+
+		while(remaining > slack) {
+			long requested = remaining - slack;
+			long parked = System.nanoTime();
+			LockSupport.parkNanos(requested);
+			long now = System.nanoTime();
+
+			long late = now - parked - requested;
+			if(late > slack)
+				slack = Math.min(MAX_SLACK, late);
+			else
+				slack = Math.max(MIN_SLACK, slack - (slack - Math.max(late, 0)) / 16);
+
+			remaining = deadline - now;
+		}
+
+		while(deadline - System.nanoTime() > 0)
+			Thread.yield();
+	}
+
+	/**
+	 * @return How late the scheduler is currently expected to wake a parked thread, in nanoseconds
+	 */
+	public long getSlack() {
+		return slack;
+	}
+}
@@ -0,0 +1,192 @@
+package core.kernel;
+
+import java.util.Arrays;
+
+import core.maths.Frustum;
+import core.maths.TransformStore;
+import core.maths.matrix.Matrix4f;
+import core.maths.vector.Vector3f;
+import core.utils.Constants.RenderComponents;
+
+/**
+ * <h1>FrameSnapshot Class</h1>
+ * <p>
+ * Everything the render thread needs to draw one simulated frame, copied out of
+ * the simulation once it has finished a tick: the model matrix of every
+ * transform, the camera matrices, position and frustum, and the active render component
+ * of every object that has one. Objects are looked up by the handle of their
+ * world transform.
+ * <p>
+ * A snapshot is filled by the simulation thread and then only read by the
+ * render thread until it is handed back through a SnapshotBuffer, so reading it
+ * never races the simulation.
+ *
+ * @author Graham
+ * @version 2.0.0
+ * @since 2026-10-18
+ */
+public class FrameSnapshot {
+
+	private static final RenderComponents[] COMPONENTS = RenderComponents.values();
+
+	// the snapshot being drawn, only set and read on the render thread
+	private static FrameSnapshot drawing = null;
+
+	private long tick;
+
+	// sixteen floats per transform handle, row by row
+	private float[] models;
+	private int transformCount;
+	// ordinal of the active render component per transform handle, -1 if none was recorded
+	private int[] activeComponents;
+
+	private final Matrix4f viewMatrix;
+	private final Matrix4f projectionMatrix;
+	private final Matrix4f viewProjectionMatrix;
+	private final Vector3f cameraPosition;
+	private final Frustum frustum;
+
+	private final Matrix4f model;
+
+	public FrameSnapshot() {
+		models = new float[0];
+		activeComponents = new int[0];
+
+		viewMatrix = new Matrix4f().setIdentity();
+		projectionMatrix = new Matrix4f().setIdentity();
+		viewProjectionMatrix = new Matrix4f().setIdentity();
+		cameraPosition = new Vector3f();
+		frustum = new Frustum();
+
+		model = new Matrix4f();
+	}
+
+	/**
+	 * copies the current state of the transforms and camera into this snapshot,
+	 * recalculating any dirty model matrices first. Active render components are
+	 * cleared and must be recorded again after every capture
+	 *
+	 * @param store The transforms to copy
+	 * @param camera The camera to copy
+	 * @param tick The number of the simulation tick this snapshot is of
+	 */
+	public void capture(TransformStore store, Camera camera, long tick) {
+		this.tick = tick;
+
+		store.updateMatrices();
+		transformCount = store.size();
+		if(models.length < transformCount * 16) {
+			models = new float[transformCount * 32];
+			activeComponents = new int[transformCount * 2];
+		}
+		System.arraycopy(store.getMatrices(), 0, models, 0, transformCount * 16);
+		Arrays.fill(activeComponents, 0, transformCount, -1);
+
+		if(camera != null) {
+			viewMatrix.set(camera.getViewMatrix());
+			projectionMatrix.set(camera.getProjectionMatrix());
+			viewProjectionMatrix.set(camera.getViewProjectionMatrix());
+			cameraPosition.set(camera.getPosition());
+			frustum.set(camera.getFrustum());
+		}
+	}
+
+	/**
+	 * records the render component an object is drawn with in this frame
+	 *
+	 * @param handle The handle of the objects world transform
+	 * @param component The name of its active render component
+	 */
+	public void setActiveComponent(int handle, RenderComponents component) {
+		activeComponents[handle] = component.ordinal();
+	}
+
+	/**
+	 * @return The active render component recorded for an object, or null if none was recorded
+	 */
+	public RenderComponents getActiveComponent(int handle) {
+		int ordinal = handle < transformCount ? activeComponents[handle] : -1;
+		return ordinal < 0 ? null : COMPONENTS[ordinal];
+	}
+
+	/**
+	 * copies the model matrix an object had in this frame into dest
+	 */
+	public Matrix4f getModelMatrix(int handle, Matrix4f dest) {
+		return dest.set(models, handle * 16);
+	}
+
+	/**
+	 * @return The model matrices of every object in this frame, sixteen floats each in handle order
+	 */
+	public float[] getModels() {
+		return models;
+	}
+
+	/**
+	 * calculates the Model View Projection Matrix an object had in this frame into
+	 * dest
+	 */
+	public Matrix4f getMVPMatrix(int handle, Matrix4f dest) {
+		model.set(models, handle * 16);
+		return viewProjectionMatrix.mul(model, dest);
+	}
+
+	/**
+	 * copies the world position an object had in this frame into dest
+	 */
+	public Vector3f getTranslation(int handle, Vector3f dest) {
+		int m = handle * 16;
+		dest.set(models[m + 3], models[m + 7], models[m + 11]);
+		return dest;
+	}
+
+	/**
+	 * @return The number of the simulation tick this snapshot is of
+	 */
+	public long getTick() {
+		return tick;
+	}
+
+	/**
+	 * @return One past the highest transform handle in this snapshot
+	 */
+	public int getTransformCount() {
+		return transformCount;
+	}
+
+	public Matrix4f getViewMatrix() {
+		return viewMatrix;
+	}
+
+	public Matrix4f getProjectionMatrix() {
+		return projectionMatrix;
+	}
+
+	public Matrix4f getViewProjectionMatrix() {
+		return viewProjectionMatrix;
+	}
+
+	public Vector3f getCameraPosition() {
+		return cameraPosition;
+	}
+
+	public Frustum getFrustum() {
+		return frustum;
+	}
+
+	/**
+	 * @return The snapshot currently being drawn by the render thread, or null when the engine is running on a single thread. Only valid on the render thread
+	 */
+	public static FrameSnapshot getDrawing() {
+		return drawing;
+	}
+
+	/**
+	 * sets the snapshot being drawn, called by the render thread around each
+	 * frame it draws
+	 */
+	public static void setDrawing(FrameSnapshot snapshot) {
+		drawing = snapshot;
+	}
+}
@@ -0,0 +1,108 @@
+package core.kernel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <h1>Job Class</h1>
+ * <p>
+ * The handle of a piece of work scheduled on the JobSystem. A job keeps a count
+ * of the dependencies it is still waiting on and is only handed to the worker
+ * threads once that count reaches zero, at which point it may be run by any
+ * worker, or stolen by an idle one.
+ *
+ * @author Graham
+ * @version 2.0.0
+ * @since 2026-10-18
+ */
+public class Job {
+
+	private final JobSystem system;
+	private final Task task;
+	// unfinished dependencies, plus one held by the job system until scheduling is done
+	private final AtomicInteger pending;
+	// jobs waiting on this one, null once this job has finished
+	private List<Job> dependents;
+
+	Job(JobSystem system, Runnable work, int dependencies) {
+		this.system = system;
+		this.task = new Task(work);
+		pending = new AtomicInteger(dependencies + 1);
+		dependents = new ArrayList<Job>(2);
+	}
+
+	/**
+	 * registers a job to be told when this one finishes
+	 *
+	 * @return False if this job has already finished
+	 */
+	synchronized boolean addDependent(Job dependent) {
+		if(dependents == null)
+			return false;
+		dependents.add(dependent);
+		return true;
+	}
+
+	/**
+	 * called once for every dependency that finishes, and once by the job system,
+	 * submitting the job when the last one does
+	 */
+	void dependencyDone() {
+		if(pending.decrementAndGet() == 0)
+			system.submit(task);
+	}
+
+	private void finish() {
+		List<Job> waiting;
+		synchronized(this) {
+			waiting = dependents;
+			dependents = null;
+		}
+
+		for(int i = 0; i < waiting.size(); i++)
+			waiting.get(i).dependencyDone();
+	}
+
+	/**
+	 * waits for this job to finish. When called from a worker thread the worker
+	 * runs other jobs while it waits rather than blocking
+	 *
+	 * @throws RuntimeException Any exception thrown by the job
+	 */
+	public void join() {
+		task.join();
+	}
+
+	/**
+	 * @return True once the job has finished running, normally or not
+	 */
+	public boolean isDone() {
+		return task.isDone();
+	}
+
+	/**
+	 * runs the work of the job and then releases its dependents, even when the
+	 * work throws, so a failed job never leaves the jobs after it waiting forever
+	 */
+	private class Task extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final Runnable work;
+
+		Task(Runnable work) {
+			this.work = work;
+		}
+
+		@Override
+		protected void compute() {
+			try {
+				work.run();
+			} finally {
+				finish();
+			}
+		}
+	}
+}
@@ -0,0 +1,203 @@
+package core.kernel;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <h1>JobSystem Class</h1>
+ * <p>
+ * The engines pool of worker threads for splitting CPU work across every core.
+ * Workers each keep their own queue of jobs and an idle worker steals from the
+ * others, so uneven jobs balance themselves out. Jobs can depend on other jobs,
+ * and parallelFor splits an index range into pieces that are worked on by the
+ * workers and the calling thread together.
+ * <p>
+ * Jobs must never touch OpenGL, which is only usable from the main thread.
+ *
+ * @author Graham
+ * @version 2.0.0
+ * @since 2026-10-18
+ */
+public class JobSystem {
+
+	// engine can only have one job system, so the class is a single instance class
+	private static JobSystem instance = null;
+
+	private final ForkJoinPool workers;
+	private final int workerCount;
+
+	/**
+	 * the body of a parallelFor, called with a part of its range
+	 */
+	public interface Range {
+		/**
+		 * @param from The first index to work on (inclusive)
+		 * @param to The last index to work on (exclusive)
+		 */
+		public void run(int from, int to);
+	}
+
+	/**
+	 * returns the current instance of the job system, or if none exists, it
+	 * creates a new current instance before returning it
+	 *
+	 * @return the current instance of the job system
+	 */
+	public static JobSystem getInstance() {
+		if(instance == null)
+			instance = new JobSystem(Runtime.getRuntime().availableProcessors() - 1);
+		return instance;
+	}
+
+	/**
+	 * creates a job system with its own worker threads
+	 *
+	 * @param workerCount The amount of worker threads, at least one is always created. The main thread also works during parallelFor, so one less than the amount of cores keeps every core busy
+	 */
+	public JobSystem(int workerCount) {
+		this.workerCount = Math.max(1, workerCount);
+		AtomicInteger threadCount = new AtomicInteger();
+
+		workers = new ForkJoinPool(this.workerCount, pool -> {
+			ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+			thread.setName("Job Worker " + threadCount.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}, null, false);
+	}
+
+	/**
+	 * schedules a job to run on a worker thread once all of its dependencies have
+	 * finished
+	 *
+	 * @param work The work of the job
+	 * @param dependencies Jobs that must finish before this one starts, they are still counted as finished if they throw
+	 *
+	 * @return The handle of the job
+	 */
+	public Job schedule(Runnable work, Job... dependencies) {
+		Job job = new Job(this, work, dependencies.length);
+		for(Job dependency : dependencies)
+			if(!dependency.addDependent(job))
+				job.dependencyDone();
+
+		// releases the count held while dependencies were being added
+		job.dependencyDone();
+		return job;
+	}
+
+	/**
+	 * runs the body over every index from (inclusive) to (exclusive), split into
+	 * pieces of at least grain indices which are run in parallel. Returns once the
+	 * whole range is done
+	 *
+	 * @param from The first index (inclusive)
+	 * @param to The last index (exclusive)
+	 * @param grain The smallest range worth running as its own piece
+	 * @param body The work to do for a part of the range, called from several threads at once with ranges that never overlap
+	 */
+	public void parallelFor(int from, int to, int grain, Range body) {
+		grain = Math.max(1, grain);
+		int count = to - from;
+		if(count <= 0)
+			return;
+		if(count <= grain) {
+			body.run(from, to);
+			return;
+		}
+
+		if(isWorkerThread()) {
+			new RangeTask(body, from, to, grain).invoke();
+			return;
+		}
+
+		// the calling thread cannot take part in stealing, so it keeps an even share for itself
+		int share = Math.max(grain, count / (workerCount + 1));
+		RangeTask rest = null;
+		if(share < count) {
+			rest = new RangeTask(body, from + share, to, grain);
+			workers.execute(rest);
+		}
+
+		body.run(from, from + Math.min(share, count));
+
+		if(rest != null)
+			rest.join();
+	}
+
+	void submit(ForkJoinTask<?> task) {
+		if(isWorkerThread())
+			task.fork();
+		else
+			workers.execute(task);
+	}
+
+	/**
+	 * @return True if the calling thread is one of this job systems workers
+	 */
+	public boolean isWorkerThread() {
+		Thread thread = Thread.currentThread();
+		return thread instanceof ForkJoinWorkerThread && ((ForkJoinWorkerThread) thread).getPool() == workers;
+	}
+
+	/**
+	 * @return The amount of worker threads, not counting the main thread
+	 */
+	public int getWorkerCount() {
+		return workerCount;
+	}
+
+	/**
+	 * stops the worker threads of this job system, jobs already running are
+	 * finished but no new jobs can be scheduled
+	 */
+	public void shutdown() {
+		workers.shutdown();
+	}
+
+	/**
+	 * stops the current job system, to be called when the engine is shutting down
+	 */
+	public static void cleanUp() {
+		if(instance != null)
+			instance.shutdown();
+		instance = null;
+	}
+
+	/**
+	 * splits its range in half until it is no bigger than the grain, forking one
+	 * half each time so idle workers can steal it
+	 */
+	private static class RangeTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final Range body;
+		private final int from, to, grain;
+
+		RangeTask(Range body, int from, int to, int grain) {
+			this.body = body;
+			this.from = from;
+			this.to = to;
+			this.grain = grain;
+		}
+
+		@Override
+		protected void compute() {
+			if(to - from <= grain) {
+				body.run(from, to);
+				return;
+			}
+
+			// halves the length rather than summing the ends, which may be negative
+			int middle = from + (to - from) / 2;
+			RangeTask second = new RangeTask(body, middle, to, grain);
+			second.fork();
+			new RangeTask(body, from, middle, grain).compute();
+			second.join();
+		}
+	}
+}
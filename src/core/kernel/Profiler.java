@@ -0,0 +1,360 @@
+package core.kernel;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import core.utils.logging.Logger;
+
+/**
+ * <h1>Profiler Class</h1>
+ * <p>
+ * A low overhead frame profiler. Code is timed by wrapping it in the begin and
+ * end calls of a named Scope, scopes can be nested, and every sample is kept
+ * with its frame in a ring buffer of the last HISTORY frames. Recording a sample
+ * is a couple of array writes and two calls to System.nanoTime, nothing is
+ * allocated once a scope has been created.
+ * <p>
+ * Samples are only recorded on the thread that marks the frames, calls to begin
+ * and end on any other thread are ignored. The history can be read from any
+ * thread, as frame time percentiles or as a Chrome trace file that can be opened
+ * in chrome://tracing.
+ *
+ * @author Graham
+ * @version 2.0.0
+ * @since 2026-10-18
+ */
+public class Profiler {
+
+	private static final Logger log = Logger.getLogger(Profiler.class);
+
+	public static final int HISTORY = 256;
+	public static final int MAX_SAMPLES = 512;
+	public static final int MAX_DEPTH = 32;
+	// frames this close to being overwritten are not read, so a frame is never read while it is rewritten
+	private static final int READ_MARGIN = 4;
+
+	// engine has one main loop to profile, so the class is a single instance class
+	private static Profiler instance = null;
+
+	private final List<Scope> scopes;
+
+	// per frame slot of the ring buffer
+	private final long[] frameStarts, frameEnds;
+	private final int[] sampleCounts;
+	// per sample, MAX_SAMPLES for each frame slot
+	private final int[] sampleScopes;
+	private final long[] sampleStarts, sampleEnds;
+	private final byte[] sampleDepths;
+
+	// the number of frames completed, published after the frame has been written
+	private final AtomicLong completed;
+
+	// writer state, only touched by the recording thread
+	private volatile Thread owner;
+	private volatile boolean enabled;
+	private long current;
+	private int slot;
+	private final int[] open;
+	private int depth;
+	// scopes begun past MAX_DEPTH, which have no slot in open but must still be ended
+	private int overflow;
+
+	/**
+	 * returns the current instance of the profiler, or if none exists, it creates
+	 * a new current instance before returning it
+	 *
+	 * @return the current instance of the profiler
+	 */
+	public static Profiler getInstance() {
+		if(instance == null)
+			instance = new Profiler();
+		return instance;
+	}
+
+	public Profiler() {
+		scopes = new ArrayList<Scope>();
+
+		frameStarts = new long[HISTORY];
+		frameEnds = new long[HISTORY];
+		sampleCounts = new int[HISTORY];
+		sampleScopes = new int[HISTORY * MAX_SAMPLES];
+		sampleStarts = new long[HISTORY * MAX_SAMPLES];
+		sampleEnds = new long[HISTORY * MAX_SAMPLES];
+		sampleDepths = new byte[HISTORY * MAX_SAMPLES];
+
+		completed = new AtomicLong();
+		open = new int[MAX_DEPTH];
+		current = -1;
+		enabled = true;
+	}
+
+	/**
+	 * creates a named scope to time code with, scopes should be created once and
+	 * kept rather than created every frame
+	 *
+	 * @param name The name of the scope, shown in the trace
+	 *
+	 * @return The new scope
+	 */
+	public synchronized Scope createScope(String name) {
+		Scope scope = new Scope(this, scopes.size(), name);
+		scopes.add(scope);
+		return scope;
+	}
+
+	/**
+	 * ends the current frame, if there is one, and starts the next. Any scope
+	 * still open is ended with the frame. The first thread to call this becomes
+	 * the only thread samples are recorded on
+	 */
+	public void frame() {
+		if(!enabled)
+			return;
+
+		long now = System.nanoTime();
+		if(owner == null)
+			owner = Thread.currentThread();
+		else if(owner != Thread.currentThread())
+			return;
+
+		if(current >= 0) {
+			while(depth > 0) {
+				int index = open[--depth];
+				if(index >= 0)
+					sampleEnds[index] = now;
+			}
+			frameEnds[slot] = now;
+			completed.lazySet(current + 1);
+		}
+
+		current++;
+		slot = (int) (current % HISTORY);
+		sampleCounts[slot] = 0;
+		frameStarts[slot] = now;
+		depth = 0;
+		overflow = 0;
+	}
+
+	private void begin(int scope) {
+		if(current < 0 || owner != Thread.currentThread())
+			return;
+
+		if(depth == MAX_DEPTH) {
+			// counted so the matching end does not pop the scope it is nested in
+			overflow++;
+			return;
+		}
+
+		int count = sampleCounts[slot];
+		if(count == MAX_SAMPLES) {
+			// still pushed so the matching end pops the right scope
+			open[depth++] = -1;
+			return;
+		}
+
+		int index = slot * MAX_SAMPLES + count;
+		sampleScopes[index] = scope;
+		sampleDepths[index] = (byte) depth;
+		sampleEnds[index] = 0;
+		open[depth++] = index;
+		sampleCounts[slot] = count + 1;
+		sampleStarts[index] = System.nanoTime();
+	}
+
+	private void end() {
+		long now = System.nanoTime();
+		if(depth == 0 || owner != Thread.currentThread())
+			return;
+		if(overflow > 0) {
+			overflow--;
+			return;
+		}
+
+		int index = open[--depth];
+		if(index >= 0)
+			sampleEnds[index] = now;
+	}
+
+	/**
+	 * @return The first frame number that is safe to read, frames before it have been or may be about to be overwritten
+	 */
+	private long firstReadable(long completed) {
+		return Math.max(0, completed - HISTORY + READ_MARGIN);
+	}
+
+	/**
+	 * copies the durations of every readable frame in the history into an array
+	 *
+	 * @param dest The array to fill, at least HISTORY long
+	 *
+	 * @return The amount of durations copied
+	 */
+	public int getFrameTimes(long[] dest) {
+		long last = completed.get();
+		int count = 0;
+		for(long frame = firstReadable(last); frame < last; frame++) {
+			int s = (int) (frame % HISTORY);
+			dest[count++] = frameEnds[s] - frameStarts[s];
+		}
+
+		// drops any frame overwritten while it was copied
+		long overwritten = firstReadable(completed.get()) - firstReadable(last);
+		if(overwritten > 0) {
+			count -= overwritten;
+			System.arraycopy(dest, (int) overwritten, dest, 0, Math.max(0, count));
+		}
+		return Math.max(0, count);
+	}
+
+	/**
+	 * @param percentile The percentile to find, from 0 to 100
+	 *
+	 * @return The frame time, in nanoseconds, that the percentile of frames in the history took no longer than, or 0 if no frame has completed
+	 */
+	public long getFrameTimePercentile(double percentile) {
+		long[] times = new long[HISTORY];
+		int count = getFrameTimes(times);
+		if(count == 0)
+			return 0;
+
+		Arrays.sort(times, 0, count);
+		int rank = (int) Math.ceil(percentile / 100 * count) - 1;
+		return times[Math.max(0, Math.min(count - 1, rank))];
+	}
+
+	/**
+	 * @return The 50th, 95th and 99th percentile frame times in milliseconds, as a single line of text
+	 */
+	public String getSummary() {
+		return String.format("frame p50: %.2fms p95: %.2fms p99: %.2fms", getFrameTimePercentile(50) / 1e6,
+				getFrameTimePercentile(95) / 1e6, getFrameTimePercentile(99) / 1e6);
+	}
+
+	/**
+	 * writes every readable frame in the history to a file in the Chrome trace
+	 * event format, to be opened in chrome://tracing or Perfetto
+	 *
+	 * @param file The file to write to
+	 *
+	 * @return True if the file was written
+	 */
+	public boolean writeChromeTrace(String file) {
+		long last = completed.get();
+		long first = firstReadable(last);
+		if(first >= last)
+			return false;
+
+		long origin = frameStarts[(int) (first % HISTORY)];
+		String[] names = getScopeNames();
+
+		try (BufferedWriter writer = new BufferedWriter(new FileWriter(file))) {
+			writer.write("{\"traceEvents\":[\n");
+			writer.write("{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":1,\"tid\":1,\"args\":{\"name\":\""
+					+ escape(owner.getName()) + "\"}}");
+
+			for(long frame = first; frame < last; frame++) {
+				int s = (int) (frame % HISTORY);
+				writeEvent(writer, "Frame " + frame, frameStarts[s] - origin, frameEnds[s] - frameStarts[s]);
+
+				for(int i = 0; i < sampleCounts[s]; i++) {
+					int index = s * MAX_SAMPLES + i;
+					long end = sampleEnds[index] == 0 ? frameEnds[s] : sampleEnds[index];
+					writeEvent(writer, names[sampleScopes[index]], sampleStarts[index] - origin,
+							end - sampleStarts[index]);
+				}
+			}
+
+			writer.write("\n]}\n");
+		} catch (IOException e) {
+			log.error("Could not write profile to {}", file, e);
+			return false;
+		}
+		return true;
+	}
+
+	private static void writeEvent(BufferedWriter writer, String name, long start, long duration)
+			throws IOException {
+		writer.write(",\n{\"name\":\"");
+		writer.write(escape(name));
+		writer.write("\",\"ph\":\"X\",\"pid\":1,\"tid\":1,\"ts\":");
+		writer.write(Double.toString(start / 1000.0));
+		writer.write(",\"dur\":");
+		writer.write(Double.toString(Math.max(0, duration) / 1000.0));
+		writer.write("}");
+	}
+
+	private static String escape(String text) {
+		return text.replace("\\", "\\\\").replace("\"", "\\\"");
+	}
+
+	private synchronized String[] getScopeNames() {
+		String[] names = new String[scopes.size()];
+		for(int i = 0; i < names.length; i++)
+			names[i] = scopes.get(i).getName();
+		return names;
+	}
+
+	/**
+	 * @return The amount of frames completed since the profiler was created
+	 */
+	public long getFrameCount() {
+		return completed.get();
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * turns recording on or off, a disabled profiler costs a single check per
+	 * call
+	 */
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	/**
+	 * destroys the current profiler, to be called when the engine is shutting down
+	 */
+	public static void cleanUp() {
+		instance = null;
+	}
+
+	/**
+	 * <h1>Scope Class</h1>
+	 * <p>
+	 * A named section of code timed by a profiler, every call to begin must be
+	 * matched by a call to end
+	 */
+	public static class Scope {
+
+		private final Profiler profiler;
+		private final int id;
+		private final String name;
+
+		private Scope(Profiler profiler, int id, String name) {
+			this.profiler = profiler;
+			this.id = id;
+			this.name = name;
+		}
+
+		public void begin() {
+			if(profiler.enabled)
+				profiler.begin(id);
+		}
+
+		public void end() {
+			if(profiler.enabled)
+				profiler.end();
+		}
+
+		public String getName() {
+			return name;
+		}
+	}
+}
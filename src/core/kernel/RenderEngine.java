@@ -2,17 +2,29 @@ package core.kernel;
 
 import core.input.Input;
 import core.input.Keys;
+import core.maths.vector.Vector2f;
 import core.maths.vector.Vector3f;
+import core.spatial.Picker;
+import core.spatial.RayHit;
+import core.spatial.SpatialIndex;
+import core.structure.GameObject;
+import core.structure.Node;
 import core.utils.Constants.RenderComponents;
+import core.utils.IntList;
 import core.utils.fileIO.ResourceLoader;
 import core.utils.fileIO.objLoader.MeshLoader;
+import core.utils.logging.LogLevel;
+import core.utils.logging.Logger;
 import core.utils.RenderUtil;
 import core.window.Window;
 import modules.entity.Entity;
+import modules.entity.EntityInstancedShader;
 import modules.entity.EntityShader;
 import modules.light.Light;
 import modules.sky.SkyDome;
+import rendering.RenderQueue;
 import rendering.buffers.VAO;
+import rendering.state.GLStateCache;
 import resources.texturing.Texture2D;
 
 /**
@@ -28,12 +40,26 @@ import resources.texturing.Texture2D;
  */
 public class RenderEngine {
 
+	private static final Logger log = Logger.getLogger(RenderEngine.class);
+
+	// per frame debug output, off unless set to DEBUG and written at most once a second
+	private static final Logger positions = Logger.getLogger("Positions");
+	static {
+		positions.setLevel(LogLevel.INFO);
+		positions.setRateLimit(1000);
+	}
+
 	private Window window;
 	
 	
 	private Entity testEntity, testEntity2;
 	private Light testLight;
 	private SkyDome sky;
+	// the top node of every tree in the scene
+	private Node[] roots;
+	
+	// proxies of the scene index found in view each frame
+	private IntList visible = new IntList();
 	
 	/**
 	 * creates an instance of the window for this engine to render to
@@ -52,6 +78,7 @@ public class RenderEngine {
 		
 		sky = new SkyDome();
 		
+		roots = new Node[] {testEntity, testEntity2, testLight, sky};
 	}
 	
 	/**
@@ -84,6 +111,38 @@ public class RenderEngine {
 			testEntity.setActiveRenderComponent(RenderComponents.RENDERER_COMPONENT);
 			testEntity2.setActiveRenderComponent(RenderComponents.RENDERER_COMPONENT);
 		}
+		
+		// picks up changes made to the transforms without going through the entities
+		testEntity.updateBounds();
+		testEntity2.updateBounds();
+		
+		if(Input.getInstance().isButtonPushed(0)) {
+			Vector2f cursor = Input.getInstance().getCursorPosition();
+			RayHit hit = Picker.getInstance().pick(cursor.getX(), cursor.getY(), window.getWidth(), window.getHeight());
+			if(hit != null)
+				log.info("Picked {} triangle {} at distance {}", hit.getObject(), hit.getTriangle(), hit.getDistance());
+		}
+	}
+	
+	/**
+	 * propagates the world transforms of every tree in the scene down to the nodes
+	 * below its top node, to be called at the end of every update once everything
+	 * has moved
+	 */
+	public void updateWorldTransforms() {
+		for(int i = 0; i < roots.length; i++)
+			roots[i].updateWorldTransforms();
+	}
+	
+	/**
+	 * used to record the per object render state that is not held in a transform
+	 * into a frame snapshot, called on the simulation thread after each capture
+	 * 
+	 * @param snapshot The snapshot being captured
+	 */
+	public void capture(FrameSnapshot snapshot) {
+		testEntity.capture(snapshot);
+		testEntity2.capture(snapshot);
 	}
 	
 	/**
@@ -94,19 +153,34 @@ public class RenderEngine {
 		RenderUtil.clearScreen();
 		
 		EntityShader.getInstance().updateLights(testLight);
+		EntityInstancedShader.getInstance().updateLights(testLight);
 		
 		testLight.render();
 		
 		sky.render();
 				
-		testEntity.render();		
-		testEntity2.render();
+		// when threaded the scene index belongs to the simulation thread, so every entity is queued
+		// and only culled by the render queue. Otherwise the index holds the bounds of the last update
+		if(FrameSnapshot.getDrawing() == null) {
+			SpatialIndex scene = SpatialIndex.getScene();
+			visible.clear();
+			scene.queryFrustum(Camera.getInstance().getFrustum(), visible);
+			for(int i = 0; i < visible.size(); i++)
+				((GameObject) scene.getUserData(visible.get(i))).render();
+		}else {
+			testEntity.render();
+			testEntity2.render();
+		}
+		
+		// everything above only queued its draws, they are sorted and drawn here
+		RenderQueue.getInstance().flush();
 				
-		System.out.println("Entity: " + testEntity.getPositon().toString());
-		System.out.println("Camera: " + Camera.getInstance().getPosition().toString());
-		System.out.println("Look: " + Camera.getInstance().getForward().toString());
-		System.out.println("Light: " + testLight.getPosition().toString());
+		// the arguments allocate, so nothing is built unless the channel is turned on
+		if(positions.isEnabled(LogLevel.DEBUG))
+			positions.debug("Entity: {} Camera: {} Look: {} Light: {}", testEntity.getPositon(),
+					Camera.getInstance().getPosition(), Camera.getInstance().getForward(), testLight.getPosition());
 		window.render();
+		GLStateCache.getInstance().endFrame();
 	}
 	
 	/**
@@ -114,6 +188,8 @@ public class RenderEngine {
 	 * shutting down the render engine
 	 */
 	public void shutdown() {
+		for(int i = 0; i < roots.length; i++)
+			roots[i].shutdown();
 		Input.cleanUp();
 		VAO.cleanUp();
 		Texture2D.cleanUp();
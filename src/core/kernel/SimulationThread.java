@@ -0,0 +1,166 @@
+package core.kernel;
+
+import core.utils.Constants;
+
+/**
+ * <h1>SimulationThread Class</h1>
+ * <p>
+ * Runs the simulation of the engine on a thread of its own at a fixed tick
+ * rate, so a slow frame on the render thread no longer holds back the
+ * simulation, or the other way round. After every batch of ticks the state to
+ * draw is captured into a snapshot and published to a SnapshotBuffer for the
+ * render thread to pick up.
+ * <p>
+ * Nothing here touches OpenGL, so the thread can be run and tested without a
+ * window.
+ *
+ * @author Graham
+ * @version 2.0.0
+ * @since 2026-10-18
+ */
+public class SimulationThread implements Runnable {
+
+	// the most ticks run before publishing, past which the backlog is dropped
+	private static final int MAX_CATCH_UP_STEPS = 5;
+
+	/**
+	 * the work done on the simulation thread
+	 */
+	public interface Simulation {
+		/**
+		 * advances the simulation by one tick
+		 *
+		 * @param delta The length of a tick in seconds
+		 */
+		public void update(float delta);
+
+		/**
+		 * copies the state the render thread needs into a snapshot
+		 */
+		public void capture(FrameSnapshot snapshot, long tick);
+	}
+
+	private final Simulation simulation;
+	private final SnapshotBuffer snapshots;
+	private final float tickTime;
+
+	private Thread thread;
+	private volatile boolean running;
+	private volatile long ticks;
+	private volatile long nextTickTime;
+	private volatile Throwable failure;
+
+	/**
+	 * @param simulation The simulation to run
+	 * @param tickTime The length of a tick in seconds
+	 */
+	public SimulationThread(Simulation simulation, float tickTime) {
+		this.simulation = simulation;
+		this.tickTime = tickTime;
+		snapshots = new SnapshotBuffer();
+	}
+
+	/**
+	 * starts the simulation thread, does nothing if it is already running
+	 */
+	public synchronized void start() {
+		if(running)
+			return;
+		running = true;
+		nextTickTime = System.nanoTime();
+		thread = new Thread(this, "Simulation");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/**
+	 * stops the simulation thread and waits for it to finish its current tick
+	 */
+	public synchronized void stop() {
+		running = false;
+		if(thread == null)
+			return;
+
+		try {
+			thread.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		thread = null;
+	}
+
+	@Override
+	public void run() {
+		FrameClock clock = new FrameClock();
+		long tickNanos = (long) (tickTime * Constants.NANOSECOND);
+		long lastTime = System.nanoTime();
+		long unprocessedTime = 0;
+
+		try {
+			while(running) {
+				long startTime = System.nanoTime();
+				unprocessedTime += startTime - lastTime;
+				lastTime = startTime;
+
+				int steps = 0;
+				while(unprocessedTime >= tickNanos && running) {
+					if(steps == MAX_CATCH_UP_STEPS) {
+						unprocessedTime %= tickNanos;
+						break;
+					}
+					unprocessedTime -= tickNanos;
+					simulation.update(tickTime);
+					ticks++;
+					steps++;
+				}
+
+				if(steps > 0) {
+					simulation.capture(snapshots.getWriteSnapshot(), ticks);
+					snapshots.publish();
+				}
+
+				nextTickTime = startTime + tickNanos - unprocessedTime;
+				clock.waitUntil(nextTickTime);
+			}
+		} catch (Throwable t) {
+			failure = t;
+		} finally {
+			running = false;
+		}
+	}
+
+	/**
+	 * @return The snapshots published by this thread, to be acquired by the render thread
+	 */
+	public SnapshotBuffer getSnapshots() {
+		return snapshots;
+	}
+
+	/**
+	 * @return The amount of ticks simulated so far
+	 */
+	public long getTicks() {
+		return ticks;
+	}
+
+	/**
+	 * @return The System.nanoTime the next tick falls due at, the earliest a new snapshot can be published
+	 */
+	public long getNextTickTime() {
+		return nextTickTime;
+	}
+
+	/**
+	 * @return True while the thread is running
+	 */
+	public boolean isRunning() {
+		return running;
+	}
+
+	/**
+	 * @return The exception that stopped the simulation, or null if it has not failed
+	 */
+	public Throwable getFailure() {
+		return failure;
+	}
+}
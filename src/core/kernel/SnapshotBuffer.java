@@ -0,0 +1,70 @@
+package core.kernel;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <h1>SnapshotBuffer Class</h1>
+ * <p>
+ * A lock free triple buffer of frame snapshots, handing frames from the
+ * simulation thread to the render thread. The simulation always has a snapshot
+ * of its own to write, the render thread always has one of its own to read, and
+ * the third holds the newest finished frame. Publishing and acquiring swap a
+ * snapshot with the third, so neither thread ever waits on the other and the
+ * render thread always draws the most recent frame, skipping any it was too
+ * slow to draw.
+ *
+ * @author Graham
+ * @version 2.0.0
+ * @since 2026-10-18
+ */
+public class SnapshotBuffer {
+
+	// set on the shared index when it holds a frame the render thread has not acquired yet
+	private static final int FRESH = 4;
+	private static final int INDEX = 3;
+
+	private final FrameSnapshot[] snapshots;
+	// the index of the shared snapshot, plus FRESH when it is newly published
+	private final AtomicInteger shared;
+	// only touched by the simulation thread
+	private int writing;
+	// only touched by the render thread
+	private int reading;
+	private boolean acquiredAny;
+
+	public SnapshotBuffer() {
+		snapshots = new FrameSnapshot[] { new FrameSnapshot(), new FrameSnapshot(), new FrameSnapshot() };
+		writing = 0;
+		reading = 1;
+		shared = new AtomicInteger(2);
+	}
+
+	/**
+	 * @return The snapshot the simulation thread should capture the next frame into
+	 */
+	public FrameSnapshot getWriteSnapshot() {
+		return snapshots[writing];
+	}
+
+	/**
+	 * publishes the write snapshot as the newest frame, called by the simulation
+	 * thread once it has finished capturing it
+	 */
+	public void publish() {
+		writing = shared.getAndSet(writing | FRESH) & INDEX;
+	}
+
+	/**
+	 * takes the newest published frame, called by the render thread. The snapshot
+	 * returned stays the render threads until its next call
+	 *
+	 * @return The newest frame, the same frame as the last call if nothing new has been published, or null if no frame has been published yet
+	 */
+	public FrameSnapshot acquire() {
+		if((shared.get() & FRESH) != 0) {
+			reading = shared.getAndSet(reading) & INDEX;
+			acquiredAny = true;
+		}
+		return acquiredAny ? snapshots[reading] : null;
+	}
+}
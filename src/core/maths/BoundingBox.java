@@ -0,0 +1,256 @@
+package core.maths;
+
+import java.nio.FloatBuffer;
+
+import core.maths.matrix.Matrix4f;
+import core.maths.vector.Vector3f;
+
+/**
+ * <h1>BoundingBox Class</h1>
+ * <p>
+ * An axis aligned bounding box together with the bounding sphere around its
+ * centre, used to cull and query objects without looking at their vertices. The
+ * sphere radius is the distance from the centre of the box to the furthest
+ * point it was built from, which is usually smaller than half the diagonal of
+ * the box.
+ * 
+ * @author Graham
+ * @version 2.0.0
+ * @since 2026-10-18
+ */
+public class BoundingBox {
+
+	private final Vector3f min, max, centre;
+	private float radius;
+
+	/**
+	 * creates an empty bounding box, which contains nothing until a point is
+	 * included
+	 */
+	public BoundingBox() {
+		min = new Vector3f(Float.POSITIVE_INFINITY, Float.POSITIVE_INFINITY, Float.POSITIVE_INFINITY);
+		max = new Vector3f(Float.NEGATIVE_INFINITY, Float.NEGATIVE_INFINITY, Float.NEGATIVE_INFINITY);
+		centre = new Vector3f();
+		radius = -1;
+	}
+
+	/**
+	 * creates a bounding box with the given corners, its sphere being the one
+	 * through every corner
+	 */
+	public BoundingBox(Vector3f min, Vector3f max) {
+		this();
+		include(min.getX(), min.getY(), min.getZ());
+		include(max.getX(), max.getY(), max.getZ());
+		fitSphereToBox();
+	}
+
+	/**
+	 * creates the bounding box of interleaved vertex data, the position of each
+	 * vertex being the first three floats of it
+	 * 
+	 * @param data
+	 *            The vertex data, read from zero to its limit
+	 * @param stride
+	 *            The amount of floats each vertex takes up
+	 * 
+	 * @return The bounding box of every vertex position
+	 */
+	public static BoundingBox fromVertexData(FloatBuffer data, int stride) {
+		BoundingBox bounds = new BoundingBox();
+		int end = data.limit() - 2;
+		for(int i = 0; i < end; i += stride)
+			bounds.include(data.get(i), data.get(i + 1), data.get(i + 2));
+
+		bounds.centre.set((bounds.min.getX() + bounds.max.getX()) * 0.5f,
+				(bounds.min.getY() + bounds.max.getY()) * 0.5f, (bounds.min.getZ() + bounds.max.getZ()) * 0.5f);
+		float furthest = 0;
+		for(int i = 0; i < end; i += stride)
+			furthest = Math.max(furthest, bounds.distanceSquared(data.get(i), data.get(i + 1), data.get(i + 2)));
+		bounds.radius = (float) Math.sqrt(furthest);
+		return bounds;
+	}
+
+	/**
+	 * creates the bounding box of the positions of a list of vertices
+	 * 
+	 * @param positions
+	 *            The positions of the vertices
+	 * 
+	 * @return The bounding box of every position
+	 */
+	public static BoundingBox fromPositions(Vector3f[] positions) {
+		BoundingBox bounds = new BoundingBox();
+		for(Vector3f p : positions)
+			bounds.include(p.getX(), p.getY(), p.getZ());
+
+		bounds.centre.set((bounds.min.getX() + bounds.max.getX()) * 0.5f,
+				(bounds.min.getY() + bounds.max.getY()) * 0.5f, (bounds.min.getZ() + bounds.max.getZ()) * 0.5f);
+		float furthest = 0;
+		for(Vector3f p : positions)
+			furthest = Math.max(furthest, bounds.distanceSquared(p.getX(), p.getY(), p.getZ()));
+		bounds.radius = (float) Math.sqrt(furthest);
+		return bounds;
+	}
+
+	/**
+	 * sets the corners of the box, its sphere being the one through every corner
+	 */
+	public BoundingBox set(float minX, float minY, float minZ, float maxX, float maxY, float maxZ) {
+		min.set(minX, minY, minZ);
+		max.set(maxX, maxY, maxZ);
+		fitSphereToBox();
+		return this;
+	}
+
+	/**
+	 * calculates the bounds of this box once moved by a model matrix. The new box
+	 * is the smallest axis aligned box around the moved box, and the new sphere is
+	 * the moved sphere scaled by getMaxScale of the matrix
+	 * 
+	 * @param model
+	 *            The model matrix to move the box by
+	 * @param dest
+	 *            The box to store the moved bounds in, may be this box
+	 * 
+	 * @return dest
+	 */
+	public BoundingBox transform(Matrix4f model, BoundingBox dest) {
+		if(isEmpty()) {
+			dest.min.set(min);
+			dest.max.set(max);
+			dest.radius = -1;
+			return dest;
+		}
+
+		float cx = (min.getX() + max.getX()) * 0.5f, cy = (min.getY() + max.getY()) * 0.5f,
+				cz = (min.getZ() + max.getZ()) * 0.5f;
+		float ex = max.getX() - cx, ey = max.getY() - cy, ez = max.getZ() - cz;
+		float sx = centre.getX(), sy = centre.getY(), sz = centre.getZ();
+
+		// the new centre and half size of the box along each world axis
+		float x = model.get(0, 0) * cx + model.get(0, 1) * cy + model.get(0, 2) * cz + model.get(0, 3);
+		float y = model.get(1, 0) * cx + model.get(1, 1) * cy + model.get(1, 2) * cz + model.get(1, 3);
+		float z = model.get(2, 0) * cx + model.get(2, 1) * cy + model.get(2, 2) * cz + model.get(2, 3);
+		float hx = Math.abs(model.get(0, 0)) * ex + Math.abs(model.get(0, 1)) * ey + Math.abs(model.get(0, 2)) * ez;
+		float hy = Math.abs(model.get(1, 0)) * ex + Math.abs(model.get(1, 1)) * ey + Math.abs(model.get(1, 2)) * ez;
+		float hz = Math.abs(model.get(2, 0)) * ex + Math.abs(model.get(2, 1)) * ey + Math.abs(model.get(2, 2)) * ez;
+
+		dest.centre.set(model.get(0, 0) * sx + model.get(0, 1) * sy + model.get(0, 2) * sz + model.get(0, 3),
+				model.get(1, 0) * sx + model.get(1, 1) * sy + model.get(1, 2) * sz + model.get(1, 3),
+				model.get(2, 0) * sx + model.get(2, 1) * sy + model.get(2, 2) * sz + model.get(2, 3));
+		dest.min.set(x - hx, y - hy, z - hz);
+		dest.max.set(x + hx, y + hy, z + hz);
+		dest.radius = radius * getMaxScale(model);
+		return dest;
+	}
+
+	/**
+	 * calculates how far the upper 3x3 of a model matrix can stretch any vector, so
+	 * a sphere scaled by it still contains everything it did before being moved.
+	 * The largest column length is not enough once a non uniform scale is rotated,
+	 * so the bound is the largest Gershgorin row sum of the transpose times the
+	 * matrix, which is never less than its largest eigenvalue and is exact for
+	 * uniform scales
+	 * 
+	 * @param model
+	 *            The model matrix
+	 * 
+	 * @return The largest length any unit vector can have once moved by the matrix,
+	 *         or slightly more
+	 */
+	public static float getMaxScale(Matrix4f model) {
+		float m00 = 0, m11 = 0, m22 = 0, m01 = 0, m02 = 0, m12 = 0;
+		for(int row = 0; row < 3; row++) {
+			float a = model.get(row, 0), b = model.get(row, 1), c = model.get(row, 2);
+			m00 += a * a;
+			m11 += b * b;
+			m22 += c * c;
+			m01 += a * b;
+			m02 += a * c;
+			m12 += b * c;
+		}
+		m01 = Math.abs(m01);
+		m02 = Math.abs(m02);
+		m12 = Math.abs(m12);
+		return (float) Math.sqrt(Math.max(m00 + m01 + m02, Math.max(m01 + m11 + m12, m02 + m12 + m22)));
+	}
+
+	/**
+	 * grows the box to contain a point. The sphere is not updated, see
+	 * fitSphereToBox
+	 */
+	public void include(float x, float y, float z) {
+		min.set(Math.min(min.getX(), x), Math.min(min.getY(), y), Math.min(min.getZ(), z));
+		max.set(Math.max(max.getX(), x), Math.max(max.getY(), y), Math.max(max.getZ(), z));
+	}
+
+	/**
+	 * sets the sphere to the one through every corner of the box
+	 */
+	public void fitSphereToBox() {
+		if(isEmpty()) {
+			radius = -1;
+			return;
+		}
+		centre.set((min.getX() + max.getX()) * 0.5f, (min.getY() + max.getY()) * 0.5f,
+				(min.getZ() + max.getZ()) * 0.5f);
+		radius = (float) Math.sqrt(distanceSquared(max.getX(), max.getY(), max.getZ()));
+	}
+
+	private float distanceSquared(float x, float y, float z) {
+		float dx = x - centre.getX(), dy = y - centre.getY(), dz = z - centre.getZ();
+		return dx * dx + dy * dy + dz * dz;
+	}
+
+	/**
+	 * @return True if the box has had no point included
+	 */
+	public boolean isEmpty() {
+		return min.getX() > max.getX();
+	}
+
+	/**
+	 * @return True if this box and another overlap or touch
+	 */
+	public boolean intersects(BoundingBox other) {
+		return min.getX() <= other.max.getX() && max.getX() >= other.min.getX() && min.getY() <= other.max.getY()
+				&& max.getY() >= other.min.getY() && min.getZ() <= other.max.getZ() && max.getZ() >= other.min.getZ();
+	}
+
+	/**
+	 * @return True if the point is inside or on the box
+	 */
+	public boolean contains(float x, float y, float z) {
+		return x >= min.getX() && x <= max.getX() && y >= min.getY() && y <= max.getY() && z >= min.getZ()
+				&& z <= max.getZ();
+	}
+
+	/**
+	 * @return The smallest corner of the box, not to be changed
+	 */
+	public Vector3f getMin() {
+		return min;
+	}
+
+	/**
+	 * @return The largest corner of the box, not to be changed
+	 */
+	public Vector3f getMax() {
+		return max;
+	}
+
+	/**
+	 * @return The centre of the box and its sphere, not to be changed
+	 */
+	public Vector3f getCentre() {
+		return centre;
+	}
+
+	/**
+	 * @return The radius of the bounding sphere, negative if the box is empty
+	 */
+	public float getRadius() {
+		return radius;
+	}
+}
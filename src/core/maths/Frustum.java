@@ -0,0 +1,255 @@
+package core.maths;
+
+import core.maths.matrix.Matrix4f;
+import core.maths.vector.Vector3f;
+
+/**
+ * <h1>Frustum Class</h1>
+ * <p>
+ * The six planes bounding the volume a view projection matrix can see, each
+ * facing inwards and stored as four floats (a, b, c, d), so that a point p is
+ * on the inside of a plane when a * p.x + b * p.y + c * p.z + d is positive.
+ * The planes are extracted straight from the rows of the matrix, following
+ * Gribb and Hartmann, and normalized so the same value is the distance from the
+ * plane.
+ * <p>
+ * Besides testing single spheres and boxes the frustum can cull a whole batch
+ * of bounding spheres stored as separate coordinate arrays, which keeps the
+ * inner loop free of branches and objects so the JIT can vectorize it.
+ * 
+ * @author Graham
+ * @version 2.0.0
+ * @since 2026-10-18
+ */
+public class Frustum {
+
+	public static final int LEFT = 0, RIGHT = 1, BOTTOM = 2, TOP = 3, NEAR = 4, FAR = 5;
+	public static final int PLANES = 6;
+	// a bit per plane, for classifyBox
+	public static final int ALL_PLANES = (1 << PLANES) - 1;
+
+	// four floats per plane, in the order of the constants above
+	private final float[] planes;
+
+	/**
+	 * creates a frustum with every plane zeroed, which culls nothing until it is
+	 * extracted from a matrix
+	 */
+	public Frustum() {
+		planes = new float[PLANES * 4];
+	}
+
+	/**
+	 * extracts the planes of the volume a view projection matrix can see
+	 * 
+	 * @param viewProjection
+	 *            The view projection matrix, mapping world space to clip space
+	 * 
+	 * @return This frustum
+	 */
+	public Frustum extract(Matrix4f viewProjection) {
+		for(int i = 0; i < 3; i++) {
+			// the w row plus and minus each of the x, y and z rows
+			for(int column = 0; column < 4; column++) {
+				float w = viewProjection.get(3, column);
+				float row = viewProjection.get(i, column);
+				planes[(i * 2) * 4 + column] = w + row;
+				planes[(i * 2 + 1) * 4 + column] = w - row;
+			}
+		}
+
+		for(int p = 0; p < PLANES * 4; p += 4) {
+			float length = (float) Math.sqrt(planes[p] * planes[p] + planes[p + 1] * planes[p + 1]
+					+ planes[p + 2] * planes[p + 2]);
+			if(length > 0) {
+				planes[p] /= length;
+				planes[p + 1] /= length;
+				planes[p + 2] /= length;
+				planes[p + 3] /= length;
+			}
+		}
+		return this;
+	}
+
+	/**
+	 * copies the planes of another frustum
+	 */
+	public Frustum set(Frustum frustum) {
+		System.arraycopy(frustum.planes, 0, planes, 0, planes.length);
+		return this;
+	}
+
+	/**
+	 * @return The signed distance of a point from a plane, positive on the inside
+	 */
+	public float distance(int plane, float x, float y, float z) {
+		int p = plane * 4;
+		return planes[p] * x + planes[p + 1] * y + planes[p + 2] * z + planes[p + 3];
+	}
+
+	/**
+	 * @return True if any part of the sphere may be inside the frustum. Spheres
+	 *         just outside a corner of the frustum can also pass
+	 */
+	public boolean intersectsSphere(float x, float y, float z, float radius) {
+		for(int plane = 0; plane < PLANES; plane++)
+			if(distance(plane, x, y, z) < -radius)
+				return false;
+		return true;
+	}
+
+	/**
+	 * @return True if any part of the box may be inside the frustum, testing the
+	 *         corner of the box furthest along the inwards facing normal of each
+	 *         plane
+	 */
+	public boolean intersectsBox(float minX, float minY, float minZ, float maxX, float maxY, float maxZ) {
+		for(int p = 0; p < PLANES * 4; p += 4) {
+			float x = planes[p] >= 0 ? maxX : minX;
+			float y = planes[p + 1] >= 0 ? maxY : minY;
+			float z = planes[p + 2] >= 0 ? maxZ : minZ;
+			if(planes[p] * x + planes[p + 1] * y + planes[p + 2] * z + planes[p + 3] < 0)
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * classifies a box against some of the planes of the frustum. A hierarchy of
+	 * boxes can pass the result for a box on to the boxes inside it, so they only
+	 * test the planes it straddles
+	 * 
+	 * @param mask
+	 *            A bit for each plane to test, ALL_PLANES to test them all
+	 * 
+	 * @return -1 if the box is outside one of the planes, otherwise the mask of
+	 *         the tested planes the box straddles, zero if it is inside all of
+	 *         them
+	 */
+	public int classifyBox(float minX, float minY, float minZ, float maxX, float maxY, float maxZ, int mask) {
+		for(int plane = 0; plane < PLANES; plane++) {
+			int bit = 1 << plane;
+			if((mask & bit) == 0)
+				continue;
+
+			int p = plane * 4;
+			float a = planes[p], b = planes[p + 1], c = planes[p + 2], d = planes[p + 3];
+			// the corners furthest along and against the normal
+			if(a * (a >= 0 ? maxX : minX) + b * (b >= 0 ? maxY : minY) + c * (c >= 0 ? maxZ : minZ) + d < 0)
+				return -1;
+			if(a * (a >= 0 ? minX : maxX) + b * (b >= 0 ? minY : maxY) + c * (c >= 0 ? minZ : maxZ) + d >= 0)
+				mask &= ~bit;
+		}
+		return mask;
+	}
+
+	/**
+	 * @return True if any part of the box may be inside the frustum
+	 */
+	public boolean intersectsBox(BoundingBox box) {
+		Vector3f min = box.getMin(), max = box.getMax();
+		return intersectsBox(min.getX(), min.getY(), min.getZ(), max.getX(), max.getY(), max.getZ());
+	}
+
+	/**
+	 * culls a batch of bounding spheres, writing the indices of those that may be
+	 * inside the frustum into visible in ascending order. Each plane is tested
+	 * against every sphere before moving to the next, keeping the closest
+	 * distance of each sphere in distances
+	 * 
+	 * @param x
+	 *            The x coordinate of each sphere centre
+	 * @param y
+	 *            The y coordinate of each sphere centre
+	 * @param z
+	 *            The z coordinate of each sphere centre
+	 * @param radius
+	 *            The radius of each sphere, infinite to never cull it
+	 * @param count
+	 *            The amount of spheres
+	 * @param distances
+	 *            Scratch space of at least count floats
+	 * @param visible
+	 *            The array to write the indices of visible spheres into, of at least
+	 *            count ints
+	 * 
+	 * @return The amount of visible spheres
+	 */
+	public int cullSpheres(float[] x, float[] y, float[] z, float[] radius, int count, float[] distances,
+			int[] visible) {
+		for(int i = 0; i < count; i++)
+			distances[i] = Float.POSITIVE_INFINITY;
+
+		for(int p = 0; p < PLANES * 4; p += 4) {
+			float a = planes[p], b = planes[p + 1], c = planes[p + 2], d = planes[p + 3];
+			for(int i = 0; i < count; i++)
+				distances[i] = Math.min(distances[i], a * x[i] + b * y[i] + c * z[i] + d + radius[i]);
+		}
+
+		int visibleCount = 0;
+		for(int i = 0; i < count; i++) {
+			visible[visibleCount] = i;
+			// always written, only kept by counting it
+			visibleCount += distances[i] >= 0 ? 1 : 0;
+		}
+		return visibleCount;
+	}
+
+	/**
+	 * copies a plane into a quaternion, as (a, b, c, d) in (x, y, z, w)
+	 */
+	public Quaternion getPlane(int plane, Quaternion dest) {
+		int p = plane * 4;
+		dest.setX(planes[p]);
+		dest.setY(planes[p + 1]);
+		dest.setZ(planes[p + 2]);
+		dest.setW(planes[p + 3]);
+		return dest;
+	}
+
+	/**
+	 * calculates the eight corners of the frustum, where three of its planes meet.
+	 * Corner i is on the right plane if bit 0 of i is set, otherwise the left, on
+	 * the top plane if bit 1 is set, otherwise the bottom, and on the far plane if
+	 * bit 2 is set, otherwise the near
+	 * 
+	 * @param dest
+	 *            The eight vectors to store the corners in
+	 * 
+	 * @return dest
+	 */
+	public Vector3f[] getCorners(Vector3f[] dest) {
+		for(int i = 0; i < 8; i++)
+			intersect((i & 1) == 0 ? LEFT : RIGHT, (i & 2) == 0 ? BOTTOM : TOP, (i & 4) == 0 ? NEAR : FAR, dest[i]);
+		return dest;
+	}
+
+	/**
+	 * calculates the point where three planes meet
+	 */
+	private void intersect(int first, int second, int third, Vector3f dest) {
+		int p1 = first * 4, p2 = second * 4, p3 = third * 4;
+		float[] n = planes;
+
+		// the cross products of each pair of normals
+		float c23x = n[p2 + 1] * n[p3 + 2] - n[p2 + 2] * n[p3 + 1];
+		float c23y = n[p2 + 2] * n[p3] - n[p2] * n[p3 + 2];
+		float c23z = n[p2] * n[p3 + 1] - n[p2 + 1] * n[p3];
+		float c31x = n[p3 + 1] * n[p1 + 2] - n[p3 + 2] * n[p1 + 1];
+		float c31y = n[p3 + 2] * n[p1] - n[p3] * n[p1 + 2];
+		float c31z = n[p3] * n[p1 + 1] - n[p3 + 1] * n[p1];
+		float c12x = n[p1 + 1] * n[p2 + 2] - n[p1 + 2] * n[p2 + 1];
+		float c12y = n[p1 + 2] * n[p2] - n[p1] * n[p2 + 2];
+		float c12z = n[p1] * n[p2 + 1] - n[p1 + 1] * n[p2];
+
+		float det = n[p1] * c23x + n[p1 + 1] * c23y + n[p1 + 2] * c23z;
+		if(det == 0) {
+			dest.set(0, 0, 0);
+			return;
+		}
+
+		float d1 = -n[p1 + 3] / det, d2 = -n[p2 + 3] / det, d3 = -n[p3 + 3] / det;
+		dest.set(d1 * c23x + d2 * c31x + d3 * c12x, d1 * c23y + d2 * c31y + d3 * c12y,
+				d1 * c23z + d2 * c31z + d3 * c12z);
+	}
+}
@@ -7,7 +7,12 @@ import core.maths.vector.Vector3f;
 /**
  * <h1>Transform Class</h1>
  * <p>
- * This class holds the standard transformations for a GameObject
+ * This class holds the standard transformations for a GameObject. The
+ * transformations themselves live in the TransformStore, a transform is only a
+ * view of its slot there. The model matrix is cached by the store and only
+ * recalculated once one of the transformations is set to a different value, and
+ * the model view projection matrix is cached until either the model matrix or
+ * the cameras view projection matrix changes.
  * 
  * @author Graham
  * @version 2.0.0
@@ -15,31 +20,100 @@ import core.maths.vector.Vector3f;
  */
 public class Transform {
 
-	private Vector3f translation, rotation, scaling;
+	private final TransformStore store;
+	private final int handle;
+
+	// copies of the stores model matrix and the mvp matrix built from it
+	private Matrix4f modelMatrix, mvpMatrix;
+	// the store version the copied model matrix is from
+	private int modelVersion;
+	// the model and camera view projection versions the cached mvp matrix was calculated with
+	private int mvpModelVersion, viewProjectionVersion;
 
 	/**
-	 * creates a transform with all translation, rotation set to zero and scaling
-	 * set to one
+	 * creates a transform in the engines transform store with all translation,
+	 * rotation set to zero and scaling set to one
 	 */
 	public Transform() {
-		translation = new Vector3f(0, 0, 0);
-		rotation = new Vector3f(0, 0, 0);
-		scaling = new Vector3f(0, 0, 0);
+		this(TransformStore.getInstance());
+	}
+
+	/**
+	 * creates a transform in the passed in transform store with all translation,
+	 * rotation set to zero and scaling set to one
+	 * 
+	 * @param store
+	 *            The store to keep the transformations in
+	 */
+	public Transform(TransformStore store) {
+		this.store = store;
+		handle = store.allocate();
+
+		modelMatrix = new Matrix4f();
+		mvpMatrix = new Matrix4f();
+		modelVersion = -1;
+		mvpModelVersion = -1;
 	}
 
 	/**
-	 * generates this Transforms Model Matrix (translation mat * scaling mat *
-	 * rotation mat) and returns it
+	 * returns this Transforms Model Matrix (translation mat * scaling mat * rotation
+	 * mat), recalculating it only if a transformation has changed since it was
+	 * last calculated
 	 * 
-	 * @return A new matrix that is the ModelMatrix of this transform
+	 * @return The cached Model Matrix of this transform, owned by the transform
+	 *         and not to be changed
 	 */
 	public Matrix4f getModelMatrix() {
-		return new Matrix4f().setTranslation(translation).mul(new Matrix4f().setScaling(scaling))
-				.mul(new Matrix4f().setRotation(rotation));
+		int version = store.getVersion(handle);
+		if(version != modelVersion || store.isDirty(handle)) {
+			store.getMatrix(handle, modelMatrix);
+			modelVersion = version;
+		}
+		return modelMatrix;
+	}
+
+	/**
+	 * copies this Transforms Model Matrix (translation mat * scaling mat *
+	 * rotation mat) into the matrix passed in
+	 * 
+	 * @param dest
+	 *            The matrix to store the Model Matrix in
+	 * @return Dest, holding the Model Matrix of this transform
+	 */
+	public Matrix4f getModelMatrix(Matrix4f dest) {
+		return dest.set(getModelMatrix());
 	}
 
+	/**
+	 * returns this Transforms Model View Projection Matrix, recalculating it only if
+	 * the model matrix or the cameras view projection matrix has changed since it
+	 * was last calculated
+	 * 
+	 * @return The cached Model View Projection Matrix of this transform, owned by
+	 *         the transform and not to be changed
+	 */
 	public Matrix4f getMVPMatrix() {
-		return Camera.getInstance().getViewProjectionMatrix().mul(getModelMatrix());
+		Camera camera = Camera.getInstance();
+		int version = camera.getViewProjectionVersion();
+		Matrix4f model = getModelMatrix();
+
+		if(modelVersion != mvpModelVersion || version != viewProjectionVersion) {
+			camera.getViewProjectionMatrix().mul(model, mvpMatrix);
+			mvpModelVersion = modelVersion;
+			viewProjectionVersion = version;
+		}
+		return mvpMatrix;
+	}
+
+	/**
+	 * copies this Transforms Model View Projection Matrix into the matrix passed in
+	 * 
+	 * @param dest
+	 *            The matrix to store the Model View Projection Matrix in
+	 * @return Dest, holding the Model View Projection Matrix of this transform
+	 */
+	public Matrix4f getMVPMatrix(Matrix4f dest) {
+		return dest.set(getMVPMatrix());
 	}
 
 	/**
@@ -48,7 +122,7 @@ public class Transform {
 	 * @return A new matrix that is the Translation Matrix of this transform
 	 */
 	public Matrix4f getTranslationMatrix() {
-		return new Matrix4f().setTranslation(translation);
+		return new Matrix4f().setTranslation(getTranslation());
 	}
 
 	/**
@@ -57,7 +131,7 @@ public class Transform {
 	 * @return A new matrix that is the Rotation Matrix of this transform
 	 */
 	public Matrix4f getRoatationMatrix() {
-		return new Matrix4f().setRotation(rotation);
+		return new Matrix4f().setRotation(getRotation());
 	}
 
 	/**
@@ -66,30 +140,115 @@ public class Transform {
 	 * @return A new matrix that is the Scaling Matrix of this transform
 	 */
 	public Matrix4f getScalingMatrix() {
-		return new Matrix4f().setScaling(scaling);
+		return new Matrix4f().setScaling(getScaling());
 	}
 
+	/**
+	 * @return A new vector holding the translation of this transform
+	 */
 	public Vector3f getTranslation() {
-		return translation;
+		return store.getTranslation(handle, new Vector3f());
 	}
 
 	public void setTranslation(Vector3f translation) {
-		this.translation = translation;
+		store.setTranslation(handle, translation.getX(), translation.getY(), translation.getZ());
 	}
 
+	/**
+	 * @return A new vector holding the rotation of this transform
+	 */
 	public Vector3f getRotation() {
-		return rotation;
+		return store.getRotation(handle, new Vector3f());
 	}
 
 	public void setRotation(Vector3f rotation) {
-		this.rotation = rotation;
+		store.setRotation(handle, rotation.getX(), rotation.getY(), rotation.getZ());
 	}
 
+	/**
+	 * @return A new vector holding the scaling of this transform
+	 */
 	public Vector3f getScaling() {
-		return scaling;
+		return store.getScaling(handle, new Vector3f());
 	}
 
 	public void setScaling(Vector3f scaling) {
-		this.scaling = scaling;
+		store.setScaling(handle, scaling.getX(), scaling.getY(), scaling.getZ());
+	}
+
+	/**
+	 * adds the passed in vector to the translation of this transform
+	 * 
+	 * @param vec
+	 *            The vector to translate by
+	 */
+	public void translate(Vector3f vec) {
+		store.translate(handle, vec.getX(), vec.getY(), vec.getZ());
+	}
+
+	/**
+	 * adds the passed in angles to the rotation of this transform
+	 * 
+	 * @param vec
+	 *            The x,y,z angles to rotate by
+	 */
+	public void rotate(Vector3f vec) {
+		store.rotate(handle, vec.getX(), vec.getY(), vec.getZ());
+	}
+
+	/**
+	 * flags the cached matrices to be recalculated
+	 */
+	public void markDirty() {
+		store.markDirty(handle);
+	}
+
+	/**
+	 * sets the model matrix of this transform to the product of a parents model
+	 * matrix and a local model matrix (parent mat * local mat), as done for the world
+	 * transform of a node with a parent. The translation, rotation and scaling of
+	 * this transform are left unchanged and are not used until one of them is set
+	 * again
+	 * 
+	 * @param parent
+	 *            The transform of the parent
+	 * @param local
+	 *            The transform relative to the parent
+	 */
+	public void compose(Transform parent, Transform local) {
+		parent.getModelMatrix().mul(local.getModelMatrix(), modelMatrix);
+		store.setMatrix(handle, modelMatrix, parent.handle, local.handle);
+		modelVersion = store.getVersion(handle);
+	}
+
+	/**
+	 * stops this transform following the transforms it was last composed from
+	 */
+	public void detach() {
+		store.detach(handle);
+	}
+
+	/**
+	 * @return The version of the model matrix, which changes every time the model
+	 *         matrix does
+	 */
+	public int getVersion() {
+		return store.getVersion(handle);
+	}
+
+	/**
+	 * returns this transforms slot to the store, the transform must not be used
+	 * afterwards
+	 */
+	public void release() {
+		store.release(handle);
+	}
+
+	public int getHandle() {
+		return handle;
+	}
+
+	public TransformStore getStore() {
+		return store;
 	}
 }
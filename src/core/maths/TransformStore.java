@@ -0,0 +1,525 @@
+package core.maths;
+
+import java.util.Arrays;
+
+import core.kernel.JobSystem;
+import core.maths.matrix.Matrix4f;
+import core.maths.vector.Vector3f;
+
+/**
+ * <h1>TransformStore Class</h1>
+ * <p>
+ * Holds the transformations of every Transform in the engine as a structure of
+ * arrays. The translation, rotation and scaling of each transform and its cached
+ * model matrix are stored in contiguous float arrays, and a transform is only an
+ * int handle into them, so updating thousands of transforms walks memory in order
+ * instead of chasing a handful of objects per transform.
+ * <p>
+ * Model matrices are recalculated lazily, one at a time when requested, or all
+ * together by updateMatrices, which can split the work across the job system.
+ * The transformations each had at the start of the current tick are kept as
+ * well, so interpolate can draw moving transforms part way between ticks.
+ * <p>
+ * The store belongs to the thread running the simulation, the main thread or
+ * the simulation thread when threaded, and only that thread may allocate and
+ * release handles. Every value of a transform lives at its own handle, so job
+ * workers may write to different handles at the same time, as the parallel
+ * TransformSystem does, but never to the same handle, and never while a handle
+ * is allocated or released, or while updateMatricesParallel or
+ * interpolateParallel run. The render thread only reads snapshots captured
+ * from the store between ticks.
+ *
+ * @author Graham
+ * @version 2.0.0
+ * @since 2026-10-18
+ */
+public class TransformStore {
+
+	private static final int DEFAULT_CAPACITY = 256;
+	// the fewest transforms worth handing to another thread in updateMatricesParallel
+	private static final int MIN_PARALLEL_BATCH = 4096;
+
+	// the engine shares one store between all transforms, so the class is a single instance class
+	private static TransformStore instance = null;
+
+	// three floats per transform
+	private float[] translations, rotations, scalings;
+	// sixteen floats per transform, row by row
+	private float[] matrices;
+	private boolean[] dirty;
+	// incremented whenever a transforms model matrix changes
+	private int[] versions;
+
+	// the transformations at the start of the current tick, three floats per transform
+	private float[] previousTranslations, previousRotations, previousScalings;
+	// false for transforms allocated or snapped since the last saveState, which are never blended
+	private boolean[] hasPrevious;
+	// true while the model matrix holds a blended rather than the exact transformation
+	private boolean[] interpolated;
+	// true while the model matrix was set by setMatrix rather than built from the transformations
+	private boolean[] external;
+	// the exact model matrices set by setMatrix, sixteen floats per transform
+	private float[] externalMatrices;
+	// the transforms whose product a model matrix set by setMatrix is, or -1 if it was not set as a product
+	private int[] parents, locals;
+	// the last pass of interpolateComposed to reach each transform
+	private int[] composedPasses;
+	private int composedPass;
+	// the transforms from one being recomposed up to the first whose parent is up to date, reused every pass
+	private int[] chain = new int[16];
+	private final Matrix4f parentMatrix = new Matrix4f(), localMatrix = new Matrix4f();
+
+	private int capacity;
+	// one past the highest handle ever allocated
+	private int size;
+	private int[] freeHandles;
+	private int freeCount;
+
+	/**
+	 * returns the current instance of the transform store, or if none exists, it
+	 * creates a new current instance before returning it
+	 *
+	 * @return the current instance of the transform store
+	 */
+	public static TransformStore getInstance() {
+		if(instance == null)
+			instance = new TransformStore(DEFAULT_CAPACITY);
+		return instance;
+	}
+
+	/**
+	 * creates an empty store able to hold the specified amount of transforms
+	 * before having to grow
+	 *
+	 * @param capacity The initial amount of transforms the store can hold
+	 */
+	public TransformStore(int capacity) {
+		this.capacity = Math.max(capacity, 1);
+		translations = new float[this.capacity * 3];
+		rotations = new float[this.capacity * 3];
+		scalings = new float[this.capacity * 3];
+		matrices = new float[this.capacity * 16];
+		dirty = new boolean[this.capacity];
+		versions = new int[this.capacity];
+		previousTranslations = new float[this.capacity * 3];
+		previousRotations = new float[this.capacity * 3];
+		previousScalings = new float[this.capacity * 3];
+		hasPrevious = new boolean[this.capacity];
+		interpolated = new boolean[this.capacity];
+		external = new boolean[this.capacity];
+		externalMatrices = new float[this.capacity * 16];
+		parents = new int[this.capacity];
+		locals = new int[this.capacity];
+		composedPasses = new int[this.capacity];
+		freeHandles = new int[16];
+	}
+
+	/**
+	 * allocates a transform with zero translation and rotation and a scaling of
+	 * one
+	 *
+	 * @return The handle of the new transform
+	 */
+	public int allocate() {
+		int handle;
+		if(freeCount > 0) {
+			handle = freeHandles[--freeCount];
+		}else {
+			if(size == capacity)
+				grow(capacity * 2);
+			handle = size++;
+		}
+
+		int v = handle * 3;
+		translations[v] = 0;
+		translations[v + 1] = 0;
+		translations[v + 2] = 0;
+		rotations[v] = 0;
+		rotations[v + 1] = 0;
+		rotations[v + 2] = 0;
+		scalings[v] = 1;
+		scalings[v + 1] = 1;
+		scalings[v + 2] = 1;
+		hasPrevious[handle] = false;
+		interpolated[handle] = false;
+		markDirty(handle);
+
+		return handle;
+	}
+
+	/**
+	 * releases a transform so its handle can be reused, the handle must not be
+	 * used again by its previous owner
+	 *
+	 * @param handle The handle of the transform to release
+	 */
+	public void release(int handle) {
+		dirty[handle] = false;
+		if(freeCount == freeHandles.length)
+			freeHandles = Arrays.copyOf(freeHandles, freeCount * 2);
+		freeHandles[freeCount++] = handle;
+	}
+
+	public void setTranslation(int handle, float x, float y, float z) {
+		set(translations, handle, x, y, z);
+	}
+
+	public void setRotation(int handle, float x, float y, float z) {
+		set(rotations, handle, x, y, z);
+	}
+
+	public void setScaling(int handle, float x, float y, float z) {
+		set(scalings, handle, x, y, z);
+	}
+
+	/**
+	 * adds to the translation of a transform
+	 */
+	public void translate(int handle, float x, float y, float z) {
+		int v = handle * 3;
+		set(translations, handle, translations[v] + x, translations[v + 1] + y, translations[v + 2] + z);
+	}
+
+	/**
+	 * adds to the rotation angles of a transform
+	 */
+	public void rotate(int handle, float x, float y, float z) {
+		int v = handle * 3;
+		set(rotations, handle, rotations[v] + x, rotations[v + 1] + y, rotations[v + 2] + z);
+	}
+
+	/**
+	 * sets one of the vector arrays, only flagging the transform dirty if the value
+	 * actually changes
+	 */
+	private void set(float[] vectors, int handle, float x, float y, float z) {
+		int v = handle * 3;
+		if(vectors[v] == x && vectors[v + 1] == y && vectors[v + 2] == z)
+			return;
+
+		vectors[v] = x;
+		vectors[v + 1] = y;
+		vectors[v + 2] = z;
+		markDirty(handle);
+	}
+
+	public Vector3f getTranslation(int handle, Vector3f dest) {
+		return get(translations, handle, dest);
+	}
+
+	public Vector3f getRotation(int handle, Vector3f dest) {
+		return get(rotations, handle, dest);
+	}
+
+	public Vector3f getScaling(int handle, Vector3f dest) {
+		return get(scalings, handle, dest);
+	}
+
+	private Vector3f get(float[] vectors, int handle, Vector3f dest) {
+		int v = handle * 3;
+		dest.set(vectors[v], vectors[v + 1], vectors[v + 2]);
+		return dest;
+	}
+
+	/**
+	 * flags the model matrix of a transform to be recalculated
+	 *
+	 * @param handle The handle of the transform
+	 */
+	public void markDirty(int handle) {
+		dirty[handle] = true;
+		external[handle] = false;
+		versions[handle]++;
+	}
+
+	/**
+	 * stores a model matrix calculated elsewhere as the model matrix of a
+	 * transform, as done for the world transform of a node with a parent. The
+	 * translation, rotation and scaling of the transform are left unchanged
+	 *
+	 * @param handle The handle of the transform
+	 * @param matrix The model matrix to store
+	 */
+	public void setMatrix(int handle, Matrix4f matrix) {
+		setMatrix(handle, matrix, -1, -1);
+	}
+
+	/**
+	 * stores the product of two other transforms model matrices (parent mat *
+	 * local mat) as the model matrix of a transform, as done for the world
+	 * transform of a node with a parent. The two transforms are remembered, so
+	 * interpolate can recompose the product from their blended model matrices
+	 *
+	 * @param handle The handle of the transform
+	 * @param matrix The product of the two model matrices
+	 * @param parent The handle of the parents transform, or -1 for none
+	 * @param local The handle of the transform relative to the parent, or -1 for none
+	 */
+	public void setMatrix(int handle, Matrix4f matrix, int parent, int local) {
+		matrix.get(matrices, handle * 16);
+		matrix.get(externalMatrices, handle * 16);
+		parents[handle] = parent;
+		locals[handle] = local;
+		dirty[handle] = false;
+		interpolated[handle] = false;
+		external[handle] = true;
+		versions[handle]++;
+	}
+
+	/**
+	 * forgets the transforms a model matrix set by setMatrix is the product of,
+	 * so it is no longer recomposed by interpolate, as done when a node loses its
+	 * parent
+	 *
+	 * @param handle The handle of the transform
+	 */
+	public void detach(int handle) {
+		parents[handle] = -1;
+		locals[handle] = -1;
+	}
+
+	/**
+	 * copies the model matrix of a transform into a matrix, recalculating it
+	 * first if it is dirty
+	 *
+	 * @param handle The handle of the transform
+	 * @param dest The matrix to copy the model matrix into
+	 *
+	 * @return Dest, holding the model matrix of the transform
+	 */
+	public Matrix4f getMatrix(int handle, Matrix4f dest) {
+		if(dirty[handle])
+			updateMatrix(handle);
+		return dest.set(matrices, handle * 16);
+	}
+
+	/**
+	 * @return The version of a transforms model matrix, which changes every time the
+	 *         model matrix does
+	 */
+	public int getVersion(int handle) {
+		return versions[handle];
+	}
+
+	public boolean isDirty(int handle) {
+		return dirty[handle];
+	}
+
+	/**
+	 * recalculates every dirty model matrix on the calling thread
+	 */
+	public void updateMatrices() {
+		updateMatrices(0, size);
+	}
+
+	/**
+	 * recalculates every dirty model matrix, splitting the store into batches that
+	 * are recalculated in parallel by the job system. Must not run at the same
+	 * time as anything writing to the store
+	 */
+	public void updateMatricesParallel() {
+		JobSystem.getInstance().parallelFor(0, size, MIN_PARALLEL_BATCH, this::updateMatrices);
+	}
+
+	/**
+	 * recalculates the dirty model matrices of the transforms with handles from
+	 * (inclusive) to (exclusive)
+	 */
+	private void updateMatrices(int from, int to) {
+		for(int i = from; i < to; i++)
+			if(dirty[i])
+				updateMatrix(i);
+	}
+
+	private void updateMatrix(int handle) {
+		int v = handle * 3;
+		Matrix4f.setTransform(matrices, handle * 16, translations[v], translations[v + 1], translations[v + 2],
+				rotations[v], rotations[v + 1], rotations[v + 2], scalings[v], scalings[v + 1], scalings[v + 2]);
+		dirty[handle] = false;
+		interpolated[handle] = false;
+	}
+
+	/**
+	 * remembers the current transformations as the start of a new tick, to be
+	 * called before every fixed update. Model matrices left blended by interpolate
+	 * are put back to their exact values, so the update never sees them
+	 */
+	public void saveState() {
+		System.arraycopy(translations, 0, previousTranslations, 0, size * 3);
+		System.arraycopy(rotations, 0, previousRotations, 0, size * 3);
+		System.arraycopy(scalings, 0, previousScalings, 0, size * 3);
+		Arrays.fill(hasPrevious, 0, size, true);
+
+		for(int i = 0; i < size; i++)
+			if(interpolated[i])
+				restore(i);
+	}
+
+	/**
+	 * replaces a model matrix blended by interpolate with its exact value
+	 */
+	private void restore(int handle) {
+		if(external[handle]) {
+			System.arraycopy(externalMatrices, handle * 16, matrices, handle * 16, 16);
+			interpolated[handle] = false;
+			versions[handle]++;
+		}else {
+			markDirty(handle);
+		}
+	}
+
+	/**
+	 * stops a transform from being blended until the next tick, for transforms
+	 * that jump rather than move, such as a teleport
+	 *
+	 * @param handle The handle of the transform
+	 */
+	public void snap(int handle) {
+		hasPrevious[handle] = false;
+		if(interpolated[handle])
+			restore(handle);
+	}
+
+	/**
+	 * sets the model matrix of every transform that moved during the last tick to
+	 * a blend of where it was at the start of the tick and where it is now, and
+	 * recalculates any other dirty model matrix exactly, on the calling thread.
+	 * Model matrices set by setMatrix as a product, such as the world matrices of
+	 * child nodes, are then recomposed from the blended matrices, so children move
+	 * along with their parents without their matrices being sheared
+	 *
+	 * @param alpha How far between the last two ticks to draw, from 0 (the start of
+	 *              the tick) to 1 (the current state)
+	 */
+	public void interpolate(float alpha) {
+		interpolate(0, size, alpha);
+		interpolateComposed();
+	}
+
+	/**
+	 * interpolates every transform, splitting the store into batches that are
+	 * interpolated in parallel by the job system, then recomposes the products on
+	 * the calling thread. Must not run at the same time as anything writing to the
+	 * store
+	 *
+	 * @param alpha How far between the last two ticks to draw, from 0 to 1
+	 */
+	public void interpolateParallel(float alpha) {
+		JobSystem.getInstance().parallelFor(0, size, MIN_PARALLEL_BATCH, (from, to) -> interpolate(from, to, alpha));
+		interpolateComposed();
+	}
+
+	private void interpolate(int from, int to, float alpha) {
+		for(int i = from; i < to; i++) {
+			if(hasPrevious[i] && !external[i] && moved(i)) {
+				int v = i * 3;
+				Matrix4f.setTransform(matrices, i * 16,
+						lerp(previousTranslations, translations, v, alpha),
+						lerp(previousTranslations, translations, v + 1, alpha),
+						lerp(previousTranslations, translations, v + 2, alpha),
+						lerp(previousRotations, rotations, v, alpha),
+						lerp(previousRotations, rotations, v + 1, alpha),
+						lerp(previousRotations, rotations, v + 2, alpha),
+						lerp(previousScalings, scalings, v, alpha),
+						lerp(previousScalings, scalings, v + 1, alpha),
+						lerp(previousScalings, scalings, v + 2, alpha));
+				dirty[i] = false;
+				interpolated[i] = true;
+				versions[i]++;
+			}else if(dirty[i]) {
+				updateMatrix(i);
+			}
+		}
+	}
+
+	private boolean moved(int handle) {
+		int v = handle * 3;
+		for(int i = v; i < v + 3; i++)
+			if(translations[i] != previousTranslations[i] || rotations[i] != previousRotations[i]
+					|| scalings[i] != previousScalings[i])
+				return true;
+		return false;
+	}
+
+	/**
+	 * recomposes every model matrix set by setMatrix as a product from the
+	 * current model matrices of the two transforms it is the product of. Parents
+	 * are recomposed before their children whatever order their handles are in,
+	 * so a blend passes down the whole tree
+	 */
+	private void interpolateComposed() {
+		composedPass++;
+		for(int i = 0; i < size; i++) {
+			// follows the parents up to one that is up to date, then recomposes back down
+			int length = 0;
+			for(int j = i; isComposed(j) && composedPasses[j] != composedPass; j = parents[j]) {
+				if(length == chain.length)
+					chain = Arrays.copyOf(chain, length * 2);
+				chain[length++] = j;
+				composedPasses[j] = composedPass;
+			}
+			while(length > 0)
+				recompose(chain[--length]);
+		}
+	}
+
+	private boolean isComposed(int handle) {
+		return handle >= 0 && external[handle] && parents[handle] >= 0;
+	}
+
+	/**
+	 * sets a model matrix set as a product to the product of the blended model
+	 * matrices, or back to its exact value if neither of them is blended
+	 */
+	private void recompose(int handle) {
+		int parent = parents[handle], local = locals[handle];
+		if(hasPrevious[handle] && (interpolated[parent] || interpolated[local])) {
+			parentMatrix.set(matrices, parent * 16);
+			localMatrix.set(matrices, local * 16);
+			parentMatrix.mul(localMatrix, localMatrix).get(matrices, handle * 16);
+			interpolated[handle] = true;
+			versions[handle]++;
+		}else if(interpolated[handle]) {
+			restore(handle);
+		}
+	}
+
+	private static float lerp(float[] previous, float[] current, int index, float alpha) {
+		return previous[index] + (current[index] - previous[index]) * alpha;
+	}
+
+	private void grow(int newCapacity) {
+		capacity = newCapacity;
+		translations = Arrays.copyOf(translations, capacity * 3);
+		rotations = Arrays.copyOf(rotations, capacity * 3);
+		scalings = Arrays.copyOf(scalings, capacity * 3);
+		matrices = Arrays.copyOf(matrices, capacity * 16);
+		dirty = Arrays.copyOf(dirty, capacity);
+		versions = Arrays.copyOf(versions, capacity);
+		previousTranslations = Arrays.copyOf(previousTranslations, capacity * 3);
+		previousRotations = Arrays.copyOf(previousRotations, capacity * 3);
+		previousScalings = Arrays.copyOf(previousScalings, capacity * 3);
+		hasPrevious = Arrays.copyOf(hasPrevious, capacity);
+		interpolated = Arrays.copyOf(interpolated, capacity);
+		external = Arrays.copyOf(external, capacity);
+		externalMatrices = Arrays.copyOf(externalMatrices, capacity * 16);
+		parents = Arrays.copyOf(parents, capacity);
+		locals = Arrays.copyOf(locals, capacity);
+		composedPasses = Arrays.copyOf(composedPasses, capacity);
+	}
+
+	/**
+	 * @return The model matrices of every transform, sixteen floats each in handle
+	 *         order. Only up to date for transforms that are not dirty
+	 */
+	public float[] getMatrices() {
+		return matrices;
+	}
+
+	/**
+	 * @return One past the highest handle in use
+	 */
+	public int size() {
+		return size;
+	}
+}
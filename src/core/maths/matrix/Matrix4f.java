@@ -1,7 +1,10 @@
 package core.maths.matrix;
 
+import java.nio.FloatBuffer;
+
 import core.maths.Quaternion;
 import core.maths.vector.Vector3f;
+import core.utils.logging.Logger;
 import core.window.Window;
 
 /**
@@ -26,13 +29,16 @@ import core.window.Window;
  */
 public class Matrix4f {
 
-	public float[][] m;
+	private static final Logger log = Logger.getLogger(Matrix4f.class);
+
+	// entries stored row by row, entry (row, column) is at index row * 4 + column
+	private final float[] m;
 	
 	/**
 	 * creates a new Matrix4f with all empty entries
 	 */
 	public Matrix4f() {
-		m = new float[4][4];
+		m = new float[16];
 	}
 	
 	/**
@@ -41,10 +47,10 @@ public class Matrix4f {
 	 * @return This matrix for use in calculations
 	 */
 	public Matrix4f setZero() {
-		m[0][0] = 0; m[0][1] = 0; m[0][2] = 0; m[0][3] = 0;
-		m[1][0] = 0; m[1][1] = 0; m[1][2] = 0; m[1][3] = 0;
-		m[2][0] = 0; m[2][1] = 0; m[2][2] = 0; m[2][3] = 0;
-		m[3][0] = 0; m[3][1] = 0; m[3][2] = 0; m[3][3] = 0;
+		m[0] = 0; m[1] = 0; m[2] = 0; m[3] = 0;
+		m[4] = 0; m[5] = 0; m[6] = 0; m[7] = 0;
+		m[8] = 0; m[9] = 0; m[10] = 0; m[11] = 0;
+		m[12] = 0; m[13] = 0; m[14] = 0; m[15] = 0;
 	
 		return this;
 	}
@@ -55,11 +61,25 @@ public class Matrix4f {
 	 * @return This matrix for use in calculations
 	 */
 	public Matrix4f setIdentity() {
-		m[0][0] = 1; m[0][1] = 0; m[0][2] = 0; m[0][3] = 0;
-		m[1][0] = 0; m[1][1] = 1; m[1][2] = 0; m[1][3] = 0;
-		m[2][0] = 0; m[2][1] = 0; m[2][2] = 1; m[2][3] = 0;
-		m[3][0] = 0; m[3][1] = 0; m[3][2] = 0; m[3][3] = 1;
+		m[0] = 1; m[1] = 0; m[2] = 0; m[3] = 0;
+		m[4] = 0; m[5] = 1; m[6] = 0; m[7] = 0;
+		m[8] = 0; m[9] = 0; m[10] = 1; m[11] = 0;
+		m[12] = 0; m[13] = 0; m[14] = 0; m[15] = 1;
+	
+		return this;
+	}
 	
+	/**
+	 * sets the entries of this matrix equal to those of the matrix passed in
+	 * 
+	 * @param mat
+	 * 				The matrix who's entries are to be copied
+	 * 
+	 * @return This matrix for use in calculations
+	 */
+	public Matrix4f set(Matrix4f mat) {
+		System.arraycopy(mat.m, 0, m, 0, 16);
+		
 		return this;
 	}
 	
@@ -74,10 +94,10 @@ public class Matrix4f {
 	 * 				A new matrix that represents an affine translation
 	 */
 	public Matrix4f setTranslation(Vector3f translation) {
-		m[0][0] = 1; m[0][1] = 0; m[0][2] = 0; m[0][3] = translation.getX();
-		m[1][0] = 0; m[1][1] = 1; m[1][2] = 0; m[1][3] = translation.getY();
-		m[2][0] = 0; m[2][1] = 0; m[2][2] = 1; m[2][3] = translation.getZ();
-		m[3][0] = 0; m[3][1] = 0; m[3][2] = 0; m[3][3] = 1;
+		m[0] = 1; m[1] = 0; m[2] = 0; m[3] = translation.getX();
+		m[4] = 0; m[5] = 1; m[6] = 0; m[7] = translation.getY();
+		m[8] = 0; m[9] = 0; m[10] = 1; m[11] = translation.getZ();
+		m[12] = 0; m[13] = 0; m[14] = 0; m[15] = 1;
 	
 		return this;
 	}
@@ -94,32 +114,60 @@ public class Matrix4f {
 	 * 				A new matrix that represents an affine rotation
 	 */
 	public Matrix4f setRotation(Vector3f rotation) {
-		Matrix4f rx = new Matrix4f();
-		Matrix4f ry = new Matrix4f();
-		Matrix4f rz = new Matrix4f();
-		
-		float x = (float)Math.toRadians(rotation.getX());
-		float y = (float)Math.toRadians(rotation.getY());
-		float z = (float)Math.toRadians(rotation.getZ());
-		
-		rz.m[0][0] = (float)Math.cos(z); rz.m[0][1] = -(float)Math.sin(z); 	 rz.m[0][2] = 0; 				   rz.m[0][3] = 0;
-		rz.m[1][0] = (float)Math.sin(z); rz.m[1][1] = (float)Math.cos(z);  	 rz.m[1][2] = 0; 				   rz.m[1][3] = 0;
-		rz.m[2][0] = 0; 				 rz.m[2][1] = 0; 				   	 rz.m[2][2] = 1; 				   rz.m[2][3] = 0;
-		rz.m[3][0] = 0; 				 rz.m[3][1] = 0; 				   	 rz.m[3][2] = 0; 				   rz.m[3][3] = 1;
+		return setRotation(rotation.getX(), rotation.getY(), rotation.getZ());
+	}
+	
+	/**
+	 * sets this matrix to the appropriate transformation matrix to simulate an affine
+	 * rotation in 3D space. The rotation is the product Rz * Ry * Rx of the rotations
+	 * around each axis, written out entry by entry rather than built from three
+	 * temporary matrices
+	 * 
+	 * @param rotX
+	 * 				The rotation angle around the x axis in degrees
+	 * @param rotY
+	 * 				The rotation angle around the y axis in degrees
+	 * @param rotZ
+	 * 				The rotation angle around the z axis in degrees
+	 * 
+	 * @return
+	 * 				This matrix for use in calculations
+	 */
+	public Matrix4f setRotation(float rotX, float rotY, float rotZ) {
+		setRotation(m, 0, rotX, rotY, rotZ);
+		return this;
+	}
+	
+	/**
+	 * writes the rotation matrix Rz * Ry * Rx, row by row, into a float array
+	 * 
+	 * @param m
+	 * 				The array to write the matrix into
+	 * @param o
+	 * 				The index in m of the first entry of the matrix
+	 * @param rotX
+	 * 				The rotation angle around the x axis in degrees
+	 * @param rotY
+	 * 				The rotation angle around the y axis in degrees
+	 * @param rotZ
+	 * 				The rotation angle around the z axis in degrees
+	 */
+	private static void setRotation(float[] m, int o, float rotX, float rotY, float rotZ) {
+		float x = (float)Math.toRadians(rotX);
+		float y = (float)Math.toRadians(rotY);
+		float z = (float)Math.toRadians(rotZ);
 		
-		rx.m[0][0] = 1; 				 rx.m[0][1] = 0;					 rx.m[0][2] = 0; 				   rx.m[0][3] = 0;
-		rx.m[1][0] = 0; 				 rx.m[1][1] = (float)Math.cos(x); 	 rx.m[1][2] = -(float)Math.sin(x); rx.m[1][3] = 0;
-		rx.m[2][0] = 0; 				 rx.m[2][1] = (float)Math.sin(x); 	 rx.m[2][2] = (float)Math.cos(x);  rx.m[2][3] = 0;
-		rx.m[3][0] = 0; 				 rx.m[3][1] = 0; 				 	 rx.m[3][2] = 0;				   rx.m[3][3] = 1;
+		float sx = (float)Math.sin(x), cx = (float)Math.cos(x);
+		float sy = (float)Math.sin(y), cy = (float)Math.cos(y);
+		float sz = (float)Math.sin(z), cz = (float)Math.cos(z);
 		
-		ry.m[0][0] = (float)Math.cos(y); ry.m[0][1] = 0; 					 ry.m[0][2] = (float)Math.sin(y);  ry.m[0][3] = 0;
-		ry.m[1][0] = 0; 				 ry.m[1][1] = 1; 				 	 ry.m[1][2] = 0; 				   ry.m[1][3] = 0;
-		ry.m[2][0] = -(float)Math.sin(y);ry.m[2][1] = 0;					 ry.m[2][2] = (float)Math.cos(y);  ry.m[2][3] = 0;
-		ry.m[3][0] = 0; 				 ry.m[3][1] = 0; 					 ry.m[3][2] = 0; 				   ry.m[3][3] = 1;
-	
-		m =  rz.mul(ry.mul(rx)).getM();
+		//Ry * Rx
+		float yx01 = sy * sx, yx02 = sy * cx;
 		
-		return this;
+		m[o] = cz * cy;		m[o + 1] = cz * yx01 + -sz * cx;	m[o + 2] = cz * yx02 + -sz * -sx;	m[o + 3] = 0;
+		m[o + 4] = sz * cy;	m[o + 5] = sz * yx01 + cz * cx;		m[o + 6] = sz * yx02 + cz * -sx;	m[o + 7] = 0;
+		m[o + 8] = -sy;		m[o + 9] = cy * sx;					m[o + 10] = cy * cx;				m[o + 11] = 0;
+		m[o + 12] = 0;		m[o + 13] = 0;						m[o + 14] = 0;						m[o + 15] = 1;
 	}
 	
 	/**
@@ -133,14 +181,73 @@ public class Matrix4f {
 	 * 				A Matrix that represents a scaling
 	 */
 	public Matrix4f setScaling(Vector3f scaling) {
-		m[0][0] = scaling.getX(); 	m[0][1] = 0; 				m[0][2] = 0; 				m[0][3] = 0;
-		m[1][0] = 0; 			 	m[1][1] = scaling.getY();	m[1][2] = 0; 				m[1][3] = 0;
-		m[2][0] = 0; 				m[2][1] = 0; 				m[2][2] = scaling.getZ(); 	m[2][3] = 0;
-		m[3][0] = 0; 				m[3][1] = 0; 				m[3][2] = 0; 				m[3][3] = 1;
+		m[0] = scaling.getX(); 	m[1] = 0; 				m[2] = 0; 				m[3] = 0;
+		m[4] = 0; 			 	m[5] = scaling.getY();	m[6] = 0; 				m[7] = 0;
+		m[8] = 0; 				m[9] = 0; 				m[10] = scaling.getZ(); 	m[11] = 0;
+		m[12] = 0; 				m[13] = 0; 				m[14] = 0; 				m[15] = 1;
 	
 		return this;
 	}
 	
+	/**
+	 * sets this matrix to the affine transformation translation mat * scaling mat *
+	 * rotation mat. As translation and scaling only touch the last column and the
+	 * diagonal, the product is written straight into this matrix rather than
+	 * multiplying out three matrices
+	 * 
+	 * @param translation
+	 * 				The translation of the transformation
+	 * @param rotation
+	 * 				The x,y,z rotation angles of the transformation in degrees
+	 * @param scaling
+	 * 				The x,y,z scaling multiples of the transformation
+	 * 
+	 * @return
+	 * 				This matrix for use in calculations
+	 */
+	public Matrix4f setTransform(Vector3f translation, Vector3f rotation, Vector3f scaling) {
+		setTransform(m, 0, translation.getX(), translation.getY(), translation.getZ(), rotation.getX(),
+				rotation.getY(), rotation.getZ(), scaling.getX(), scaling.getY(), scaling.getZ());
+		return this;
+	}
+	
+	/**
+	 * writes the affine transformation translation mat * scaling mat * rotation mat,
+	 * row by row, into a float array, for transformations stored outside of a
+	 * Matrix4f
+	 * 
+	 * @param m
+	 * 				The array to write the matrix into
+	 * @param o
+	 * 				The index in m of the first entry of the matrix
+	 * @param tx
+	 * 				The x translation
+	 * @param ty
+	 * 				The y translation
+	 * @param tz
+	 * 				The z translation
+	 * @param rx
+	 * 				The rotation angle around the x axis in degrees
+	 * @param ry
+	 * 				The rotation angle around the y axis in degrees
+	 * @param rz
+	 * 				The rotation angle around the z axis in degrees
+	 * @param sx
+	 * 				The x scaling multiple
+	 * @param sy
+	 * 				The y scaling multiple
+	 * @param sz
+	 * 				The z scaling multiple
+	 */
+	public static void setTransform(float[] m, int o, float tx, float ty, float tz, float rx, float ry, float rz,
+			float sx, float sy, float sz) {
+		setRotation(m, o, rx, ry, rz);
+		
+		m[o] *= sx;		m[o + 1] *= sx;	m[o + 2] *= sx;		m[o + 3] = tx;
+		m[o + 4] *= sy;	m[o + 5] *= sy;	m[o + 6] *= sy;		m[o + 7] = ty;
+		m[o + 8] *= sz;	m[o + 9] *= sz;	m[o + 10] *= sz;	m[o + 11] = tz;
+	}
+	
 	/**
 	 * sets this matrix equal to the appropriate transformation matrix to simulate
 	 * 2D orthographic projection with a given width and height
@@ -156,10 +263,10 @@ public class Matrix4f {
 	 * 				a 2D orthographic projection
 	 */
 	public Matrix4f setOrthographic2D(int width, int height) {
-		m[0][0] = 2f/(float)width; 	m[0][1] = 0; 			    m[0][2] = 0; m[0][3] = -1;
-		m[1][0] = 0;		 		m[1][1] = 2f/(float)height; m[1][2] = 0; m[1][3] = -1;
-		m[2][0] = 0; 				m[2][1] = 0; 				m[2][2] = 1; m[2][3] =  0;
-		m[3][0] = 0; 				m[3][1] = 0; 				m[3][2] = 0; m[3][3] =  1;
+		m[0] = 2f/(float)width; 	m[1] = 0; 			    m[2] = 0; m[3] = -1;
+		m[4] = 0;		 		m[5] = 2f/(float)height; m[6] = 0; m[7] = -1;
+		m[8] = 0; 				m[9] = 0; 				m[10] = 1; m[11] =  0;
+		m[12] = 0; 				m[13] = 0; 				m[14] = 0; m[15] =  1;
 		
 		return this;
 	}
@@ -173,10 +280,10 @@ public class Matrix4f {
 	 * 				a 2D orthographic projection
 	 */
 	public Matrix4f setOrthographic2D() {
-		m[0][0] = 2f/(float)Window.getInstance().getWidth();	m[0][1] = 0; 								 			m[0][2] = 0;	 m[0][3] = -1;
-		m[1][0] = 0;		 									m[1][1] = 2f/(float)Window.getInstance().getHeight();	m[1][2] = 0;	 m[1][3] = -1;
-		m[2][0] = 0; 											m[2][1] = 0; 								 			m[2][2] = 1;	 m[2][3] =  0;
-		m[3][0] = 0; 											m[3][1] = 0; 								 			m[3][2] = 0;	 m[3][3] =  1;
+		m[0] = 2f/(float)Window.getInstance().getWidth();	m[1] = 0; 								 			m[2] = 0;	 m[3] = -1;
+		m[4] = 0;		 									m[5] = 2f/(float)Window.getInstance().getHeight();	m[6] = 0;	 m[7] = -1;
+		m[8] = 0; 											m[9] = 0; 								 			m[10] = 1;	 m[11] =  0;
+		m[12] = 0; 											m[13] = 0; 								 			m[14] = 0;	 m[15] =  1;
 		
 		return this;
 	}
@@ -195,10 +302,10 @@ public class Matrix4f {
 	 * @return A new Matrix that represents the required transformations to achieve a 3D orthographic projection
 	 */
 	public Matrix4f setOrthographicProjection(float l, float r, float b, float t, float n, float f){		
-		m[0][0] = 2.0f/(r-l); 	m[0][1] = 0; 			m[0][2] = 0; 			m[0][3] = -(r+l)/(r-l);
-		m[1][0] = 0;			m[1][1] = 2.0f/(t-b); 	m[1][2] = 0; 			m[1][3] = -(t+b)/(t-b);
-		m[2][0] = 0; 			m[2][1] = 0; 			m[2][2] = 2.0f/(f-n); 	m[2][3] = -(f+n)/(f-n);
-		m[3][0] = 0; 			m[3][1] = 0; 			m[3][2] = 0; 			m[3][3] = 1;
+		m[0] = 2.0f/(r-l); 	m[1] = 0; 			m[2] = 0; 			m[3] = -(r+l)/(r-l);
+		m[4] = 0;			m[5] = 2.0f/(t-b); 	m[6] = 0; 			m[7] = -(t+b)/(t-b);
+		m[8] = 0; 			m[9] = 0; 			m[10] = 2.0f/(f-n); 	m[11] = -(f+n)/(f-n);
+		m[12] = 0; 			m[13] = 0; 			m[14] = 0; 			m[15] = 1;
 	
 		return this;
 	}
@@ -219,10 +326,10 @@ public class Matrix4f {
 		float tanFOV = (float) Math.tan(Math.toRadians(fovY/2));
 		float aspectRatio = width/height;
 		
-		m[0][0] = 1/(tanFOV*aspectRatio); m[0][1] = 0; 		 	   m[0][2] = 0; 				m[0][3] = 0;
-		m[1][0] = 0; 					  m[1][1] = 1/tanFOV; 	   m[1][2] = 0; 			 	m[1][3] = 0;
-		m[2][0] = 0; 				 	  m[2][1] = 0; 		 	   m[2][2] = zFar/(zFar-zNear);	m[2][3] = zFar*zNear /(zFar-zNear);
-		m[3][0] = 0; 				 	  m[3][1] = 0; 		 	   m[3][2] = 1; 				m[3][3] = 1;
+		m[0] = 1/(tanFOV*aspectRatio); m[1] = 0; 		 	   m[2] = 0; 				m[3] = 0;
+		m[4] = 0; 					  m[5] = 1/tanFOV; 	   m[6] = 0; 			 	m[7] = 0;
+		m[8] = 0; 				 	  m[9] = 0; 		 	   m[10] = zFar/(zFar-zNear);	m[11] = zFar*zNear /(zFar-zNear);
+		m[12] = 0; 				 	  m[13] = 0; 		 	   m[14] = 1; 				m[15] = 1;
 	
 		return this;
 	}
@@ -239,12 +346,16 @@ public class Matrix4f {
 	public Matrix4f setView(Vector3f forward, Vector3f up) {
 		Vector3f f = forward;
 		Vector3f u = up;
-		Vector3f r = u.cross(f);
 		
-		m[0][0] = r.getX(); m[0][1] = r.getY(); m[0][2] = r.getZ(); m[0][3] = 0;
-		m[1][0] = u.getX(); m[1][1] = u.getY(); m[1][2] = u.getZ(); m[1][3] = 0;
-		m[2][0] = f.getX();	m[2][1] = f.getY(); m[2][2] = f.getZ(); m[2][3] = 0;
-		m[3][0] = 0; 		m[3][1] = 0; 		m[3][2] = 0; 		m[3][3] = 1;
+		//r = cross(u, f)
+		float rX = u.getY() * f.getZ() - u.getZ() * f.getY();
+		float rY = u.getZ() * f.getX() - u.getX() * f.getZ();
+		float rZ = u.getX() * f.getY() - u.getY() * f.getX();
+		
+		m[0] = rX; 		m[1] = rY; 		m[2] = rZ; 		m[3] = 0;
+		m[4] = u.getX(); m[5] = u.getY(); m[6] = u.getZ(); m[7] = 0;
+		m[8] = f.getX();	m[9] = f.getY(); m[10] = f.getZ(); m[11] = 0;
+		m[12] = 0; 		m[13] = 0; 		m[14] = 0; 		m[15] = 1;
 	
 		return this;
 	}
@@ -260,18 +371,92 @@ public class Matrix4f {
 	 * 				A new matrix that is the result of the matrix multiplication
 	 */
 	public Matrix4f mul(Matrix4f mat) {
-		Matrix4f res = new Matrix4f();
+		return mul(mat, new Matrix4f());
+	}
+	
+	/**
+	 * calculates the result of matrix multiplication between this matrix (M) and
+	 * a passed in matrix (P) in the order MP and stores it in dest. Every entry is
+	 * calculated before any is stored, so dest may be this matrix or mat
+	 * 
+	 * @param mat
+	 * 				The second matrix to be used in the matrix multiplication
+	 * 
+	 * @param dest
+	 * 				The matrix to store the result in
+	 * 
+	 * @return
+	 * 				Dest, holding the result of the matrix multiplication
+	 */
+	public Matrix4f mul(Matrix4f mat, Matrix4f dest) {
+		float[] a = m, b = mat.m;
+		
+		float r00 = a[0] * b[0] + a[1] * b[4] + a[2] * b[8] + a[3] * b[12];
+		float r01 = a[0] * b[1] + a[1] * b[5] + a[2] * b[9] + a[3] * b[13];
+		float r02 = a[0] * b[2] + a[1] * b[6] + a[2] * b[10] + a[3] * b[14];
+		float r03 = a[0] * b[3] + a[1] * b[7] + a[2] * b[11] + a[3] * b[15];
+		
+		float r10 = a[4] * b[0] + a[5] * b[4] + a[6] * b[8] + a[7] * b[12];
+		float r11 = a[4] * b[1] + a[5] * b[5] + a[6] * b[9] + a[7] * b[13];
+		float r12 = a[4] * b[2] + a[5] * b[6] + a[6] * b[10] + a[7] * b[14];
+		float r13 = a[4] * b[3] + a[5] * b[7] + a[6] * b[11] + a[7] * b[15];
 		
-		for(int i = 0; i < 4; i++) {
+		float r20 = a[8] * b[0] + a[9] * b[4] + a[10] * b[8] + a[11] * b[12];
+		float r21 = a[8] * b[1] + a[9] * b[5] + a[10] * b[9] + a[11] * b[13];
+		float r22 = a[8] * b[2] + a[9] * b[6] + a[10] * b[10] + a[11] * b[14];
+		float r23 = a[8] * b[3] + a[9] * b[7] + a[10] * b[11] + a[11] * b[15];
+		
+		float r30 = a[12] * b[0] + a[13] * b[4] + a[14] * b[8] + a[15] * b[12];
+		float r31 = a[12] * b[1] + a[13] * b[5] + a[14] * b[9] + a[15] * b[13];
+		float r32 = a[12] * b[2] + a[13] * b[6] + a[14] * b[10] + a[15] * b[14];
+		float r33 = a[12] * b[3] + a[13] * b[7] + a[14] * b[11] + a[15] * b[15];
+		
+		float[] d = dest.m;
+		d[0] = r00;  d[1] = r01;  d[2] = r02;  d[3] = r03;
+		d[4] = r10;  d[5] = r11;  d[6] = r12;  d[7] = r13;
+		d[8] = r20;  d[9] = r21;  d[10] = r22; d[11] = r23;
+		d[12] = r30; d[13] = r31; d[14] = r32; d[15] = r33;
+		
+		return dest;
+	}
+	
+	/**
+	 * multiplies this matrix (M) by every matrix (P) in a packed array of matrices,
+	 * in the order MP. Each matrix in the array is 16 consecutive floats laid out row
+	 * by row, as written by get(float[], int). This matrix is read once for the whole
+	 * batch rather than once per product, and the loop body is simple enough for the
+	 * JIT to keep it in registers. Src and dest may be the same array
+	 * 
+	 * @param src
+	 * 				The packed matrices to multiply this matrix by
+	 * @param srcOffset
+	 * 				The index in src of the first entry of the first matrix
+	 * @param dest
+	 * 				The packed array to store the results in
+	 * @param destOffset
+	 * 				The index in dest to store the first entry of the first result at
+	 * @param count
+	 * 				The amount of matrices to multiply
+	 */
+	public void mul(float[] src, int srcOffset, float[] dest, int destOffset, int count) {
+		float a00 = m[0],  a01 = m[1],  a02 = m[2],  a03 = m[3];
+		float a10 = m[4],  a11 = m[5],  a12 = m[6],  a13 = m[7];
+		float a20 = m[8],  a21 = m[9],  a22 = m[10], a23 = m[11];
+		float a30 = m[12], a31 = m[13], a32 = m[14], a33 = m[15];
+		
+		for(int i = 0; i < count; i++) {
+			int s = srcOffset + i * 16;
+			int d = destOffset + i * 16;
+			
 			for(int j = 0; j < 4; j++) {
-				res.set(i, j, 	m[i][0] * mat.get(0, j) +
-								m[i][1] * mat.get(1, j) +
-								m[i][2] * mat.get(2, j) +
-								m[i][3] * mat.get(3, j));
+				float b0 = src[s + j], b1 = src[s + 4 + j], b2 = src[s + 8 + j], b3 = src[s + 12 + j];
+				
+				dest[d + j] 	 = a00 * b0 + a01 * b1 + a02 * b2 + a03 * b3;
+				dest[d + 4 + j]  = a10 * b0 + a11 * b1 + a12 * b2 + a13 * b3;
+				dest[d + 8 + j]  = a20 * b0 + a21 * b1 + a22 * b2 + a23 * b3;
+				dest[d + 12 + j] = a30 * b0 + a31 * b1 + a32 * b2 + a33 * b3;
 			}
 		}
-		
-		return res;
 	}
 	
 	/**
@@ -285,14 +470,12 @@ public class Matrix4f {
 	 * 				A new quaternion that is the result of the multiplication
 	 */
 	public Quaternion mul(Quaternion q) {
-		Quaternion res = new Quaternion(0,0,0,0);
+		float x = q.getX(), y = q.getY(), z = q.getZ(), w = q.getW();
 		
-		res.setX(m[0][0] * q.getX() + m[0][1] * q.getY() + m[0][2] * q.getZ() + m[0][3] * q.getW());
-		res.setY(m[1][0] * q.getX() + m[1][1] * q.getY() + m[1][2] * q.getZ() + m[1][3] * q.getW());
-		res.setZ(m[2][0] * q.getX() + m[2][1] * q.getY() + m[2][2] * q.getZ() + m[2][3] * q.getW());
-		res.setW(m[3][0] * q.getX() + m[3][1] * q.getY() + m[3][2] * q.getZ() + m[3][3] * q.getW());
-		
-		return res;
+		return new Quaternion(m[0] * x + m[1] * y + m[2] * z + m[3] * w,
+							  m[4] * x + m[5] * y + m[6] * z + m[7] * w,
+							  m[8] * x + m[9] * y + m[10] * z + m[11] * w,
+							  m[12] * x + m[13] * y + m[14] * z + m[15] * w);
 	}
 	
 	/**
@@ -302,14 +485,32 @@ public class Matrix4f {
 	 * 				A new matrix that is the result of the transpose of this matrix
 	 */
 	public Matrix4f transpose() {
-		Matrix4f result = new Matrix4f();
+		return transpose(new Matrix4f());
+	}
+	
+	/**
+	 * calculates the transpose of this matrix and stores it in dest, dest may be
+	 * this matrix
+	 * 
+	 * @param dest
+	 * 				The matrix to store the result in
+	 * 
+	 * @return
+	 * 				Dest, holding the transpose of this matrix
+	 */
+	public Matrix4f transpose(Matrix4f dest) {
+		float[] d = dest.m;
+		float t;
 		
-		for(int i=0; i<4; i++){
-			for(int j=0; j<4; j++){
-				result.set(i, j, get(j,i));
-			}
-		}
-		return result;
+		d[0] = m[0]; d[5] = m[5]; d[10] = m[10]; d[15] = m[15];
+		t = m[1];  d[1] = m[4];   d[4] = t;
+		t = m[2];  d[2] = m[8];   d[8] = t;
+		t = m[3];  d[3] = m[12];  d[12] = t;
+		t = m[6];  d[6] = m[9];   d[9] = t;
+		t = m[7];  d[7] = m[13];  d[13] = t;
+		t = m[11]; d[11] = m[14]; d[14] = t;
+		
+		return dest;
 	}
 	
 	/**
@@ -320,52 +521,69 @@ public class Matrix4f {
 	 * @return The inverted matrix if the inversion was possible, otherwise the original matrix
 	 */
 	public Matrix4f invert() {
-		float s0 = get(0, 0) * get(1, 1) - get(1, 0) * get(0, 1);
-		float s1 = get(0, 0) * get(1, 2) - get(1, 0) * get(0, 2);
-		float s2 = get(0, 0) * get(1, 3) - get(1, 0) * get(0, 3);
-		float s3 = get(0, 1) * get(1, 2) - get(1, 1) * get(0, 2);
-		float s4 = get(0, 1) * get(1, 3) - get(1, 1) * get(0, 3);
-		float s5 = get(0, 2) * get(1, 3) - get(1, 2) * get(0, 3);
-
-		float c5 = get(2, 2) * get(3, 3) - get(3, 2) * get(2, 3);
-		float c4 = get(2, 1) * get(3, 3) - get(3, 1) * get(2, 3);
-		float c3 = get(2, 1) * get(3, 2) - get(3, 1) * get(2, 2);
-		float c2 = get(2, 0) * get(3, 3) - get(3, 0) * get(2, 3);
-		float c1 = get(2, 0) * get(3, 2) - get(3, 0) * get(2, 2);
-		float c0 = get(2, 0) * get(3, 1) - get(3, 0) * get(2, 1);
+		return invert(new Matrix4f());
+	}
+	
+	/**
+	 * calculates the inverse of this matrix and stores it in dest, dest may be this
+	 * matrix. If the matrix is not invertible an error will be printed to the terminal,
+	 * dest is left unchanged and the method will return this matrix.
+	 * 
+	 * @param dest
+	 * 				The matrix to store the result in
+	 * 
+	 * @return Dest if the inversion was possible, otherwise this matrix
+	 */
+	public Matrix4f invert(Matrix4f dest) {
+		float a00 = m[0],  a01 = m[1],  a02 = m[2],  a03 = m[3];
+		float a10 = m[4],  a11 = m[5],  a12 = m[6],  a13 = m[7];
+		float a20 = m[8],  a21 = m[9],  a22 = m[10], a23 = m[11];
+		float a30 = m[12], a31 = m[13], a32 = m[14], a33 = m[15];
 		
+		float s0 = a00 * a11 - a10 * a01;
+		float s1 = a00 * a12 - a10 * a02;
+		float s2 = a00 * a13 - a10 * a03;
+		float s3 = a01 * a12 - a11 * a02;
+		float s4 = a01 * a13 - a11 * a03;
+		float s5 = a02 * a13 - a12 * a03;
+
+		float c5 = a22 * a33 - a32 * a23;
+		float c4 = a21 * a33 - a31 * a23;
+		float c3 = a21 * a32 - a31 * a22;
+		float c2 = a20 * a33 - a30 * a23;
+		float c1 = a20 * a32 - a30 * a22;
+		float c0 = a20 * a31 - a30 * a21;
 		
 		float div = (s0 * c5 - s1 * c4 + s2 * c3 + s3 * c2 - s4 * c1 + s5 * c0);
 		if (div == 0) {
-			System.err.println("not invertible");
+			log.warn("not invertible");
 			return this;
 		}
 		
-	    float invdet = 1.0f / div;
-	    
-	    Matrix4f invM = new Matrix4f();
-	    
-	    invM.set(0, 0, (get(1, 1) * c5 - get(1, 2) * c4 + get(1, 3) * c3) * invdet);
-	    invM.set(0, 1, (-get(0, 1) * c5 + get(0, 2) * c4 - get(0, 3) * c3) * invdet);
-	    invM.set(0, 2, (get(3, 1) * s5 - get(3, 2) * s4 + get(3, 3) * s3) * invdet);
-	    invM.set(0, 3, (-get(2, 1) * s5 + get(2, 2) * s4 - get(2, 3) * s3) * invdet);
+		float invdet = 1.0f / div;
+		float[] d = dest.m;
+		
+		d[0] = (a11 * c5 - a12 * c4 + a13 * c3) * invdet;
+		d[1] = (-a01 * c5 + a02 * c4 - a03 * c3) * invdet;
+		d[2] = (a31 * s5 - a32 * s4 + a33 * s3) * invdet;
+		d[3] = (-a21 * s5 + a22 * s4 - a23 * s3) * invdet;
 
-	    invM.set(1, 0, (-get(1, 0) * c5 + get(1, 2) * c2 - get(1, 3) * c1) * invdet);
-	    invM.set(1, 1, (get(0, 0) * c5 - get(0, 2) * c2 + get(0, 3) * c1) * invdet);
-	    invM.set(1, 2, (-get(3, 0) * s5 + get(3, 2) * s2 - get(3, 3) * s1) * invdet);
-	    invM.set(1, 3, (get(2, 0) * s5 - get(2, 2) * s2 + get(2, 3) * s1) * invdet);
+		d[4] = (-a10 * c5 + a12 * c2 - a13 * c1) * invdet;
+		d[5] = (a00 * c5 - a02 * c2 + a03 * c1) * invdet;
+		d[6] = (-a30 * s5 + a32 * s2 - a33 * s1) * invdet;
+		d[7] = (a20 * s5 - a22 * s2 + a23 * s1) * invdet;
 
-	    invM.set(2, 0, (get(1, 0) * c4 - get(1, 1) * c2 + get(1, 3) * c0) * invdet);
-	    invM.set(2, 1, (-get(0, 0) * c4 + get(0, 1) * c2 - get(0, 3) * c0) * invdet);
-	    invM.set(2, 2, (get(3, 0) * s4 - get(3, 1) * s2 + get(3, 3) * s0) * invdet);
-	    invM.set(2, 3, (-get(2, 0) * s4 + get(2, 1) * s2 - get(2, 3) * s0) * invdet);
+		d[8] = (a10 * c4 - a11 * c2 + a13 * c0) * invdet;
+		d[9] = (-a00 * c4 + a01 * c2 - a03 * c0) * invdet;
+		d[10] = (a30 * s4 - a31 * s2 + a33 * s0) * invdet;
+		d[11] = (-a20 * s4 + a21 * s2 - a23 * s0) * invdet;
 
-	    invM.set(3, 0, (-get(1, 0) * c3 + get(1, 1) * c1 - get(1, 2) * c0) * invdet);
-	    invM.set(3, 1, (get(0, 0) * c3 - get(0, 1) * c1 + get(0, 2) * c0) * invdet);
-	    invM.set(3, 2, (-get(3, 0) * s3 + get(3, 1) * s1 - get(3, 2) * s0) * invdet);
-	    invM.set(3, 3, (get(2, 0) * s3 - get(2, 1) * s1 + get(2, 2) * s0) * invdet);
+		d[12] = (-a10 * c3 + a11 * c1 - a12 * c0) * invdet;
+		d[13] = (a00 * c3 - a01 * c1 + a02 * c0) * invdet;
+		d[14] = (-a30 * s3 + a31 * s1 - a32 * s0) * invdet;
+		d[15] = (a20 * s3 - a21 * s1 + a22 * s0) * invdet;
 		
-		return invM;
+		return dest;
 	}
 	
 	/**
@@ -379,62 +597,108 @@ public class Matrix4f {
 	 * 				True if equal, false otherwise
 	 */
 	public boolean equals(Matrix4f m) {
-		if (this.m[0][0] == m.getM()[0][0] && this.m[0][1] == m.getM()[0][1] &&
-				this.m[0][2] == m.getM()[0][2] && this.m[0][3] == m.getM()[0][3] &&
-				this.m[1][0] == m.getM()[1][0] && this.m[1][1] == m.getM()[1][1] &&
-				this.m[1][2] == m.getM()[1][2] && this.m[1][3] == m.getM()[1][3] &&
-				this.m[2][0] == m.getM()[2][0] && this.m[2][1] == m.getM()[2][1] &&
-				this.m[2][2] == m.getM()[2][2] && this.m[2][3] == m.getM()[2][3] &&
-				this.m[3][0] == m.getM()[3][0] && this.m[3][1] == m.getM()[3][1] &&
-				this.m[3][2] == m.getM()[3][2] && this.m[3][3] == m.getM()[3][3])
-					return true;
-			else
+		for(int i = 0; i < 16; i++)
+			if(this.m[i] != m.m[i])
 				return false;
+		return true;
 	}
 	
 	/**
 	 * sets the value of a specified matrix entry to s specified float.
 	 * It should be noted that matrix entries for both rows and columns
-	 * in this implementation start at zero and end at 3 and is in column
-	 * major form, any number outside of this range will result in an error.
+	 * in this implementation start at zero and end at 3, any number
+	 * outside of this range will result in an error.
 	 * 
 	 * @param x
-	 * 				The column of the matrix
+	 * 				The row of the matrix
 	 * 
 	 * @param y
-	 * 				The row of the matrix
+	 * 				The column of the matrix
 	 * 
 	 * @param val
-	 * 				The value to set to the corresponding column and row in the matrix
+	 * 				The value to set to the corresponding row and column in the matrix
 	 */
 	public void set(int x, int y, float val) {
-		this.m[x][y] = val;
+		this.m[x * 4 + y] = val;
 	}
 	
 	/**
-	 * returns the value stores in the matrix at column x, row y
+	 * returns the value stores in the matrix at row x, column y
 	 * 
 	 * @param x
-	 * 				The column of the matrix the requested value is in
+	 * 				The row of the matrix the requested value is in
 	 * 
 	 * @param y
-	 * 				The row of the matrix the requested value is in
+	 * 				The column of the matrix the requested value is in
 	 * 
 	 * @return
 	 * 				The value stored at the corresponding row and column of the matrix
 	 */
 	public float get(int x, int y) {
-		return this.m[x][y];
+		return this.m[x * 4 + y];
+	}
+	
+	/**
+	 * copies the entries of this matrix, row by row, into a float array
+	 * 
+	 * @param dest
+	 * 				The array to copy the entries into
+	 * 
+	 * @param offset
+	 * 				The index in dest to store the first entry at
+	 * 
+	 * @return
+	 * 				The passed in array
+	 */
+	public float[] get(float[] dest, int offset) {
+		System.arraycopy(m, 0, dest, offset, 16);
+		return dest;
+	}
+	
+	/**
+	 * sets the entries of this matrix, row by row, from a float array
+	 * 
+	 * @param src
+	 * 				The array to copy the entries from
+	 * 
+	 * @param offset
+	 * 				The index in src of the first entry
+	 * 
+	 * @return
+	 * 				This matrix for use in calculations
+	 */
+	public Matrix4f set(float[] src, int offset) {
+		System.arraycopy(src, offset, m, 0, 16);
+		return this;
+	}
+	
+	/**
+	 * puts the entries of this matrix, row by row, into a float buffer at its
+	 * current position
+	 * 
+	 * @param buffer
+	 * 				The buffer to put the entries into
+	 * 
+	 * @return
+	 * 				The passed in buffer
+	 */
+	public FloatBuffer store(FloatBuffer buffer) {
+		buffer.put(m);
+		return buffer;
 	}
 	
 	/**
-	 * returns a 2D float array that can represent this matrix
+	 * returns a 2D float array that can represent this matrix. The array is a
+	 * copy, changing it does not change this matrix
 	 * 
 	 * @return
 	 * 				A 2D float array filled with the matrix values
 	 */
 	public float[][] getM(){
-		return m.clone();
+		float[][] mat = new float[4][4];
+		for(int i = 0; i < 4; i++)
+			System.arraycopy(m, i * 4, mat[i], 0, 4);
+		return mat;
 	}
 	
 	/**
@@ -448,14 +712,15 @@ public class Matrix4f {
 	public void setM(float[][] mat) {
 		if(mat.length != 4 || mat[0].length != 4)
 			return;
-		this.m = mat;
+		for(int i = 0; i < 4; i++)
+			System.arraycopy(mat[i], 0, m, i * 4, 4);
 	}
 	
 	@Override
 	public String toString() {
-		return	"|" + m[0][0] + " " + m[0][1] + " " + m[0][2] + " " + m[0][3] + "|\n" +
-				"|" + m[1][0] + " " + m[1][1] + " " + m[1][2] + " " + m[1][3] + "|\n" +
-				"|" + m[2][0] + " " + m[2][1] + " " + m[2][2] + " " + m[2][3] + "|\n" +
-				"|" + m[3][0] + " " + m[3][1] + " " + m[3][2] + " " + m[3][3] + "|";
+		return	"|" + m[0] + " " + m[1] + " " + m[2] + " " + m[3] + "|\n" +
+				"|" + m[4] + " " + m[5] + " " + m[6] + " " + m[7] + "|\n" +
+				"|" + m[8] + " " + m[9] + " " + m[10] + " " + m[11] + "|\n" +
+				"|" + m[12] + " " + m[13] + " " + m[14] + " " + m[15] + "|";
 	}
 }
@@ -1,7 +1,5 @@
 package core.maths.vector;
 
-import core.maths.Quaternion;
-
 /**
  * *
  * <h1>Vector3f Class</h1>
@@ -116,6 +114,26 @@ public class Vector3f {
 		return new Vector3f(x, y, z);
 	}
 
+	/**
+	 * calculates the cross product of this vector and the one passed in with the
+	 * calculation cross(this, vec), storing the result in dest. Dest may be this
+	 * vector or vec
+	 * 
+	 * @param vec
+	 *            The second vector to be used in the cross product calculation
+	 * @param dest
+	 *            The vector to store the result in
+	 * @return Dest, holding the result of the cross product calculation
+	 */
+	public Vector3f cross(Vector3f vec, Vector3f dest) {
+		float x = this.y * vec.getZ() - this.z * vec.getY();
+		float y = this.z * vec.getX() - this.x * vec.getZ();
+		float z = this.x * vec.getY() - this.y * vec.getX();
+
+		dest.set(x, y, z);
+		return dest;
+	}
+
 	/**
 	 * calculates the result of this vector rotated around an arbitrary axis
 	 * 
@@ -136,14 +154,18 @@ public class Vector3f {
 		float rZ = axis.getZ() * sinHalfAngle;
 		float rW = cosHalfAngle;
 
-		Quaternion rotation = new Quaternion(rX, rY, rZ, rW);
-		Quaternion conjugate = rotation.conjugate();
+		//the quaternion products rotation * this * conjugate(rotation) are expanded
+		//in place, so rotating a vector allocates nothing
+		float w_ = -rX * x - rY * y - rZ * z;
+		float x_ = rW * x + rY * z - rZ * y;
+		float y_ = rW * y + rZ * x - rX * z;
+		float z_ = rW * z + rX * y - rY * x;
 
-		Quaternion w = rotation.mul(this).mul(conjugate);
+		float cX = -rX, cY = -rY, cZ = -rZ;
 
-		x = w.getX();
-		y = w.getY();
-		z = w.getZ();
+		x = x_ * rW + w_ * cX + y_ * cZ - z_ * cY;
+		y = y_ * rW + w_ * cY + z_ * cX - x_ * cZ;
+		z = z_ * rW + w_ * cZ + x_ * cY - y_ * cX;
 
 		return this;
 	}
@@ -282,6 +304,196 @@ public class Vector3f {
 		return new Vector3f(this.x / r, this.y / r, this.z / r);
 	}
 
+	/**
+	 * stores the result of the component addition between this vector and the
+	 * vector passed in in dest, dest may be this vector or r
+	 * 
+	 * @param r
+	 *            The second vector to be used in the component addition
+	 * @param dest
+	 *            The vector to store the result in
+	 * @return Dest, holding the result of the component addition
+	 */
+	public Vector3f add(Vector3f r, Vector3f dest) {
+		dest.set(this.x + r.getX(), this.y + r.getY(), this.z + r.getZ());
+		return dest;
+	}
+
+	/**
+	 * stores the result of the component subtraction between this vector and the
+	 * vector passed in in dest, dest may be this vector or r
+	 * 
+	 * @param r
+	 *            The second vector to be used in the component subtraction
+	 * @param dest
+	 *            The vector to store the result in
+	 * @return Dest, holding the result of the component subtraction
+	 */
+	public Vector3f sub(Vector3f r, Vector3f dest) {
+		dest.set(this.x - r.getX(), this.y - r.getY(), this.z - r.getZ());
+		return dest;
+	}
+
+	/**
+	 * stores the result of the component multiplication between this vector and
+	 * the vector passed in in dest, dest may be this vector or r
+	 * 
+	 * @param r
+	 *            The second vector to be used in the component multiplication
+	 * @param dest
+	 *            The vector to store the result in
+	 * @return Dest, holding the result of the component multiplication
+	 */
+	public Vector3f mul(Vector3f r, Vector3f dest) {
+		dest.set(this.x * r.getX(), this.y * r.getY(), this.z * r.getZ());
+		return dest;
+	}
+
+	/**
+	 * stores the result of the scalar multiplication between this vector and the
+	 * float passed in in dest, dest may be this vector
+	 * 
+	 * @param r
+	 *            The float to be used in the scalar multiplication
+	 * @param dest
+	 *            The vector to store the result in
+	 * @return Dest, holding the result of the scalar multiplication
+	 */
+	public Vector3f mul(float r, Vector3f dest) {
+		dest.set(this.x * r, this.y * r, this.z * r);
+		return dest;
+	}
+
+	/**
+	 * adds the vector passed in to this vector by components
+	 * 
+	 * @param r
+	 *            The vector to add to this one
+	 * @return This vector after the addition
+	 */
+	public Vector3f addLocal(Vector3f r) {
+		x += r.getX();
+		y += r.getY();
+		z += r.getZ();
+		return this;
+	}
+
+	/**
+	 * adds the float passed in to every component of this vector
+	 * 
+	 * @param r
+	 *            The float to add to this vector
+	 * @return This vector after the addition
+	 */
+	public Vector3f addLocal(float r) {
+		x += r;
+		y += r;
+		z += r;
+		return this;
+	}
+
+	/**
+	 * subtracts the vector passed in from this vector by components
+	 * 
+	 * @param r
+	 *            The vector to subtract from this one
+	 * @return This vector after the subtraction
+	 */
+	public Vector3f subLocal(Vector3f r) {
+		x -= r.getX();
+		y -= r.getY();
+		z -= r.getZ();
+		return this;
+	}
+
+	/**
+	 * subtracts the float passed in from every component of this vector
+	 * 
+	 * @param r
+	 *            The float to subtract from this vector
+	 * @return This vector after the subtraction
+	 */
+	public Vector3f subLocal(float r) {
+		x -= r;
+		y -= r;
+		z -= r;
+		return this;
+	}
+
+	/**
+	 * multiplies this vector by the vector passed in by components
+	 * 
+	 * @param r
+	 *            The vector to multiply this one by
+	 * @return This vector after the multiplication
+	 */
+	public Vector3f mulLocal(Vector3f r) {
+		x *= r.getX();
+		y *= r.getY();
+		z *= r.getZ();
+		return this;
+	}
+
+	/**
+	 * multiplies this vector by the floats passed in by components
+	 * 
+	 * @param x
+	 *            The float to multiply the x component by
+	 * @param y
+	 *            The float to multiply the y component by
+	 * @param z
+	 *            The float to multiply the z component by
+	 * @return This vector after the multiplication
+	 */
+	public Vector3f mulLocal(float x, float y, float z) {
+		this.x *= x;
+		this.y *= y;
+		this.z *= z;
+		return this;
+	}
+
+	/**
+	 * multiplies every component of this vector by the float passed in
+	 * 
+	 * @param r
+	 *            The float to multiply this vector by
+	 * @return This vector after the multiplication
+	 */
+	public Vector3f mulLocal(float r) {
+		x *= r;
+		y *= r;
+		z *= r;
+		return this;
+	}
+
+	/**
+	 * divides this vector by the vector passed in by components
+	 * 
+	 * @param r
+	 *            The vector to divide this one by
+	 * @return This vector after the division
+	 */
+	public Vector3f divLocal(Vector3f r) {
+		x /= r.getX();
+		y /= r.getY();
+		z /= r.getZ();
+		return this;
+	}
+
+	/**
+	 * divides every component of this vector by the float passed in
+	 * 
+	 * @param r
+	 *            The float to divide this vector by
+	 * @return This vector after the division
+	 */
+	public Vector3f divLocal(float r) {
+		x /= r;
+		y /= r;
+		z /= r;
+		return this;
+	}
+
 	/**
 	 * takes the absolute value of this vector
 	 * 
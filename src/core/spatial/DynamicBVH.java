@@ -0,0 +1,976 @@
+package core.spatial;
+
+import java.util.Arrays;
+
+import core.maths.BoundingBox;
+import core.maths.Frustum;
+import core.maths.vector.Vector3f;
+import core.utils.IntList;
+
+/**
+ * <h1>DynamicBVH Class</h1>
+ * <p>
+ * A bounding volume hierarchy of world space axis aligned boxes, used to find
+ * the objects in a frustum, sphere, box or along a ray without testing every
+ * object. Each object is a proxy, a leaf of the tree holding the objects box and
+ * a reference to the object, and keeps its proxy id for as long as it is in the
+ * tree.
+ * <p>
+ * Static objects are added with their exact box and are placed in the tree by
+ * build, a top down binned surface area heuristic (SAH) build over every proxy.
+ * Dynamic objects are inserted one at a time with their box enlarged by a
+ * margin, so moving one only touches the tree once it leaves its enlarged box.
+ * Insertion descends to the sibling that adds the least surface area, and every
+ * node refitted on the way back up is rotated if swapping one of its children
+ * with a grandchild shrinks the tree. Objects that move every frame can instead
+ * update their box in place and have every changed node refitted, and rotated,
+ * in a single pass by refit.
+ * <p>
+ * Nodes are kept in flat arrays indexed by node id, with the six floats of each
+ * box side by side. Queries add proxy ids to an IntList and allocate nothing.
+ * The tree is not thread safe, it must only be changed and queried by one
+ * thread at a time.
+ *
+ * @author Graham
+ * @version 2.0.0
+ * @since 2026-10-18
+ */
+public class DynamicBVH extends SpatialIndex {
+
+	// how far past its box each side of a dynamic proxy's box is enlarged by default
+	public static final float DEFAULT_MARGIN = 0.1f;
+	// the box of a moving proxy is also stretched this many frames along its displacement
+	private static final float DISPLACEMENT_MULTIPLIER = 2;
+	private static final int BINS = 16;
+
+	// held by the left child of a free node, to tell it apart from a leaf
+	private static final int FREE = -2;
+	private static final byte DYNAMIC = 1, DIRTY = 2, DETACHED = 4;
+
+	private final float margin;
+
+	// six floats per node: min x, y, z then max x, y, z
+	private float[] bounds;
+	// the left child is NULL for a leaf, the parent links the free list for a free node
+	private int[] parents, lefts, rights;
+	private byte[] flags;
+	private Object[] data;
+	private int capacity;
+
+	private int root;
+	private int freeList;
+	private int proxyCount;
+	// set when a static proxy is waiting for build, or a box was updated in place and awaits refit
+	private boolean buildPending, refitPending;
+
+	// traversal and build scratch, grown as needed
+	private int[] stack;
+	private float[] distances;
+	private int[] items;
+	private final float[] binBounds;
+	private final int[] binCounts;
+	private final float[] leftAreas;
+
+	/**
+	 * creates an empty tree
+	 *
+	 * @param margin How far the box of every dynamic proxy is enlarged on each side
+	 */
+	public DynamicBVH(float margin) {
+		this.margin = margin;
+		capacity = 0;
+		bounds = new float[0];
+		parents = new int[0];
+		lefts = new int[0];
+		rights = new int[0];
+		flags = new byte[0];
+		data = new Object[0];
+		root = NULL;
+		freeList = NULL;
+		grow(16);
+
+		stack = new int[64];
+		distances = new float[64];
+		items = new int[0];
+		binBounds = new float[BINS * 6];
+		binCounts = new int[BINS];
+		leftAreas = new float[BINS];
+	}
+
+	/**
+	 * adds a static object, which is placed in the tree with its exact box by the
+	 * next build. Queries build the tree first if a static object is waiting
+	 *
+	 * @return The id of the new proxy
+	 */
+	public int add(float minX, float minY, float minZ, float maxX, float maxY, float maxZ, Object object) {
+		int proxy = allocateNode();
+		setBounds(proxy, minX, minY, minZ, maxX, maxY, maxZ);
+		lefts[proxy] = NULL;
+		rights[proxy] = NULL;
+		flags[proxy] = DETACHED;
+		data[proxy] = object;
+		proxyCount++;
+		buildPending = true;
+		return proxy;
+	}
+
+	/**
+	 * adds a static object, which is placed in the tree with its exact box by the
+	 * next build
+	 *
+	 * @return The id of the new proxy
+	 */
+	public int add(BoundingBox box, Object object) {
+		Vector3f min = box.getMin(), max = box.getMax();
+		return add(min.getX(), min.getY(), min.getZ(), max.getX(), max.getY(), max.getZ(), object);
+	}
+
+	/**
+	 * inserts a dynamic object into the tree straight away, with its box enlarged
+	 * by the margin
+	 *
+	 * @return The id of the new proxy
+	 */
+	@Override
+	public int insert(float minX, float minY, float minZ, float maxX, float maxY, float maxZ, Object object) {
+		int proxy = allocateNode();
+		setBounds(proxy, minX - margin, minY - margin, minZ - margin, maxX + margin, maxY + margin, maxZ + margin);
+		lefts[proxy] = NULL;
+		rights[proxy] = NULL;
+		flags[proxy] = DYNAMIC;
+		data[proxy] = object;
+		proxyCount++;
+		insertLeaf(proxy);
+		return proxy;
+	}
+
+	/**
+	 * removes an object from the tree, its proxy id may be given to a later object
+	 */
+	@Override
+	public void remove(int proxy) {
+		if((flags[proxy] & DETACHED) == 0)
+			removeLeaf(proxy);
+		freeNode(proxy);
+		proxyCount--;
+	}
+
+	/**
+	 * moves an object to a new box. A dynamic proxy whose enlarged box still
+	 * contains the new box is left as it is, otherwise its box is enlarged again,
+	 * stretched along the displacement, and it is inserted again
+	 *
+	 * @param dx The x displacement of the object since it last moved, or zero
+	 * @param dy The y displacement of the object since it last moved, or zero
+	 * @param dz The z displacement of the object since it last moved, or zero
+	 *
+	 * @return True if the proxy was inserted again
+	 */
+	@Override
+	public boolean move(int proxy, float minX, float minY, float minZ, float maxX, float maxY, float maxZ, float dx,
+			float dy, float dz) {
+		int b = proxy * 6;
+		boolean dynamic = (flags[proxy] & DYNAMIC) != 0;
+		if(dynamic && bounds[b] <= minX && bounds[b + 1] <= minY && bounds[b + 2] <= minZ && bounds[b + 3] >= maxX
+				&& bounds[b + 4] >= maxY && bounds[b + 5] >= maxZ)
+			return false;
+
+		if(dynamic) {
+			minX -= margin;
+			minY -= margin;
+			minZ -= margin;
+			maxX += margin;
+			maxY += margin;
+			maxZ += margin;
+
+			dx *= DISPLACEMENT_MULTIPLIER;
+			dy *= DISPLACEMENT_MULTIPLIER;
+			dz *= DISPLACEMENT_MULTIPLIER;
+			minX += Math.min(dx, 0);
+			minY += Math.min(dy, 0);
+			minZ += Math.min(dz, 0);
+			maxX += Math.max(dx, 0);
+			maxY += Math.max(dy, 0);
+			maxZ += Math.max(dz, 0);
+		}
+
+		if((flags[proxy] & DETACHED) != 0) {
+			setBounds(proxy, minX, minY, minZ, maxX, maxY, maxZ);
+			return false;
+		}
+
+		removeLeaf(proxy);
+		setBounds(proxy, minX, minY, minZ, maxX, maxY, maxZ);
+		insertLeaf(proxy);
+		return true;
+	}
+
+	/**
+	 * sets the box of an object in place without changing the shape of the tree,
+	 * the box of a dynamic proxy is enlarged by the margin. The nodes above it are
+	 * refitted by the next refit, which queries call first if needed
+	 */
+	public void update(int proxy, float minX, float minY, float minZ, float maxX, float maxY, float maxZ) {
+		if((flags[proxy] & DYNAMIC) != 0)
+			setBounds(proxy, minX - margin, minY - margin, minZ - margin, maxX + margin, maxY + margin, maxZ + margin);
+		else
+			setBounds(proxy, minX, minY, minZ, maxX, maxY, maxZ);
+
+		if((flags[proxy] & DETACHED) != 0)
+			return;
+
+		// marks the path to the root, stopping at the first node already marked by another update
+		for(int node = parents[proxy]; node != NULL && (flags[node] & DIRTY) == 0; node = parents[node])
+			flags[node] |= DIRTY;
+		refitPending = true;
+	}
+
+	/**
+	 * recalculates the box of every node above a proxy updated in place since the
+	 * last refit, children before parents, rotating each refitted node if that
+	 * shrinks the tree
+	 */
+	public void refit() {
+		refitPending = false;
+		if(root == NULL || (flags[root] & DIRTY) == 0)
+			return;
+
+		// a node is pushed once to visit its children and again, inverted, to be refitted after them
+		int top = 0;
+		stack[top++] = root;
+		while(top > 0) {
+			int node = stack[--top];
+			if(node < 0) {
+				node = ~node;
+				fitToChildren(node);
+				rotate(node);
+				flags[node] &= ~DIRTY;
+				continue;
+			}
+
+			ensureStack(top + 3);
+			stack[top++] = ~node;
+			if(lefts[lefts[node]] != NULL && (flags[lefts[node]] & DIRTY) != 0)
+				stack[top++] = lefts[node];
+			if(lefts[rights[node]] != NULL && (flags[rights[node]] & DIRTY) != 0)
+				stack[top++] = rights[node];
+		}
+	}
+
+	/**
+	 * rebuilds the whole tree from the boxes of every proxy with a top down binned
+	 * SAH build, placing any static proxies added since the last build. The proxy
+	 * ids are kept
+	 */
+	public void build() {
+		buildPending = false;
+		refitPending = false;
+
+		if(items.length < proxyCount)
+			items = new int[proxyCount];
+		int count = 0;
+		for(int node = 0; node < capacity; node++) {
+			if(lefts[node] == NULL) {
+				items[count++] = node;
+				flags[node] &= ~(DETACHED | DIRTY);
+			}else if(lefts[node] >= 0) {
+				freeNode(node);
+			}
+		}
+
+		root = NULL;
+		if(count == 0)
+			return;
+
+		// each task is the start and end of a range of items and the node to link the subtree built from it to,
+		// inverted if it is the right child
+		int top = 0;
+		ensureStack(3);
+		stack[top++] = 0;
+		stack[top++] = count;
+		stack[top++] = NULL;
+
+		while(top > 0) {
+			int link = stack[--top];
+			int end = stack[--top];
+			int start = stack[--top];
+
+			int node;
+			if(end - start == 1) {
+				node = items[start];
+			}else {
+				node = allocateNode();
+				flags[node] = 0;
+				data[node] = null;
+				int split = split(start, end, node);
+
+				ensureStack(top + 6);
+				stack[top++] = start;
+				stack[top++] = split;
+				stack[top++] = node;
+				stack[top++] = split;
+				stack[top++] = end;
+				stack[top++] = ~node;
+			}
+
+			if(link == NULL) {
+				root = node;
+				parents[node] = NULL;
+			}else if(link >= 0) {
+				lefts[link] = node;
+				parents[node] = link;
+			}else {
+				rights[~link] = node;
+				parents[node] = ~link;
+			}
+		}
+	}
+
+	/**
+	 * sets the box of an internal node to that of a range of items and finds where
+	 * to split the range, binning the item centres along each axis and choosing
+	 * the split with the lowest surface area cost. The range is partitioned in
+	 * place
+	 *
+	 * @return The index of the first item of the right half
+	 */
+	private int split(int start, int end, int node) {
+		float minX = Float.POSITIVE_INFINITY, minY = Float.POSITIVE_INFINITY, minZ = Float.POSITIVE_INFINITY;
+		float maxX = Float.NEGATIVE_INFINITY, maxY = Float.NEGATIVE_INFINITY, maxZ = Float.NEGATIVE_INFINITY;
+		// the bounds of the item centres, doubled to save the halving
+		float cMinX = Float.POSITIVE_INFINITY, cMinY = Float.POSITIVE_INFINITY, cMinZ = Float.POSITIVE_INFINITY;
+		float cMaxX = Float.NEGATIVE_INFINITY, cMaxY = Float.NEGATIVE_INFINITY, cMaxZ = Float.NEGATIVE_INFINITY;
+		for(int i = start; i < end; i++) {
+			int b = items[i] * 6;
+			minX = Math.min(minX, bounds[b]);
+			minY = Math.min(minY, bounds[b + 1]);
+			minZ = Math.min(minZ, bounds[b + 2]);
+			maxX = Math.max(maxX, bounds[b + 3]);
+			maxY = Math.max(maxY, bounds[b + 4]);
+			maxZ = Math.max(maxZ, bounds[b + 5]);
+			float cx = bounds[b] + bounds[b + 3], cy = bounds[b + 1] + bounds[b + 4], cz = bounds[b + 2] + bounds[b + 5];
+			cMinX = Math.min(cMinX, cx);
+			cMinY = Math.min(cMinY, cy);
+			cMinZ = Math.min(cMinZ, cz);
+			cMaxX = Math.max(cMaxX, cx);
+			cMaxY = Math.max(cMaxY, cy);
+			cMaxZ = Math.max(cMaxZ, cz);
+		}
+		setBounds(node, minX, minY, minZ, maxX, maxY, maxZ);
+
+		int count = end - start;
+		if(count == 2)
+			return start + 1;
+
+		float bestCost = Float.POSITIVE_INFINITY;
+		int bestAxis = -1, bestBin = 0;
+		float bestOrigin = 0, bestScale = 0;
+
+		for(int axis = 0; axis < 3; axis++) {
+			float low = axis == 0 ? cMinX : axis == 1 ? cMinY : cMinZ;
+			float high = axis == 0 ? cMaxX : axis == 1 ? cMaxY : cMaxZ;
+			if(high - low <= 0)
+				continue;
+			float scale = BINS * (1 - 1e-5f) / (high - low);
+
+			Arrays.fill(binCounts, 0);
+			for(int bin = 0; bin < BINS; bin++) {
+				int o = bin * 6;
+				binBounds[o] = binBounds[o + 1] = binBounds[o + 2] = Float.POSITIVE_INFINITY;
+				binBounds[o + 3] = binBounds[o + 4] = binBounds[o + 5] = Float.NEGATIVE_INFINITY;
+			}
+
+			for(int i = start; i < end; i++) {
+				int b = items[i] * 6;
+				int bin = (int) ((bounds[b + axis] + bounds[b + 3 + axis] - low) * scale);
+				int o = bin * 6;
+				binCounts[bin]++;
+				binBounds[o] = Math.min(binBounds[o], bounds[b]);
+				binBounds[o + 1] = Math.min(binBounds[o + 1], bounds[b + 1]);
+				binBounds[o + 2] = Math.min(binBounds[o + 2], bounds[b + 2]);
+				binBounds[o + 3] = Math.max(binBounds[o + 3], bounds[b + 3]);
+				binBounds[o + 4] = Math.max(binBounds[o + 4], bounds[b + 4]);
+				binBounds[o + 5] = Math.max(binBounds[o + 5], bounds[b + 5]);
+			}
+
+			// sweeps from the left storing the cost of each left half, then from the right adding the right halves
+			float lx = Float.POSITIVE_INFINITY, ly = Float.POSITIVE_INFINITY, lz = Float.POSITIVE_INFINITY;
+			float hx = Float.NEGATIVE_INFINITY, hy = Float.NEGATIVE_INFINITY, hz = Float.NEGATIVE_INFINITY;
+			int leftCount = 0;
+			for(int bin = 0; bin < BINS - 1; bin++) {
+				int o = bin * 6;
+				leftCount += binCounts[bin];
+				lx = Math.min(lx, binBounds[o]);
+				ly = Math.min(ly, binBounds[o + 1]);
+				lz = Math.min(lz, binBounds[o + 2]);
+				hx = Math.max(hx, binBounds[o + 3]);
+				hy = Math.max(hy, binBounds[o + 4]);
+				hz = Math.max(hz, binBounds[o + 5]);
+				leftAreas[bin] = leftCount == 0 ? 0 : leftCount * area(lx, ly, lz, hx, hy, hz);
+			}
+
+			lx = ly = lz = Float.POSITIVE_INFINITY;
+			hx = hy = hz = Float.NEGATIVE_INFINITY;
+			int rightCount = 0;
+			for(int bin = BINS - 1; bin > 0; bin--) {
+				int o = bin * 6;
+				rightCount += binCounts[bin];
+				lx = Math.min(lx, binBounds[o]);
+				ly = Math.min(ly, binBounds[o + 1]);
+				lz = Math.min(lz, binBounds[o + 2]);
+				hx = Math.max(hx, binBounds[o + 3]);
+				hy = Math.max(hy, binBounds[o + 4]);
+				hz = Math.max(hz, binBounds[o + 5]);
+				if(rightCount == 0 || rightCount == count)
+					continue;
+				float cost = leftAreas[bin - 1] + rightCount * area(lx, ly, lz, hx, hy, hz);
+				if(cost < bestCost) {
+					bestCost = cost;
+					bestAxis = axis;
+					bestBin = bin;
+					bestOrigin = low;
+					bestScale = scale;
+				}
+			}
+		}
+
+		// every centre is in the same place, so any split is as good as another
+		if(bestAxis < 0)
+			return start + count / 2;
+
+		int i = start, j = end - 1;
+		while(i <= j) {
+			int b = items[i] * 6;
+			if((int) ((bounds[b + bestAxis] + bounds[b + 3 + bestAxis] - bestOrigin) * bestScale) < bestBin) {
+				i++;
+			}else {
+				int swap = items[i];
+				items[i] = items[j];
+				items[j--] = swap;
+			}
+		}
+		return i;
+	}
+
+	/**
+	 * adds the proxies whose boxes may be inside a frustum to a list, skipping
+	 * the planes a node is already inside of for everything below it
+	 *
+	 * @return The amount of proxies added
+	 */
+	@Override
+	public int queryFrustum(Frustum frustum, IntList result) {
+		prepare();
+		if(root == NULL)
+			return 0;
+
+		int before = result.size();
+		// two ints per entry, the node and the planes it still has to be tested against
+		int top = 0;
+		stack[top++] = root;
+		stack[top++] = Frustum.ALL_PLANES;
+		while(top > 0) {
+			int mask = stack[--top];
+			int node = stack[--top];
+			if(mask != 0) {
+				int b = node * 6;
+				mask = frustum.classifyBox(bounds[b], bounds[b + 1], bounds[b + 2], bounds[b + 3], bounds[b + 4],
+						bounds[b + 5], mask);
+				if(mask < 0)
+					continue;
+			}
+
+			if(lefts[node] == NULL) {
+				result.add(node);
+			}else {
+				ensureStack(top + 4);
+				stack[top++] = rights[node];
+				stack[top++] = mask;
+				stack[top++] = lefts[node];
+				stack[top++] = mask;
+			}
+		}
+		return result.size() - before;
+	}
+
+	/**
+	 * adds the proxies whose boxes touch a sphere to a list
+	 *
+	 * @return The amount of proxies added
+	 */
+	@Override
+	public int querySphere(float x, float y, float z, float radius, IntList result) {
+		prepare();
+		if(root == NULL)
+			return 0;
+
+		int before = result.size();
+		float radiusSquared = radius * radius;
+		int top = 0;
+		stack[top++] = root;
+		while(top > 0) {
+			int node = stack[--top];
+			int b = node * 6;
+			// the distance from the centre to the closest point of the box
+			float dx = Math.max(Math.max(bounds[b] - x, x - bounds[b + 3]), 0);
+			float dy = Math.max(Math.max(bounds[b + 1] - y, y - bounds[b + 4]), 0);
+			float dz = Math.max(Math.max(bounds[b + 2] - z, z - bounds[b + 5]), 0);
+			if(dx * dx + dy * dy + dz * dz > radiusSquared)
+				continue;
+
+			if(lefts[node] == NULL) {
+				result.add(node);
+			}else {
+				ensureStack(top + 2);
+				stack[top++] = rights[node];
+				stack[top++] = lefts[node];
+			}
+		}
+		return result.size() - before;
+	}
+
+	/**
+	 * adds the proxies whose boxes touch a box to a list
+	 *
+	 * @return The amount of proxies added
+	 */
+	@Override
+	public int queryBox(float minX, float minY, float minZ, float maxX, float maxY, float maxZ, IntList result) {
+		prepare();
+		if(root == NULL)
+			return 0;
+
+		int before = result.size();
+		int top = 0;
+		stack[top++] = root;
+		while(top > 0) {
+			int node = stack[--top];
+			int b = node * 6;
+			if(bounds[b] > maxX || bounds[b + 1] > maxY || bounds[b + 2] > maxZ || bounds[b + 3] < minX
+					|| bounds[b + 4] < minY || bounds[b + 5] < minZ)
+				continue;
+
+			if(lefts[node] == NULL) {
+				result.add(node);
+			}else {
+				ensureStack(top + 2);
+				stack[top++] = rights[node];
+				stack[top++] = lefts[node];
+			}
+		}
+		return result.size() - before;
+	}
+
+	/**
+	 * casts a ray through the tree, visiting the nearer child of each node first.
+	 * Once the callback shortens the ray, boxes beyond the closest hit found so
+	 * far are never visited
+	 */
+	@Override
+	public void raycast(float ox, float oy, float oz, float dx, float dy, float dz, float maxDistance,
+			RayCallback callback) {
+		prepare();
+		if(root == NULL)
+			return;
+
+		float ix = 1 / dx, iy = 1 / dy, iz = 1 / dz;
+		int top = 0;
+		float entry = intersectRay(root, ox, oy, oz, ix, iy, iz, maxDistance);
+		if(entry < 0)
+			return;
+		stack[top] = root;
+		distances[top++] = entry;
+
+		while(top > 0) {
+			int node = stack[--top];
+			if(distances[top] > maxDistance)
+				continue;
+
+			if(lefts[node] == NULL) {
+				float distance = callback.hit(node, maxDistance);
+				if(distance <= 0)
+					return;
+				maxDistance = Math.min(maxDistance, distance);
+				continue;
+			}
+
+			int left = lefts[node], right = rights[node];
+			float leftEntry = intersectRay(left, ox, oy, oz, ix, iy, iz, maxDistance);
+			float rightEntry = intersectRay(right, ox, oy, oz, ix, iy, iz, maxDistance);
+			ensureStack(top + 2);
+			// the nearer child is pushed last so it is visited first
+			if(leftEntry > rightEntry) {
+				int swap = left;
+				left = right;
+				right = swap;
+				float swapEntry = leftEntry;
+				leftEntry = rightEntry;
+				rightEntry = swapEntry;
+			}
+			if(rightEntry >= 0) {
+				stack[top] = right;
+				distances[top++] = rightEntry;
+			}
+			if(leftEntry >= 0) {
+				stack[top] = left;
+				distances[top++] = leftEntry;
+			}
+		}
+	}
+
+	/**
+	 * @return The distance along a ray at which it enters the box of a node, or -1 if it misses the box before maxDistance
+	 */
+	private float intersectRay(int node, float ox, float oy, float oz, float ix, float iy, float iz,
+			float maxDistance) {
+		int b = node * 6;
+		float t1 = (bounds[b] - ox) * ix, t2 = (bounds[b + 3] - ox) * ix;
+		float near = Math.min(t1, t2), far = Math.max(t1, t2);
+		t1 = (bounds[b + 1] - oy) * iy;
+		t2 = (bounds[b + 4] - oy) * iy;
+		near = Math.max(near, Math.min(t1, t2));
+		far = Math.min(far, Math.max(t1, t2));
+		t1 = (bounds[b + 2] - oz) * iz;
+		t2 = (bounds[b + 5] - oz) * iz;
+		near = Math.max(near, Math.min(t1, t2));
+		far = Math.min(far, Math.max(t1, t2));
+
+		near = Math.max(near, 0);
+		// written so a NaN from a zero direction on a box edge counts as a miss
+		return near <= far && near <= maxDistance ? near : -1;
+	}
+
+	/**
+	 * builds or refits the tree if a change is waiting, done before every query
+	 */
+	private void prepare() {
+		if(buildPending)
+			build();
+		else if(refitPending)
+			refit();
+	}
+
+	/**
+	 * places a leaf in the tree as the sibling of the node that adds the least
+	 * surface area to the tree, then refits and rotates every node above it
+	 */
+	private void insertLeaf(int leaf) {
+		if(root == NULL) {
+			root = leaf;
+			parents[leaf] = NULL;
+			return;
+		}
+
+		int l = leaf * 6;
+		float minX = bounds[l], minY = bounds[l + 1], minZ = bounds[l + 2];
+		float maxX = bounds[l + 3], maxY = bounds[l + 4], maxZ = bounds[l + 5];
+
+		int sibling = root;
+		while(lefts[sibling] != NULL) {
+			float area = area(sibling);
+			float combined = unionArea(sibling, minX, minY, minZ, maxX, maxY, maxZ);
+			// the cost of making the leaf a sibling of this node, and of pushing it down a level
+			float cost = 2 * combined;
+			float inherited = 2 * (combined - area);
+
+			int left = lefts[sibling], right = rights[sibling];
+			float leftCost = unionArea(left, minX, minY, minZ, maxX, maxY, maxZ) + inherited;
+			if(lefts[left] != NULL)
+				leftCost -= area(left);
+			float rightCost = unionArea(right, minX, minY, minZ, maxX, maxY, maxZ) + inherited;
+			if(lefts[right] != NULL)
+				rightCost -= area(right);
+
+			if(cost < leftCost && cost < rightCost)
+				break;
+			sibling = leftCost < rightCost ? left : right;
+		}
+
+		int oldParent = parents[sibling];
+		int parent = allocateNode();
+		flags[parent] = 0;
+		data[parent] = null;
+		parents[parent] = oldParent;
+		lefts[parent] = sibling;
+		rights[parent] = leaf;
+		parents[sibling] = parent;
+		parents[leaf] = parent;
+
+		if(oldParent == NULL)
+			root = parent;
+		else if(lefts[oldParent] == sibling)
+			lefts[oldParent] = parent;
+		else
+			rights[oldParent] = parent;
+
+		for(int node = parent; node != NULL; node = parents[node]) {
+			fitToChildren(node);
+			rotate(node);
+		}
+	}
+
+	/**
+	 * takes a leaf out of the tree, its sibling taking the place of their parent,
+	 * and refits every node above it. The leaf itself is kept
+	 */
+	private void removeLeaf(int leaf) {
+		if(leaf == root) {
+			root = NULL;
+			return;
+		}
+
+		int parent = parents[leaf];
+		int grandparent = parents[parent];
+		int sibling = lefts[parent] == leaf ? rights[parent] : lefts[parent];
+		parents[sibling] = grandparent;
+		if(grandparent == NULL) {
+			root = sibling;
+		}else {
+			if(lefts[grandparent] == parent)
+				lefts[grandparent] = sibling;
+			else
+				rights[grandparent] = sibling;
+
+			for(int node = grandparent; node != NULL; node = parents[node]) {
+				fitToChildren(node);
+				rotate(node);
+			}
+		}
+		freeNode(parent);
+		parents[leaf] = NULL;
+	}
+
+	/**
+	 * swaps a child of a node with a grandchild under its other child if that
+	 * shrinks the surface area of the other child the most, one of the tree
+	 * rotations of Kopta et al. The box of the node itself does not change
+	 */
+	private void rotate(int node) {
+		int left = lefts[node], right = rights[node];
+		float bestGain = 0;
+		// the child to move down and the grandchild to move up in its place
+		int down = NULL, up = NULL;
+
+		if(lefts[right] != NULL) {
+			float area = area(right);
+			float gain = area - unionArea(left, rights[right]);
+			if(gain > bestGain) {
+				bestGain = gain;
+				down = left;
+				up = lefts[right];
+			}
+			gain = area - unionArea(left, lefts[right]);
+			if(gain > bestGain) {
+				bestGain = gain;
+				down = left;
+				up = rights[right];
+			}
+		}
+		if(lefts[left] != NULL) {
+			float area = area(left);
+			float gain = area - unionArea(right, rights[left]);
+			if(gain > bestGain) {
+				bestGain = gain;
+				down = right;
+				up = lefts[left];
+			}
+			gain = area - unionArea(right, lefts[left]);
+			if(gain > bestGain) {
+				bestGain = gain;
+				down = right;
+				up = rights[left];
+			}
+		}
+		if(down == NULL)
+			return;
+
+		int other = parents[up];
+		if(lefts[node] == down)
+			lefts[node] = up;
+		else
+			rights[node] = up;
+		parents[up] = node;
+
+		if(lefts[other] == up)
+			lefts[other] = down;
+		else
+			rights[other] = down;
+		parents[down] = other;
+		fitToChildren(other);
+	}
+
+	private void fitToChildren(int node) {
+		int b = node * 6, l = lefts[node] * 6, r = rights[node] * 6;
+		bounds[b] = Math.min(bounds[l], bounds[r]);
+		bounds[b + 1] = Math.min(bounds[l + 1], bounds[r + 1]);
+		bounds[b + 2] = Math.min(bounds[l + 2], bounds[r + 2]);
+		bounds[b + 3] = Math.max(bounds[l + 3], bounds[r + 3]);
+		bounds[b + 4] = Math.max(bounds[l + 4], bounds[r + 4]);
+		bounds[b + 5] = Math.max(bounds[l + 5], bounds[r + 5]);
+	}
+
+	private void setBounds(int node, float minX, float minY, float minZ, float maxX, float maxY, float maxZ) {
+		int b = node * 6;
+		bounds[b] = minX;
+		bounds[b + 1] = minY;
+		bounds[b + 2] = minZ;
+		bounds[b + 3] = maxX;
+		bounds[b + 4] = maxY;
+		bounds[b + 5] = maxZ;
+	}
+
+	/**
+	 * @return Half the surface area of a box, all the heuristics need
+	 */
+	private static float area(float minX, float minY, float minZ, float maxX, float maxY, float maxZ) {
+		float x = maxX - minX, y = maxY - minY, z = maxZ - minZ;
+		return x * y + y * z + z * x;
+	}
+
+	private float area(int node) {
+		int b = node * 6;
+		return area(bounds[b], bounds[b + 1], bounds[b + 2], bounds[b + 3], bounds[b + 4], bounds[b + 5]);
+	}
+
+	private float unionArea(int node, float minX, float minY, float minZ, float maxX, float maxY, float maxZ) {
+		int b = node * 6;
+		return area(Math.min(bounds[b], minX), Math.min(bounds[b + 1], minY), Math.min(bounds[b + 2], minZ),
+				Math.max(bounds[b + 3], maxX), Math.max(bounds[b + 4], maxY), Math.max(bounds[b + 5], maxZ));
+	}
+
+	private float unionArea(int a, int b) {
+		int o = b * 6;
+		return unionArea(a, bounds[o], bounds[o + 1], bounds[o + 2], bounds[o + 3], bounds[o + 4], bounds[o + 5]);
+	}
+
+	private int allocateNode() {
+		if(freeList == NULL)
+			grow(capacity * 2);
+		int node = freeList;
+		freeList = parents[node];
+		parents[node] = NULL;
+		return node;
+	}
+
+	private void freeNode(int node) {
+		lefts[node] = FREE;
+		rights[node] = NULL;
+		flags[node] = 0;
+		data[node] = null;
+		parents[node] = freeList;
+		freeList = node;
+	}
+
+	private void grow(int newCapacity) {
+		bounds = Arrays.copyOf(bounds, newCapacity * 6);
+		parents = Arrays.copyOf(parents, newCapacity);
+		lefts = Arrays.copyOf(lefts, newCapacity);
+		rights = Arrays.copyOf(rights, newCapacity);
+		flags = Arrays.copyOf(flags, newCapacity);
+		data = Arrays.copyOf(data, newCapacity);
+
+		// the new nodes are linked into the free list lowest first
+		for(int node = newCapacity - 1; node >= capacity; node--) {
+			lefts[node] = FREE;
+			parents[node] = freeList;
+			freeList = node;
+		}
+		capacity = newCapacity;
+	}
+
+	private void ensureStack(int size) {
+		if(size > stack.length) {
+			stack = Arrays.copyOf(stack, Math.max(size, stack.length * 2));
+			distances = Arrays.copyOf(distances, stack.length);
+		}
+	}
+
+	/**
+	 * @return The object of a proxy
+	 */
+	@Override
+	public Object getUserData(int proxy) {
+		return data[proxy];
+	}
+
+	/**
+	 * copies the box of a proxy, enlarged if it is dynamic, into dest
+	 *
+	 * @return dest
+	 */
+	@Override
+	public BoundingBox getBounds(int proxy, BoundingBox dest) {
+		int b = proxy * 6;
+		return dest.set(bounds[b], bounds[b + 1], bounds[b + 2], bounds[b + 3], bounds[b + 4], bounds[b + 5]);
+	}
+
+	/**
+	 * @return The amount of objects in the tree
+	 */
+	@Override
+	public int getProxyCount() {
+		return proxyCount;
+	}
+
+	/**
+	 * @return The amount of nodes on the longest path from the root to a leaf
+	 */
+	public int getHeight() {
+		prepare();
+		if(root == NULL)
+			return 0;
+
+		int height = 0;
+		int top = 0;
+		stack[top++] = root;
+		stack[top++] = 1;
+		while(top > 0) {
+			int depth = stack[--top];
+			int node = stack[--top];
+			height = Math.max(height, depth);
+			if(lefts[node] != NULL) {
+				ensureStack(top + 4);
+				stack[top++] = lefts[node];
+				stack[top++] = depth + 1;
+				stack[top++] = rights[node];
+				stack[top++] = depth + 1;
+			}
+		}
+		return height;
+	}
+
+	/**
+	 * @return The summed surface area of every internal node relative to that of the root, the SAH cost of traversing the tree. Lower is better
+	 */
+	public float getCost() {
+		prepare();
+		if(root == NULL || lefts[root] == NULL)
+			return 0;
+
+		double total = 0;
+		for(int node = 0; node < capacity; node++)
+			if(lefts[node] >= 0)
+				total += area(node);
+		return (float) (total / area(root));
+	}
+
+	/**
+	 * removes every proxy from the tree
+	 */
+	@Override
+	public void clear() {
+		root = NULL;
+		freeList = NULL;
+		proxyCount = 0;
+		buildPending = false;
+		refitPending = false;
+		Arrays.fill(data, null);
+		for(int node = capacity - 1; node >= 0; node--) {
+			lefts[node] = FREE;
+			flags[node] = 0;
+			parents[node] = freeList;
+			freeList = node;
+		}
+	}
+}
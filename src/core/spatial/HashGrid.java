@@ -0,0 +1,712 @@
+package core.spatial;
+
+import java.util.Arrays;
+
+import core.kernel.JobSystem;
+import core.maths.BoundingBox;
+import core.maths.Frustum;
+import core.utils.IntList;
+
+/**
+ * <h1>HashGrid Class</h1>
+ * <p>
+ * A loose uniform grid of cubic cells, of which only the occupied cells are
+ * stored, in a hash table keyed on their quantized coordinates. Each object is
+ * kept in the one cell its centre is in, on a doubly linked list through the
+ * proxies, so inserting, moving and removing an object costs a hash lookup or
+ * two however many objects there are. An object may reach at most half a cell
+ * past its cell, so queries look half a cell further out. Objects too large for
+ * that are kept on a separate list that every query tests.
+ * <p>
+ * Unlike a DynamicBVH there is nothing to refit or rebalance, which suits scenes
+ * of many small objects that move every frame. Box and sphere queries only read
+ * the grid, so batches of them can be run in parallel on the job system, and
+ * every overlapping pair can be found by looking at the neighbouring cells of
+ * each object.
+ * <p>
+ * Cell coordinates are clamped to 21 bits each, objects further out share the
+ * cells at the edge of the grid.
+ *
+ * @author Graham
+ * @version 2.0.0
+ * @since 2026-10-18
+ */
+public class HashGrid extends SpatialIndex {
+
+	private static final int MIN_CELL = -(1 << 20), MAX_CELL = (1 << 20) - 1;
+	// every key of a real cell is positive, the rest mark table slots and proxies
+	private static final long EMPTY = -1, OVERSIZED = -2, FREE = -3;
+	// the fewest queries worth running as a job of their own
+	private static final int MIN_PARALLEL_BATCH = 64;
+	// the offsets of the 13 neighbouring cells that come after a cell, x then y then z
+	private static final int[] FORWARD = { 0, 0, 1, 0, 1, -1, 0, 1, 0, 0, 1, 1, 1, -1, -1, 1, -1, 0, 1, -1, 1, 1, 0,
+			-1, 1, 0, 0, 1, 0, 1, 1, 1, -1, 1, 1, 0, 1, 1, 1 };
+
+	private final float cellSize, inverseCellSize, halfCell;
+
+	// per proxy: six floats of its box, the key of its cell and its links within the cell
+	private float[] bounds;
+	private long[] cells;
+	private int[] next, previous;
+	private Object[] data;
+	private int capacity;
+	private int freeList;
+	private int proxyCount;
+	// the first proxy of the list of oversized proxies
+	private int oversized;
+
+	// the occupied cells, linear probing, and the first proxy of each
+	private long[] keys;
+	private int[] heads;
+	private int mask;
+	private int cellCount;
+
+	// the range of cell coordinates ever occupied, which bounds the cells a ray walks through
+	private int lowX, lowY, lowZ, highX, highY, highZ;
+
+	// marks the proxies a ray has already tested, so each is only passed to the callback once
+	private int[] stamps;
+	private int stamp;
+
+	/**
+	 * creates an empty grid
+	 *
+	 * @param cellSize The width of a cell, which should be about the size of the objects in it
+	 */
+	public HashGrid(float cellSize) {
+		this.cellSize = cellSize;
+		inverseCellSize = 1 / cellSize;
+		halfCell = cellSize * 0.5f;
+
+		capacity = 0;
+		bounds = new float[0];
+		cells = new long[0];
+		next = new int[0];
+		previous = new int[0];
+		data = new Object[0];
+		stamps = new int[0];
+		freeList = NULL;
+		oversized = NULL;
+		growProxies(16);
+
+		keys = new long[16];
+		heads = new int[16];
+		Arrays.fill(keys, EMPTY);
+		mask = keys.length - 1;
+
+		lowX = lowY = lowZ = Integer.MAX_VALUE;
+		highX = highY = highZ = Integer.MIN_VALUE;
+	}
+
+	@Override
+	public int insert(float minX, float minY, float minZ, float maxX, float maxY, float maxZ, Object object) {
+		if(freeList == NULL)
+			growProxies(capacity * 2);
+		int proxy = freeList;
+		freeList = next[proxy];
+
+		setBounds(proxy, minX, minY, minZ, maxX, maxY, maxZ);
+		data[proxy] = object;
+		link(proxy, keyOf(minX, minY, minZ, maxX, maxY, maxZ));
+		proxyCount++;
+		return proxy;
+	}
+
+	@Override
+	public void remove(int proxy) {
+		unlink(proxy);
+		cells[proxy] = FREE;
+		data[proxy] = null;
+		next[proxy] = freeList;
+		freeList = proxy;
+		proxyCount--;
+	}
+
+	/**
+	 * moves an object to a new box, the displacement is not needed by a grid
+	 *
+	 * @return True if the object changed cell
+	 */
+	@Override
+	public boolean move(int proxy, float minX, float minY, float minZ, float maxX, float maxY, float maxZ, float dx,
+			float dy, float dz) {
+		setBounds(proxy, minX, minY, minZ, maxX, maxY, maxZ);
+		long key = keyOf(minX, minY, minZ, maxX, maxY, maxZ);
+		if(key == cells[proxy])
+			return false;
+
+		unlink(proxy);
+		link(proxy, key);
+		return true;
+	}
+
+	@Override
+	public int queryFrustum(Frustum frustum, IntList result) {
+		int before = result.size();
+		for(int proxy = oversized; proxy != NULL; proxy = next[proxy])
+			if(classify(frustum, proxy, Frustum.ALL_PLANES) >= 0)
+				result.add(proxy);
+
+		for(int slot = 0; slot < keys.length; slot++) {
+			long key = keys[slot];
+			if(key < 0)
+				continue;
+
+			int x = cellX(key), y = cellY(key), z = cellZ(key);
+			int planes = frustum.classifyBox(low(x), low(y), low(z), high(x), high(y), high(z), Frustum.ALL_PLANES);
+			if(planes < 0)
+				continue;
+			for(int proxy = heads[slot]; proxy != NULL; proxy = next[proxy])
+				if(planes == 0 || classify(frustum, proxy, planes) >= 0)
+					result.add(proxy);
+		}
+		return result.size() - before;
+	}
+
+	private int classify(Frustum frustum, int proxy, int planes) {
+		int b = proxy * 6;
+		return frustum.classifyBox(bounds[b], bounds[b + 1], bounds[b + 2], bounds[b + 3], bounds[b + 4],
+				bounds[b + 5], planes);
+	}
+
+	/**
+	 * {@inheritDoc} Only reads the grid, so may be called from several threads at
+	 * once while nothing changes it
+	 */
+	@Override
+	public int querySphere(float x, float y, float z, float radius, IntList result) {
+		return query(x - radius, y - radius, z - radius, x + radius, y + radius, z + radius, x, y, z, radius,
+				result);
+	}
+
+	/**
+	 * {@inheritDoc} Only reads the grid, so may be called from several threads at
+	 * once while nothing changes it
+	 */
+	@Override
+	public int queryBox(float minX, float minY, float minZ, float maxX, float maxY, float maxZ, IntList result) {
+		return query(minX, minY, minZ, maxX, maxY, maxZ, 0, 0, 0, -1, result);
+	}
+
+	/**
+	 * adds the proxies whose boxes touch a box, and a sphere if the radius is not
+	 * negative, to a list. Looks up each cell the box reaches if there are fewer
+	 * of them than occupied cells, otherwise goes through the occupied cells
+	 */
+	private int query(float minX, float minY, float minZ, float maxX, float maxY, float maxZ, float x, float y,
+			float z, float radius, IntList result) {
+		int before = result.size();
+		for(int proxy = oversized; proxy != NULL; proxy = next[proxy])
+			if(touches(proxy, minX, minY, minZ, maxX, maxY, maxZ, x, y, z, radius))
+				result.add(proxy);
+
+		int x0 = cell(minX - halfCell), y0 = cell(minY - halfCell), z0 = cell(minZ - halfCell);
+		int x1 = cell(maxX + halfCell), y1 = cell(maxY + halfCell), z1 = cell(maxZ + halfCell);
+
+		if((long) (x1 - x0 + 1) * (y1 - y0 + 1) * (z1 - z0 + 1) <= cellCount) {
+			for(int cx = x0; cx <= x1; cx++) {
+				for(int cy = y0; cy <= y1; cy++) {
+					for(int cz = z0; cz <= z1; cz++) {
+						int slot = find(key(cx, cy, cz));
+						if(slot < 0)
+							continue;
+						for(int proxy = heads[slot]; proxy != NULL; proxy = next[proxy])
+							if(touches(proxy, minX, minY, minZ, maxX, maxY, maxZ, x, y, z, radius))
+								result.add(proxy);
+					}
+				}
+			}
+		}else {
+			for(int slot = 0; slot < keys.length; slot++) {
+				long key = keys[slot];
+				if(key < 0)
+					continue;
+				int cx = cellX(key), cy = cellY(key), cz = cellZ(key);
+				if(cx < x0 || cx > x1 || cy < y0 || cy > y1 || cz < z0 || cz > z1)
+					continue;
+				for(int proxy = heads[slot]; proxy != NULL; proxy = next[proxy])
+					if(touches(proxy, minX, minY, minZ, maxX, maxY, maxZ, x, y, z, radius))
+						result.add(proxy);
+			}
+		}
+		return result.size() - before;
+	}
+
+	private boolean touches(int proxy, float minX, float minY, float minZ, float maxX, float maxY, float maxZ,
+			float x, float y, float z, float radius) {
+		int b = proxy * 6;
+		if(bounds[b] > maxX || bounds[b + 1] > maxY || bounds[b + 2] > maxZ || bounds[b + 3] < minX
+				|| bounds[b + 4] < minY || bounds[b + 5] < minZ)
+			return false;
+		if(radius < 0)
+			return true;
+
+		float dx = Math.max(Math.max(bounds[b] - x, x - bounds[b + 3]), 0);
+		float dy = Math.max(Math.max(bounds[b + 1] - y, y - bounds[b + 4]), 0);
+		float dz = Math.max(Math.max(bounds[b + 2] - z, z - bounds[b + 5]), 0);
+		return dx * dx + dy * dy + dz * dz <= radius * radius;
+	}
+
+	/**
+	 * runs a batch of box queries in parallel on the job system, returning once
+	 * they are all done. Nothing may change the grid until then
+	 *
+	 * @param boxes Six floats per query, the min x, y, z then max x, y, z of its box
+	 * @param count The amount of queries
+	 * @param results The list to add the proxies found by each query to
+	 */
+	public void queryBoxes(float[] boxes, int count, IntList[] results) {
+		JobSystem.getInstance().parallelFor(0, count, MIN_PARALLEL_BATCH, (from, to) -> {
+			for(int i = from; i < to; i++) {
+				int b = i * 6;
+				queryBox(boxes[b], boxes[b + 1], boxes[b + 2], boxes[b + 3], boxes[b + 4], boxes[b + 5], results[i]);
+			}
+		});
+	}
+
+	/**
+	 * runs a batch of sphere queries in parallel on the job system, returning once
+	 * they are all done. Nothing may change the grid until then
+	 *
+	 * @param spheres Four floats per query, the x, y, z of its centre then its radius
+	 * @param count The amount of queries
+	 * @param results The list to add the proxies found by each query to
+	 */
+	public void querySpheres(float[] spheres, int count, IntList[] results) {
+		JobSystem.getInstance().parallelFor(0, count, MIN_PARALLEL_BATCH, (from, to) -> {
+			for(int i = from; i < to; i++) {
+				int s = i * 4;
+				querySphere(spheres[s], spheres[s + 1], spheres[s + 2], spheres[s + 3], results[i]);
+			}
+		});
+	}
+
+	/**
+	 * adds the proxies whose boxes are within a distance of the box of a proxy to a
+	 * list, not including the proxy itself
+	 *
+	 * @return The amount of proxies added
+	 */
+	public int queryNeighbours(int proxy, float distance, IntList result) {
+		int b = proxy * 6;
+		int before = result.size();
+		query(bounds[b] - distance, bounds[b + 1] - distance, bounds[b + 2] - distance, bounds[b + 3] + distance,
+				bounds[b + 4] + distance, bounds[b + 5] + distance, 0, 0, 0, -1, result);
+
+		for(int i = before; i < result.size(); i++) {
+			if(result.get(i) == proxy) {
+				result.set(i, result.removeLast());
+				break;
+			}
+		}
+		return result.size() - before;
+	}
+
+	/**
+	 * finds every pair of proxies whose boxes overlap, each pair once. Each object
+	 * only needs comparing with the objects in its own and the 26 neighbouring
+	 * cells, and each pair of cells is only compared once. Oversized objects are
+	 * compared with everything
+	 *
+	 * @param callback Called with each overlapping pair, the lower proxy id first
+	 */
+	public void queryPairs(PairCallback callback) {
+		for(int slot = 0; slot < keys.length; slot++) {
+			long key = keys[slot];
+			if(key < 0)
+				continue;
+			int x = cellX(key), y = cellY(key), z = cellZ(key);
+
+			for(int a = heads[slot]; a != NULL; a = next[a])
+				for(int b = next[a]; b != NULL; b = next[b])
+					if(overlaps(a, b))
+						callback.pair(Math.min(a, b), Math.max(a, b));
+
+			// each pair of neighbouring cells is only compared from the lower of the two
+			for(int n = 0; n < FORWARD.length; n += 3) {
+				int cx = x + FORWARD[n], cy = y + FORWARD[n + 1], cz = z + FORWARD[n + 2];
+				if(cx > MAX_CELL || cy < MIN_CELL || cy > MAX_CELL || cz < MIN_CELL || cz > MAX_CELL)
+					continue;
+				int other = find(key(cx, cy, cz));
+				if(other < 0)
+					continue;
+				for(int a = heads[slot]; a != NULL; a = next[a])
+					for(int b = heads[other]; b != NULL; b = next[b])
+						if(overlaps(a, b))
+							callback.pair(Math.min(a, b), Math.max(a, b));
+			}
+		}
+
+		for(int a = oversized; a != NULL; a = next[a])
+			for(int b = 0; b < capacity; b++)
+				if(b != a && cells[b] != FREE && (cells[b] != OVERSIZED || a < b) && overlaps(a, b))
+					callback.pair(Math.min(a, b), Math.max(a, b));
+	}
+
+	private boolean overlaps(int a, int b) {
+		int i = a * 6, j = b * 6;
+		return bounds[i] <= bounds[j + 3] && bounds[i + 3] >= bounds[j] && bounds[i + 1] <= bounds[j + 4]
+				&& bounds[i + 4] >= bounds[j + 1] && bounds[i + 2] <= bounds[j + 5] && bounds[i + 5] >= bounds[j + 2];
+	}
+
+	/**
+	 * walks a ray through the cells it passes, nearest first, testing the objects
+	 * of each cell and its neighbours, as they may reach into it. The walk stops
+	 * once the ray is past the closest hit found so far
+	 */
+	@Override
+	public void raycast(float ox, float oy, float oz, float dx, float dy, float dz, float maxDistance,
+			RayCallback callback) {
+		if(++stamp == 0) {
+			Arrays.fill(stamps, 0);
+			stamp = 1;
+		}
+		float ix = 1 / dx, iy = 1 / dy, iz = 1 / dz;
+
+		for(int proxy = oversized; proxy != NULL; proxy = next[proxy]) {
+			int b = proxy * 6;
+			if(intersectRay(bounds[b], bounds[b + 1], bounds[b + 2], bounds[b + 3], bounds[b + 4], bounds[b + 5], ox,
+					oy, oz, ix, iy, iz, maxDistance) < 0)
+				continue;
+			float distance = callback.hit(proxy, maxDistance);
+			if(distance <= 0)
+				return;
+			maxDistance = Math.min(maxDistance, distance);
+		}
+		if(cellCount == 0)
+			return;
+
+		// only the occupied range of the grid, and one cell around it, is walked
+		int x0 = Math.max(lowX - 1, MIN_CELL), y0 = Math.max(lowY - 1, MIN_CELL), z0 = Math.max(lowZ - 1, MIN_CELL);
+		int x1 = Math.min(highX + 1, MAX_CELL), y1 = Math.min(highY + 1, MAX_CELL), z1 = Math.min(highZ + 1, MAX_CELL);
+		float t = intersectRay(x0 * cellSize, y0 * cellSize, z0 * cellSize, (x1 + 1) * cellSize, (y1 + 1) * cellSize,
+				(z1 + 1) * cellSize, ox, oy, oz, ix, iy, iz, maxDistance);
+		if(t < 0)
+			return;
+
+		int x = Math.min(Math.max(cell(ox + dx * t), x0), x1);
+		int y = Math.min(Math.max(cell(oy + dy * t), y0), y1);
+		int z = Math.min(Math.max(cell(oz + dz * t), z0), z1);
+		int stepX = dx > 0 ? 1 : -1, stepY = dy > 0 ? 1 : -1, stepZ = dz > 0 ? 1 : -1;
+		// the distance along the ray to the next cell boundary on each axis, and between boundaries
+		float nextX = dx == 0 ? Float.POSITIVE_INFINITY : ((x + (dx > 0 ? 1 : 0)) * cellSize - ox) * ix;
+		float nextY = dy == 0 ? Float.POSITIVE_INFINITY : ((y + (dy > 0 ? 1 : 0)) * cellSize - oy) * iy;
+		float nextZ = dz == 0 ? Float.POSITIVE_INFINITY : ((z + (dz > 0 ? 1 : 0)) * cellSize - oz) * iz;
+		float deltaX = Math.abs(cellSize * ix), deltaY = Math.abs(cellSize * iy), deltaZ = Math.abs(cellSize * iz);
+
+		while(t <= maxDistance) {
+			for(int cx = Math.max(x - 1, MIN_CELL); cx <= Math.min(x + 1, MAX_CELL); cx++) {
+				for(int cy = Math.max(y - 1, MIN_CELL); cy <= Math.min(y + 1, MAX_CELL); cy++) {
+					for(int cz = Math.max(z - 1, MIN_CELL); cz <= Math.min(z + 1, MAX_CELL); cz++) {
+						int slot = find(key(cx, cy, cz));
+						if(slot < 0)
+							continue;
+						for(int proxy = heads[slot]; proxy != NULL; proxy = next[proxy]) {
+							if(stamps[proxy] == stamp)
+								continue;
+							stamps[proxy] = stamp;
+							int b = proxy * 6;
+							if(intersectRay(bounds[b], bounds[b + 1], bounds[b + 2], bounds[b + 3], bounds[b + 4],
+									bounds[b + 5], ox, oy, oz, ix, iy, iz, maxDistance) < 0)
+								continue;
+							float distance = callback.hit(proxy, maxDistance);
+							if(distance <= 0)
+								return;
+							maxDistance = Math.min(maxDistance, distance);
+						}
+					}
+				}
+			}
+
+			if(nextX <= nextY && nextX <= nextZ) {
+				t = nextX;
+				nextX += deltaX;
+				x += stepX;
+				if(x < x0 || x > x1)
+					return;
+			}else if(nextY <= nextZ) {
+				t = nextY;
+				nextY += deltaY;
+				y += stepY;
+				if(y < y0 || y > y1)
+					return;
+			}else {
+				t = nextZ;
+				nextZ += deltaZ;
+				z += stepZ;
+				if(z < z0 || z > z1)
+					return;
+			}
+		}
+	}
+
+	/**
+	 * @return The distance along a ray at which it enters a box, or -1 if it misses the box before maxDistance
+	 */
+	private static float intersectRay(float minX, float minY, float minZ, float maxX, float maxY, float maxZ,
+			float ox, float oy, float oz, float ix, float iy, float iz, float maxDistance) {
+		float t1 = (minX - ox) * ix, t2 = (maxX - ox) * ix;
+		float near = Math.min(t1, t2), far = Math.max(t1, t2);
+		t1 = (minY - oy) * iy;
+		t2 = (maxY - oy) * iy;
+		near = Math.max(near, Math.min(t1, t2));
+		far = Math.min(far, Math.max(t1, t2));
+		t1 = (minZ - oz) * iz;
+		t2 = (maxZ - oz) * iz;
+		near = Math.max(near, Math.min(t1, t2));
+		far = Math.min(far, Math.max(t1, t2));
+
+		near = Math.max(near, 0);
+		return near <= far && near <= maxDistance ? near : -1;
+	}
+
+	/**
+	 * @return The key of the cell an object with a box belongs in, OVERSIZED if it reaches more than half a cell past the cell of its centre
+	 */
+	private long keyOf(float minX, float minY, float minZ, float maxX, float maxY, float maxZ) {
+		if(maxX - minX > cellSize || maxY - minY > cellSize || maxZ - minZ > cellSize)
+			return OVERSIZED;
+		return key(cell((minX + maxX) * 0.5f), cell((minY + maxY) * 0.5f), cell((minZ + maxZ) * 0.5f));
+	}
+
+	private int cell(float coordinate) {
+		float c = (float) Math.floor(coordinate * inverseCellSize);
+		// also sends NaN to zero
+		return c >= MAX_CELL ? MAX_CELL : c <= MIN_CELL ? MIN_CELL : (int) c;
+	}
+
+	private static long key(int x, int y, int z) {
+		return ((long) (x - MIN_CELL) << 42) | ((long) (y - MIN_CELL) << 21) | (z - MIN_CELL);
+	}
+
+	private static int cellX(long key) {
+		return (int) (key >>> 42) + MIN_CELL;
+	}
+
+	private static int cellY(long key) {
+		return (int) ((key >>> 21) & 0x1FFFFF) + MIN_CELL;
+	}
+
+	private static int cellZ(long key) {
+		return (int) (key & 0x1FFFFF) + MIN_CELL;
+	}
+
+	/**
+	 * @return The lowest coordinate an object of a cell can reach, unbounded at the edge of the grid
+	 */
+	private float low(int cell) {
+		return cell == MIN_CELL ? Float.NEGATIVE_INFINITY : cell * cellSize - halfCell;
+	}
+
+	/**
+	 * @return The highest coordinate an object of a cell can reach, unbounded at the edge of the grid
+	 */
+	private float high(int cell) {
+		return cell == MAX_CELL ? Float.POSITIVE_INFINITY : (cell + 1) * cellSize + halfCell;
+	}
+
+	private int hash(long key) {
+		long h = key * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32)) & mask;
+	}
+
+	/**
+	 * @return The slot of a cell in the table, or -1 if the cell is empty
+	 */
+	private int find(long key) {
+		for(int slot = hash(key);; slot = (slot + 1) & mask) {
+			if(keys[slot] == key)
+				return slot;
+			if(keys[slot] == EMPTY)
+				return -1;
+		}
+	}
+
+	/**
+	 * adds a proxy to the front of the list of a cell, adding the cell to the table
+	 * if it was empty
+	 */
+	private void link(int proxy, long key) {
+		cells[proxy] = key;
+		previous[proxy] = NULL;
+
+		if(key == OVERSIZED) {
+			next[proxy] = oversized;
+			if(oversized != NULL)
+				previous[oversized] = proxy;
+			oversized = proxy;
+			return;
+		}
+
+		int slot = hash(key);
+		while(keys[slot] != key && keys[slot] != EMPTY)
+			slot = (slot + 1) & mask;
+
+		if(keys[slot] == EMPTY) {
+			keys[slot] = key;
+			heads[slot] = NULL;
+			cellCount++;
+
+			int x = cellX(key), y = cellY(key), z = cellZ(key);
+			lowX = Math.min(lowX, x);
+			lowY = Math.min(lowY, y);
+			lowZ = Math.min(lowZ, z);
+			highX = Math.max(highX, x);
+			highY = Math.max(highY, y);
+			highZ = Math.max(highZ, z);
+		}
+
+		next[proxy] = heads[slot];
+		if(heads[slot] != NULL)
+			previous[heads[slot]] = proxy;
+		heads[slot] = proxy;
+
+		// kept at most half full, so probes stay short
+		if(cellCount * 2 > keys.length)
+			rehash(keys.length * 2);
+	}
+
+	/**
+	 * takes a proxy off the list of its cell, removing the cell from the table if
+	 * it is left empty
+	 */
+	private void unlink(int proxy) {
+		int before = previous[proxy], after = next[proxy];
+		if(after != NULL)
+			previous[after] = before;
+		if(before != NULL) {
+			next[before] = after;
+			return;
+		}
+
+		long key = cells[proxy];
+		if(key == OVERSIZED) {
+			oversized = after;
+			return;
+		}
+
+		int slot = find(key);
+		heads[slot] = after;
+		if(after == NULL)
+			removeSlot(slot);
+	}
+
+	/**
+	 * empties a slot of the table, shifting back any later cell of the same probe
+	 * run that could no longer be found past the gap
+	 */
+	private void removeSlot(int slot) {
+		cellCount--;
+		int gap = slot;
+		for(int i = (slot + 1) & mask; keys[i] != EMPTY; i = (i + 1) & mask) {
+			int home = hash(keys[i]);
+			// the cell can fill the gap if its home slot is not between the gap and where it is
+			if(((i - home) & mask) >= ((i - gap) & mask)) {
+				keys[gap] = keys[i];
+				heads[gap] = heads[i];
+				gap = i;
+			}
+		}
+		keys[gap] = EMPTY;
+	}
+
+	private void rehash(int size) {
+		long[] oldKeys = keys;
+		int[] oldHeads = heads;
+		keys = new long[size];
+		heads = new int[size];
+		Arrays.fill(keys, EMPTY);
+		mask = size - 1;
+
+		for(int i = 0; i < oldKeys.length; i++) {
+			if(oldKeys[i] == EMPTY)
+				continue;
+			int slot = hash(oldKeys[i]);
+			while(keys[slot] != EMPTY)
+				slot = (slot + 1) & mask;
+			keys[slot] = oldKeys[i];
+			heads[slot] = oldHeads[i];
+		}
+	}
+
+	private void setBounds(int proxy, float minX, float minY, float minZ, float maxX, float maxY, float maxZ) {
+		int b = proxy * 6;
+		bounds[b] = minX;
+		bounds[b + 1] = minY;
+		bounds[b + 2] = minZ;
+		bounds[b + 3] = maxX;
+		bounds[b + 4] = maxY;
+		bounds[b + 5] = maxZ;
+	}
+
+	private void growProxies(int newCapacity) {
+		bounds = Arrays.copyOf(bounds, newCapacity * 6);
+		cells = Arrays.copyOf(cells, newCapacity);
+		next = Arrays.copyOf(next, newCapacity);
+		previous = Arrays.copyOf(previous, newCapacity);
+		data = Arrays.copyOf(data, newCapacity);
+		stamps = Arrays.copyOf(stamps, newCapacity);
+
+		// the new proxies are linked into the free list lowest first
+		for(int proxy = newCapacity - 1; proxy >= capacity; proxy--) {
+			cells[proxy] = FREE;
+			next[proxy] = freeList;
+			freeList = proxy;
+		}
+		capacity = newCapacity;
+	}
+
+	@Override
+	public Object getUserData(int proxy) {
+		return data[proxy];
+	}
+
+	@Override
+	public BoundingBox getBounds(int proxy, BoundingBox dest) {
+		int b = proxy * 6;
+		return dest.set(bounds[b], bounds[b + 1], bounds[b + 2], bounds[b + 3], bounds[b + 4], bounds[b + 5]);
+	}
+
+	@Override
+	public int getProxyCount() {
+		return proxyCount;
+	}
+
+	/**
+	 * @return The amount of occupied cells
+	 */
+	public int getCellCount() {
+		return cellCount;
+	}
+
+	public float getCellSize() {
+		return cellSize;
+	}
+
+	@Override
+	public void clear() {
+		Arrays.fill(keys, EMPTY);
+		cellCount = 0;
+		oversized = NULL;
+		proxyCount = 0;
+		freeList = NULL;
+		Arrays.fill(data, null);
+		for(int proxy = capacity - 1; proxy >= 0; proxy--) {
+			cells[proxy] = FREE;
+			next[proxy] = freeList;
+			freeList = proxy;
+		}
+		lowX = lowY = lowZ = Integer.MAX_VALUE;
+		highX = highY = highZ = Integer.MIN_VALUE;
+	}
+
+	/**
+	 * <h1>PairCallback Interface</h1>
+	 * <p>
+	 * Receives the overlapping pairs of proxies found by a HashGrid
+	 */
+	public interface PairCallback {
+
+		void pair(int a, int b);
+	}
+}
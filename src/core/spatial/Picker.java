@@ -0,0 +1,165 @@
+package core.spatial;
+
+import core.kernel.Camera;
+import core.maths.matrix.Matrix4f;
+import core.maths.vector.Vector3f;
+import modules.entity.Entity;
+import resources.model.Mesh;
+
+/**
+ * <h1>Picker Class</h1>
+ * <p>
+ * Finds what is under the cursor, or along any ray, by casting against the
+ * triangles of the entities in the scene index. The scene index is the broad
+ * phase, passing only the entities whose boxes the ray passes through nearest
+ * first, and each of those is tested by moving the ray into its model space and
+ * casting it against its mesh's TriangleBVH, so the tree is shared by every
+ * entity with the same mesh.
+ * <p>
+ * The picker reads the scene index, so must be used on the thread that updates
+ * the scene, and it reuses one hit, which is only valid until the next cast.
+ *
+ * @author Graham
+ * @version 2.0.0
+ * @since 2026-10-18
+ */
+public class Picker {
+
+	// the scene has one index, so a single picker is shared
+	private static Picker instance = null;
+
+	private Matrix4f inverseViewProjection = new Matrix4f(), inverseModel = new Matrix4f();
+	private Vector3f origin = new Vector3f(), direction = new Vector3f();
+	private RayHit hit = new RayHit(), meshHit = new RayHit();
+
+	// the ray being cast, in world space
+	private float ox, oy, oz, dx, dy, dz;
+	private SpatialIndex index;
+	private final SpatialIndex.RayCallback callback = this::hitProxy;
+
+	/**
+	 * returns the current instance of the picker, or if none exists, it creates a
+	 * new current instance before returning it
+	 *
+	 * @return the current instance of the picker
+	 */
+	public static Picker getInstance() {
+		if(instance == null)
+			instance = new Picker();
+		return instance;
+	}
+
+	/**
+	 * finds the closest entity under a point of the screen, as seen by the camera
+	 *
+	 * @param x The x coordinate of the point, in pixels from the left of the window
+	 * @param y The y coordinate of the point, in pixels from the bottom of the window
+	 * @param width The width of the window, in pixels
+	 * @param height The height of the window, in pixels
+	 *
+	 * @return The hit, holding the entity hit, or null if nothing was hit
+	 */
+	public RayHit pick(float x, float y, float width, float height) {
+		Camera.getInstance().getViewProjectionMatrix().invert(inverseViewProjection);
+		float length = unproject(inverseViewProjection, x, y, width, height, origin, direction);
+		return raycast(origin, direction, length);
+	}
+
+	/**
+	 * finds the closest entity along a ray
+	 *
+	 * @param origin The start of the ray, in world space
+	 * @param direction The direction of the ray
+	 * @param maxDistance How far along the ray to search, in multiples of its direction
+	 *
+	 * @return The hit, holding the entity hit, or null if nothing was hit
+	 */
+	public RayHit raycast(Vector3f origin, Vector3f direction, float maxDistance) {
+		ox = origin.getX();
+		oy = origin.getY();
+		oz = origin.getZ();
+		dx = direction.getX();
+		dy = direction.getY();
+		dz = direction.getZ();
+
+		hit.reset(maxDistance);
+		index = SpatialIndex.getScene();
+		index.raycast(ox, oy, oz, dx, dy, dz, maxDistance, callback);
+		index = null;
+		return hit.isHit() ? hit : null;
+	}
+
+	/**
+	 * casts the ray against the mesh of the entity of a proxy, in the entities
+	 * model space. Directions are moved by the same matrix as positions, so
+	 * distances along the ray are the same in both spaces
+	 */
+	private float hitProxy(int proxy, float maxDistance) {
+		Object object = index.getUserData(proxy);
+		if(!(object instanceof Entity))
+			return maxDistance;
+		Entity entity = (Entity) object;
+		Mesh mesh = entity.getModel().getMesh();
+
+		if(entity.getWorldTransform().getModelMatrix().invert(inverseModel) != inverseModel)
+			return maxDistance;
+		float x = transform(inverseModel, 0, ox, oy, oz, 1), y = transform(inverseModel, 1, ox, oy, oz, 1);
+		float z = transform(inverseModel, 2, ox, oy, oz, 1);
+		float ix = transform(inverseModel, 0, dx, dy, dz, 0), iy = transform(inverseModel, 1, dx, dy, dz, 0);
+		float iz = transform(inverseModel, 2, dx, dy, dz, 0);
+
+		meshHit.reset(maxDistance);
+		if(!mesh.getTriangleBVH().raycast(x, y, z, ix, iy, iz, meshHit))
+			return maxDistance;
+		hit.set(meshHit, entity);
+		return meshHit.getDistance();
+	}
+
+	/**
+	 * turns a point of the screen into the ray through it, from the near plane to
+	 * the far plane of a view projection
+	 *
+	 * @param inverseViewProjection The inverse of the view projection matrix the screen was drawn with
+	 * @param x The x coordinate of the point, in pixels from the left
+	 * @param y The y coordinate of the point, in pixels from the bottom
+	 * @param width The width of the screen, in pixels
+	 * @param height The height of the screen, in pixels
+	 * @param origin Receives the point on the near plane, in world space
+	 * @param direction Receives the unit direction from the near plane to the far plane
+	 *
+	 * @return The distance from the near plane to the far plane along the ray
+	 */
+	public static float unproject(Matrix4f inverseViewProjection, float x, float y, float width, float height,
+			Vector3f origin, Vector3f direction) {
+		float ndcX = x / width * 2 - 1, ndcY = y / height * 2 - 1;
+
+		float nearW = transform(inverseViewProjection, 3, ndcX, ndcY, -1, 1);
+		float nearX = transform(inverseViewProjection, 0, ndcX, ndcY, -1, 1) / nearW;
+		float nearY = transform(inverseViewProjection, 1, ndcX, ndcY, -1, 1) / nearW;
+		float nearZ = transform(inverseViewProjection, 2, ndcX, ndcY, -1, 1) / nearW;
+
+		float farW = transform(inverseViewProjection, 3, ndcX, ndcY, 1, 1);
+		float farX = transform(inverseViewProjection, 0, ndcX, ndcY, 1, 1) / farW - nearX;
+		float farY = transform(inverseViewProjection, 1, ndcX, ndcY, 1, 1) / farW - nearY;
+		float farZ = transform(inverseViewProjection, 2, ndcX, ndcY, 1, 1) / farW - nearZ;
+
+		float length = (float) Math.sqrt(farX * farX + farY * farY + farZ * farZ);
+		origin.set(nearX, nearY, nearZ);
+		direction.set(farX / length, farY / length, farZ / length);
+		return length;
+	}
+
+	/**
+	 * @return One row of a matrix multiplied by the vector (x, y, z, w)
+	 */
+	private static float transform(Matrix4f matrix, int row, float x, float y, float z, float w) {
+		return matrix.get(row, 0) * x + matrix.get(row, 1) * y + matrix.get(row, 2) * z + matrix.get(row, 3) * w;
+	}
+
+	/**
+	 * destroys the current picker, to be called when the engine is shutting down
+	 */
+	public static void cleanUp() {
+		instance = null;
+	}
+}
@@ -0,0 +1,104 @@
+package core.spatial;
+
+/**
+ * <h1>RayHit Class</h1>
+ * <p>
+ * The closest hit of a ray cast against triangles. Before a cast the distance
+ * is how far along the ray to search, each closer hit found replaces the
+ * distance, triangle and barycentric coordinates. A hit also holds the stack a
+ * TriangleBVH walks its nodes with, so a cast allocates nothing and threads
+ * can cast at the same time as long as each has its own hit.
+ *
+ * @author Graham
+ * @version 2.0.0
+ * @since 2026-10-18
+ */
+public class RayHit {
+
+	// deep enough for any tree TriangleBVH builds
+	static final int STACK_SIZE = 128;
+
+	private float distance;
+	private int triangle;
+	private float u, v;
+	private Object object;
+
+	final int[] stack = new int[STACK_SIZE];
+
+	/**
+	 * creates a hit that searches the whole ray
+	 */
+	public RayHit() {
+		reset(Float.POSITIVE_INFINITY);
+	}
+
+	/**
+	 * forgets any hit, to be called before each cast
+	 *
+	 * @param maxDistance How far along the ray to search, in multiples of its direction
+	 */
+	public void reset(float maxDistance) {
+		distance = maxDistance;
+		triangle = -1;
+		u = 0;
+		v = 0;
+		object = null;
+	}
+
+	void set(float distance, int triangle, float u, float v) {
+		this.distance = distance;
+		this.triangle = triangle;
+		this.u = u;
+		this.v = v;
+	}
+
+	/**
+	 * copies a hit, and the object it belongs to
+	 */
+	public void set(RayHit hit, Object object) {
+		set(hit.distance, hit.triangle, hit.u, hit.v);
+		this.object = object;
+	}
+
+	/**
+	 * @return True if a triangle has been hit
+	 */
+	public boolean isHit() {
+		return triangle >= 0;
+	}
+
+	/**
+	 * @return The distance along the ray to the hit, in multiples of its direction, or the distance searched if nothing was hit
+	 */
+	public float getDistance() {
+		return distance;
+	}
+
+	/**
+	 * @return The index of the triangle hit in the mesh, the index of its first vertex index divided by three, or -1
+	 */
+	public int getTriangle() {
+		return triangle;
+	}
+
+	/**
+	 * @return The weight of the second vertex of the triangle at the hit
+	 */
+	public float getU() {
+		return u;
+	}
+
+	/**
+	 * @return The weight of the third vertex of the triangle at the hit
+	 */
+	public float getV() {
+		return v;
+	}
+
+	/**
+	 * @return The object hit, if the cast was made against more than one mesh
+	 */
+	public Object getObject() {
+		return object;
+	}
+}
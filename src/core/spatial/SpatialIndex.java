@@ -0,0 +1,193 @@
+package core.spatial;
+
+import core.maths.BoundingBox;
+import core.maths.Frustum;
+import core.maths.vector.Vector3f;
+import core.utils.IntList;
+
+/**
+ * <h1>SpatialIndex Class</h1>
+ * <p>
+ * The base of every structure that finds objects by their world space axis
+ * aligned boxes. Each object in an index is a proxy, identified by the id it is
+ * given when inserted until it is removed. Queries add the ids of the proxies
+ * they find to an IntList, and never allocate.
+ * <p>
+ * The scene index is the one entities are kept in and the render engine culls
+ * with. It is a DynamicBVH unless another index is set before the scene is
+ * created, a HashGrid suits scenes of many small moving objects better.
+ *
+ * @author Graham
+ * @version 2.0.0
+ * @since 2026-10-18
+ */
+public abstract class SpatialIndex {
+
+	public static final int NULL = -1;
+
+	// the engine has one scene, so there is a single scene index
+	private static SpatialIndex scene = null;
+
+	/**
+	 * returns the index holding the objects of the scene, or if none is set, it
+	 * creates a DynamicBVH with the default margin before returning it
+	 *
+	 * @return the scene index
+	 */
+	public static SpatialIndex getScene() {
+		if(scene == null)
+			scene = new DynamicBVH(DynamicBVH.DEFAULT_MARGIN);
+		return scene;
+	}
+
+	/**
+	 * sets the index the objects of the scene are kept in, to be called before any
+	 * object is added to the scene
+	 */
+	public static void setScene(SpatialIndex index) {
+		scene = index;
+	}
+
+	/**
+	 * inserts an object into the index straight away
+	 *
+	 * @return The id of the new proxy
+	 */
+	public abstract int insert(float minX, float minY, float minZ, float maxX, float maxY, float maxZ,
+			Object object);
+
+	/**
+	 * inserts an object into the index straight away
+	 *
+	 * @return The id of the new proxy
+	 */
+	public int insert(BoundingBox box, Object object) {
+		Vector3f min = box.getMin(), max = box.getMax();
+		return insert(min.getX(), min.getY(), min.getZ(), max.getX(), max.getY(), max.getZ(), object);
+	}
+
+	/**
+	 * removes an object from the index, its proxy id may be given to a later
+	 * object
+	 */
+	public abstract void remove(int proxy);
+
+	/**
+	 * moves an object to a new box
+	 *
+	 * @param dx The x displacement of the object since it last moved, or zero
+	 * @param dy The y displacement of the object since it last moved, or zero
+	 * @param dz The z displacement of the object since it last moved, or zero
+	 *
+	 * @return True if the structure of the index had to change
+	 */
+	public abstract boolean move(int proxy, float minX, float minY, float minZ, float maxX, float maxY, float maxZ,
+			float dx, float dy, float dz);
+
+	/**
+	 * moves an object to a new box, see move
+	 *
+	 * @return True if the structure of the index had to change
+	 */
+	public boolean move(int proxy, BoundingBox box, float dx, float dy, float dz) {
+		Vector3f min = box.getMin(), max = box.getMax();
+		return move(proxy, min.getX(), min.getY(), min.getZ(), max.getX(), max.getY(), max.getZ(), dx, dy, dz);
+	}
+
+	/**
+	 * adds the proxies whose boxes may be inside a frustum to a list
+	 *
+	 * @return The amount of proxies added
+	 */
+	public abstract int queryFrustum(Frustum frustum, IntList result);
+
+	/**
+	 * adds the proxies whose boxes touch a sphere to a list
+	 *
+	 * @return The amount of proxies added
+	 */
+	public abstract int querySphere(float x, float y, float z, float radius, IntList result);
+
+	/**
+	 * adds the proxies whose boxes touch a box to a list
+	 *
+	 * @return The amount of proxies added
+	 */
+	public abstract int queryBox(float minX, float minY, float minZ, float maxX, float maxY, float maxZ,
+			IntList result);
+
+	/**
+	 * adds the proxies whose boxes touch a box to a list
+	 *
+	 * @return The amount of proxies added
+	 */
+	public int queryBox(BoundingBox box, IntList result) {
+		Vector3f min = box.getMin(), max = box.getMax();
+		return queryBox(min.getX(), min.getY(), min.getZ(), max.getX(), max.getY(), max.getZ(), result);
+	}
+
+	/**
+	 * casts a ray through the index, passing every proxy whose box it may hit to a
+	 * callback, roughly nearest first. The callback can shorten the ray, so
+	 * proxies well beyond the closest hit found so far are not visited
+	 *
+	 * @param ox The x coordinate of the start of the ray
+	 * @param oy The y coordinate of the start of the ray
+	 * @param oz The z coordinate of the start of the ray
+	 * @param dx The x component of the direction of the ray
+	 * @param dy The y component of the direction of the ray
+	 * @param dz The z component of the direction of the ray
+	 * @param maxDistance How far along the ray to search, in multiples of its direction
+	 * @param callback Called with each proxy hit
+	 */
+	public abstract void raycast(float ox, float oy, float oz, float dx, float dy, float dz, float maxDistance,
+			RayCallback callback);
+
+	/**
+	 * @return The object of a proxy
+	 */
+	public abstract Object getUserData(int proxy);
+
+	/**
+	 * copies the box the index holds for a proxy, which may be larger than the
+	 * box it was given, into dest
+	 *
+	 * @return dest
+	 */
+	public abstract BoundingBox getBounds(int proxy, BoundingBox dest);
+
+	/**
+	 * @return The amount of objects in the index
+	 */
+	public abstract int getProxyCount();
+
+	/**
+	 * removes every proxy from the index
+	 */
+	public abstract void clear();
+
+	/**
+	 * forgets the scene index, to be called when the engine is shutting down
+	 */
+	public static void cleanUp() {
+		scene = null;
+	}
+
+	/**
+	 * <h1>RayCallback Interface</h1>
+	 * <p>
+	 * Receives the proxies a ray cast through a SpatialIndex hits
+	 */
+	public interface RayCallback {
+
+		/**
+		 * called for each proxy whose box the ray may hit
+		 *
+		 * @param proxy The proxy hit
+		 * @param maxDistance How far along the ray is still being searched
+		 *
+		 * @return The distance to shorten the ray to, maxDistance to leave it as it is, or zero to stop the cast
+		 */
+		float hit(int proxy, float maxDistance);
+	}
+}
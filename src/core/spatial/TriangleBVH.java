@@ -0,0 +1,577 @@
+package core.spatial;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import core.kernel.JobSystem;
+import core.utils.IntList;
+
+/**
+ * <h1>TriangleBVH Class</h1>
+ * <p>
+ * A bounding volume hierarchy over the triangles of a mesh, in the mesh's model
+ * space, for casting rays against the triangles or finding those near a box
+ * without testing each one. The tree is built once, splitting each node where
+ * the surface area heuristic, estimated over a fixed number of bins along each
+ * axis, finds it cheapest. The top of a large tree is built first, then the
+ * subtrees below it in parallel on the job system, giving the same tree as
+ * building it all on one thread. A built tree can be written to a buffer and
+ * read back, which is how baked meshes keep it between launches.
+ * <p>
+ * The nodes are flattened in depth first order into one float array of 32
+ * bytes a node: the min x, y, z and max x, y, z of its box, then two ints held
+ * as float bits. A leaf holds the first of its triangles and how many there
+ * are, an inner node holds its right child and zero, its left child being the
+ * node straight after it. The triangles are copied in leaf order, each as its
+ * first vertex and two edges, so a leaf's triangles sit next to each other and
+ * are ready for the Moller-Trumbore test.
+ * <p>
+ * A built tree is only read, so any number of threads may cast rays against it
+ * at once, each with its own RayHit.
+ *
+ * @author Graham
+ * @version 2.0.0
+ * @since 2026-10-18
+ */
+public class TriangleBVH {
+
+	public static final int NODE_FLOATS = 8;
+	public static final int TRIANGLE_FLOATS = 9;
+
+	private static final int BINS = 16;
+	private static final int MAX_LEAF_TRIANGLES = 4;
+	// the fewest triangles worth building as a subtree, or bounding, as a job of their own
+	private static final int PARALLEL_TRIANGLES = 4096;
+	// every node deeper than this is a leaf, so a RayHit's stack can hold a walk of the tree
+	static final int MAX_DEPTH = RayHit.STACK_SIZE / 2 - 1;
+	// the cost of stepping into a node, relative to the cost of testing a triangle
+	private static final float TRAVERSAL_COST = 1;
+	// the count of an inner node, a leaf always has at least one triangle
+	private static final int INNER = 0;
+
+	private float[] nodes;
+	private int nodeCount;
+	private float[] triangles;
+	// the index in the mesh of each triangle, in leaf order
+	private int[] triangleIds;
+
+	// per triangle while building: the box of the triangle, and the centre of the box
+	private float[] boxes, centroids;
+
+	/**
+	 * builds the tree of a mesh. The top of the tree is built on the calling
+	 * thread, and the subtrees below it are built in parallel on the job system
+	 *
+	 * @param positions The x, y and z of each vertex of the mesh
+	 * @param indices Three vertex indices for each triangle of the mesh
+	 */
+	public TriangleBVH(float[] positions, int[] indices) {
+		int count = indices.length / 3;
+		boxes = new float[count * 6];
+		centroids = new float[count * 3];
+		triangleIds = new int[count];
+
+		JobSystem jobs = JobSystem.getInstance();
+		jobs.parallelFor(0, count, PARALLEL_TRIANGLES, (from, to) -> {
+			for(int t = from; t < to; t++) {
+				int a = indices[t * 3] * 3, b = indices[t * 3 + 1] * 3, c = indices[t * 3 + 2] * 3;
+				for(int axis = 0; axis < 3; axis++) {
+					float min = Math.min(positions[a + axis], Math.min(positions[b + axis], positions[c + axis]));
+					float max = Math.max(positions[a + axis], Math.max(positions[b + axis], positions[c + axis]));
+					boxes[t * 6 + axis] = min;
+					boxes[t * 6 + 3 + axis] = max;
+					centroids[t * 3 + axis] = (min + max) * 0.5f;
+				}
+				triangleIds[t] = t;
+			}
+		});
+
+		// enough subtrees for every thread to be kept busy while the slowest finish, small meshes are built here
+		int limit = count < PARALLEL_TRIANGLES * 2 ? 0
+				: Math.max(PARALLEL_TRIANGLES, count / ((jobs.getWorkerCount() + 1) * 8));
+		Builder top = new Builder();
+		top.build(0, count, 0, limit);
+
+		int subtreeCount = top.deferred.size() / 4;
+		if(subtreeCount == 0) {
+			nodes = Arrays.copyOf(top.nodes, top.nodeCount * NODE_FLOATS);
+			nodeCount = top.nodeCount;
+		}else {
+			Builder[] subtrees = new Builder[subtreeCount];
+			jobs.parallelFor(0, subtreeCount, 1, (from, to) -> {
+				for(int i = from; i < to; i++) {
+					int[] deferred = top.deferred.getData();
+					subtrees[i] = new Builder();
+					subtrees[i].build(deferred[i * 4 + 1], deferred[i * 4 + 2], deferred[i * 4 + 3], 0);
+				}
+			});
+
+			int[] subtreeOf = new int[top.nodeCount];
+			Arrays.fill(subtreeOf, -1);
+			nodeCount = top.nodeCount - subtreeCount;
+			for(int i = 0; i < subtreeCount; i++) {
+				subtreeOf[top.deferred.get(i * 4)] = i;
+				nodeCount += subtrees[i].nodeCount;
+			}
+			nodes = new float[nodeCount * NODE_FLOATS];
+			join(top, 0, 0, subtreeOf, subtrees);
+		}
+		boxes = null;
+		centroids = null;
+
+		gather(positions, indices);
+	}
+
+	/**
+	 * creates a tree from the nodes and triangle order written by write, checking
+	 * they belong to a mesh with as many triangles as the one given
+	 *
+	 * @return The tree, or null if the data does not fit the mesh
+	 */
+	public static TriangleBVH read(ByteBuffer data, float[] positions, int[] indices) {
+		ByteBuffer buffer = data.duplicate().order(data.order());
+		int nodeCount = buffer.getInt(), triangleCount = buffer.getInt();
+		if(triangleCount != indices.length / 3 || nodeCount < 1
+				|| buffer.remaining() != nodeCount * NODE_FLOATS * Float.BYTES + triangleCount * Integer.BYTES)
+			return null;
+
+		TriangleBVH tree = new TriangleBVH();
+		tree.nodeCount = nodeCount;
+		tree.nodes = new float[nodeCount * NODE_FLOATS];
+		tree.triangleIds = new int[triangleCount];
+		buffer.asFloatBuffer().get(tree.nodes);
+		buffer.position(buffer.position() + tree.nodes.length * Float.BYTES);
+		buffer.asIntBuffer().get(tree.triangleIds);
+
+		for(int id : tree.triangleIds)
+			if(id < 0 || id >= triangleCount)
+				return null;
+		tree.gather(positions, indices);
+		return tree;
+	}
+
+	private TriangleBVH() {
+	}
+
+	/**
+	 * @return The amount of bytes write puts into a buffer
+	 */
+	public int getSerializedBytes() {
+		return 2 * Integer.BYTES + nodeCount * NODE_FLOATS * Float.BYTES + triangleIds.length * Integer.BYTES;
+	}
+
+	/**
+	 * writes the nodes and triangle order of the tree at the position of a buffer,
+	 * moving the position past them. The triangles themselves are not written, read
+	 * gathers them from the mesh again
+	 */
+	public void write(ByteBuffer dest) {
+		dest.putInt(nodeCount).putInt(triangleIds.length);
+		dest.asFloatBuffer().put(nodes, 0, nodeCount * NODE_FLOATS);
+		dest.position(dest.position() + nodeCount * NODE_FLOATS * Float.BYTES);
+		dest.asIntBuffer().put(triangleIds);
+		dest.position(dest.position() + triangleIds.length * Integer.BYTES);
+	}
+
+	/**
+	 * copies each triangle, in leaf order, as its first vertex and two edges
+	 */
+	private void gather(float[] positions, int[] indices) {
+		triangles = new float[triangleIds.length * TRIANGLE_FLOATS];
+		for(int t = 0; t < triangleIds.length; t++) {
+			int id = triangleIds[t];
+			int a = indices[id * 3] * 3, b = indices[id * 3 + 1] * 3, c = indices[id * 3 + 2] * 3;
+			int o = t * TRIANGLE_FLOATS;
+			for(int axis = 0; axis < 3; axis++) {
+				triangles[o + axis] = positions[a + axis];
+				triangles[o + 3 + axis] = positions[b + axis] - positions[a + axis];
+				triangles[o + 6 + axis] = positions[c + axis] - positions[a + axis];
+			}
+		}
+	}
+
+	/**
+	 * copies the top of the tree into the final node array depth first, putting
+	 * each subtree in place of the node it was deferred at
+	 *
+	 * @return The next free node of the final array
+	 */
+	private int join(Builder top, int node, int out, int[] subtreeOf, Builder[] subtrees) {
+		if(subtreeOf[node] >= 0) {
+			Builder subtree = subtrees[subtreeOf[node]];
+			System.arraycopy(subtree.nodes, 0, nodes, out * NODE_FLOATS, subtree.nodeCount * NODE_FLOATS);
+			// the right children of the subtrees inner nodes are moved along with them
+			for(int n = out * NODE_FLOATS; n < (out + subtree.nodeCount) * NODE_FLOATS; n += NODE_FLOATS)
+				if(Float.floatToRawIntBits(nodes[n + 7]) == INNER)
+					nodes[n + 6] = Float.intBitsToFloat(Float.floatToRawIntBits(nodes[n + 6]) + out);
+			return out + subtree.nodeCount;
+		}
+
+		int n = node * NODE_FLOATS;
+		System.arraycopy(top.nodes, n, nodes, out * NODE_FLOATS, NODE_FLOATS);
+		if(Float.floatToRawIntBits(top.nodes[n + 7]) != INNER)
+			return out + 1;
+
+		int right = join(top, node + 1, out + 1, subtreeOf, subtrees);
+		nodes[out * NODE_FLOATS + 6] = Float.intBitsToFloat(right);
+		return join(top, Float.floatToRawIntBits(top.nodes[n + 6]), right, subtreeOf, subtrees);
+	}
+
+	/**
+	 * <h1>Builder Class</h1>
+	 * <p>
+	 * Builds the nodes of one part of the tree into an array of its own, numbered
+	 * from zero, ordering the part of triangleIds it covers so each leaf's
+	 * triangles are a run of it. Builders of separate parts can run at once.
+	 */
+	private class Builder {
+
+		private float[] nodes;
+		private int nodeCount;
+		// the node, first and end triangle and depth of each subtree left for later
+		private final IntList deferred = new IntList();
+
+		private final int[] taskStart = new int[MAX_DEPTH + 2], taskEnd = new int[MAX_DEPTH + 2];
+		private final int[] taskParent = new int[MAX_DEPTH + 2], taskDepth = new int[MAX_DEPTH + 2];
+		private final int[] binCounts = new int[BINS];
+		private final float[] binBounds = new float[BINS * 6], rightAreas = new float[BINS];
+		// the box of the node, the box of its centroids and the box swept over the bins
+		private final float[] bounds = new float[18];
+
+		/**
+		 * builds the nodes depth first. Each node is numbered as it is taken off the
+		 * task stack, and the left child is always taken next, so it is numbered
+		 * straight after its parent
+		 *
+		 * @param limit Nodes below the first with this many triangles or fewer are left as a single node to be built later, zero to build every node
+		 */
+		private void build(int first, int last, int firstDepth, int limit) {
+			nodes = new float[Math.max(2 * (last - first) - 1, 1) * NODE_FLOATS];
+			int tasks = 1;
+			taskStart[0] = first;
+			taskEnd[0] = last;
+			taskParent[0] = -1;
+			taskDepth[0] = firstDepth;
+			nodeCount = 0;
+
+			while(tasks > 0) {
+				tasks--;
+				int start = taskStart[tasks], end = taskEnd[tasks], depth = taskDepth[tasks];
+				int node = nodeCount++;
+				if(taskParent[tasks] >= 0)
+					nodes[taskParent[tasks] * NODE_FLOATS + 6] = Float.intBitsToFloat(node);
+
+				int count = end - start;
+				if(node > 0 && count <= limit) {
+					deferred.add(node);
+					deferred.add(start, end, depth);
+					continue;
+				}
+
+				empty(bounds, 0);
+				empty(bounds, 6);
+				for(int i = start; i < end; i++) {
+					int t = triangleIds[i];
+					grow(bounds, 0, boxes, t * 6);
+					for(int axis = 0; axis < 3; axis++) {
+						bounds[6 + axis] = Math.min(bounds[6 + axis], centroids[t * 3 + axis]);
+						bounds[9 + axis] = Math.max(bounds[9 + axis], centroids[t * 3 + axis]);
+					}
+				}
+				System.arraycopy(bounds, 0, nodes, node * NODE_FLOATS, 6);
+
+				int bestAxis = -1, bestBin = 0;
+				float bestCost = Float.POSITIVE_INFINITY;
+				for(int axis = 0; axis < 3 && count > 1 && depth < MAX_DEPTH; axis++) {
+					float min = bounds[6 + axis], extent = bounds[9 + axis] - min;
+					if(extent <= 0)
+						continue;
+					float scale = BINS / extent;
+
+					for(int b = 0; b < BINS; b++) {
+						binCounts[b] = 0;
+						empty(binBounds, b * 6);
+					}
+					for(int i = start; i < end; i++) {
+						int t = triangleIds[i];
+						int b = bin(centroids[t * 3 + axis], min, scale);
+						binCounts[b]++;
+						grow(binBounds, b * 6, boxes, t * 6);
+					}
+
+					// the areas right of each split, then a sweep from the left costing each split
+					empty(bounds, 12);
+					for(int b = BINS - 1; b > 0; b--) {
+						grow(bounds, 12, binBounds, b * 6);
+						rightAreas[b] = area(bounds, 12);
+					}
+					empty(bounds, 12);
+					int left = 0;
+					for(int b = 0; b < BINS - 1; b++) {
+						grow(bounds, 12, binBounds, b * 6);
+						left += binCounts[b];
+						if(left == 0 || left == count)
+							continue;
+						float cost = TRAVERSAL_COST * area(bounds, 0) + left * area(bounds, 12)
+								+ (count - left) * rightAreas[b + 1];
+						if(cost < bestCost) {
+							bestCost = cost;
+							bestAxis = axis;
+							bestBin = b;
+						}
+					}
+				}
+
+				// small nodes are only split if that is cheaper, larger ones always are if they can be
+				if(bestAxis < 0 || (count <= MAX_LEAF_TRIANGLES && bestCost >= count * area(bounds, 0))) {
+					nodes[node * NODE_FLOATS + 6] = Float.intBitsToFloat(start);
+					nodes[node * NODE_FLOATS + 7] = Float.intBitsToFloat(count);
+					continue;
+				}
+
+				float min = bounds[6 + bestAxis], scale = BINS / (bounds[9 + bestAxis] - min);
+				int mid = partition(start, end, bestAxis, bestBin, min, scale);
+				nodes[node * NODE_FLOATS + 7] = Float.intBitsToFloat(INNER);
+
+				taskStart[tasks] = mid;
+				taskEnd[tasks] = end;
+				taskParent[tasks] = node;
+				taskDepth[tasks] = depth + 1;
+				tasks++;
+				taskStart[tasks] = start;
+				taskEnd[tasks] = mid;
+				taskParent[tasks] = -1;
+				taskDepth[tasks] = depth + 1;
+				tasks++;
+			}
+		}
+
+		/**
+		 * moves the triangles whose centroids fall in the bins up to and including
+		 * split in front of the rest
+		 *
+		 * @return The first triangle of the rest
+		 */
+		private int partition(int start, int end, int axis, int split, float min, float scale) {
+			int i = start, j = end - 1;
+			while(i <= j) {
+				int t = triangleIds[i];
+				if(bin(centroids[t * 3 + axis], min, scale) <= split) {
+					i++;
+				}else {
+					triangleIds[i] = triangleIds[j];
+					triangleIds[j--] = t;
+				}
+			}
+			return i;
+		}
+	}
+
+	private static int bin(float centroid, float min, float scale) {
+		return Math.min((int) ((centroid - min) * scale), BINS - 1);
+	}
+
+	private static void empty(float[] box, int o) {
+		box[o] = box[o + 1] = box[o + 2] = Float.POSITIVE_INFINITY;
+		box[o + 3] = box[o + 4] = box[o + 5] = Float.NEGATIVE_INFINITY;
+	}
+
+	private static void grow(float[] box, int o, float[] other, int p) {
+		box[o] = Math.min(box[o], other[p]);
+		box[o + 1] = Math.min(box[o + 1], other[p + 1]);
+		box[o + 2] = Math.min(box[o + 2], other[p + 2]);
+		box[o + 3] = Math.max(box[o + 3], other[p + 3]);
+		box[o + 4] = Math.max(box[o + 4], other[p + 4]);
+		box[o + 5] = Math.max(box[o + 5], other[p + 5]);
+	}
+
+	/**
+	 * @return Half the surface area of a box, zero if it is empty
+	 */
+	private static float area(float[] box, int o) {
+		float x = box[o + 3] - box[o], y = box[o + 4] - box[o + 1], z = box[o + 5] - box[o + 2];
+		return x < 0 ? 0 : x * y + y * z + z * x;
+	}
+
+	/**
+	 * casts a ray against the triangles, keeping the closest hit nearer than the
+	 * distance the hit already holds. Both sides of each triangle are hit. Nodes are
+	 * visited nearest first, and skipped once they are further than the closest hit
+	 *
+	 * @param ox The x coordinate of the start of the ray, in model space
+	 * @param oy The y coordinate of the start of the ray, in model space
+	 * @param oz The z coordinate of the start of the ray, in model space
+	 * @param dx The x component of the direction of the ray
+	 * @param dy The y component of the direction of the ray
+	 * @param dz The z component of the direction of the ray
+	 * @param hit Holds how far to search, and receives the closest hit
+	 *
+	 * @return True if a triangle closer than the hit's distance was hit
+	 */
+	public boolean raycast(float ox, float oy, float oz, float dx, float dy, float dz, RayHit hit) {
+		float ix = 1 / dx, iy = 1 / dy, iz = 1 / dz;
+		int[] stack = hit.stack;
+		int top = 0;
+		boolean found = false;
+
+		int node = 0;
+		if(triangleIds.length == 0 || entry(0, ox, oy, oz, ix, iy, iz, hit.getDistance()) == Float.POSITIVE_INFINITY)
+			return false;
+
+		while(true) {
+			int n = node * NODE_FLOATS;
+			int count = Float.floatToRawIntBits(nodes[n + 7]);
+
+			if(count == INNER) {
+				int near = node + 1, far = Float.floatToRawIntBits(nodes[n + 6]);
+				float tNear = entry(near, ox, oy, oz, ix, iy, iz, hit.getDistance());
+				float tFar = entry(far, ox, oy, oz, ix, iy, iz, hit.getDistance());
+				if(tFar < tNear) {
+					int swap = near;
+					near = far;
+					far = swap;
+					float t = tNear;
+					tNear = tFar;
+					tFar = t;
+				}
+
+				if(tNear != Float.POSITIVE_INFINITY) {
+					if(tFar != Float.POSITIVE_INFINITY) {
+						stack[top++] = far;
+						stack[top++] = Float.floatToRawIntBits(tFar);
+					}
+					node = near;
+					continue;
+				}
+			}else {
+				int first = Float.floatToRawIntBits(nodes[n + 6]);
+				for(int t = first; t < first + count; t++)
+					if(intersect(t, ox, oy, oz, dx, dy, dz, hit))
+						found = true;
+			}
+
+			// the next node put aside that is still nearer than the closest hit
+			do {
+				if(top == 0)
+					return found;
+				top -= 2;
+			} while(Float.intBitsToFloat(stack[top + 1]) > hit.getDistance());
+			node = stack[top];
+		}
+	}
+
+	/**
+	 * adds the triangles whose boxes touch a box to a list, for when the triangles
+	 * near something are needed, such as for collisions
+	 *
+	 * @return The amount of triangles added, by their index in the mesh
+	 */
+	public int queryBox(float minX, float minY, float minZ, float maxX, float maxY, float maxZ, IntList result) {
+		int before = result.size();
+		if(triangleIds.length == 0)
+			return 0;
+		int[] stack = new int[MAX_DEPTH + 1];
+		int top = 0;
+		int node = 0;
+
+		while(true) {
+			int n = node * NODE_FLOATS;
+			if(nodes[n] <= maxX && nodes[n + 1] <= maxY && nodes[n + 2] <= maxZ && nodes[n + 3] >= minX
+					&& nodes[n + 4] >= minY && nodes[n + 5] >= minZ) {
+				int count = Float.floatToRawIntBits(nodes[n + 7]);
+				if(count == INNER) {
+					stack[top++] = Float.floatToRawIntBits(nodes[n + 6]);
+					node++;
+					continue;
+				}
+
+				int first = Float.floatToRawIntBits(nodes[n + 6]);
+				for(int t = first; t < first + count; t++) {
+					int o = t * TRIANGLE_FLOATS;
+					float x = triangles[o], y = triangles[o + 1], z = triangles[o + 2];
+					float lowX = x + Math.min(0, Math.min(triangles[o + 3], triangles[o + 6]));
+					float lowY = y + Math.min(0, Math.min(triangles[o + 4], triangles[o + 7]));
+					float lowZ = z + Math.min(0, Math.min(triangles[o + 5], triangles[o + 8]));
+					float highX = x + Math.max(0, Math.max(triangles[o + 3], triangles[o + 6]));
+					float highY = y + Math.max(0, Math.max(triangles[o + 4], triangles[o + 7]));
+					float highZ = z + Math.max(0, Math.max(triangles[o + 5], triangles[o + 8]));
+					if(lowX <= maxX && lowY <= maxY && lowZ <= maxZ && highX >= minX && highY >= minY
+							&& highZ >= minZ)
+						result.add(triangleIds[t]);
+				}
+			}
+
+			if(top == 0)
+				return result.size() - before;
+			node = stack[--top];
+		}
+	}
+
+	/**
+	 * @return The distance along the ray at which it enters the box of a node, or positive infinity if it misses the box before maxDistance
+	 */
+	private float entry(int node, float ox, float oy, float oz, float ix, float iy, float iz, float maxDistance) {
+		int n = node * NODE_FLOATS;
+		float t1 = (nodes[n] - ox) * ix, t2 = (nodes[n + 3] - ox) * ix;
+		float near = Math.min(t1, t2), far = Math.max(t1, t2);
+		t1 = (nodes[n + 1] - oy) * iy;
+		t2 = (nodes[n + 4] - oy) * iy;
+		near = Math.max(near, Math.min(t1, t2));
+		far = Math.min(far, Math.max(t1, t2));
+		t1 = (nodes[n + 2] - oz) * iz;
+		t2 = (nodes[n + 5] - oz) * iz;
+		near = Math.max(near, Math.min(t1, t2));
+		far = Math.min(far, Math.max(t1, t2));
+
+		near = Math.max(near, 0);
+		return near <= Math.min(far, maxDistance) ? near : Float.POSITIVE_INFINITY;
+	}
+
+	/**
+	 * the Moller-Trumbore ray triangle test, recording the hit if it is closer
+	 * than the closest so far
+	 */
+	private boolean intersect(int t, float ox, float oy, float oz, float dx, float dy, float dz, RayHit hit) {
+		int o = t * TRIANGLE_FLOATS;
+		float e1x = triangles[o + 3], e1y = triangles[o + 4], e1z = triangles[o + 5];
+		float e2x = triangles[o + 6], e2y = triangles[o + 7], e2z = triangles[o + 8];
+
+		float px = dy * e2z - dz * e2y, py = dz * e2x - dx * e2z, pz = dx * e2y - dy * e2x;
+		float det = e1x * px + e1y * py + e1z * pz;
+		// the ray is parallel to the triangle
+		if(det == 0)
+			return false;
+		float inverse = 1 / det;
+
+		float sx = ox - triangles[o], sy = oy - triangles[o + 1], sz = oz - triangles[o + 2];
+		float u = (sx * px + sy * py + sz * pz) * inverse;
+		if(u < 0 || u > 1)
+			return false;
+
+		float qx = sy * e1z - sz * e1y, qy = sz * e1x - sx * e1z, qz = sx * e1y - sy * e1x;
+		float v = (dx * qx + dy * qy + dz * qz) * inverse;
+		if(v < 0 || u + v > 1)
+			return false;
+
+		float distance = (e2x * qx + e2y * qy + e2z * qz) * inverse;
+		if(distance < 0 || distance >= hit.getDistance())
+			return false;
+
+		hit.set(distance, triangleIds[t], u, v);
+		return true;
+	}
+
+	/**
+	 * @return The amount of nodes in the tree
+	 */
+	public int getNodeCount() {
+		return nodeCount;
+	}
+
+	/**
+	 * @return The amount of triangles in the tree
+	 */
+	public int getTriangleCount() {
+		return triangleIds.length;
+	}
+}
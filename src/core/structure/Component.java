@@ -16,6 +16,24 @@ import core.maths.Transform;
  */
 public abstract class Component {
 
+	// bits of the phases a component takes part in, see getPhases
+	public static final int INPUT = 1, UPDATE = 2, RENDER = 4;
+	
+	// the phases of each component class, worked out once per class
+	private static final ClassValue<Integer> PHASES = new ClassValue<Integer>() {
+		@Override
+		protected Integer computeValue(Class<?> type) {
+			int phases = 0;
+			if(overrides(type, "input"))
+				phases |= INPUT;
+			if(overrides(type, "update"))
+				phases |= UPDATE;
+			if(overrides(type, "render"))
+				phases |= RENDER;
+			return phases;
+		}
+	};
+
 	private GameObject parent;
 	
 	public void input() {};
@@ -23,6 +41,26 @@ public abstract class Component {
 	public void update() {};
 	
 	public void render() {};
+	
+	/**
+	 * returns the phases this component takes part in, as a combination of the
+	 * INPUT, UPDATE and RENDER bits. A component only takes part in the phases
+	 * whose method its class overrides, so a GameObject can skip calling the
+	 * empty methods entirely
+	 * 
+	 * @return The phase bits of this component
+	 */
+	public int getPhases() {
+		return PHASES.get(getClass());
+	}
+	
+	private static boolean overrides(Class<?> type, String method) {
+		try {
+			return type.getMethod(method).getDeclaringClass() != Component.class;
+		} catch (NoSuchMethodException e) {
+			return false;
+		}
+	}
 
 	public GameObject getParent() {
 		return parent;
@@ -1,7 +1,5 @@
 package core.structure;
 
-import java.util.HashMap;
-
 import core.utils.Constants;
 
 /**
@@ -18,63 +16,85 @@ import core.utils.Constants;
  */
 public class GameObject extends Node{
 
-	private HashMap<Constants.RenderComponents, Component> components;
+	private static final Constants.RenderComponents[] COMPONENT_NAMES = Constants.RenderComponents.values();
+	
+	// indexed by the ordinal of the components name
+	private Component[] components;
+	// one bit per component slot, set if the component in that slot takes part in the phase
+	private int inputMask, updateMask, renderMask;
 	
 	public GameObject() {
-		components = new HashMap<Constants.RenderComponents, Component>();
+		components = new Component[COMPONENT_NAMES.length];
 	}
 	
 	/**
-	 * calls the input method of every component in the components list
+	 * calls the input method of every component that takes part in the input phase
 	 * as well as the input method of the GamObjects Node superclass
 	 */
 	@Override
 	public void input() {
-		for(Constants.RenderComponents key : components.keySet()) {
-			components.get(key).input();
-		}
+		for(int mask = inputMask; mask != 0; mask &= mask - 1)
+			components[Integer.numberOfTrailingZeros(mask)].input();
 		super.input();
 	}
 	
 	/**
-	 * calls the update method of every component in the components list
+	 * calls the update method of every component that takes part in the update phase
 	 * as well as the update method of the GamObjects Node superclass
 	 */
 	@Override
 	public void update() {
-		for(Constants.RenderComponents key : components.keySet()) {
-			components.get(key).update();
-		}
+		for(int mask = updateMask; mask != 0; mask &= mask - 1)
+			components[Integer.numberOfTrailingZeros(mask)].update();
 		super.update();
 	}
 	
 	/**
-	 * calls the render method of every component in the components list
+	 * calls the render method of every component that takes part in the render phase
 	 * as well as the render method of the GamObjects Node superclass
 	 */
 	@Override
 	public void render() {
-		for(Constants.RenderComponents key : components.keySet()) {
-			components.get(key).render();
-		}
+		for(int mask = renderMask; mask != 0; mask &= mask - 1)
+			components[Integer.numberOfTrailingZeros(mask)].render();
 		super.render();
 	}
 	
 	/**
-	 * adds a component to the GameObjects component list
+	 * adds a component to the GameObjects components, replacing any component
+	 * already added under the same name
 	 * @param name This is the RenderComponents enum that is the name of the component being added
 	 * @param component This is the component to be added to the list
 	 */
 	public void addComponent(Constants.RenderComponents name, Component component) {
 		component.setParent(this);
-		components.put(name, component);
+		components[name.ordinal()] = component;
+		
+		int bit = 1 << name.ordinal();
+		int phases = component.getPhases();
+		inputMask = (phases & Component.INPUT) != 0 ? inputMask | bit : inputMask & ~bit;
+		updateMask = (phases & Component.UPDATE) != 0 ? updateMask | bit : updateMask & ~bit;
+		renderMask = (phases & Component.RENDER) != 0 ? renderMask | bit : renderMask & ~bit;
 	}
-
-	public HashMap<Constants.RenderComponents, Component> getComponents() {
-		return components;
+	
+	/**
+	 * removes the component added under the passed in name, if there is one
+	 * @param name The RenderComponents enum that is the name of the component to remove
+	 */
+	public void removeComponent(Constants.RenderComponents name) {
+		components[name.ordinal()] = null;
+		
+		int bit = ~(1 << name.ordinal());
+		inputMask &= bit;
+		updateMask &= bit;
+		renderMask &= bit;
 	}
-
-	public void setComponents(HashMap<Constants.RenderComponents, Component> components) {
-		this.components = components;
+	
+	/**
+	 * @param name The RenderComponents enum that is the name of the component
+	 * @return The component added under the passed in name, or null if there is none
+	 */
+	public Component getComponent(Constants.RenderComponents name) {
+		return components[name.ordinal()];
 	}
-}
\ No newline at end of file
+}
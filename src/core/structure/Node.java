@@ -1,6 +1,7 @@
 package core.structure;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import core.maths.Transform;
@@ -13,6 +14,14 @@ import core.maths.Transform;
  * a list of links to its children, as well as two transformations that 
  * represent their position in the world both globally and locally 
  * (i.e. in relation to its parent)
+ * <p>
+ * The world transform of a Node without a parent is set by hand. The world
+ * transform of every other Node is its parents world matrix multiplied by its
+ * own local matrix, calculated by calling updateWorldTransforms on the top Node
+ * of the tree. The tree is flattened into an array in depth first order, so
+ * every parent comes before its children and every subtree is one run of the
+ * array. The update only compares the version of each local transform, and only
+ * walks the subtrees below a local transform that has changed.
  * 
  * @author Graham
  * @version 2.0.0
@@ -24,6 +33,16 @@ public class Node {
 	private List<Node> children;
 	private Transform worldTransform, localTransform;
 	
+	// incremented whenever a parent or child link changes in the tree this node is the top of, so it
+	// knows to flatten the tree again
+	private int structureVersion;
+	
+	// the tree below this node in depth first order, only used when this node is the top of a tree
+	private Node[] flattened;
+	// the index of each nodes parent and one past the last node of its subtree
+	private int[] parentIndices, subtreeEnds, localVersions;
+	private int flattenedCount, flattenedVersion = -1, worldVersion = -1;
+	
 	public Node() {
 		worldTransform = new Transform();
 		localTransform = new Transform();
@@ -39,12 +58,118 @@ public class Node {
 		children.add(child);
 	}
 	
+	/**
+	 * removes the passed in node from this Nodes list of children
+	 * @param child the Node to be removed from the list
+	 */
+	public void removeChild(Node child) {
+		if(children.remove(child))
+			child.setParent(null);
+	}
+	
+	/**
+	 * recalculates the world transform of every Node below this one whose local
+	 * transform, or any ancestors transform, has changed since the last call. To be
+	 * called once per update on the top Node of a tree, after its world transform
+	 * and the local transforms have been set
+	 */
+	public void updateWorldTransforms() {
+		if(flattenedVersion != structureVersion)
+			flatten();
+		
+		// the top node moving moves everything below it
+		int version = worldTransform.getVersion();
+		if(version != worldVersion) {
+			compose(1, flattenedCount);
+			worldVersion = version;
+			return;
+		}
+		
+		int i = 1;
+		while(i < flattenedCount) {
+			if(flattened[i].localTransform.getVersion() != localVersions[i]) {
+				compose(i, subtreeEnds[i]);
+				i = subtreeEnds[i];
+			}else {
+				i++;
+			}
+		}
+	}
+	
+	/**
+	 * recalculates the world transforms of a run of the flattened tree, every
+	 * parent in the run being recalculated before its children
+	 */
+	private void compose(int from, int to) {
+		for(int i = from; i < to; i++) {
+			Transform local = flattened[i].localTransform;
+			flattened[i].worldTransform.compose(flattened[parentIndices[i]].worldTransform, local);
+			localVersions[i] = local.getVersion();
+		}
+	}
+	
+	/**
+	 * lays the tree below this node out in depth first order, forgetting every
+	 * version seen so each world transform is recalculated on the next update
+	 */
+	private void flatten() {
+		if(flattened == null) {
+			flattened = new Node[16];
+			parentIndices = new int[16];
+			subtreeEnds = new int[16];
+			localVersions = new int[16];
+		}
+		
+		flattenedCount = 0;
+		addFlattened(this, -1);
+		
+		Arrays.fill(flattened, flattenedCount, flattened.length, null);
+		flattenedVersion = structureVersion;
+		worldVersion = -1;
+	}
+	
+	private void addFlattened(Node node, int parentIndex) {
+		if(flattenedCount == flattened.length) {
+			int capacity = flattenedCount * 2;
+			flattened = Arrays.copyOf(flattened, capacity);
+			parentIndices = Arrays.copyOf(parentIndices, capacity);
+			subtreeEnds = Arrays.copyOf(subtreeEnds, capacity);
+			localVersions = Arrays.copyOf(localVersions, capacity);
+		}
+		
+		int index = flattenedCount++;
+		flattened[index] = node;
+		parentIndices[index] = parentIndex;
+		localVersions[index] = -1;
+		
+		for(int i = 0; i < node.children.size(); i++)
+			addFlattened(node.children.get(i), index);
+		subtreeEnds[index] = flattenedCount;
+	}
+	
+	/**
+	 * @return The top Node of the tree this Node is in, which may be itself
+	 */
+	public Node getRoot() {
+		Node root = this;
+		while(root.parent != null)
+			root = root.parent;
+		return root;
+	}
+	
+	/**
+	 * tells the top Node of the tree this Node is in that its tree has changed shape
+	 */
+	private void structureChanged() {
+		getRoot().structureVersion++;
+	}
+	
 	/**
 	 * calls the input method for every child Node associated with it
 	 */
 	public void input() {
-		for(Node child : children) {
-			child.input();
+		for(int i = 0; i < children.size(); i++) {
+			children.get(i).input();
 		}
 	}
 	
@@ -52,8 +177,8 @@ public class Node {
 	 * calls the update method for every child Node associated with it
 	 */
 	public void update() {
-		for(Node child: children) {
-			child.update();
+		for(int i = 0; i < children.size(); i++) {
+			children.get(i).update();
 		}
 	}
 	
@@ -61,18 +186,22 @@ public class Node {
 	 * calls the render method for every child Node associated with it
 	 */
 	public void render() {
-		for(Node child : children) {
-			child.render();
+		for(int i = 0; i < children.size(); i++) {
+			children.get(i).render();
 		}
 	}
 	
 	/**
-	 * calls the shutdown method for every child Node associated with it
+	 * calls the shutdown method for every child Node associated with it, then
+	 * returns its transforms to the transform store. The Node must not be used
+	 * afterwards
 	 */
 	public void shutdown() {
-		for(Node child : children) {
-			child.shutdown();
+		for(int i = 0; i < children.size(); i++) {
+			children.get(i).shutdown();
 		}
+		worldTransform.release();
+		localTransform.release();
 	}
 
 	public Node getParent() {
@@ -80,7 +209,13 @@ public class Node {
 	}
 
 	public void setParent(Node parent) {
+		// both the tree left and the tree joined have changed
+		structureChanged();
 		this.parent = parent;
+		structureChanged();
+		// the world transform is set by hand again, so it no longer follows the old parent
+		if(parent == null)
+			worldTransform.detach();
 	}
 
 	public List<Node> getChildren() {
@@ -89,6 +224,7 @@ public class Node {
 
 	public void setChildren(List<Node> children) {
 		this.children = children;
+		structureChanged();
 	}
 
 	public Transform getWorldTransform() {
@@ -97,6 +233,7 @@ public class Node {
 
 	public void setWorldTransform(Transform worldTransform) {
 		this.worldTransform = worldTransform;
+		structureChanged();
 	}
 
 	public Transform getLocalTransform() {
@@ -105,5 +242,6 @@ public class Node {
 
 	public void setLocalTransform(Transform localTransform) {
 		this.localTransform = localTransform;
+		structureChanged();
 	}
 }
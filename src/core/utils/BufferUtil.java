@@ -260,13 +260,8 @@ public class BufferUtil {
 	public static FloatBuffer createFlippedBuffer(Matrix4f[] data) {
 		FloatBuffer buffer = createFloatBuffer(data.length * 4 * 4);
 
-		for (Matrix4f mat : data) {
-			for (int i = 0; i < 4; i++) {
-				for (int j = 0; j < 4; j++) {
-					buffer.put(mat.get(i, j));
-				}
-			}
-		}
+		for(Matrix4f mat : data)
+			mat.store(buffer);
 
 		buffer.flip();
 
@@ -282,14 +277,24 @@ public class BufferUtil {
 	 * @return
 	 */
 	public static FloatBuffer createFlippedBuffer(Matrix4f matrix) {
-		FloatBuffer buffer = createFloatBuffer(4 * 4);
-		
-		for(int i = 0; i < 4; i++) {
-			for(int j = 0; j < 4; j++) {
-				buffer.put(matrix.get(i, j));
-			}
-		}
-		
+		return fillFlippedBuffer(createFloatBuffer(4 * 4), matrix);
+	}
+	
+	/**
+	 * fills an existing float buffer with a single matrices data in the same order
+	 * as createFlippedBuffer, so a buffer can be reused rather than created every
+	 * time a matrix is uploaded. The buffer is cleared before being filled
+	 * 
+	 * @param buffer
+	 *            The buffer to fill, must hold at least 16 floats
+	 * @param matrix
+	 *            The matrix to fill the buffer with
+	 *            
+	 * @return The passed in buffer, flipped and containing the matrices data
+	 */
+	public static FloatBuffer fillFlippedBuffer(FloatBuffer buffer, Matrix4f matrix) {
+		buffer.clear();
+		matrix.store(buffer);
 		buffer.flip();
 		
 		return buffer;
@@ -0,0 +1,145 @@
+package core.utils;
+
+import java.util.Arrays;
+
+/**
+ * <h1>FloatList Class</h1>
+ * <p>
+ * A growable list of primitive floats. Used in place of an ArrayList of Float
+ * objects wherever large amounts of float data are gathered before their final
+ * size is known, avoiding a boxed object per entry.
+ *
+ * @author Graham
+ * @version 2.0.0
+ * @since 2026-10-18
+ */
+public class FloatList {
+
+	private static final int DEFAULT_CAPACITY = 16;
+
+	private float[] data;
+	private int size;
+
+	/**
+	 * creates an empty list with the default initial capacity
+	 */
+	public FloatList() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * creates an empty list able to hold the specified amount of floats before
+	 * having to grow
+	 *
+	 * @param capacity The initial amount of floats the list can hold
+	 */
+	public FloatList(int capacity) {
+		data = new float[Math.max(capacity, 1)];
+		size = 0;
+	}
+
+	/**
+	 * appends a single float to the end of the list
+	 *
+	 * @param value The float to append
+	 */
+	public void add(float value) {
+		if(size == data.length)
+			grow(size + 1);
+		data[size++] = value;
+	}
+
+	/**
+	 * appends two floats to the end of the list, in order
+	 *
+	 * @param x The first float to append
+	 * @param y The second float to append
+	 */
+	public void add(float x, float y) {
+		if(size + 2 > data.length)
+			grow(size + 2);
+		data[size++] = x;
+		data[size++] = y;
+	}
+
+	/**
+	 * appends three floats to the end of the list, in order
+	 *
+	 * @param x The first float to append
+	 * @param y The second float to append
+	 * @param z The third float to append
+	 */
+	public void add(float x, float y, float z) {
+		if(size + 3 > data.length)
+			grow(size + 3);
+		data[size++] = x;
+		data[size++] = y;
+		data[size++] = z;
+	}
+
+	/**
+	 * appends every float in the passed in list to the end of this list, in order
+	 *
+	 * @param list The list who's contents are to be appended
+	 */
+	public void addAll(FloatList list) {
+		ensureCapacity(size + list.size);
+		System.arraycopy(list.data, 0, data, size, list.size);
+		size += list.size;
+	}
+
+	public float get(int index) {
+		return data[index];
+	}
+
+	public void set(int index, float value) {
+		data[index] = value;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * empties the list without releasing its storage, so it can be refilled without
+	 * any further allocation
+	 */
+	public void clear() {
+		size = 0;
+	}
+
+	/**
+	 * grows the storage of the list if needed so that it can hold at least the
+	 * specified amount of floats
+	 *
+	 * @param capacity The amount of floats the list must be able to hold
+	 */
+	public void ensureCapacity(int capacity) {
+		if(capacity > data.length)
+			grow(capacity);
+	}
+
+	/**
+	 * returns the array backing this list. Only the first size() entries are valid
+	 * and the array is replaced whenever the list grows, so it should not be held
+	 * onto
+	 *
+	 * @return The array backing this list
+	 */
+	public float[] getData() {
+		return data;
+	}
+
+	/**
+	 * copies the contents of the list into a new array of exactly the lists size
+	 *
+	 * @return A new float array containing the contents of this list
+	 */
+	public float[] toArray() {
+		return Arrays.copyOf(data, size);
+	}
+
+	private void grow(int minCapacity) {
+		data = Arrays.copyOf(data, Math.max(minCapacity, data.length * 2));
+	}
+}
@@ -0,0 +1,141 @@
+package core.utils;
+
+import java.util.Arrays;
+
+/**
+ * <h1>IntList Class</h1>
+ * <p>
+ * A growable list of primitive ints. Used in place of an ArrayList of Integer
+ * objects wherever large amounts of int data are gathered before their final
+ * size is known, avoiding a boxed object per entry.
+ *
+ * @author Graham
+ * @version 2.0.0
+ * @since 2026-10-18
+ */
+public class IntList {
+
+	private static final int DEFAULT_CAPACITY = 16;
+
+	private int[] data;
+	private int size;
+
+	/**
+	 * creates an empty list with the default initial capacity
+	 */
+	public IntList() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * creates an empty list able to hold the specified amount of ints before
+	 * having to grow
+	 *
+	 * @param capacity The initial amount of ints the list can hold
+	 */
+	public IntList(int capacity) {
+		data = new int[Math.max(capacity, 1)];
+		size = 0;
+	}
+
+	/**
+	 * appends a single int to the end of the list
+	 *
+	 * @param value The int to append
+	 */
+	public void add(int value) {
+		if(size == data.length)
+			grow(size + 1);
+		data[size++] = value;
+	}
+
+	/**
+	 * appends three ints to the end of the list, in order
+	 *
+	 * @param x The first int to append
+	 * @param y The second int to append
+	 * @param z The third int to append
+	 */
+	public void add(int x, int y, int z) {
+		if(size + 3 > data.length)
+			grow(size + 3);
+		data[size++] = x;
+		data[size++] = y;
+		data[size++] = z;
+	}
+
+	/**
+	 * appends every int in the passed in list to the end of this list, in order
+	 *
+	 * @param list The list who's contents are to be appended
+	 */
+	public void addAll(IntList list) {
+		ensureCapacity(size + list.size);
+		System.arraycopy(list.data, 0, data, size, list.size);
+		size += list.size;
+	}
+
+	public int get(int index) {
+		return data[index];
+	}
+
+	public void set(int index, int value) {
+		data[index] = value;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * removes the last int of the list
+	 *
+	 * @return The int removed
+	 */
+	public int removeLast() {
+		return data[--size];
+	}
+
+	/**
+	 * empties the list without releasing its storage, so it can be refilled without
+	 * any further allocation
+	 */
+	public void clear() {
+		size = 0;
+	}
+
+	/**
+	 * grows the storage of the list if needed so that it can hold at least the
+	 * specified amount of ints
+	 *
+	 * @param capacity The amount of ints the list must be able to hold
+	 */
+	public void ensureCapacity(int capacity) {
+		if(capacity > data.length)
+			grow(capacity);
+	}
+
+	/**
+	 * returns the array backing this list. Only the first size() entries are valid
+	 * and the array is replaced whenever the list grows, so it should not be held
+	 * onto
+	 *
+	 * @return The array backing this list
+	 */
+	public int[] getData() {
+		return data;
+	}
+
+	/**
+	 * copies the contents of the list into a new array of exactly the lists size
+	 *
+	 * @return A new int array containing the contents of this list
+	 */
+	public int[] toArray() {
+		return Arrays.copyOf(data, size);
+	}
+
+	private void grow(int minCapacity) {
+		data = Arrays.copyOf(data, Math.max(minCapacity, data.length * 2));
+	}
+}
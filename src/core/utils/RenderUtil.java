@@ -3,6 +3,8 @@ package core.utils;
 import org.lwjgl.opengl.GL11;
 import org.lwjgl.opengl.GL30;
 
+import rendering.state.GLStateCache;
+
 /**
  * <h1>RenderUtil Class</h1>
  * <p>
@@ -20,18 +22,20 @@ public class RenderUtil {
 	 * Initialises the game engine by setting some required OpenGL render settings
 	 */
 	public static void init() {
-		GL11.glFrontFace(GL11.GL_CW);
-		GL11.glEnable(GL11.GL_CULL_FACE);
-		GL11.glCullFace(GL11.GL_BACK);
+		GLStateCache state = GLStateCache.getInstance();
+		
+		state.frontFace(GL11.GL_CW);
+		state.enable(GL11.GL_CULL_FACE);
+		state.cullFace(GL11.GL_BACK);
 		
-		GL11.glEnable(GL11.GL_DEPTH_TEST);
+		state.enable(GL11.GL_DEPTH_TEST);
 		
 		GL11.glEnable(GL11.GL_TEXTURE_2D);
 		
 		GL11.glEnable(GL30.GL_FRAMEBUFFER_SRGB);
 		
-		GL11.glEnable(GL11.GL_BLEND);
-		GL11.glBlendFunc(GL11.GL_SRC_ALPHA, GL11.GL_ONE_MINUS_SRC_ALPHA);
+		state.enable(GL11.GL_BLEND);
+		state.blendFunc(GL11.GL_SRC_ALPHA, GL11.GL_ONE_MINUS_SRC_ALPHA);
 	}
 	
 	/**
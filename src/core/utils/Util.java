@@ -80,6 +80,8 @@ public class Util {
 			vertices[i].setPosition(new Vector3f(data.get(), data.get(), data.get()));
 			vertices[i].setTextureCoord(new Vector2f(data.get(), data.get()));
 			vertices[i].setNormal(new Vector3f(data.get(), data.get(), data.get()));
+			vertices[i].setTangent(new Vector3f(data.get(), data.get(), data.get()));
+			vertices[i].setBitangent(new Vector3f(data.get(), data.get(), data.get()));
 		}
 
 		return vertices;
@@ -0,0 +1,275 @@
+package core.utils.fileIO;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import core.utils.logging.Logger;
+
+/**
+ * <h1>LoadRequest Class</h1>
+ * <p>
+ * A handle to a single resource being loaded by the ResourceManager. Each
+ * request is identified by a process ID (PID) and moves from pending, while it
+ * waits for a loading thread, to loading, while its file is read and decoded
+ * and then waits to be finished by the managers update, to either complete or
+ * failed. Its callbacks are run afterwards by the managers dispatch. The
+ * loaded resource can be retrieved from the handle once complete, or demanded
+ * immediately through requireNow.
+ *
+ * @param <T>
+ *            The type of resource being loaded
+ *
+ * @author Graham
+ * @version 2.0.0
+ * @since 2026-10-18
+ */
+public class LoadRequest<T> implements Runnable, Comparable<LoadRequest<?>> {
+
+	private static final Logger log = Logger.getLogger(LoadRequest.class);
+
+	public static enum State {
+		PENDING, LOADING, COMPLETE, FAILED;
+	}
+
+	private final ResourceManager manager;
+	private final int pid;
+	private final String name;
+	private final int priority;
+	private final long deadline;
+
+	private final AtomicReference<State> state = new AtomicReference<State>(State.PENDING);
+
+	private Callable<?> decoder;
+	private Function<Object, T> finisher;
+	// only touched by the thread that owns the scene, see ResourceManager.dispatch
+	private List<Consumer<T>> callbacks = new ArrayList<Consumer<T>>();
+
+	// written by the decoding thread before decoded is set, read by the finishing thread after
+	private Object decodedData;
+	private Throwable error;
+	private boolean decoded;
+
+	private T result;
+
+	/**
+	 * creates a pending load request, only the ResourceManager creates requests
+	 *
+	 * @param manager The manager responsible for the request
+	 * @param pid The process ID of the request
+	 * @param name The name of the resource, usually its file location
+	 * @param priority The priority of the request, higher priority requests are loaded
+	 *                 and finished first
+	 * @param deadline The System.nanoTime() by which the resource should be loaded
+	 * @param decoder Reads and decodes the resource, run on a loading thread
+	 * @param finisher Turns the decoded data into the resource, run by the managers update
+	 * @param callback Called by the managers dispatch with the resource once complete, may be null
+	 */
+	@SuppressWarnings("unchecked")
+	<D> LoadRequest(ResourceManager manager, int pid, String name, int priority, long deadline, Callable<D> decoder,
+			Function<D, T> finisher, Consumer<T> callback) {
+		this.manager = manager;
+		this.pid = pid;
+		this.name = name;
+		this.priority = priority;
+		this.deadline = deadline;
+		this.decoder = decoder;
+		this.finisher = (Function<Object, T>) finisher;
+		if(callback != null)
+			callbacks.add(callback);
+	}
+
+	/**
+	 * decodes the resource on a loading thread, unless it has already been claimed
+	 * by a call to requireNow
+	 */
+	@Override
+	public void run() {
+		if(!claim())
+			return;
+		decode();
+		manager.decoded(this);
+	}
+
+	/**
+	 * blocks until this resource is loaded and returns it. Must be called on a
+	 * thread that owns both the OpenGL context and the scene
+	 *
+	 * @return The loaded resource
+	 */
+	public T requireNow() {
+		return manager.requireNow(this);
+	}
+
+	/**
+	 * adds another callback to be called with the resource once complete. If the
+	 * request is already complete the callback is called right away. Must be
+	 * called on the thread that owns the scene
+	 *
+	 * @param callback Called with the resource once complete
+	 */
+	public void addCallback(Consumer<T> callback) {
+		State current = state.get();
+		if(current == State.COMPLETE)
+			callback.accept(result);
+		else if(current != State.FAILED)
+			callbacks.add(callback);
+	}
+
+	/**
+	 * moves the request from pending to loading
+	 *
+	 * @return True if this call claimed the request, false if it had already been claimed
+	 */
+	boolean claim() {
+		return state.compareAndSet(State.PENDING, State.LOADING);
+	}
+
+	/**
+	 * reads and decodes the resource on the calling thread
+	 */
+	void decode() {
+		Object data = null;
+		Throwable failure = null;
+
+		try {
+			data = decoder.call();
+		} catch (Throwable e) {
+			failure = e;
+		}
+
+		synchronized(this) {
+			decodedData = data;
+			error = failure;
+			decoded = true;
+			decoder = null;
+			notifyAll();
+		}
+	}
+
+	/**
+	 * waits for the loading thread that claimed this request to finish decoding it
+	 */
+	synchronized void awaitDecoded() {
+		boolean interrupted = false;
+
+		while(!decoded) {
+			try {
+				wait();
+			} catch (InterruptedException e) {
+				interrupted = true;
+			}
+		}
+
+		if(interrupted)
+			Thread.currentThread().interrupt();
+	}
+
+	/**
+	 * turns the decoded data into the resource and queues the callbacks with the
+	 * manager. Must be called on the thread that owns the OpenGL context, once the
+	 * request is decoded
+	 */
+	void finish() {
+		if(isDone())
+			return;
+
+		Throwable failure;
+		Object data;
+		synchronized(this) {
+			failure = error;
+			data = decodedData;
+			decodedData = null;
+		}
+
+		if(failure == null) {
+			try {
+				result = finisher.apply(data);
+			} catch (RuntimeException e) {
+				failure = e;
+			}
+		}
+
+		finisher = null;
+
+		if(failure != null) {
+			synchronized(this) {
+				error = failure;
+			}
+			state.set(State.FAILED);
+			log.error("Failed to load the resource {}", name, failure);
+		}else {
+			state.set(State.COMPLETE);
+		}
+		manager.finished(this);
+	}
+
+	/**
+	 * calls the callbacks added before the request was finished, or forgets them if
+	 * it failed. Called by the managers dispatch
+	 */
+	void runCallbacks() {
+		if(state.get() == State.COMPLETE)
+			for(Consumer<T> callback : callbacks)
+				callback.accept(result);
+		callbacks.clear();
+	}
+
+	/**
+	 * @return True if the soft deadline of this request has passed
+	 */
+	public boolean isOverdue() {
+		return System.nanoTime() - deadline > 0;
+	}
+
+	public boolean isDone() {
+		State current = state.get();
+		return current == State.COMPLETE || current == State.FAILED;
+	}
+
+	/**
+	 * orders requests by priority, highest first, then by deadline, earliest first,
+	 * then by the order they were made in
+	 */
+	@Override
+	public int compareTo(LoadRequest<?> other) {
+		if(priority != other.priority)
+			return Integer.compare(other.priority, priority);
+		if(deadline != other.deadline)
+			return deadline - other.deadline < 0 ? -1 : 1;
+		return Integer.compare(pid, other.pid);
+	}
+
+	public int getPid() {
+		return pid;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public int getPriority() {
+		return priority;
+	}
+
+	public State getState() {
+		return state.get();
+	}
+
+	/**
+	 * @return The loaded resource, or null if it is not yet complete
+	 */
+	public T get() {
+		return state.get() == State.COMPLETE ? result : null;
+	}
+
+	/**
+	 * @return The reason the load failed, or null if it has not failed
+	 */
+	public synchronized Throwable getError() {
+		return state.get() == State.FAILED ? error : null;
+	}
+}
@@ -1,14 +1,23 @@
 package core.utils.fileIO;
 
+import java.io.BufferedInputStream;
 import java.io.BufferedReader;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileReader;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.HashMap;
 
+import org.lwjgl.opengl.GL11;
+import org.newdawn.slick.opengl.ImageData;
+import org.newdawn.slick.opengl.ImageDataFactory;
+import org.newdawn.slick.opengl.InternalTextureLoader;
+import org.newdawn.slick.opengl.LoadableImageData;
 import org.newdawn.slick.opengl.Texture;
-import org.newdawn.slick.opengl.TextureLoader;
+
+import core.utils.logging.Logger;
+import rendering.state.GLStateCache;
 
 /**
  * <h1>ResourceLoader Class</h1>
@@ -21,6 +30,8 @@ import org.newdawn.slick.opengl.TextureLoader;
  * @since 2019-05-18
  */
 public class ResourceLoader {
+
+	private static final Logger log = Logger.getLogger(ResourceLoader.class);
 	
 	private static HashMap<String, String> shaders = new HashMap<String, String>();
 
@@ -36,25 +47,64 @@ public class ResourceLoader {
 	 *         height in that order
 	 */
 	public static int[] loadImage(String fileName) {
-		String[] splitName = fileName.split("\\.");
-		String ext = splitName[splitName.length - 1];
-
-		Texture texture = null;
+		int[] result = null;
 
 		try {
-			texture = TextureLoader.getTexture(ext, new FileInputStream(fileName));
+			result = uploadImage(decodeImage(fileName));
 			// TODO: enable texture mipmapping when supported
 		} catch (FileNotFoundException e) {
 			// TODO: create error handler
-			System.err.println("File not found!");
-			e.printStackTrace();
+			log.error("File not found!", e);
 			System.exit(1);
 		} catch (IOException e) {
-			System.err.println("Error loading the texture file!");
-			e.printStackTrace();
+			log.error("Error loading the texture file!", e);
 			System.exit(1);
 		}
 
+		return result;
+	}
+
+	/**
+	 * reads and decodes an image into raw pixel data without touching openGL, so it
+	 * can be run on a loading thread
+	 * 
+	 * @param fileName
+	 *            The location of the image to load, relative to the game engines
+	 *            directory
+	 * 
+	 * @return The decoded image, ready to be passed to uploadImage
+	 * 
+	 * @throws IOException
+	 *             If the image could not be found, read, or decoded
+	 */
+	public static ImageData decodeImage(String fileName) throws IOException {
+		LoadableImageData image = ImageDataFactory.getImageDataFor(fileName);
+
+		try (InputStream in = new BufferedInputStream(new FileInputStream(fileName))) {
+			image.loadImage(in, false, null);
+		}
+
+		return image;
+	}
+
+	/**
+	 * uploads a decoded image into openGL. Must be called on the thread that owns the
+	 * openGL context
+	 * 
+	 * @param image
+	 *            The image returned by decodeImage
+	 * 
+	 * @return An integer array of length three containing the images ID, width, and
+	 *         height in that order
+	 * 
+	 * @throws IOException
+	 *             If the image is too large for the GPU
+	 */
+	public static int[] uploadImage(ImageData image) throws IOException {
+		Texture texture = InternalTextureLoader.get().getTexture(image, GL11.GL_LINEAR);
+		// the texture loader binds the new texture itself
+		GLStateCache.getInstance().invalidateTextures();
+
 		int texID = texture.getTextureID();
 
 		return new int[] { texID, (int) texture.getWidth(), (int) texture.getHeight() };
@@ -69,32 +119,55 @@ public class ResourceLoader {
 		if(shaders.containsKey(fileName))
 			return shaders.get(fileName);
 		
-		StringBuilder source = new StringBuilder();
-		BufferedReader reader = null;
+		String source = null;
 		
 		try {
-			reader = new BufferedReader(new FileReader("./" + fileName));
-			
-			String line;
-			while((line = reader.readLine()) != null) {
-				source.append(line).append("\n");
-			}
-			reader.close();
+			source = readShader(fileName);
 		} catch (FileNotFoundException e) {
-			System.err.println("Could not find the shader file!");
-			e.printStackTrace();
+			log.error("Could not find the shader file!", e);
 			System.exit(1);
 		} catch (IOException e) {
-			System.err.println("Error reading the shader file ./res/" + fileName);
-			e.printStackTrace();
+			log.error("Error reading the shader file ./res/{}", fileName, e);
 			System.exit(1);
 		}
 		
-		shaders.put(fileName, source.toString());
+		return finishShader(fileName, source);
+	}
+	
+	/**
+	 * reads the code of a .glsl shader without storing it, so it can be run on a loading thread
+	 * @param fileName The file location of the .glsl shader file, all sub-directories after "./" must be specified
+	 * @return The shader code
+	 * @throws IOException If the file could not be found or read
+	 */
+	public static String readShader(String fileName) throws IOException {
+		StringBuilder source = new StringBuilder();
+		
+		try (BufferedReader reader = new BufferedReader(new FileReader("./" + fileName))) {
+			String line;
+			while((line = reader.readLine()) != null) {
+				source.append(line).append("\n");
+			}
+		}
 		
 		return source.toString();
 	}
 	
+	/**
+	 * stores shader code read by readShader so later loads of the same shader reuse it
+	 * @param fileName The file location the shader was read from
+	 * @param source The shader code
+	 * @return The stored shader code, the already stored code if the shader was loaded in the meantime
+	 */
+	public static String finishShader(String fileName, String source) {
+		if(shaders.containsKey(fileName))
+			return shaders.get(fileName);
+		
+		shaders.put(fileName, source);
+		
+		return source;
+	}
+	
 	public static void cleanUp() {
 		shaders.clear();
 	}
@@ -0,0 +1,367 @@
+package core.utils.fileIO;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.newdawn.slick.opengl.ImageData;
+
+import core.utils.Constants;
+import core.utils.fileIO.objLoader.MeshLoader;
+import core.utils.logging.Logger;
+import resources.model.Mesh;
+import resources.texturing.Texture2D;
+
+/**
+ * <h1>ResourceManager Class</h1>
+ * <p>
+ * The asynchronous file I/O manager of the engine. Resources are requested with
+ * a priority and a soft deadline and are read and decoded on a small pool of
+ * loading threads, so the main loop never waits on the disk. Anything that needs
+ * the OpenGL context, such as uploading a mesh or texture, is handed back to the
+ * thread that owns the context and done in update, within a per frame time
+ * budget.
+ * <p>
+ * A loaded resource can be retrieved either through a callback, or through the
+ * process ID (PID) of its request. Callbacks usually change the scene, so they
+ * are not called by update but queued for dispatch, which is called by the
+ * thread that owns the scene. When the simulation runs on its own thread the
+ * resources are finished on the render thread and their callbacks run on the
+ * simulation thread; otherwise the main thread calls both. The PID
+ * can be polled for its state and passed to requireNow
+ * when the game cannot continue without the resource.
+ *
+ * @author Graham
+ * @version 2.0.0
+ * @since 2026-10-18
+ */
+public class ResourceManager {
+
+	private static final Logger log = Logger.getLogger(ResourceManager.class);
+
+	public static final int LOW_PRIORITY = 0, NORMAL_PRIORITY = 1, HIGH_PRIORITY = 2;
+
+	// how long update may spend finishing loaded resources each frame, in nanoseconds
+	private static final long FINISH_BUDGET = 2 * Constants.NANOSECOND / 1000;
+	private static final int MAX_LOADING_THREADS = 4;
+
+	// engine can only have one resource manager, so the class is a single instance class
+	private static ResourceManager instance = null;
+
+	private ThreadPoolExecutor loadingThreads;
+	private PriorityBlockingQueue<LoadRequest<?>> decoded;
+	// finished or failed requests whose callbacks have not been run yet
+	private ConcurrentLinkedQueue<LoadRequest<?>> finished;
+	private AtomicInteger nextPid;
+
+	private Map<Integer, LoadRequest<?>> requests;
+	// requests by resource name, so a resource requested twice is only loaded once. Main thread only
+	private HashMap<String, LoadRequest<?>> requestsByName;
+
+	/**
+	 * returns the current instance of the resource manager, or if none exists, it
+	 * creates a new current instance before returning it
+	 *
+	 * @return the current instance of the resource manager
+	 */
+	public static ResourceManager getInstance() {
+		if(instance == null)
+			instance = new ResourceManager();
+		return instance;
+	}
+
+	/**
+	 * creates a resource manager with one loading thread per spare core, up to
+	 * MAX_LOADING_THREADS
+	 */
+	protected ResourceManager() {
+		int threads = Math.max(1, Math.min(MAX_LOADING_THREADS, Runtime.getRuntime().availableProcessors() - 1));
+		AtomicInteger threadCount = new AtomicInteger();
+
+		// the work queue is a priority queue, so waiting requests are started in priority order
+		loadingThreads = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+				new PriorityBlockingQueue<Runnable>(), runnable -> {
+					Thread thread = new Thread(runnable, "Resource Loader " + threadCount.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				});
+
+		decoded = new PriorityBlockingQueue<LoadRequest<?>>();
+		finished = new ConcurrentLinkedQueue<LoadRequest<?>>();
+		nextPid = new AtomicInteger(1);
+		requests = new ConcurrentHashMap<Integer, LoadRequest<?>>();
+		requestsByName = new HashMap<String, LoadRequest<?>>();
+	}
+
+	/**
+	 * requests a resource be loaded asynchronously. If a request for a resource of
+	 * the same name is already pending, loading, or complete, that request is
+	 * returned instead
+	 *
+	 * @param name The unique name of the resource, usually its file location
+	 * @param priority The priority of the request, higher priority requests are loaded
+	 *                 and finished first
+	 * @param deadlineMs The soft deadline in milliseconds from now that the resource
+	 *                   should be loaded by, once passed the resource is finished
+	 *                   regardless of the frame budget. Zero or less for no deadline
+	 * @param decoder Reads and decodes the resource, run on a loading thread. Must not touch OpenGL
+	 * @param finisher Turns the decoded data into the resource, run by update on the
+	 *                 thread that owns the OpenGL context
+	 * @param callback Called by dispatch with the resource once complete, may be null
+	 *
+	 * @return The handle of the request
+	 */
+	@SuppressWarnings("unchecked")
+	public <D, T> LoadRequest<T> load(String name, int priority, long deadlineMs, Callable<D> decoder,
+			Function<D, T> finisher, Consumer<T> callback) {
+		LoadRequest<T> existing = (LoadRequest<T>) requestsByName.get(name);
+		if(existing != null && existing.getState() != LoadRequest.State.FAILED) {
+			if(callback != null)
+				existing.addCallback(callback);
+			return existing;
+		}
+
+		long now = System.nanoTime();
+		long deadline = deadlineMs > 0 ? now + deadlineMs * (Constants.NANOSECOND / 1000) : now + Long.MAX_VALUE;
+
+		LoadRequest<T> request = new LoadRequest<T>(this, nextPid.getAndIncrement(), name, priority, deadline, decoder,
+				finisher, callback);
+		requests.put(request.getPid(), request);
+		requestsByName.put(name, request);
+
+		loadingThreads.execute(request);
+
+		return request;
+	}
+
+	/**
+	 * requests a mesh be loaded asynchronously, see MeshLoader.loadMesh
+	 *
+	 * @param fileName the name of the file that contains the mesh, sub-directories
+	 *                 after ./res/models must be specified
+	 * @param priority The priority of the request
+	 * @param deadlineMs The soft deadline in milliseconds from now, zero or less for none
+	 * @param callback Called by dispatch with the mesh once loaded, may be null
+	 *
+	 * @return The handle of the request
+	 */
+	public LoadRequest<Mesh> loadMesh(String fileName, int priority, long deadlineMs, Consumer<Mesh> callback) {
+		// an already loaded mesh is only looked up, nothing is read
+		Callable<ByteBuffer> decoder = MeshLoader.meshMap.containsKey(fileName) ? () -> null
+				: () -> MeshLoader.decodeMesh(fileName);
+
+		return load("mesh:" + fileName, priority, deadlineMs, decoder,
+				baked -> MeshLoader.finishMesh(fileName, baked), callback);
+	}
+
+	/**
+	 * requests a texture be loaded asynchronously, see Texture2D.createTexture
+	 *
+	 * @param file The location of the image file within the engines directory
+	 * @param priority The priority of the request
+	 * @param deadlineMs The soft deadline in milliseconds from now, zero or less for none
+	 * @param callback Called by dispatch with the texture once loaded, may be null
+	 *
+	 * @return The handle of the request
+	 */
+	public LoadRequest<Texture2D> loadTexture(String file, int priority, long deadlineMs,
+			Consumer<Texture2D> callback) {
+		Callable<ImageData> decoder = Texture2D.isLoaded(file) ? () -> null : () -> ResourceLoader.decodeImage(file);
+
+		return load("texture:" + file, priority, deadlineMs, decoder, image -> {
+			if(Texture2D.isLoaded(file))
+				return Texture2D.createTexture(file);
+			try {
+				return Texture2D.createTexture(file, ResourceLoader.uploadImage(image));
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}, callback);
+	}
+
+	/**
+	 * requests the code of a shader be loaded asynchronously, see
+	 * ResourceLoader.loadShader
+	 *
+	 * @param fileName The file location of the .glsl shader file, all sub-directories
+	 *                 after "./" must be specified
+	 * @param priority The priority of the request
+	 * @param deadlineMs The soft deadline in milliseconds from now, zero or less for none
+	 * @param callback Called by dispatch with the shader code once loaded, may be null
+	 *
+	 * @return The handle of the request
+	 */
+	public LoadRequest<String> loadShader(String fileName, int priority, long deadlineMs, Consumer<String> callback) {
+		return load("shader:" + fileName, priority, deadlineMs, () -> ResourceLoader.readShader(fileName),
+				source -> ResourceLoader.finishShader(fileName, source), callback);
+	}
+
+	/**
+	 * finishes decoded requests in priority order until the frame budget is spent,
+	 * queueing their callbacks for dispatch. Requests past their deadline are
+	 * finished even once the budget is spent. To be called once per frame by the
+	 * thread that owns the OpenGL context
+	 */
+	public void update() {
+		long start = System.nanoTime();
+		LoadRequest<?> request;
+
+		while((request = decoded.peek()) != null) {
+			if(System.nanoTime() - start > FINISH_BUDGET && !request.isOverdue())
+				break;
+			if(decoded.remove(request))
+				request.finish();
+		}
+	}
+
+	/**
+	 * calls the callbacks of every request finished since the last dispatch. To be
+	 * called once per update by the thread that owns the scene
+	 */
+	public void dispatch() {
+		LoadRequest<?> request;
+		while((request = finished.poll()) != null)
+			request.runCallbacks();
+	}
+
+	/**
+	 * returns the current state of the request with the passed in PID
+	 *
+	 * @param pid The process ID of the request
+	 *
+	 * @return The state of the request, or null if there is no request with that PID
+	 */
+	public LoadRequest.State getState(int pid) {
+		LoadRequest<?> request = requests.get(pid);
+		return request == null ? null : request.getState();
+	}
+
+	/**
+	 * returns the request with the passed in PID
+	 *
+	 * @param pid The process ID of the request
+	 *
+	 * @return The request, or null if there is no request with that PID
+	 */
+	public LoadRequest<?> getRequest(int pid) {
+		return requests.get(pid);
+	}
+
+	/**
+	 * returns the resource loaded by the request with the passed in PID, stalling
+	 * until it is loaded if it is not yet complete. Must be called on the main
+	 * thread
+	 *
+	 * @param pid The process ID of the request
+	 *
+	 * @return The loaded resource
+	 */
+	public Object requireNow(int pid) {
+		LoadRequest<?> request = requests.get(pid);
+		if(request == null) {
+			log.error("No resource request with the PID {}", pid, new Exception());
+			System.exit(1);
+		}
+		return requireNow(request);
+	}
+
+	/**
+	 * returns the resource loaded by the passed in request, stalling until it is
+	 * loaded if it is not yet complete. A request that has not been started yet is
+	 * decoded right away on the calling thread rather than waiting for a loading
+	 * thread. The callbacks of finished requests are dispatched before it returns,
+	 * so it must be called on a thread that owns both the OpenGL context and the
+	 * scene
+	 *
+	 * @param request The request of the resource
+	 *
+	 * @return The loaded resource
+	 */
+	public <T> T requireNow(LoadRequest<T> request) {
+		if(!request.isDone()) {
+			if(request.claim()) {
+				loadingThreads.remove(request);
+				request.decode();
+			}else {
+				request.awaitDecoded();
+				decoded.remove(request);
+			}
+			request.finish();
+			dispatch();
+		}
+
+		if(request.getState() == LoadRequest.State.FAILED) {
+			log.error("Could not load the required resource {}", request.getName());
+			System.exit(1);
+		}
+
+		return request.get();
+	}
+
+	/**
+	 * forgets a finished request, so its PID can no longer be used to look it up
+	 * and the resource is requested again next time it is loaded
+	 *
+	 * @param pid The process ID of the request
+	 */
+	public void release(int pid) {
+		LoadRequest<?> request = requests.get(pid);
+		if(request == null || !request.isDone())
+			return;
+
+		requests.remove(pid);
+		if(requestsByName.get(request.getName()) == request)
+			requestsByName.remove(request.getName());
+	}
+
+	/**
+	 * @return The amount of requests that are not yet complete or failed
+	 */
+	public int getOutstanding() {
+		int outstanding = 0;
+		for(LoadRequest<?> request : requests.values())
+			if(!request.isDone())
+				outstanding++;
+		return outstanding;
+	}
+
+	/**
+	 * called by a loading thread once it has decoded a request
+	 */
+	void decoded(LoadRequest<?> request) {
+		decoded.add(request);
+	}
+
+	/**
+	 * called by update once it has finished a request, or once it has failed
+	 */
+	void finished(LoadRequest<?> request) {
+		finished.add(request);
+	}
+
+	/**
+	 * stops the loading threads, abandoning any requests that are not yet decoded.
+	 * To be called when the engine is shutting down
+	 */
+	public static void cleanUp() {
+		if(instance == null)
+			return;
+		instance.loadingThreads.shutdownNow();
+		instance.decoded.clear();
+		instance.finished.clear();
+		instance.requests.clear();
+		instance.requestsByName.clear();
+		instance = null;
+	}
+}
@@ -5,6 +5,7 @@ import java.util.List;
 
 import core.maths.vector.Vector2f;
 import core.maths.vector.Vector3f;
+import core.utils.IntList;
 
 /**
  * <IndexedModel Class</h1>
@@ -21,7 +22,7 @@ public class IndexedModel {
 
 	private List<Vector3f> positions, normals;
 	private List<Vector2f> textureCoords;
-	private List<Integer> indices;
+	private IntList indices;
 	
 	/**
 	 * Constructor to create new IndexedModel, sets all attributes to empty lists.
@@ -30,7 +31,7 @@ public class IndexedModel {
 		positions = new ArrayList<Vector3f>();
 		textureCoords = new ArrayList<Vector2f>();
 		normals = new ArrayList<Vector3f>();
-		indices = new ArrayList<Integer>();
+		indices = new IntList();
 	}
 	
 	/**
@@ -67,7 +68,7 @@ public class IndexedModel {
 		return textureCoords;
 	}
 
-	public List<Integer> getIndices() {
+	public IntList getIndices() {
 		return indices;
 	}
 }
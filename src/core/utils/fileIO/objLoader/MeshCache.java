@@ -0,0 +1,348 @@
+package core.utils.fileIO.objLoader;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+import core.maths.vector.Vector2f;
+import core.maths.vector.Vector3f;
+import core.spatial.TriangleBVH;
+import core.utils.logging.Logger;
+import resources.model.Mesh;
+import resources.model.Vertex;
+
+/**
+ * <h1>MeshCache Class</h1>
+ * <p>
+ * Reads and writes baked meshes, a binary copy of a loaded mesh stored next to
+ * the model file it was loaded from. A baked mesh is laid out exactly as it is
+ * uploaded to the GPU, so later loads of the same model memory map the file and
+ * hand the mapped buffers straight to the mesh without parsing anything.
+ * <p>
+ * The file is a 64 byte header followed by the interleaved vertex block,
+ * Vertex.FLOATS floats per vertex in the order position, texture coordinate,
+ * normal, tangent, bitangent, followed by the index block as unsigned shorts
+ * when every index fits, otherwise as ints, then the mesh's TriangleBVH starting
+ * on the next 4 byte boundary, so it is not built again on every launch.
+ * Everything is written in native byte
+ * order, a file baked on a machine of the other byte order fails the magic
+ * check and is simply baked again.
+ *
+ * @author Graham
+ * @version 2.0.0
+ * @since 2026-10-18
+ */
+public class MeshCache {
+
+	private static final Logger log = Logger.getLogger(MeshCache.class);
+
+	public static final String EXTENSION = ".baked";
+
+	private static final int MAGIC = 0x48534D56; // "VMSH" in little endian
+	private static final int VERSION = 2;
+	private static final int HEADER_BYTES = 64;
+
+	// header field offsets
+	private static final int MAGIC_OFFSET = 0;
+	private static final int VERSION_OFFSET = 4;
+	private static final int FLOATS_OFFSET = 8;
+	private static final int VERTEX_COUNT_OFFSET = 12;
+	private static final int INDEX_COUNT_OFFSET = 16;
+	private static final int INDEX_BYTES_OFFSET = 20;
+	private static final int MODIFIED_OFFSET = 24;
+	private static final int SIZE_OFFSET = 32;
+	private static final int HASH_OFFSET = 40;
+	private static final int BVH_BYTES_OFFSET = 48;
+
+	private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+	private static final long FNV_PRIME = 0x100000001b3L;
+
+	/**
+	 * finds the location of the baked mesh belonging to a model file
+	 *
+	 * @param source The location of the model file
+	 *
+	 * @return The location the model files baked mesh is stored at
+	 */
+	public static Path getCachePath(Path source) {
+		return Paths.get(source.toString() + EXTENSION);
+	}
+
+	/**
+	 * loads the baked mesh of a model file if it exists and is still up to date
+	 * with the model file. A baked mesh is up to date if the model file has the
+	 * same size and modification time it had when baked, or failing that, the same
+	 * content hash
+	 *
+	 * @param source The location of the model file
+	 *
+	 * @return The mesh stored in the baked mesh, or null if there is no up to date
+	 *         baked mesh for the model file
+	 */
+	public static Mesh load(Path source) {
+		ByteBuffer baked = loadBaked(source);
+		return baked == null ? null : toMesh(baked);
+	}
+
+	/**
+	 * maps the baked mesh of a model file if it exists and is still up to date
+	 * with the model file, without creating the mesh. Safe to call from any thread
+	 *
+	 * @param source The location of the model file
+	 *
+	 * @return The mapped baked mesh, or null if there is no up to date baked mesh for
+	 *         the model file
+	 */
+	public static ByteBuffer loadBaked(Path source) {
+		Path cache = getCachePath(source);
+		if(!Files.isRegularFile(cache))
+			return null;
+
+		try (FileChannel channel = FileChannel.open(cache, StandardOpenOption.READ)) {
+			long size = channel.size();
+			if(size < HEADER_BYTES || size > Integer.MAX_VALUE)
+				return null;
+
+			// the header is checked through a heap copy, a mapping is only made of a current cache, as a
+			// live mapping stops the file from being replaced on some platforms until it is collected
+			ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.nativeOrder());
+			while(header.hasRemaining())
+				if(channel.read(header, header.position()) < 0)
+					return null;
+
+			if(!isValid(header, size) || !isCurrent(header, source))
+				return null;
+
+			MappedByteBuffer baked = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+			baked.order(ByteOrder.nativeOrder());
+			return baked;
+		} catch (IOException e) {
+			log.warn("Could not read the baked mesh {}, it will be baked again", cache, e);
+			return null;
+		}
+	}
+
+	/**
+	 * bakes an indexed model into a direct buffer in the baked mesh format
+	 *
+	 * @param model The model to bake
+	 * @param source The location of the model file the model was loaded from
+	 *
+	 * @return A direct buffer holding the complete baked mesh
+	 *
+	 * @throws IOException If the model file could not be read to record its size,
+	 *                     modification time, and hash
+	 */
+	public static ByteBuffer bake(IndexedModel model, Path source) throws IOException {
+		int vertexCount = model.getPositions().size();
+		int indexCount = model.getIndices().size();
+		int indexBytes = vertexCount <= 0x10000 ? Short.BYTES : Integer.BYTES;
+
+		float[] positions = new float[vertexCount * 3];
+		for(int i = 0; i < vertexCount; i++) {
+			Vector3f position = model.getPositions().get(i);
+			positions[i * 3] = position.getX();
+			positions[i * 3 + 1] = position.getY();
+			positions[i * 3 + 2] = position.getZ();
+		}
+		TriangleBVH bvh = new TriangleBVH(positions, model.getIndices().toArray());
+		int bvhOffset = getBVHOffset(vertexCount, indexCount, indexBytes);
+
+		ByteBuffer baked = ByteBuffer.allocateDirect(bvhOffset + bvh.getSerializedBytes())
+				.order(ByteOrder.nativeOrder());
+
+		baked.putInt(MAGIC_OFFSET, MAGIC);
+		baked.putInt(VERSION_OFFSET, VERSION);
+		baked.putInt(FLOATS_OFFSET, Vertex.FLOATS);
+		baked.putInt(VERTEX_COUNT_OFFSET, vertexCount);
+		baked.putInt(INDEX_COUNT_OFFSET, indexCount);
+		baked.putInt(INDEX_BYTES_OFFSET, indexBytes);
+		baked.putLong(MODIFIED_OFFSET, Files.getLastModifiedTime(source).toMillis());
+		baked.putLong(SIZE_OFFSET, Files.size(source));
+		baked.putLong(HASH_OFFSET, hash(source));
+		baked.putInt(BVH_BYTES_OFFSET, bvh.getSerializedBytes());
+
+		baked.position(HEADER_BYTES);
+		for(int i = 0; i < vertexCount; i++) {
+			Vector3f position = model.getPositions().get(i);
+			Vector2f textureCoord = model.getTextureCoord().get(i);
+			Vector3f normal = model.getNormals().get(i);
+
+			baked.putFloat(position.getX()).putFloat(position.getY()).putFloat(position.getZ());
+			baked.putFloat(textureCoord.getX()).putFloat(textureCoord.getY());
+			baked.putFloat(normal.getX()).putFloat(normal.getY()).putFloat(normal.getZ());
+			// the loader does not calculate tangents or bitangents
+			for(int j = 8; j < Vertex.FLOATS; j++)
+				baked.putFloat(0);
+		}
+
+		for(int i = 0; i < indexCount; i++) {
+			if(indexBytes == Short.BYTES)
+				baked.putShort((short) model.getIndices().get(i));
+			else
+				baked.putInt(model.getIndices().get(i));
+		}
+
+		baked.position(bvhOffset);
+		bvh.write(baked);
+
+		baked.flip();
+		return baked;
+	}
+
+	/**
+	 * writes a baked mesh next to the model file it was baked from. The file is
+	 * written to a temporary file first and moved into place, so a failed write
+	 * never leaves a partial baked mesh behind and two threads baking the same
+	 * model never write to the same file
+	 *
+	 * @param baked The baked mesh, as returned by bake
+	 * @param source The location of the model file the mesh was baked from
+	 */
+	public static void write(ByteBuffer baked, Path source) {
+		Path cache = getCachePath(source);
+		Path temp = null;
+
+		try {
+			temp = Files.createTempFile(cache.toAbsolutePath().getParent(), cache.getFileName().toString(), ".tmp");
+			try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+					StandardOpenOption.TRUNCATE_EXISTING)) {
+				ByteBuffer data = baked.duplicate();
+				while(data.hasRemaining())
+					channel.write(data);
+			}
+			Files.move(temp, cache, StandardCopyOption.REPLACE_EXISTING);
+		} catch (IOException e) {
+			log.warn("Could not write the baked mesh {}, the model will be parsed on every load", cache, e);
+			try {
+				if(temp != null)
+					Files.deleteIfExists(temp);
+			} catch (IOException ignored) {
+			}
+		}
+	}
+
+	/**
+	 * creates a mesh backed directly by the vertex and index blocks of a baked mesh,
+	 * its triangle tree is read from the baked mesh the first time it is needed
+	 *
+	 * @param baked The baked mesh
+	 *
+	 * @return A mesh using views of the baked mesh as its vertex and index data
+	 */
+	public static Mesh toMesh(ByteBuffer baked) {
+		int vertexCount = baked.getInt(VERTEX_COUNT_OFFSET);
+		int indexCount = baked.getInt(INDEX_COUNT_OFFSET);
+		int indexBytes = baked.getInt(INDEX_BYTES_OFFSET);
+
+		int vertexEnd = HEADER_BYTES + vertexCount * Vertex.BYTES;
+
+		// slices always start out big endian, so the order has to be set again
+		ByteBuffer vertices = baked.duplicate();
+		vertices.limit(vertexEnd).position(HEADER_BYTES);
+		vertices = vertices.slice().order(ByteOrder.nativeOrder());
+
+		ByteBuffer indices = baked.duplicate();
+		indices.limit(vertexEnd + indexCount * indexBytes).position(vertexEnd);
+		indices = indices.slice().order(ByteOrder.nativeOrder());
+
+		int bvhOffset = getBVHOffset(vertexCount, indexCount, indexBytes);
+		ByteBuffer bvh = baked.duplicate();
+		bvh.limit(bvhOffset + baked.getInt(BVH_BYTES_OFFSET)).position(bvhOffset);
+		bvh = bvh.slice().order(ByteOrder.nativeOrder());
+
+		Mesh mesh;
+		if(indexBytes == Short.BYTES)
+			mesh = new Mesh(vertices.asFloatBuffer(), indices.asShortBuffer());
+		else
+			mesh = new Mesh(vertices.asFloatBuffer(), indices.asIntBuffer());
+		mesh.setTriangleBVHData(bvh);
+		return mesh;
+	}
+
+	/**
+	 * @return The offset of the triangle tree in a baked mesh, the end of the index
+	 *         block rounded up to a multiple of 4 bytes
+	 */
+	private static int getBVHOffset(int vertexCount, int indexCount, int indexBytes) {
+		return (HEADER_BYTES + vertexCount * Vertex.BYTES + indexCount * indexBytes + 3) & ~3;
+	}
+
+	/**
+	 * checks the header of a baked mesh was written by this version of the engine
+	 * and that the file is as long as the header says it should be
+	 */
+	private static boolean isValid(ByteBuffer baked, long size) {
+		if(baked.getInt(MAGIC_OFFSET) != MAGIC || baked.getInt(VERSION_OFFSET) != VERSION
+				|| baked.getInt(FLOATS_OFFSET) != Vertex.FLOATS)
+			return false;
+
+		int indexBytes = baked.getInt(INDEX_BYTES_OFFSET);
+		if(indexBytes != Short.BYTES && indexBytes != Integer.BYTES)
+			return false;
+
+		long expected = HEADER_BYTES + (long) baked.getInt(VERTEX_COUNT_OFFSET) * Vertex.BYTES
+				+ (long) baked.getInt(INDEX_COUNT_OFFSET) * indexBytes;
+		expected = ((expected + 3) & ~3) + baked.getInt(BVH_BYTES_OFFSET);
+		return size == expected;
+	}
+
+	/**
+	 * checks the model file is unchanged since the mesh was baked. Comparing the
+	 * size and modification time is enough in almost every case, the content hash
+	 * is only calculated when the modification time differs, such as after the
+	 * model is checked out again without being edited
+	 */
+	private static boolean isCurrent(ByteBuffer baked, Path source) throws IOException {
+		long size;
+		long modified;
+		try {
+			size = Files.size(source);
+			modified = Files.getLastModifiedTime(source).toMillis();
+		} catch (NoSuchFileException e) {
+			return false;
+		}
+
+		if(size != baked.getLong(SIZE_OFFSET))
+			return false;
+		if(modified == baked.getLong(MODIFIED_OFFSET))
+			return true;
+
+		return hash(source) == baked.getLong(HASH_OFFSET);
+	}
+
+	/**
+	 * calculates the 64 bit FNV-1a hash of a files contents
+	 *
+	 * @param file The file to hash
+	 *
+	 * @return The hash of the files contents
+	 *
+	 * @throws IOException If the file could not be read
+	 */
+	public static long hash(Path file) throws IOException {
+		long hash = FNV_OFFSET_BASIS;
+
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			long size = channel.size();
+			for(long offset = 0; offset < size; offset += Integer.MAX_VALUE) {
+				MappedByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, offset,
+						Math.min(Integer.MAX_VALUE, size - offset));
+				while(data.hasRemaining()) {
+					hash ^= data.get() & 0xFF;
+					hash *= FNV_PRIME;
+				}
+			}
+		}
+
+		return hash;
+	}
+}
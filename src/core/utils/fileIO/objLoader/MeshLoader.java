@@ -1,11 +1,14 @@
 package core.utils.fileIO.objLoader;
 
-import java.util.ArrayList;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.HashMap;
 
 import core.utils.Util;
+import core.utils.logging.Logger;
 import resources.model.Mesh;
-import resources.model.Vertex;
 
 /**
  * <h1>OBJLoader Class</h1>
@@ -19,11 +22,15 @@ import resources.model.Vertex;
  */
 public class MeshLoader {
 
+	private static final Logger log = Logger.getLogger(MeshLoader.class);
+
 	// map to store all mesh by the name of the file they were loaded from
 	public static HashMap<String, Mesh> meshMap = new HashMap<String, Mesh>();
 
 	/**
-	 * Loads in mesh from external files to a engine usable format
+	 * Loads in mesh from external files to a engine usable format. Each file is baked
+	 * into a binary mesh stored next to it the first time it is loaded, later loads read
+	 * the baked mesh directly as long as the file has not changed
 	 * 
 	 * @param fileName
 	 *            the name of the file that contains the mesh, sub-directories after
@@ -36,43 +43,80 @@ public class MeshLoader {
 		if (meshMap.containsKey(fileName))
 			return meshMap.get(fileName);
 
+		ByteBuffer baked = null;
+
+		try {
+			baked = decodeMesh(fileName);
+		} catch (IOException e) {
+			log.error("Error loading the mesh file {}", fileName, e);
+			System.exit(1);
+		}
+
+		return finishMesh(fileName, baked);
+	}
+
+	/**
+	 * reads a mesh file into its baked form, baking and writing it next to the file
+	 * first if there is no up to date baked mesh. Does not touch OpenGL or the mesh
+	 * map, so it can be run on a loading thread
+	 * 
+	 * @param fileName
+	 *            the name of the file that contains the mesh, sub-directories after
+	 *            ./res/models must be specified
+	 * @return The baked mesh, ready to be passed to finishMesh
+	 * @throws IOException
+	 *             If the file type is not supported, or the file could not be read
+	 */
+	public static ByteBuffer decodeMesh(String fileName) throws IOException {
 		String[] file = fileName.split("\\.");
 		String ext = file[file.length - 1];
 
+		Path source = Paths.get("./res/models/" + fileName);
+		ByteBuffer baked = MeshCache.loadBaked(source);
+
+		if(baked != null)
+			return baked;
+
 		IndexedModel model = null;
 
-		switch (ext) {
+		switch(ext) {
 		case "obj":
 			model = loadFromOBJ(fileName);
 			break;
 		default:
-			System.err.println("file " + Util.toString(file, '.') + " type not supported for obj loading: " + ext);
-			new Exception().printStackTrace();
-			System.exit(1);
-		}
-
-		ArrayList<Vertex> vertices = new ArrayList<Vertex>();
-
-		for (int i = 0; i < model.getPositions().size(); i++) {
-			vertices.add(
-					new Vertex(model.getPositions().get(i), model.getTextureCoord().get(i), model.getNormals().get(i)));
+			throw new IOException("file " + Util.toString(file, '.') + " type not supported for obj loading: " + ext);
 		}
 
-		Vertex[] vertexData = new Vertex[vertices.size()];
-		vertices.toArray(vertexData);
+		baked = MeshCache.bake(model, source);
+		MeshCache.write(baked, source);
 
-		Integer[] indexData = new Integer[model.getIndices().size()];
-		model.getIndices().toArray(indexData);
+		return baked;
+	}
 
-		Mesh result = new Mesh(vertexData, Util.toIntArray(indexData));
+	/**
+	 * creates the mesh of a decoded mesh file and stores it in the mesh map. Must be
+	 * called on the thread that owns the OpenGL context
+	 * 
+	 * @param fileName
+	 *            the name of the file the mesh was decoded from
+	 * @param baked
+	 *            the baked mesh returned by decodeMesh
+	 * @return The mesh of the file, the already loaded one if it was loaded in the
+	 *         meantime
+	 */
+	public static Mesh finishMesh(String fileName, ByteBuffer baked) {
+		if(meshMap.containsKey(fileName))
+			return meshMap.get(fileName);
 
+		Mesh result = MeshCache.toMesh(baked);
 		meshMap.put(fileName, result);
 
 		return result;
 	}
 
-	private static IndexedModel loadFromOBJ(String fileName) {
-		OBJModel objModel = new OBJModel(fileName);
+	private static IndexedModel loadFromOBJ(String fileName) throws IOException {
+		OBJModel objModel = new OBJModel();
+		objModel.read(fileName);
 		IndexedModel model = objModel.toIndexedModel();
 		// TODO: remove if unnecessary (may already be done in objmodel)
 		model.calcNormals();
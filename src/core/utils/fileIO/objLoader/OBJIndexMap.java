@@ -0,0 +1,123 @@
+package core.utils.fileIO.objLoader;
+
+import java.util.Arrays;
+
+/**
+ * <h1>OBJIndexMap Class</h1>
+ * <p>
+ * An open addressing hash map from an obj face corner, the vertex, texture,
+ * and normal index triple, to an int. Used in place of a HashMap of OBJIndex
+ * to Integer when deduplicating vertices so that no key or value objects are
+ * created per face corner. Keys are stored packed three ints per slot and
+ * collisions are resolved by linear probing.
+ *
+ * @author Graham
+ * @version 2.0.0
+ * @since 2026-10-18
+ */
+class OBJIndexMap {
+
+	private static final int EMPTY = -1;
+	// the map grows once more than 3/4 of its slots are used
+	private static final int MAX_LOAD_NUMERATOR = 3, MAX_LOAD_DENOMINATOR = 4;
+
+	private int[] keys;
+	private int[] values;
+	private int mask, size;
+
+	/**
+	 * creates an empty map large enough to hold the specified amount of entries
+	 * without ever having to grow
+	 *
+	 * @param expectedSize The most entries the map is expected to hold
+	 */
+	OBJIndexMap(int expectedSize) {
+		int minCapacity = (int) Math.min(1L << 30,
+				(long) expectedSize * MAX_LOAD_DENOMINATOR / MAX_LOAD_NUMERATOR + 1);
+		int capacity = 16;
+		while(capacity < minCapacity)
+			capacity <<= 1;
+
+		allocate(capacity);
+	}
+
+	/**
+	 * returns the value mapped to the specified corner, mapping it to the passed in
+	 * value first if it is not already in the map
+	 *
+	 * @param vertexIndex The vertex index of the corner
+	 * @param textureIndex The texture index of the corner
+	 * @param normalIndex The normal index of the corner
+	 * @param value The value to map the corner to if it is not already mapped, must not be negative
+	 *
+	 * @return The value already mapped to the corner, or the passed in value if the
+	 *         corner was newly added
+	 */
+	int getOrPut(int vertexIndex, int textureIndex, int normalIndex, int value) {
+		int slot = hash(vertexIndex, textureIndex, normalIndex) & mask;
+
+		while(values[slot] != EMPTY) {
+			int key = slot * 3;
+			if(keys[key] == vertexIndex && keys[key + 1] == textureIndex && keys[key + 2] == normalIndex)
+				return values[slot];
+			slot = (slot + 1) & mask;
+		}
+
+		insert(slot, vertexIndex, textureIndex, normalIndex, value);
+
+		if(size * MAX_LOAD_DENOMINATOR > values.length * MAX_LOAD_NUMERATOR)
+			rehash(values.length << 1);
+
+		return value;
+	}
+
+	int size() {
+		return size;
+	}
+
+	private void insert(int slot, int vertexIndex, int textureIndex, int normalIndex, int value) {
+		int key = slot * 3;
+		keys[key] = vertexIndex;
+		keys[key + 1] = textureIndex;
+		keys[key + 2] = normalIndex;
+		values[slot] = value;
+		size++;
+	}
+
+	private void rehash(int capacity) {
+		int[] oldKeys = keys;
+		int[] oldValues = values;
+
+		allocate(capacity);
+
+		for(int i = 0; i < oldValues.length; i++) {
+			if(oldValues[i] == EMPTY)
+				continue;
+
+			int key = i * 3;
+			int slot = hash(oldKeys[key], oldKeys[key + 1], oldKeys[key + 2]) & mask;
+			while(values[slot] != EMPTY)
+				slot = (slot + 1) & mask;
+			insert(slot, oldKeys[key], oldKeys[key + 1], oldKeys[key + 2], oldValues[i]);
+		}
+	}
+
+	private void allocate(int capacity) {
+		keys = new int[capacity * 3];
+		values = new int[capacity];
+		Arrays.fill(values, EMPTY);
+		mask = capacity - 1;
+		size = 0;
+	}
+
+	/*
+	 * obj indices are small and sequential, so the triple is mixed before masking
+	 * to keep neighbouring corners from clustering in neighbouring slots
+	 */
+	private static int hash(int vertexIndex, int textureIndex, int normalIndex) {
+		int h = vertexIndex * 0x9E3779B1;
+		h = (h ^ textureIndex) * 0x85EBCA6B;
+		h = (h ^ normalIndex) * 0xC2B2AE35;
+		return h ^ (h >>> 16);
+	}
+}
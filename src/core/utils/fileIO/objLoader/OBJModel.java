@@ -1,16 +1,23 @@
 package core.utils.fileIO.objLoader;
 
-import java.io.BufferedReader;
-import java.io.FileNotFoundException;
-import java.io.FileReader;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 import core.maths.vector.Vector2f;
 import core.maths.vector.Vector3f;
-import core.utils.Util;
+import core.utils.FloatList;
+import core.utils.IntList;
+import core.utils.logging.Logger;
 
 /**
  * <h1>OBJModel Class</h1>
@@ -25,9 +32,19 @@ import core.utils.Util;
  */
 public class OBJModel {
 
-	private List<Vector3f> positions, normals;
-	private List<Vector2f> textureCoords;
-	private List<OBJIndex> indices;
+	private static final Logger log = Logger.getLogger(OBJModel.class);
+
+	// size of the window of the file that is read and parsed at a time
+	private static final int READ_BUFFER_SIZE = 64 * 1024;
+	// files at least this large are memory mapped and parsed in parallel chunks
+	private static final long PARALLEL_THRESHOLD = 512 * 1024;
+	// smallest chunk worth handing to its own task
+	private static final int MIN_CHUNK_SIZE = 128 * 1024;
+
+	// x,y,z per position and normal, u,v per texture coordinate
+	private FloatList positions, textureCoords, normals;
+	// vertex, texture, and normal index per face corner, three corners per triangle
+	private IntList indices;
 	private boolean hasTextures, hasNormals;
 
 	/**
@@ -35,59 +52,149 @@ public class OBJModel {
 	 * @param fileName the location of the file to be loaded to an OBJModel, sub-directories after ./res/models/ must be specified
 	 */
 	public OBJModel(String fileName) {
-		positions = new ArrayList<Vector3f>();
-		textureCoords = new ArrayList<Vector2f>();
-		normals = new ArrayList<Vector3f>();
-		indices = new ArrayList<OBJIndex>();
-		
-		hasTextures = false;
-		hasNormals = false;
-		
-		BufferedReader reader = null;
+		this();
 		
 		try {
-			reader = new BufferedReader(new FileReader("./res/models/" + fileName));
-			
-			String line;
-			while((line = reader.readLine()) != null) {
-				String[] tokens = line.split(" ");
-				tokens = Util.removeEmptyStrings(tokens);
-				
-				if(tokens.length == 0 || tokens[0].equals("#"))
-					continue;
-				else if(tokens[0].equals("v")) {
-					positions.add(new Vector3f(Float.valueOf(tokens[1]),
-							Float.valueOf(tokens[2]),
-							Float.valueOf(tokens[3])));
-				} else if(tokens[0].equals("vt")) {
-					textureCoords.add(new Vector2f(Float.valueOf(tokens[1]),
-							Float.valueOf(tokens[2])));
-				} else if(tokens[0].equals("vn")) {
-					normals.add(new Vector3f(Float.valueOf(tokens[1]),
-							Float.valueOf(tokens[2]),
-							Float.valueOf(tokens[3])));
-				} else if(tokens[0].equals("f")) {
-					
-					for(int i = 0; i < tokens.length - 3; i++) {
-						indices.add(parseOBJIndex(tokens[1]));
-						indices.add(parseOBJIndex(tokens[2 + i]));
-						indices.add(parseOBJIndex(tokens[3 + i]));
-					}
-				}
-			}	
-			reader.close();
-			
-		} catch (FileNotFoundException e) {
-			System.err.println("Could not find the obj file at the specified locaiton");
-			e.printStackTrace();
+			read(fileName);
+		} catch (NoSuchFileException e) {
+			log.error("Could not find the obj file at the specified locaiton", e);
 			System.exit(1);
 		} catch (IOException e) {
-			System.err.println("Error loading the obj file");
-			e.printStackTrace();
+			log.error("Error loading the obj file", e);
 			System.exit(1);
 		}
 	}
 	
+	/**
+	 * reads the obj file into this model, reporting any failure to the caller
+	 * instead of exiting, so it can be used from loading threads
+	 * @param fileName the location of the file to be read, sub-directories after ./res/models/ must be specified
+	 * @throws IOException If the file could not be found or read
+	 */
+	void read(String fileName) throws IOException {
+		try (FileChannel channel = FileChannel.open(Paths.get("./res/models/" + fileName), StandardOpenOption.READ)) {
+			long size = channel.size();
+			
+			if(size >= PARALLEL_THRESHOLD && size <= Integer.MAX_VALUE)
+				parseMapped(channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+			else
+				parseStreamed(channel);
+		}
+	}
+	
+	/**
+	 * reads the file a window at a time on the calling thread, parsing each window
+	 * as it is read
+	 * @param channel The open channel of the obj file
+	 * @throws IOException If the file could not be read
+	 */
+	private void parseStreamed(FileChannel channel) throws IOException {
+		OBJParser parser = new OBJParser(this);
+		ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+		boolean endOfInput = false;
+		
+		while(!endOfInput) {
+			endOfInput = channel.read(buffer) < 0;
+			
+			int consumed = parser.parse(buffer, 0, buffer.position(), endOfInput);
+			
+			//moves any incomplete trailing line to the front of the window
+			buffer.limit(buffer.position());
+			buffer.position(consumed);
+			buffer.compact();
+			
+			//a single line longer than the window, grow it so the line fits
+			if(!buffer.hasRemaining()) {
+				ByteBuffer grown = ByteBuffer.allocate(buffer.capacity() * 2);
+				buffer.flip();
+				grown.put(buffer);
+				buffer = grown;
+			}
+		}
+	}
+	
+	/**
+	 * splits the mapped file into chunks on line boundaries, parses every chunk in
+	 * parallel into its own OBJModel, then appends the chunks to this model in
+	 * file order. Face indices in an obj file are absolute, so the merged result is
+	 * identical to parsing the whole file sequentially
+	 * @param buffer The mapped contents of the obj file
+	 */
+	private void parseMapped(MappedByteBuffer buffer) {
+		int size = buffer.limit();
+		int chunks = Math.max(1, Math.min(ForkJoinPool.getCommonPoolParallelism(), size / MIN_CHUNK_SIZE));
+		
+		List<ForkJoinTask<OBJModel>> tasks = new ArrayList<ForkJoinTask<OBJModel>>(chunks);
+		int start = 0;
+		
+		for(int i = 1; i <= chunks && start < size; i++) {
+			int end = i == chunks ? size : nextLine(buffer, (int) ((long) size * i / chunks), size);
+			
+			if(end > start) {
+				final int chunkStart = start, chunkEnd = end;
+				// each task gets its own view so no buffer state is shared between threads
+				final ByteBuffer view = buffer.duplicate();
+				tasks.add(ForkJoinPool.commonPool().submit(() -> {
+					OBJModel chunk = new OBJModel();
+					new OBJParser(chunk).parse(view, chunkStart, chunkEnd, true);
+					return chunk;
+				}));
+			}
+			start = end;
+		}
+		
+		List<OBJModel> results = new ArrayList<OBJModel>(tasks.size());
+		for(ForkJoinTask<OBJModel> task : tasks)
+			results.add(task.join());
+		
+		int positionCount = 0, textureCount = 0, normalCount = 0, indexCount = 0;
+		for(OBJModel chunk : results) {
+			positionCount += chunk.positions.size();
+			textureCount += chunk.textureCoords.size();
+			normalCount += chunk.normals.size();
+			indexCount += chunk.indices.size();
+		}
+		positions.ensureCapacity(positionCount);
+		textureCoords.ensureCapacity(textureCount);
+		normals.ensureCapacity(normalCount);
+		indices.ensureCapacity(indexCount);
+		
+		for(OBJModel chunk : results) {
+			positions.addAll(chunk.positions);
+			textureCoords.addAll(chunk.textureCoords);
+			normals.addAll(chunk.normals);
+			indices.addAll(chunk.indices);
+			hasTextures |= chunk.hasTextures;
+			hasNormals |= chunk.hasNormals;
+		}
+	}
+	
+	/**
+	 * finds the start of the line following the specified index
+	 * @param buffer The buffer to search
+	 * @param from The index to start searching from
+	 * @param end The index to stop searching at
+	 * @return The index one past the next newline, or end if there is none
+	 */
+	private static int nextLine(ByteBuffer buffer, int from, int end) {
+		while(from < end && buffer.get(from) != '\n')
+			from++;
+		return Math.min(from + 1, end);
+	}
+	
+	/**
+	 * creates an empty OBJModel, to be filled by an OBJParser
+	 */
+	OBJModel() {
+		positions = new FloatList();
+		textureCoords = new FloatList();
+		normals = new FloatList();
+		indices = new IntList();
+		
+		hasTextures = false;
+		hasNormals = false;
+	}
+	
 	/**
 	 * converts this OBJModel to an indexed model, the intermediate step between a
 	 * model file and an engine usable format
@@ -96,54 +203,48 @@ public class OBJModel {
 	public IndexedModel toIndexedModel() {
 		IndexedModel result = new IndexedModel();
 		IndexedModel normalModel = new IndexedModel();
-		HashMap<OBJIndex, Integer> resultIndexMap = new HashMap<OBJIndex, Integer>();
-		HashMap<Integer, Integer> normalIndexMap = new HashMap<Integer, Integer>();
-		HashMap<Integer, Integer> indexMap = new HashMap<Integer, Integer>();
+		int corners = indices.size() / 3;
 		
-		for(int i = 0; i < indices.size(); i++) {
-			OBJIndex current = indices.get(i);
-			
-			Vector3f pos = positions.get(current.getVertexIndex());
-			Vector2f tex;
-			Vector3f norm;
-			
-			if(hasTextures)
-				tex = textureCoords.get(current.getTextureIndex());
-			else
-				tex = new Vector2f(0,0);
-			
-			if(hasNormals)
-				norm = normals.get(current.getNormalIndex());
-			else
-				norm = new Vector3f(0,1,0);
+		// every corner is unique at most, so the map never has to grow
+		OBJIndexMap resultIndexMap = new OBJIndexMap(corners);
+		// result vertex index to normal model vertex index
+		IntList indexMap = new IntList(corners);
+		// obj vertex index to normal model vertex index, -1 if not yet added
+		int[] normalIndexMap = new int[positions.size() / 3];
+		Arrays.fill(normalIndexMap, -1);
+		
+		result.getIndices().ensureCapacity(corners);
+		normalModel.getIndices().ensureCapacity(corners);
+		
+		for(int i = 0; i < indices.size(); i += 3) {
+			int vertexIndex = indices.get(i);
+			int textureIndex = indices.get(i + 1);
+			int normalIndex = indices.get(i + 2);
 			
-			Integer modelVertexIndex = resultIndexMap.get(current);
+			int normalModelIndex = normalIndexMap[vertexIndex];
 			
-			if(modelVertexIndex == null) {
-				modelVertexIndex = result.getPositions().size();
-				resultIndexMap.put(current, modelVertexIndex);
+			if(normalModelIndex == -1) {
+				normalModelIndex = normalModel.getPositions().size();
+				normalIndexMap[vertexIndex] = normalModelIndex;
 				
-				result.getPositions().add(pos);
-				result.getTextureCoord().add(tex);
-				if(hasNormals)
-					result.getNormals().add(norm);
+				normalModel.getPositions().add(getPosition(vertexIndex));
+				normalModel.getTextureCoord().add(getTextureCoord(textureIndex));
+				normalModel.getNormals().add(getNormal(normalIndex));
 			}
 			
-			Integer normalModelIndex = normalIndexMap.get(current.getVertexIndex());
+			int nextIndex = result.getPositions().size();
+			int modelVertexIndex = resultIndexMap.getOrPut(vertexIndex, textureIndex, normalIndex, nextIndex);
 			
-			if(normalModelIndex == null) {
-				normalModelIndex = normalModel.getPositions().size();
-				normalIndexMap.put(current.getVertexIndex(), normalModelIndex);
-				
-				normalModel.getPositions().add(pos);
-				normalModel.getTextureCoord().add(tex);
-				normalModel.getNormals().add(norm);
+			if(modelVertexIndex == nextIndex) {
+				result.getPositions().add(getPosition(vertexIndex));
+				result.getTextureCoord().add(getTextureCoord(textureIndex));
+				if(hasNormals)
+					result.getNormals().add(getNormal(normalIndex));
+				indexMap.add(normalModelIndex);
 			}
 			
 			result.getIndices().add(modelVertexIndex);
 			normalModel.getIndices().add(normalModelIndex);
-			indexMap.put(modelVertexIndex, normalModelIndex);
-
 		}
 		
 		if(!hasNormals) {
@@ -157,45 +258,46 @@ public class OBJModel {
 		return result;
 	}
 	
-	/**
-	 * converts the text representation on an index, found in .obj files to a usable
-	 * representation of an index
-	 * @param token The string representation of an index, taken directly form the .obj file
-	 * @return An OBJIndex, which is temporary representation of an index, usable by an OBJModel
-	 */
-	private OBJIndex parseOBJIndex(String token) {
-		
-		String[] tokens = token.split("/");
-		
-		OBJIndex result = new OBJIndex();
-		result.setVertrxIndex(Integer.parseInt(tokens[0]) - 1);
+	private Vector3f getPosition(int index) {
+		int i = index * 3;
+		return new Vector3f(positions.get(i), positions.get(i + 1), positions.get(i + 2));
+	}
 	
-		if(tokens.length > 1) {
-			hasTextures = true;
-			result.setTextureIndex(Integer.parseInt(tokens[1]) - 1);
-			
-			if(tokens.length > 2) {
-				hasNormals = true;
-				result.setNormalIndex(Integer.parseInt(tokens[2]) - 1);
-			}
-		}
-
-		return result;
+	private Vector2f getTextureCoord(int index) {
+		if(!hasTextures)
+			return new Vector2f(0,0);
+		int i = index * 2;
+		return new Vector2f(textureCoords.get(i), textureCoords.get(i + 1));
+	}
+	
+	private Vector3f getNormal(int index) {
+		if(!hasNormals)
+			return new Vector3f(0,1,0);
+		int i = index * 3;
+		return new Vector3f(normals.get(i), normals.get(i + 1), normals.get(i + 2));
 	}
 
-	public List<Vector3f> getPositions() {
+	public FloatList getPositions() {
 		return positions;
 	}
 
-	public List<Vector3f> getNormals() {
+	public FloatList getNormals() {
 		return normals;
 	}
 
-	public List<Vector2f> getTextureCoords() {
+	public FloatList getTextureCoords() {
 		return textureCoords;
 	}
 
-	public List<OBJIndex> getIndices() {
+	public IntList getIndices() {
 		return indices;
 	}
+	
+	void setHasTextures(boolean hasTextures) {
+		this.hasTextures = hasTextures;
+	}
+	
+	void setHasNormals(boolean hasNormals) {
+		this.hasNormals = hasNormals;
+	}
 }
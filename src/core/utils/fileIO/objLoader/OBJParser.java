@@ -0,0 +1,315 @@
+package core.utils.fileIO.objLoader;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * <h1>OBJParser Class</h1>
+ * <p>
+ * A byte level tokenizer for the obj file format. Reads records straight out of
+ * a window of raw file bytes and appends the parsed values to the primitive
+ * arrays of an OBJModel, without creating any String or vector objects per line.
+ * Only the v, vt, vn, and f records are read, every other record is skipped.
+ *
+ * @author Graham
+ * @version 2.0.0
+ * @since 2026-10-18
+ */
+class OBJParser {
+
+	// powers of ten that are exactly representable as a double
+	private static final double[] POW10 = { 1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13,
+			1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22 };
+	private static final int MAX_FAST_DIGITS = 15;
+
+	private static final int EOL = -1;
+
+	private OBJModel model;
+
+	private ByteBuffer buffer;
+	private int pos, lineEnd;
+
+	// reused between face records so triangulating a face allocates nothing
+	private int[] corners = new int[3 * 8];
+	private byte[] scratch = new byte[32];
+
+	/**
+	 * creates a parser that appends every record it reads to the passed in model
+	 *
+	 * @param model The OBJModel to fill with the parsed data
+	 */
+	OBJParser(OBJModel model) {
+		this.model = model;
+	}
+
+	/**
+	 * parses every complete line within the specified range of the buffer. A line
+	 * is only complete once its terminating newline is within the range, unless
+	 * the end of the input has been reached, in which case the trailing line is
+	 * parsed as well
+	 *
+	 * @param buffer The buffer holding the raw bytes of the obj file
+	 * @param start The absolute index of the first byte to parse
+	 * @param end The absolute index one past the last byte to parse
+	 * @param endOfInput True if no more data follows the end of the range
+	 *
+	 * @return The absolute index of the first byte that was not consumed, which is the
+	 *         start of an incomplete trailing line
+	 */
+	int parse(ByteBuffer buffer, int start, int end, boolean endOfInput) {
+		this.buffer = buffer;
+		int lineStart = start;
+
+		while(lineStart < end) {
+			int newline = lineStart;
+			while(newline < end && buffer.get(newline) != '\n')
+				newline++;
+
+			if(newline == end && !endOfInput)
+				break;
+
+			pos = lineStart;
+			lineEnd = newline;
+			parseLine();
+
+			lineStart = Math.min(newline + 1, end);
+		}
+
+		this.buffer = null;
+		return lineStart;
+	}
+
+	private void parseLine() {
+		skipSpaces();
+		int first = peek();
+		if(first == EOL)
+			return;
+		pos++;
+		int second = peek();
+
+		if(first == 'v') {
+			if(isSpace(second)) {
+				model.getPositions().add(parseFloat(), parseFloat(), parseFloat());
+			}else if(second == 't' && isSpace(peekAt(pos + 1))) {
+				pos++;
+				model.getTextureCoords().add(parseFloat(), parseFloat());
+			}else if(second == 'n' && isSpace(peekAt(pos + 1))) {
+				pos++;
+				model.getNormals().add(parseFloat(), parseFloat(), parseFloat());
+			}
+		}else if(first == 'f' && isSpace(second)) {
+			parseFace();
+		}
+	}
+
+	/**
+	 * reads every corner of a face record and splits the face into a fan of
+	 * triangles around its first corner
+	 */
+	private void parseFace() {
+		int count = 0;
+
+		skipSpaces();
+		while(peek() != EOL) {
+			if(corners.length < (count + 1) * 3) {
+				int[] grown = new int[corners.length * 2];
+				System.arraycopy(corners, 0, grown, 0, corners.length);
+				corners = grown;
+			}
+
+			int base = count * 3;
+			corners[base] = parseInt() - 1;
+			corners[base + 1] = 0;
+			corners[base + 2] = 0;
+
+			if(peek() == '/') {
+				pos++;
+				if(peek() != '/' && !isSpace(peek())) {
+					corners[base + 1] = parseInt() - 1;
+					model.setHasTextures(true);
+				}
+				if(peek() == '/') {
+					pos++;
+					corners[base + 2] = parseInt() - 1;
+					model.setHasNormals(true);
+				}
+			}
+
+			count++;
+			skipSpaces();
+		}
+
+		for(int i = 0; i < count - 2; i++) {
+			addCorner(0);
+			addCorner(i + 1);
+			addCorner(i + 2);
+		}
+	}
+
+	private void addCorner(int corner) {
+		int base = corner * 3;
+		model.getIndices().add(corners[base], corners[base + 1], corners[base + 2]);
+	}
+
+	/**
+	 * parses a signed decimal integer at the current position
+	 *
+	 * @return The parsed integer
+	 */
+	private int parseInt() {
+		boolean negative = false;
+		if(peek() == '-') {
+			negative = true;
+			pos++;
+		}else if(peek() == '+') {
+			pos++;
+		}
+
+		if(!isDigit(peek()))
+			throw malformed();
+
+		int result = 0;
+		while(isDigit(peek())) {
+			result = result * 10 + (buffer.get(pos) - '0');
+			pos++;
+		}
+
+		return negative ? -result : result;
+	}
+
+	/**
+	 * parses the next whitespace separated token as a float. Values with at most
+	 * fifteen significant digits and a small exponent are computed exactly through
+	 * a single correctly rounded double operation, the same result Float.valueOf
+	 * gives. Any other value falls back to Float.parseFloat
+	 *
+	 * @return The parsed float
+	 */
+	private float parseFloat() {
+		skipSpaces();
+		int start = pos;
+
+		boolean negative = false;
+		if(peek() == '-') {
+			negative = true;
+			pos++;
+		}else if(peek() == '+') {
+			pos++;
+		}
+
+		long mantissa = 0;
+		int digits = 0, significant = 0, exponent = 0;
+
+		while(isDigit(peek())) {
+			significant = accumulate(significant);
+			if(significant <= MAX_FAST_DIGITS)
+				mantissa = mantissa * 10 + (buffer.get(pos) - '0');
+			digits++;
+			pos++;
+		}
+
+		if(peek() == '.') {
+			pos++;
+			while(isDigit(peek())) {
+				significant = accumulate(significant);
+				if(significant <= MAX_FAST_DIGITS) {
+					mantissa = mantissa * 10 + (buffer.get(pos) - '0');
+					exponent--;
+				}
+				digits++;
+				pos++;
+			}
+		}
+
+		if(digits > 0 && (peek() == 'e' || peek() == 'E')) {
+			pos++;
+			boolean negativeExp = false;
+			if(peek() == '-') {
+				negativeExp = true;
+				pos++;
+			}else if(peek() == '+') {
+				pos++;
+			}
+			if(!isDigit(peek()))
+				return slowParseFloat(start);
+			int exp = 0;
+			while(isDigit(peek())) {
+				if(exp < 10000)
+					exp = exp * 10 + (buffer.get(pos) - '0');
+				pos++;
+			}
+			exponent += negativeExp ? -exp : exp;
+		}
+
+		if(digits == 0 || !isSpace(peek()) || significant > MAX_FAST_DIGITS)
+			return slowParseFloat(start);
+
+		if(mantissa == 0)
+			return negative ? -0.0f : 0.0f;
+
+		if(exponent >= -22 && exponent <= 22) {
+			double value = exponent < 0 ? mantissa / POW10[-exponent] : mantissa * POW10[exponent];
+
+			/*
+			 * narrowing the exact-rounded double to a float only rounds differently
+			 * to a direct conversion when the double lands exactly halfway between
+			 * two floats, which is left to the slow path
+			 */
+			if(value >= Float.MIN_NORMAL && value < Float.MAX_VALUE
+					&& (Double.doubleToRawLongBits(value) & 0x1FFFFFFFL) != 0x10000000L) {
+				float result = (float) value;
+				return negative ? -result : result;
+			}
+		}
+
+		return slowParseFloat(start);
+	}
+
+	// leading zeros do not count towards the significant digits of a number
+	private int accumulate(int significant) {
+		if(significant == 0 && buffer.get(pos) == '0')
+			return 0;
+		return significant + 1;
+	}
+
+	private float slowParseFloat(int start) {
+		pos = start;
+		while(!isSpace(peek()))
+			pos++;
+
+		int length = pos - start;
+		if(length == 0)
+			throw malformed();
+		if(scratch.length < length)
+			scratch = new byte[length * 2];
+		for(int i = 0; i < length; i++)
+			scratch[i] = buffer.get(start + i);
+
+		return Float.parseFloat(new String(scratch, 0, length, StandardCharsets.US_ASCII));
+	}
+
+	private NumberFormatException malformed() {
+		return new NumberFormatException("malformed obj record at byte " + pos);
+	}
+
+	private void skipSpaces() {
+		while(pos < lineEnd && isSpace(buffer.get(pos)))
+			pos++;
+	}
+
+	private int peek() {
+		return pos < lineEnd ? buffer.get(pos) : EOL;
+	}
+
+	private int peekAt(int index) {
+		return index < lineEnd ? buffer.get(index) : EOL;
+	}
+
+	private static boolean isSpace(int c) {
+		return c == ' ' || c == '\t' || c == '\r' || c == EOL;
+	}
+
+	private static boolean isDigit(int c) {
+		return c >= '0' && c <= '9';
+	}
+}
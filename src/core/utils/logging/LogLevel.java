@@ -0,0 +1,15 @@
+package core.utils.logging;
+
+/**
+ * <h1>LogLevel Enum</h1>
+ * <p>
+ * The severity of a log message, from least to most severe. A logger only
+ * writes messages at or above its level, OFF disables a logger entirely.
+ *
+ * @author Graham
+ * @version 2.0.0
+ * @since 2026-10-18
+ */
+public enum LogLevel {
+	DEBUG, INFO, WARN, ERROR, OFF;
+}
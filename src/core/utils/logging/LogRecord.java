@@ -0,0 +1,29 @@
+package core.utils.logging;
+
+/**
+ * <h1>LogRecord Class</h1>
+ * <p>
+ * A single formatted message waiting in the LogWriter queue.
+ *
+ * @author Graham
+ * @version 2.0.0
+ * @since 2026-10-18
+ */
+class LogRecord {
+
+	final long time;
+	final LogLevel level;
+	final String channel;
+	final String thread;
+	final String message;
+	final Throwable throwable;
+
+	LogRecord(LogLevel level, String channel, String message, Throwable throwable) {
+		this.time = System.currentTimeMillis();
+		this.level = level;
+		this.channel = channel;
+		this.thread = Thread.currentThread().getName();
+		this.message = message;
+		this.throwable = throwable;
+	}
+}
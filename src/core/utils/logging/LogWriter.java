@@ -0,0 +1,171 @@
+package core.utils.logging;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * <h1>LogWriter Class</h1>
+ * <p>
+ * Writes log messages on a background thread, so no thread that logs ever waits
+ * on the console or a file. Messages are handed over through a lock free queue
+ * and written in the order they were queued, warnings and errors to the standard
+ * error stream and everything else to the standard output stream, as well as to
+ * a log file if one is set. Anything still queued when the program exits, even
+ * through System.exit, is written before it closes.
+ *
+ * @author Graham
+ * @version 2.0.0
+ * @since 2026-10-18
+ */
+public class LogWriter implements Runnable {
+
+	// how long the writer sleeps when the queue is empty before checking again anyway
+	private static final long IDLE_WAIT = TimeUnit.MILLISECONDS.toNanos(100);
+
+	// every logger shares one writer, so the class is a single instance class
+	private static LogWriter instance = null;
+
+	private final ConcurrentLinkedQueue<LogRecord> queue;
+	private final Thread thread;
+	private volatile boolean waiting;
+
+	// only used while holding the writer lock
+	private final Object lock;
+	private final SimpleDateFormat timeFormat;
+	private final StringBuilder line;
+	private PrintStream out, err, file;
+
+	/**
+	 * returns the current instance of the log writer, or if none exists, it
+	 * creates and starts a new current instance before returning it
+	 *
+	 * @return the current instance of the log writer
+	 */
+	public static synchronized LogWriter getInstance() {
+		if(instance == null)
+			instance = new LogWriter(System.out, System.err);
+		return instance;
+	}
+
+	private LogWriter(PrintStream out, PrintStream err) {
+		this.out = out;
+		this.err = err;
+		queue = new ConcurrentLinkedQueue<LogRecord>();
+		lock = new Object();
+		timeFormat = new SimpleDateFormat("HH:mm:ss.SSS");
+		line = new StringBuilder(256);
+
+		thread = new Thread(this, "Log Writer");
+		thread.setDaemon(true);
+		thread.start();
+
+		Runtime.getRuntime().addShutdownHook(new Thread(this::flush, "Log Flush"));
+	}
+
+	/**
+	 * queues a message to be written
+	 */
+	void enqueue(LogRecord record) {
+		queue.offer(record);
+		if(waiting)
+			LockSupport.unpark(thread);
+	}
+
+	@Override
+	public void run() {
+		while(true) {
+			if(queue.isEmpty()) {
+				waiting = true;
+				// checked again after flagging, so a message queued in between is never left waiting
+				if(queue.isEmpty())
+					LockSupport.parkNanos(this, IDLE_WAIT);
+				waiting = false;
+			}
+			flush();
+		}
+	}
+
+	/**
+	 * writes every queued message on the calling thread, returning once the queue
+	 * is empty
+	 */
+	public void flush() {
+		synchronized(lock) {
+			boolean wroteOut = false, wroteErr = false;
+
+			LogRecord record;
+			while((record = queue.poll()) != null) {
+				boolean error = record.level.compareTo(LogLevel.WARN) >= 0;
+				write(error ? err : out, record);
+				if(file != null)
+					write(file, record);
+
+				wroteOut |= !error;
+				wroteErr |= error;
+			}
+
+			if(wroteOut)
+				out.flush();
+			if(wroteErr)
+				err.flush();
+			if(file != null)
+				file.flush();
+		}
+	}
+
+	private void write(PrintStream stream, LogRecord record) {
+		line.setLength(0);
+		line.append('[').append(timeFormat.format(new Date(record.time))).append("] [").append(record.level)
+				.append("] [").append(record.thread).append("] ").append(record.channel).append(": ")
+				.append(record.message);
+		stream.println(line);
+		if(record.throwable != null)
+			record.throwable.printStackTrace(stream);
+	}
+
+	/**
+	 * sets a file every message is also written to, replacing any previous log
+	 * file
+	 *
+	 * @param fileName The file to write to, or null to stop writing to a file
+	 * @param append True to add to the end of an existing file, false to replace it
+	 *
+	 * @return True if the file could be opened
+	 */
+	public boolean setFile(String fileName, boolean append) {
+		synchronized(lock) {
+			if(file != null)
+				file.close();
+			file = null;
+
+			if(fileName == null)
+				return true;
+
+			try {
+				file = new PrintStream(new FileOutputStream(fileName, append), false, "UTF-8");
+				return true;
+			} catch (IOException e) {
+				System.err.println("Could not open the log file " + fileName);
+				e.printStackTrace();
+				return false;
+			}
+		}
+	}
+
+	/**
+	 * sets the streams console messages are written to, by default System.out and
+	 * System.err
+	 */
+	public void setConsole(PrintStream out, PrintStream err) {
+		synchronized(lock) {
+			this.out = out;
+			this.err = err;
+		}
+	}
+}
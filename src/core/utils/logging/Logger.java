@@ -0,0 +1,247 @@
+package core.utils.logging;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <h1>Logger Class</h1>
+ * <p>
+ * A named channel of log messages. Messages are parameterized, each {} in the
+ * message is replaced by the next argument, and the level is checked before
+ * anything is formatted, so a message on a disabled level costs a single
+ * comparison. Enabled messages are formatted on the calling thread, as the
+ * arguments may change once the call returns, and then handed to the LogWriter
+ * to be written in the background.
+ * <p>
+ * A channel can be rate limited, after which it writes at most one message per
+ * interval and counts the rest, which suits output from code run every frame.
+ * Arguments that are expensive to produce should still be guarded with
+ * isEnabled.
+ *
+ * @author Graham
+ * @version 2.0.0
+ * @since 2026-10-18
+ */
+public class Logger {
+
+	private static final ConcurrentHashMap<String, Logger> loggers = new ConcurrentHashMap<String, Logger>();
+	private static volatile LogLevel defaultLevel = LogLevel.INFO;
+
+	private final String channel;
+	private volatile LogLevel level;
+
+	// zero when the channel is not rate limited
+	private volatile long interval;
+	private final AtomicLong nextAllowed;
+	private final AtomicInteger suppressed;
+
+	/**
+	 * returns the logger of a channel, creating it at the default level if it does
+	 * not exist yet
+	 *
+	 * @param channel The name of the channel
+	 *
+	 * @return The logger of the channel
+	 */
+	public static Logger getLogger(String channel) {
+		Logger logger = loggers.get(channel);
+		if(logger == null) {
+			Logger created = new Logger(channel);
+			logger = loggers.putIfAbsent(channel, created);
+			if(logger == null)
+				logger = created;
+		}
+		return logger;
+	}
+
+	/**
+	 * returns the logger of the channel named after a class
+	 */
+	public static Logger getLogger(Class<?> type) {
+		return getLogger(type.getSimpleName());
+	}
+
+	private Logger(String channel) {
+		this.channel = channel;
+		// nanoTime may be negative, so the first message is allowed from now rather than from zero
+		nextAllowed = new AtomicLong(System.nanoTime());
+		suppressed = new AtomicInteger();
+	}
+
+	public boolean isEnabled(LogLevel level) {
+		LogLevel current = this.level == null ? defaultLevel : this.level;
+		return level.compareTo(current) >= 0 && level != LogLevel.OFF;
+	}
+
+	public void debug(String message) {
+		if(isEnabled(LogLevel.DEBUG))
+			log(LogLevel.DEBUG, message, null, 0, null, null, null, null);
+	}
+
+	public void debug(String message, Object a) {
+		if(isEnabled(LogLevel.DEBUG))
+			log(LogLevel.DEBUG, message, null, 1, a, null, null, null);
+	}
+
+	public void debug(String message, Object a, Object b) {
+		if(isEnabled(LogLevel.DEBUG))
+			log(LogLevel.DEBUG, message, null, 2, a, b, null, null);
+	}
+
+	public void debug(String message, Object... args) {
+		if(isEnabled(LogLevel.DEBUG))
+			log(LogLevel.DEBUG, message, null, args.length, null, null, null, args);
+	}
+
+	public void info(String message) {
+		if(isEnabled(LogLevel.INFO))
+			log(LogLevel.INFO, message, null, 0, null, null, null, null);
+	}
+
+	public void info(String message, Object a) {
+		if(isEnabled(LogLevel.INFO))
+			log(LogLevel.INFO, message, null, 1, a, null, null, null);
+	}
+
+	public void info(String message, Object a, Object b) {
+		if(isEnabled(LogLevel.INFO))
+			log(LogLevel.INFO, message, null, 2, a, b, null, null);
+	}
+
+	public void info(String message, Object... args) {
+		if(isEnabled(LogLevel.INFO))
+			log(LogLevel.INFO, message, null, args.length, null, null, null, args);
+	}
+
+	public void warn(String message) {
+		if(isEnabled(LogLevel.WARN))
+			log(LogLevel.WARN, message, null, 0, null, null, null, null);
+	}
+
+	public void warn(String message, Object a) {
+		if(isEnabled(LogLevel.WARN))
+			log(LogLevel.WARN, message, null, 1, a, null, null, null);
+	}
+
+	public void warn(String message, Object a, Object b) {
+		if(isEnabled(LogLevel.WARN))
+			log(LogLevel.WARN, message, null, 2, a, b, null, null);
+	}
+
+	public void warn(String message, Throwable throwable) {
+		if(isEnabled(LogLevel.WARN))
+			log(LogLevel.WARN, message, throwable, 0, null, null, null, null);
+	}
+
+	public void warn(String message, Object a, Throwable throwable) {
+		if(isEnabled(LogLevel.WARN))
+			log(LogLevel.WARN, message, throwable, 1, a, null, null, null);
+	}
+
+	public void error(String message) {
+		if(isEnabled(LogLevel.ERROR))
+			log(LogLevel.ERROR, message, null, 0, null, null, null, null);
+	}
+
+	public void error(String message, Object a) {
+		if(isEnabled(LogLevel.ERROR))
+			log(LogLevel.ERROR, message, null, 1, a, null, null, null);
+	}
+
+	public void error(String message, Object a, Object b) {
+		if(isEnabled(LogLevel.ERROR))
+			log(LogLevel.ERROR, message, null, 2, a, b, null, null);
+	}
+
+	public void error(String message, Throwable throwable) {
+		if(isEnabled(LogLevel.ERROR))
+			log(LogLevel.ERROR, message, throwable, 0, null, null, null, null);
+	}
+
+	public void error(String message, Object a, Throwable throwable) {
+		if(isEnabled(LogLevel.ERROR))
+			log(LogLevel.ERROR, message, throwable, 1, a, null, null, null);
+	}
+
+	public void error(String message, Object a, Object b, Throwable throwable) {
+		if(isEnabled(LogLevel.ERROR))
+			log(LogLevel.ERROR, message, throwable, 2, a, b, null, null);
+	}
+
+	/**
+	 * formats and queues a message that has already passed the level check. The
+	 * first three arguments are passed separately so the common calls need no
+	 * array
+	 */
+	private void log(LogLevel level, String message, Throwable throwable, int count, Object a, Object b, Object c,
+			Object[] args) {
+		if(interval > 0) {
+			long now = System.nanoTime();
+			long next = nextAllowed.get();
+			if(now - next < 0 || !nextAllowed.compareAndSet(next, now + interval)) {
+				suppressed.incrementAndGet();
+				return;
+			}
+		}
+
+		StringBuilder text = new StringBuilder(message.length() + 16 * count);
+		int start = 0;
+		for(int i = 0; i < count; i++) {
+			int marker = message.indexOf("{}", start);
+			if(marker < 0)
+				break;
+			text.append(message, start, marker);
+			text.append(args != null ? args[i] : i == 0 ? a : i == 1 ? b : c);
+			start = marker + 2;
+		}
+		text.append(message, start, message.length());
+
+		int skipped = interval > 0 ? suppressed.getAndSet(0) : 0;
+		if(skipped > 0)
+			text.append(" (").append(skipped).append(" more suppressed)");
+
+		LogWriter.getInstance().enqueue(new LogRecord(level, channel, text.toString(), throwable));
+	}
+
+	public String getChannel() {
+		return channel;
+	}
+
+	/**
+	 * @return The level of this channel, or null if it uses the default level
+	 */
+	public LogLevel getLevel() {
+		return level;
+	}
+
+	/**
+	 * sets the lowest level this channel writes, null to use the default level
+	 */
+	public void setLevel(LogLevel level) {
+		this.level = level;
+	}
+
+	/**
+	 * limits this channel to at most one message per interval, messages in
+	 * between are dropped and counted in the next message written
+	 *
+	 * @param milliseconds The shortest time between two messages, zero or less for no limit
+	 */
+	public void setRateLimit(long milliseconds) {
+		interval = milliseconds > 0 ? TimeUnit.MILLISECONDS.toNanos(milliseconds) : 0;
+		nextAllowed.set(System.nanoTime());
+	}
+
+	public static LogLevel getDefaultLevel() {
+		return defaultLevel;
+	}
+
+	/**
+	 * sets the level of every channel that has not had its own level set
+	 */
+	public static void setDefaultLevel(LogLevel level) {
+		defaultLevel = level;
+	}
+}
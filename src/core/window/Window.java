@@ -5,6 +5,7 @@ import org.lwjgl.opengl.Display;
 import org.lwjgl.opengl.DisplayMode;
 
 import core.utils.Constants;
+import core.utils.logging.Logger;
 
 /**
  * <h1>Window Class</h1>
@@ -19,6 +20,8 @@ import core.utils.Constants;
  */
 public class Window {
 
+	private static final Logger log = Logger.getLogger(Window.class);
+
 private static Window instance = null;
 	
 	private String title;
@@ -51,8 +54,7 @@ private static Window instance = null;
 			Display.setDisplayMode(new DisplayMode(width, height));
 			Display.create();
 		} catch (LWJGLException e) {
-			System.err.println("Error creating the display!");
-			e.printStackTrace();
+			log.error("Error creating the display!", e);
 			System.exit(1);
 		}
 	}
@@ -1,24 +1,35 @@
 package modules.entity;
 
+import core.kernel.FrameSnapshot;
+import core.maths.BoundingBox;
+import core.maths.Transform;
 import core.maths.vector.Vector3f;
+import core.spatial.SpatialIndex;
+import core.structure.Component;
 import core.structure.GameObject;
 import core.utils.Constants;
 import core.utils.Constants.RenderComponents;
-import core.utils.fileIO.objLoader.MeshLoader;
+import core.utils.fileIO.ResourceManager;
 import rendering.Renderer;
 import rendering.config.Default;
 import rendering.config.Points;
+import rendering.config.RenderConfig;
 import rendering.config.Wireframe;
+import resources.model.Mesh;
 import resources.model.Model;
 import resources.texturing.Material;
-import resources.texturing.Texture2D;
 
 /**
  * <h1>Entity Class</h1>
  * <p>
  * Represents any non-specialized Game Object that can be rendered into the engine.
  * Stores an updatable model, 3D position and rotation, as well as a Render component,
- * to allow the entity the ability to render itself.
+ * to allow the entity the ability to render itself. Every entity is kept in the scene
+ * SpatialIndex by the world space bounds of its mesh.
+ * <p>
+ * The mesh and texture of an entity are loaded by the ResourceManager, so creating one
+ * never waits on the disk. The entity is drawn with the default textures until its own
+ * arrive, and is neither drawn nor added to the scene index until its mesh arrives.
  * 
  * @author Graham
  * @version 2.0.0
@@ -27,11 +38,17 @@ import resources.texturing.Texture2D;
 public class Entity extends GameObject{
 
 	private Model model;
-	private Vector3f positon, rotation;
 	private RenderComponents activeRenderComponent;
 	
+	// the index the entity was added to, its proxy there, and the transform version its world bounds were calculated at
+	private SpatialIndex index;
+	private int proxy = SpatialIndex.NULL;
+	private int boundsVersion;
+	private BoundingBox worldBounds = new BoundingBox();
+	private Vector3f previousCentre = new Vector3f();
+	
 	/**
-	 * Creates all the data required to render the entity from passed in files and data
+	 * Creates the entity and requests the files required to render it
 	 * 
 	 * @param file The .obj file for the mesh associated with this entity, sub-directories after ./res/models must be specified in the file name
 	 * @param texture The .png file for the diffuse map associated with this entity, all directories including ./res/models must be specified 
@@ -39,55 +56,107 @@ public class Entity extends GameObject{
 	 * @param rotation The 3D rotation to render the entity ins
 	 */
 	public Entity(String file, String texture, Vector3f position, Vector3f rotation) {
+		// the material starts with the default textures
 		model = new Model();
-		model.setMesh(MeshLoader.loadMesh(file));
 		model.setMaterial(new Material());
-		model.getMaterial().setDiffusemap(Texture2D.createTexture(texture));
-		model.getMaterial().setSpecularmap(Texture2D.createTexture("./res/models/default/specular.png"));
 		
-		this.positon = position;
-		this.rotation = rotation;
+		activeRenderComponent = Constants.RenderComponents.RENDERER_COMPONENT;
+		
+		//the entities position and rotation are kept in its world transform
+		getWorldTransform().setTranslation(position);
+		getWorldTransform().setRotation(rotation);
 		
+		ResourceManager resources = ResourceManager.getInstance();
+		resources.loadMesh(file, ResourceManager.NORMAL_PRIORITY, 0, this::setMesh);
+		resources.loadTexture(texture, ResourceManager.NORMAL_PRIORITY, 0, model.getMaterial()::setDiffusemap);
+	}
+	
+	/**
+	 * Gives the entity its mesh once loaded, creating the render components that draw it.
+	 * The entity is added to the scene index by the next updateBounds
+	 * 
+	 * @param mesh The loaded mesh
+	 */
+	private void setMesh(Mesh mesh) {
+		model.setMesh(mesh);
+		addComponent(Constants.RenderComponents.RENDERER_COMPONENT, createRenderer(new Default()));
+		addComponent(Constants.RenderComponents.WIREFRAME_RENDERER_COMPONENT, createRenderer(new Wireframe()));
+		addComponent(Constants.RenderComponents.POINT_RENDERER_COMPONENT, createRenderer(new Points()));
+	}
+	
+	private Renderer createRenderer(RenderConfig config) {
 		Renderer renderer = new Renderer();
 		renderer.setVao(model.getMesh().getVao());
-		renderer.setConfig(new Default());
+		renderer.setConfig(config);
 		renderer.setShader(EntityShader.getInstance());
+		renderer.setInstancedShader(EntityInstancedShader.getInstance());
+		renderer.setMaterial(model.getMaterial());
+		renderer.setBounds(model.getMesh().getBounds());
+		return renderer;
+	}
+	
+	/**
+	 * Recalculates the world space bounds of the entity from its mesh and world transform,
+	 * and moves it to them in the scene index, if the transform has changed since they were
+	 * last calculated. Does nothing until the mesh has loaded
+	 */
+	public void updateBounds() {
+		if(model.getMesh() == null)
+			return;
+		Transform transform = getWorldTransform();
+		if(proxy != SpatialIndex.NULL && transform.getVersion() == boundsVersion)
+			return;
+		boundsVersion = transform.getVersion();
 		
-		addComponent(Constants.RenderComponents.RENDERER_COMPONENT, renderer);
-		
-		Renderer wireframe = new Renderer();
-		wireframe.setVao(model.getMesh().getVao());
-		wireframe.setConfig(new Wireframe());
-		wireframe.setShader(EntityShader.getInstance());
-		
-		addComponent(Constants.RenderComponents.WIREFRAME_RENDERER_COMPONENT, wireframe);
-		
-		Renderer points = new Renderer();
-		points.setVao(model.getMesh().getVao());
-		points.setConfig(new Points());
-		points.setShader(EntityShader.getInstance());
-		
-		addComponent(Constants.RenderComponents.POINT_RENDERER_COMPONENT, points);
-		
-		activeRenderComponent = Constants.RenderComponents.RENDERER_COMPONENT;
+		previousCentre.set(worldBounds.getCentre());
+		model.getMesh().getBounds().transform(transform.getModelMatrix(), worldBounds);
 		
-		getWorldTransform().setTranslation(position);
-		getWorldTransform().setRotation(rotation);		
+		Vector3f centre = worldBounds.getCentre();
+		if(proxy == SpatialIndex.NULL) {
+			index = SpatialIndex.getScene();
+			proxy = index.insert(worldBounds, this);
+		}else {
+			index.move(proxy, worldBounds, centre.getX() - previousCentre.getX(),
+					centre.getY() - previousCentre.getY(), centre.getZ() - previousCentre.getZ());
+		}
+	}
+	
+	/**
+	 * Removes the entity from the scene index
+	 */
+	@Override
+	public void shutdown() {
+		if(proxy != SpatialIndex.NULL) {
+			index.remove(proxy);
+			proxy = SpatialIndex.NULL;
+		}
+		super.shutdown();
 	}
 	
 	/**
-	 * Updates the transformation matrices of the entity before calling the render method of its active render component
+	 * Calls the render method of its active render component, if its mesh has loaded
 	 */
 	@Override
 	public void render() {
-		getWorldTransform().setTranslation(positon);
-		getWorldTransform().setRotation(rotation);
+		RenderComponents active = activeRenderComponent;
+		FrameSnapshot frame = FrameSnapshot.getDrawing();
+		if(frame != null && frame.getActiveComponent(getWorldTransform().getHandle()) != null)
+			active = frame.getActiveComponent(getWorldTransform().getHandle());
 		
-		if(getComponents().get(activeRenderComponent) != null) {
-			getComponents().get(activeRenderComponent).render();
-		}else {
-			getComponents().get(RenderComponents.RENDERER_COMPONENT).render();
-		}
+		Component renderer = getComponent(active);
+		if(renderer == null)
+			renderer = getComponent(RenderComponents.RENDERER_COMPONENT);
+		if(renderer != null)
+			renderer.render();
+	}
+	
+	/**
+	 * Records the render component this entity is drawn with into a frame snapshot
+	 * 
+	 * @param snapshot The snapshot being captured
+	 */
+	public void capture(FrameSnapshot snapshot) {
+		snapshot.setActiveComponent(getWorldTransform().getHandle(), activeRenderComponent);
 	}
 	
 	/**
@@ -96,7 +165,8 @@ public class Entity extends GameObject{
 	 * @param vec The vector representing the magnitude and direction of the movement
 	 */
 	public void move(Vector3f vec) {
-		this.positon = positon.add(vec);
+		getWorldTransform().translate(vec);
+		updateBounds();
 	}
 	
 	/**
@@ -105,23 +175,32 @@ public class Entity extends GameObject{
 	 * @param vec The vector representing the magnitude and direction of the rotation
 	 */
 	public void rotate(Vector3f vec) {
-		this.rotation = rotation.add(vec);
+		getWorldTransform().rotate(vec);
+		updateBounds();
 	}
 
+	/**
+	 * @return A new vector holding the position of the entity
+	 */
 	public Vector3f getPositon() {
-		return positon;
+		return getWorldTransform().getTranslation();
 	}
 
 	public void setPositon(Vector3f positon) {
-		this.positon = positon;
+		getWorldTransform().setTranslation(positon);
+		updateBounds();
 	}
 
+	/**
+	 * @return A new vector holding the rotation of the entity
+	 */
 	public Vector3f getRotation() {
-		return rotation;
+		return getWorldTransform().getRotation();
 	}
 
 	public void setRotation(Vector3f rotation) {
-		this.rotation = rotation;
+		getWorldTransform().setRotation(rotation);
+		updateBounds();
 	}
 
 	public Model getModel() {
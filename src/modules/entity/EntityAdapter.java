@@ -0,0 +1,71 @@
+package modules.entity;
+
+import java.util.HashMap;
+
+import core.ecs.Components;
+import core.ecs.World;
+import core.maths.vector.Vector3f;
+
+/**
+ * <h1>EntityAdapter Class</h1>
+ * <p>
+ * Links Entities of the Node hierarchy to entities of the entity component
+ * system. A registered Entity is given a position and a transform component
+ * pointing at its own world transform, so systems that move the position move
+ * the Entity while it keeps rendering through its usual render components.
+ *
+ * @author Graham
+ * @version 2.0.0
+ * @since 2026-10-18
+ */
+public class EntityAdapter {
+
+	private final World world;
+	private final HashMap<Integer, Entity> entities;
+
+	public EntityAdapter() {
+		this(World.getInstance());
+	}
+
+	public EntityAdapter(World world) {
+		this.world = world;
+		entities = new HashMap<Integer, Entity>();
+	}
+
+	/**
+	 * creates an entity in the world for an Entity, starting at its current
+	 * position
+	 *
+	 * @param entity The Entity to link
+	 *
+	 * @return The id of the entity in the world, extra components such as a velocity can be added to it
+	 */
+	public int register(Entity entity) {
+		int id = world.create(Components.POSITION, Components.TRANSFORM);
+
+		Vector3f position = entity.getPositon();
+		world.setFloat(id, Components.POSITION, 0, position.getX());
+		world.setFloat(id, Components.POSITION, 1, position.getY());
+		world.setFloat(id, Components.POSITION, 2, position.getZ());
+		world.setInt(id, Components.TRANSFORM, 0, entity.getWorldTransform().getHandle());
+
+		entities.put(id, entity);
+		return id;
+	}
+
+	/**
+	 * destroys the world entity of a registered Entity, the Entity itself is left
+	 * where it was last moved to
+	 */
+	public void unregister(int id) {
+		if(entities.remove(id) != null)
+			world.destroy(id);
+	}
+
+	/**
+	 * @return The Entity linked to a world entity, or null if it is not registered
+	 */
+	public Entity getEntity(int id) {
+		return entities.get(id);
+	}
+}
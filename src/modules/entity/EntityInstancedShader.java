@@ -0,0 +1,88 @@
+package modules.entity;
+
+import core.structure.GameObject;
+import core.utils.fileIO.ResourceLoader;
+import modules.light.Light;
+import rendering.Shader;
+
+/**
+ * <h1>EntityInstancedShader Class</h1>
+ * <p>
+ * A single instance class to represent the shader code required to render many
+ * entities sharing a mesh and material with one draw call. Shades exactly as the
+ * EntityShader does, but reads each entities model matrix from the VAO's
+ * instance attributes instead of a uniform
+ * 
+ * @author Graham
+ * @version 2.0.0
+ * @since 2026-10-18
+ */
+public class EntityInstancedShader extends Shader{
+
+	private static EntityInstancedShader instance = null;
+	
+	/**
+	 * Returns the current instance of the EntityInstancedShader class, or if no instance
+	 * exists, creates a new one before returning it
+	 * 
+	 * @return The current instance of the EntityInstancedShader class
+	 */
+	public static EntityInstancedShader getInstance() {
+		if(instance == null)
+			instance = new EntityInstancedShader();
+		return instance;
+	}
+	
+	/**
+	 * creates a new instance of EntityInstancedShader by loading and compiling all shader files
+	 */
+	protected EntityInstancedShader() {
+		super();
+		
+		addVertexShader(ResourceLoader.loadShader("res/modules/entities/entity_instanced_VS.glsl"));
+		addFragmentShader(ResourceLoader.loadShader("res/modules/entities/entity_FS.glsl"));
+		
+		compileShader();
+		
+		addUniform("diffuse_map");
+		addUniform("specular_map");
+		
+		addUniform("m_ViewProjection");
+		
+		addUniform("cameraPosition");
+		
+		addUniform("light.position");
+		addUniform("light.colour");
+		addUniform("light.diffuseIntensity");
+		addUniform("light.specularIntensity");
+	}
+	
+	/**
+	 * when passed the first Entity of a group of instances, passes everything the group
+	 * shares to GPU memory in preparation for rendering
+	 */
+	public void updateInstanceUniforms(GameObject object) {
+		Entity entity = (Entity) object;
+		
+		entity.getModel().getMaterial().getDiffusemap().bind(0);
+		setUniformi("diffuse_map", 0);
+		
+		entity.getModel().getMaterial().getSpecularmap().bind(1);
+		setUniformi("specular_map", 1);
+		
+		setUniform("m_ViewProjection", getViewProjectionMatrix());
+		
+		setUniform("cameraPosition", getCameraPosition());
+	}
+	
+	/**
+	 * passes the light shining on every instanced entity to GPU memory
+	 */
+	public void updateLights(Light light) {
+		bind();
+		setUniform("light.position", getPosition(light));
+		setUniform("light.colour", light.getColour());
+		setUniform("light.diffuseIntensity", light.getDiffuseIntensity());
+		setUniform("light.specularIntensity", light.getSpecularIntensity());
+	}
+}
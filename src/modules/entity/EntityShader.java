@@ -1,8 +1,5 @@
 package modules.entity;
 
-import org.lwjgl.opengl.GL13;
-
-import core.kernel.Camera;
 import core.structure.GameObject;
 import core.utils.fileIO.ResourceLoader;
 import modules.light.Light;
@@ -65,22 +62,25 @@ public class EntityShader extends Shader{
 	public void updateUniforms(GameObject object) {
 		Entity entity = (Entity) object;
 		
-		GL13.glActiveTexture(GL13.GL_TEXTURE0);
-		entity.getModel().getMaterial().getDiffusemap().bind();
+		entity.getModel().getMaterial().getDiffusemap().bind(0);
 		setUniformi("diffuse_map", 0);
 		
-		GL13.glActiveTexture(GL13.GL_TEXTURE1);
-		entity.getModel().getMaterial().getSpecularmap().bind();
+		entity.getModel().getMaterial().getSpecularmap().bind(1);
 		setUniformi("specular_map", 1);
 		
-		setUniform("m_MVP", entity.getWorldTransform().getMVPMatrix());
-		setUniform("m_Model", entity.getWorldTransform().getModelMatrix());
+		setUniform("m_MVP", getMVPMatrix(entity));
+		setUniform("m_Model", getModelMatrix(entity));
 		
-		setUniform("cameraPosition", Camera.getInstance().getPosition());
+		setUniform("cameraPosition", getCameraPosition());
 	}
 	
+	/**
+	 * passes the light shining on every entity to GPU memory, binding this shader so
+	 * the uniforms are not set on whichever shader happened to be bound last
+	 */
 	public void updateLights(Light light) {
-		setUniform("light.position", light.getPosition());
+		bind();
+		setUniform("light.position", getPosition(light));
 		setUniform("light.colour", light.getColour());
 		setUniform("light.diffuseIntensity", light.getDiffuseIntensity());
 		setUniform("light.specularIntensity", light.getSpecularIntensity());
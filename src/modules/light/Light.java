@@ -1,15 +1,16 @@
 package modules.light;
 
 import core.maths.vector.Vector3f;
+import core.structure.Component;
 import core.structure.GameObject;
 import core.utils.Constants;
 import core.utils.Constants.RenderComponents;
-import core.utils.fileIO.objLoader.MeshLoader;
+import core.utils.fileIO.ResourceManager;
 import rendering.Renderer;
 import rendering.config.Default;
+import resources.model.Mesh;
 import resources.model.Model;
 import resources.texturing.Material;
-import resources.texturing.Texture2D;
 
 public class Light extends GameObject{
 
@@ -24,26 +25,36 @@ public class Light extends GameObject{
 		this.specularIntensity = new Vector3f(1,1,1);
 		
 		model = new Model();
-		model.setMesh(MeshLoader.loadMesh("light/light.obj"));
 		model.setMaterial(new Material());
-		model.getMaterial().setDiffusemap(Texture2D.createTexture("./res/models/light/diffuse.png"));
+		
+		getWorldTransform().setRotation(new Vector3f(0,0,0));
+		getWorldTransform().setTranslation(position);
+		
+		// the light is drawn once its mesh has loaded, with the default texture until its own has
+		ResourceManager resources = ResourceManager.getInstance();
+		resources.loadMesh("light/light.obj", ResourceManager.NORMAL_PRIORITY, 0, this::setMesh);
+		resources.loadTexture("./res/models/light/diffuse.png", ResourceManager.NORMAL_PRIORITY, 0,
+				model.getMaterial()::setDiffusemap);
+	}
+	
+	private void setMesh(Mesh mesh) {
+		model.setMesh(mesh);
 		
 		Renderer renderer = new Renderer();
-		renderer.setVao(model.getMesh().getVao());
+		renderer.setVao(mesh.getVao());
 		renderer.setConfig(new Default());
 		renderer.setShader(LightShader.getInstance());
+		renderer.setMaterial(model.getMaterial());
+		renderer.setBounds(mesh.getBounds());
 		
 		addComponent(Constants.RenderComponents.RENDERER_COMPONENT, renderer);
-		
-		getWorldTransform().setRotation(new Vector3f(0,0,0));
-		getWorldTransform().setTranslation(position);
 	}
 	
 	@Override
 	public void render() {
-		getWorldTransform().setTranslation(position);
-		
-		getComponents().get(RenderComponents.RENDERER_COMPONENT).render();
+		Component renderer = getComponent(RenderComponents.RENDERER_COMPONENT);
+		if(renderer != null)
+			renderer.render();
 	}
 
 	public Vector3f getPosition() {
@@ -52,6 +63,8 @@ public class Light extends GameObject{
 
 	public void setPosition(Vector3f position) {
 		this.position = position;
+		// kept in step here rather than when rendering, which may be on another thread
+		getWorldTransform().setTranslation(position);
 	}
 
 	public Vector3f getColour() {
@@ -1,7 +1,5 @@
 package modules.light;
 
-import org.lwjgl.opengl.GL13;
-
 import core.structure.GameObject;
 import core.utils.fileIO.ResourceLoader;
 import rendering.Shader;
@@ -32,10 +30,9 @@ public class LightShader extends Shader{
 	public void updateUniforms(GameObject object) {
 		Light light = (Light) object;
 		
-		GL13.glActiveTexture(GL13.GL_TEXTURE0);
-		light.getModel().getMaterial().getDiffusemap().bind();
+		light.getModel().getMaterial().getDiffusemap().bind(0);
 		setUniformi("diffuse_map", 0);
 		
-		setUniform("m_MVP", light.getWorldTransform().getMVPMatrix());
+		setUniform("m_MVP", getMVPMatrix(light));
 	}
 }
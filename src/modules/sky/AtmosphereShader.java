@@ -49,7 +49,7 @@ public class AtmosphereShader extends Shader{
 	 * passes them to GPU memory in preparation for rendering
 	 */
 	public void updateUniforms(GameObject object) {
-		setUniform("m_MVP", object.getWorldTransform().getMVPMatrix());
-		setUniform("m_World", object.getWorldTransform().getModelMatrix());
+		setUniform("m_MVP", getMVPMatrix(object));
+		setUniform("m_World", getModelMatrix(object));
 	}
 }
@@ -3,7 +3,7 @@ package modules.sky;
 import core.maths.vector.Vector3f;
 import core.structure.GameObject;
 import core.utils.Constants;
-import core.utils.fileIO.objLoader.MeshLoader;
+import core.utils.fileIO.ResourceManager;
 import rendering.Renderer;
 import rendering.config.CCW;
 import resources.model.Mesh;
@@ -22,19 +22,21 @@ import resources.model.Mesh;
 public class SkyDome extends GameObject{
 
 	/**
-	 * Creates all the data required to render the SkyDome
+	 * Creates the SkyDome and requests its mesh, it is drawn once the mesh has loaded
 	 */
 	public SkyDome() {
-		Mesh mesh = MeshLoader.loadMesh("dome/dome.obj");
+		getWorldTransform().setScaling(new Vector3f(Constants.ZFAR * 0.5f, Constants.ZFAR * 0.5f, Constants.ZFAR * 0.5f));
 		
+		ResourceManager.getInstance().loadMesh("dome/dome.obj", ResourceManager.NORMAL_PRIORITY, 0, this::setMesh);
+	}
+	
+	private void setMesh(Mesh mesh) {
 		Renderer renderer = new Renderer();
 		renderer.setVao(mesh.getVao());
 		renderer.setConfig(new CCW());
 		renderer.setShader(AtmosphereShader.getInstance());
 		
 		addComponent(Constants.RenderComponents.RENDERER_COMPONENT, renderer);
-		
-		getWorldTransform().setScaling(new Vector3f(Constants.ZFAR * 0.5f, Constants.ZFAR * 0.5f, Constants.ZFAR * 0.5f));
 	}
 	
 	/**
@@ -0,0 +1,362 @@
+package rendering;
+
+import java.util.Arrays;
+
+import core.kernel.Camera;
+import core.kernel.FrameSnapshot;
+import core.maths.Frustum;
+import core.utils.IntList;
+import rendering.buffers.InstanceVBO;
+import rendering.config.RenderConfig;
+
+/**
+ * <h1>RenderQueue Class</h1>
+ * <p>
+ * Collects the draws of a frame instead of drawing them as they are made, then
+ * sorts them by their SortKey and draws them in that order. Draws that share a
+ * render config are drawn between a single enable and disable of it, and the
+ * program, texture and vertex array binds between draws go through the
+ * GLStateCache, so state shared by neighbouring draws is only set once.
+ * <p>
+ * Each draw can be submitted with a world space bounding sphere. Before
+ * anything is sorted the spheres are culled against the view frustum as one
+ * batch, and the draws outside it are dropped from the queue.
+ * <p>
+ * Once sorted, runs of at least MIN_INSTANCES neighbouring draws that share a
+ * mesh, material and render config, and have an instanced shader, are drawn as
+ * one instanced draw call. The model matrices of every such run are packed into
+ * a single InstanceVBO and uploaded once per frame.
+ * <p>
+ * Keys are sorted with a least significant digit radix sort, a byte at a time,
+ * skipping any byte every key has in common. The sort is stable, so draws with
+ * equal keys are drawn in the order they were submitted.
+ *
+ * @author Graham
+ * @version 2.0.0
+ * @since 2026-10-18
+ */
+public class RenderQueue {
+
+	private static final int RADIX_BITS = 8;
+	private static final int RADIX = 1 << RADIX_BITS;
+	
+	// fewer draws than this are cheaper drawn one at a time than packed and instanced
+	public static final int MIN_INSTANCES = 2;
+
+	// the engine draws one frame at a time, so the class is a single instance class
+	private static RenderQueue instance = null;
+
+	// in submitted order
+	private Renderer[] renderers;
+	private long[] keys;
+	// the keys and indices into renderers in sorted order, once sorted
+	private long[] sortedKeys;
+	private int[] order;
+	private int size;
+	private boolean sorted;
+
+	// the bounding sphere of each draw in submitted order, an infinite radius if it is never culled
+	private float[] boundsX, boundsY, boundsZ, boundsRadius;
+	// scratch space of the cull
+	private float[] distances;
+	private int[] visible;
+	private int culled;
+
+	// the second half of each ping pong pass of the sort
+	private long[] keyBuffer;
+	private int[] orderBuffer;
+	private final int[] counts;
+
+	private final InstanceVBO instances;
+	// the start, end and first instance of each instanced run, in sorted positions
+	private final IntList batches;
+
+	/**
+	 * returns the current instance of the render queue, or if none exists, it
+	 * creates a new current instance before returning it
+	 *
+	 * @return the current instance of the render queue
+	 */
+	public static RenderQueue getInstance() {
+		if(instance == null)
+			instance = new RenderQueue();
+		return instance;
+	}
+
+	public RenderQueue() {
+		renderers = new Renderer[64];
+		keys = new long[64];
+		sortedKeys = new long[64];
+		order = new int[64];
+		keyBuffer = new long[64];
+		orderBuffer = new int[64];
+		boundsX = new float[64];
+		boundsY = new float[64];
+		boundsZ = new float[64];
+		boundsRadius = new float[64];
+		distances = new float[64];
+		visible = new int[64];
+		counts = new int[RADIX];
+		instances = new InstanceVBO(1024);
+		batches = new IntList();
+	}
+
+	/**
+	 * adds a draw to the queue that is never culled, to be drawn when the queue is
+	 * next flushed
+	 *
+	 * @param renderer The renderer to draw with
+	 * @param key The sort key of the draw
+	 */
+	public void submit(Renderer renderer, long key) {
+		submit(renderer, key, 0, 0, 0, Float.POSITIVE_INFINITY);
+	}
+
+	/**
+	 * adds a draw to the queue, to be drawn when the queue is next flushed if its
+	 * bounding sphere is inside the view frustum
+	 *
+	 * @param renderer The renderer to draw with
+	 * @param key The sort key of the draw
+	 * @param x The x coordinate of the world space centre of the bounding sphere
+	 * @param y The y coordinate of the world space centre of the bounding sphere
+	 * @param z The z coordinate of the world space centre of the bounding sphere
+	 * @param radius The radius of the bounding sphere
+	 */
+	public void submit(Renderer renderer, long key, float x, float y, float z, float radius) {
+		if(size == keys.length) {
+			int capacity = size * 2;
+			renderers = Arrays.copyOf(renderers, capacity);
+			keys = Arrays.copyOf(keys, capacity);
+			sortedKeys = new long[capacity];
+			order = new int[capacity];
+			keyBuffer = new long[capacity];
+			orderBuffer = new int[capacity];
+			boundsX = Arrays.copyOf(boundsX, capacity);
+			boundsY = Arrays.copyOf(boundsY, capacity);
+			boundsZ = Arrays.copyOf(boundsZ, capacity);
+			boundsRadius = Arrays.copyOf(boundsRadius, capacity);
+			distances = new float[capacity];
+			visible = new int[capacity];
+		}
+		renderers[size] = renderer;
+		keys[size] = key;
+		boundsX[size] = x;
+		boundsY[size] = y;
+		boundsZ[size] = z;
+		boundsRadius[size] = radius;
+		size++;
+		sorted = false;
+	}
+
+	/**
+	 * drops every queued draw whose bounding sphere is outside a frustum, keeping
+	 * the rest in the order they were submitted. Done by flush before anything is
+	 * sorted
+	 *
+	 * @param frustum The frustum to cull against
+	 */
+	public void cull(Frustum frustum) {
+		int count = frustum.cullSpheres(boundsX, boundsY, boundsZ, boundsRadius, size, distances, visible);
+		culled = size - count;
+		if(culled == 0)
+			return;
+
+		for(int i = 0; i < count; i++) {
+			int from = visible[i];
+			renderers[i] = renderers[from];
+			keys[i] = keys[from];
+			boundsX[i] = boundsX[from];
+			boundsY[i] = boundsY[from];
+			boundsZ[i] = boundsZ[from];
+			boundsRadius[i] = boundsRadius[from];
+		}
+		Arrays.fill(renderers, count, size, null);
+		size = count;
+		sorted = false;
+	}
+
+	/**
+	 * sorts the queued draws by their keys, smallest first
+	 */
+	public void sort() {
+		if(sorted)
+			return;
+
+		System.arraycopy(keys, 0, sortedKeys, 0, size);
+		for(int i = 0; i < size; i++)
+			order[i] = i;
+
+		long[] fromKeys = sortedKeys, toKeys = keyBuffer;
+		int[] fromOrder = order, toOrder = orderBuffer;
+
+		for(int shift = 0; shift < Long.SIZE && size > 1; shift += RADIX_BITS) {
+			Arrays.fill(counts, 0);
+			for(int i = 0; i < size; i++)
+				counts[(int) (fromKeys[i] >>> shift) & (RADIX - 1)]++;
+
+			// nothing would move if every key has the same digit
+			if(counts[(int) (fromKeys[0] >>> shift) & (RADIX - 1)] == size)
+				continue;
+
+			int offset = 0;
+			for(int digit = 0; digit < RADIX; digit++) {
+				int count = counts[digit];
+				counts[digit] = offset;
+				offset += count;
+			}
+
+			for(int i = 0; i < size; i++) {
+				int to = counts[(int) (fromKeys[i] >>> shift) & (RADIX - 1)]++;
+				toKeys[to] = fromKeys[i];
+				toOrder[to] = fromOrder[i];
+			}
+
+			long[] swapKeys = fromKeys;
+			fromKeys = toKeys;
+			toKeys = swapKeys;
+			int[] swapOrder = fromOrder;
+			fromOrder = toOrder;
+			toOrder = swapOrder;
+		}
+
+		sortedKeys = fromKeys;
+		keyBuffer = toKeys;
+		order = fromOrder;
+		orderBuffer = toOrder;
+		sorted = true;
+	}
+
+	/**
+	 * finds the runs of the sorted draws that can be instanced and packs their
+	 * model matrices, done by flush before anything is drawn. Sorts the queue if it
+	 * is not already sorted
+	 */
+	public void batch() {
+		sort();
+		instances.clear();
+		batches.clear();
+
+		int start = 0;
+		while(start < size) {
+			Renderer first = renderers[order[start]];
+			int end = start + 1;
+			if(first.isInstanceable())
+				while(end < size && first.canInstanceWith(renderers[order[end]]))
+					end++;
+
+			if(end - start >= MIN_INSTANCES) {
+				batches.add(start, end, instances.getCount());
+				for(int i = start; i < end; i++)
+					renderers[order[i]].packInstance(instances);
+			}else {
+				end = start + 1;
+			}
+			start = end;
+		}
+	}
+
+	/**
+	 * culls, sorts and draws every queued draw, then empties the queue
+	 */
+	public void flush() {
+		FrameSnapshot frame = FrameSnapshot.getDrawing();
+		cull(frame != null ? frame.getFrustum() : Camera.getInstance().getFrustum());
+		batch();
+		if(instances.getCount() > 0)
+			instances.upload();
+
+		RenderConfig config = null;
+		int batch = 0;
+		int i = 0;
+		while(i < size) {
+			Renderer renderer = renderers[order[i]];
+			RenderConfig next = renderer.getConfig();
+			if(config == null || !config.isEquivalent(next)) {
+				if(config != null)
+					config.disable();
+				next.enable();
+				config = next;
+			}
+
+			if(batch < batches.size() && batches.get(batch) == i) {
+				int end = batches.get(batch + 1);
+				renderer.drawInstanced(end - i, batches.get(batch + 2), instances);
+				batch += 3;
+				i = end;
+			}else {
+				renderer.draw();
+				i++;
+			}
+		}
+		if(config != null)
+			config.disable();
+
+		clear();
+	}
+
+	/**
+	 * empties the queue without drawing anything
+	 */
+	public void clear() {
+		Arrays.fill(renderers, 0, size, null);
+		size = 0;
+		sorted = false;
+	}
+
+	/**
+	 * @return The amount of draws queued
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @param index The position of the draw, in sorted order once the queue is sorted and in submitted order before
+	 *
+	 * @return The renderer of the draw
+	 */
+	public Renderer getRenderer(int index) {
+		return renderers[sorted ? order[index] : index];
+	}
+
+	/**
+	 * @param index The position of the draw, in sorted order once the queue is sorted and in submitted order before
+	 *
+	 * @return The sort key of the draw
+	 */
+	public long getKey(int index) {
+		return sorted ? sortedKeys[index] : keys[index];
+	}
+
+	/**
+	 * @return The amount of draws dropped by the last cull
+	 */
+	public int getCulledCount() {
+		return culled;
+	}
+
+	/**
+	 * @return The amount of instanced draw calls found by the last batch
+	 */
+	public int getBatchCount() {
+		return batches.size() / 3;
+	}
+
+	/**
+	 * @return The amount of draws packed into instanced draw calls by the last batch
+	 */
+	public int getInstanceCount() {
+		return instances.getCount();
+	}
+
+	/**
+	 * destroys the current render queue and its instance buffer, to be called
+	 * when the engine is shutting down
+	 */
+	public static void cleanUp() {
+		if(instance != null)
+			instance.instances.delete();
+		instance = null;
+	}
+}
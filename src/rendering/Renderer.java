@@ -1,8 +1,16 @@
 package rendering;
 
+import core.kernel.FrameSnapshot;
+import core.maths.BoundingBox;
+import core.maths.Transform;
+import core.maths.matrix.Matrix4f;
+import core.maths.vector.Vector3f;
 import core.structure.Component;
+import core.utils.Constants;
+import rendering.buffers.InstanceVBO;
 import rendering.buffers.VAO;
 import rendering.config.RenderConfig;
+import resources.texturing.Material;
 
 /**
  * <h1>Renderer Class</h1>
@@ -21,19 +29,124 @@ public class Renderer extends Component {
 	private VAO vao;
 	private RenderConfig config;
 	private Shader shader;
+	// renders many of this renderers objects with one draw call, null if they cannot be
+	private Shader instancedShader;
+	// only used to sort and group by texture, the shader binds the textures itself
+	private Material material;
+	// the model space bounds of the mesh, null if the object should never be culled
+	private BoundingBox bounds;
 
 	public Renderer() {
 	}
 
 	/**
-	 * Renders parent GameObject using attached VAO, render configurations, and Shader
+	 * Queues the parent GameObject to be rendered when the render queue is next
+	 * flushed, sorted by its render config, shader, texture, VAO and distance
+	 * from the camera. Objects whose bounding sphere is outside the view frustum
+	 * are culled by the queue before anything is drawn
 	 */
 	public void render() {
-		config.enable();
+		long key = getSortKey();
+		if(bounds == null) {
+			RenderQueue.getInstance().submit(this, key);
+			return;
+		}
+		
+		Matrix4f model = shader.getModelMatrix(getParent());
+		Vector3f centre = bounds.getCentre();
+		float x = centre.getX(), y = centre.getY(), z = centre.getZ();
+		
+		RenderQueue.getInstance().submit(this, key,
+				model.get(0, 0) * x + model.get(0, 1) * y + model.get(0, 2) * z + model.get(0, 3),
+				model.get(1, 0) * x + model.get(1, 1) * y + model.get(1, 2) * z + model.get(1, 3),
+				model.get(2, 0) * x + model.get(2, 1) * y + model.get(2, 2) * z + model.get(2, 3),
+				bounds.getRadius() * BoundingBox.getMaxScale(model));
+	}
+	
+	/**
+	 * Renders the parent GameObject using the attached VAO and Shader, the render
+	 * config must already be enabled
+	 */
+	public void draw() {
 		shader.bind();
 		shader.updateUniforms(getParent());
-		vao.render(false);
-		config.disable();
+		vao.bind();
+		vao.render(true);
+	}
+	
+	/**
+	 * Renders a group of instances with one draw call, this renderers parent being the
+	 * first. The render config must already be enabled
+	 * 
+	 * @param count The amount of instances to render
+	 * @param first The index of the first instances model matrix in the InstanceVBO
+	 * @param instances The InstanceVBO the model matrices were packed into
+	 */
+	public void drawInstanced(int count, int first, InstanceVBO instances) {
+		instancedShader.bind();
+		instancedShader.updateInstanceUniforms(getParent());
+		if(vao.getInstanceVBO() != instances)
+			vao.setInstanceVBO(instances);
+		vao.bind();
+		vao.renderInstanced(count, first);
+	}
+	
+	/**
+	 * packs the model matrix of the parent GameObject into an InstanceVBO, to be drawn
+	 * as part of a group by drawInstanced
+	 * 
+	 * @param instances The InstanceVBO to pack into
+	 */
+	public void packInstance(InstanceVBO instances) {
+		Transform transform = getWorldTransform();
+		FrameSnapshot frame = FrameSnapshot.getDrawing();
+		// copied straight from the packed matrices where possible, skipping the transforms own matrix
+		if(frame != null)
+			instances.add(frame.getModels(), transform.getHandle() * 16);
+		else if(!transform.getStore().isDirty(transform.getHandle()))
+			instances.add(transform.getStore().getMatrices(), transform.getHandle() * 16);
+		else
+			instances.add(transform.getModelMatrix());
+	}
+	
+	/**
+	 * @return True if this renderer has a shader to render instances with
+	 */
+	public boolean isInstanceable() {
+		return instancedShader != null && vao.isInstanceable();
+	}
+	
+	/**
+	 * checks if the object of another renderer can be rendered in the same instanced
+	 * draw call as this renderers object, which needs the same mesh, render config,
+	 * instanced shader and textures
+	 * 
+	 * @param other The renderer to compare against
+	 * @return True if both objects can be rendered by one draw call
+	 */
+	public boolean canInstanceWith(Renderer other) {
+		if(other.vao != vao || other.instancedShader != instancedShader || !config.isEquivalent(other.config))
+			return false;
+		if(other.material == material)
+			return true;
+		return material != null && other.material != null
+				&& material.getDiffusemap() == other.material.getDiffusemap()
+				&& material.getSpecularmap() == other.material.getSpecularmap();
+	}
+	
+	/**
+	 * @return The key this renderer is sorted by in the render queue
+	 */
+	public long getSortKey() {
+		Vector3f position = shader.getPosition(getParent());
+		Vector3f camera = shader.getCameraPosition();
+		float dx = position.getX() - camera.getX();
+		float dy = position.getY() - camera.getY();
+		float dz = position.getZ() - camera.getZ();
+		float depth = (float) Math.sqrt(dx * dx + dy * dy + dz * dz) / Constants.ZFAR;
+		
+		int texture = material != null && material.getDiffusemap() != null ? material.getDiffusemap().getId() : 0;
+		return SortKey.pack(SortKey.getConfigId(config), shader.getProgramID(), texture, vao.getId(), depth);
 	}
 
 	public VAO getVao() {
@@ -59,4 +172,31 @@ public class Renderer extends Component {
 	public void setShader(Shader shader) {
 		this.shader = shader;
 	}
+
+	public Shader getInstancedShader() {
+		return instancedShader;
+	}
+
+	public void setInstancedShader(Shader instancedShader) {
+		this.instancedShader = instancedShader;
+	}
+
+	public Material getMaterial() {
+		return material;
+	}
+
+	public void setMaterial(Material material) {
+		this.material = material;
+	}
+
+	public BoundingBox getBounds() {
+		return bounds;
+	}
+
+	/**
+	 * sets the model space bounds the object is culled by, null to never cull it
+	 */
+	public void setBounds(BoundingBox bounds) {
+		this.bounds = bounds;
+	}
 }
@@ -1,5 +1,6 @@
 package rendering;
 
+import java.nio.FloatBuffer;
 import java.util.HashMap;
 
 import org.lwjgl.opengl.GL20;
@@ -9,12 +10,16 @@ import org.lwjgl.opengl.GL32;
 import org.lwjgl.opengl.GL40;
 import org.lwjgl.opengl.GL43;
 
+import core.kernel.Camera;
+import core.kernel.FrameSnapshot;
 import core.maths.Quaternion;
 import core.maths.matrix.Matrix4f;
 import core.maths.vector.Vector2f;
 import core.maths.vector.Vector3f;
 import core.structure.GameObject;
 import core.utils.BufferUtil;
+import core.utils.logging.Logger;
+import rendering.state.GLStateCache;
 
 /**
  * <h1>Shader Class</h1>
@@ -28,9 +33,19 @@ import core.utils.BufferUtil;
  */
 public class Shader {
 
+	private static final Logger log = Logger.getLogger(Shader.class);
+
 	private int programID;
 	private HashMap<String, Integer> uniforms;
 	
+	// reused by every matrix upload, so setting a matrix uniform allocates nothing
+	private FloatBuffer matrixBuffer = BufferUtil.createFloatBuffer(4 * 4);
+	
+	// filled from the snapshot being drawn when the simulation runs on its own thread
+	private Matrix4f snapshotMVP = new Matrix4f();
+	private Matrix4f snapshotModel = new Matrix4f();
+	private Vector3f snapshotPosition = new Vector3f();
+	
 	/**
 	 * Creates an empty shader and assigns it an OpenGL shader ID
 	 */
@@ -39,7 +54,7 @@ public class Shader {
 		uniforms = new HashMap<String, Integer>();
 		
 		if(programID == 0) {
-			System.err.println("could not create shader");
+			log.error("could not create shader");
 			System.exit(1);
 		}
 	}
@@ -49,7 +64,7 @@ public class Shader {
 	 * Any GPU render calls will now use this shader for rendering
 	 */
 	public void bind() {
-		GL20.glUseProgram(programID);
+		GLStateCache.getInstance().useProgram(programID);
 	}
 	
 	/**
@@ -62,8 +77,7 @@ public class Shader {
 		int uniformLocation = GL20.glGetUniformLocation(programID, uniform);
 		
 		if(uniformLocation == 0xFFFFFFFF) {
-			System.err.println(this.getClass().getName() + " Error: Could not find the uniform: " + uniform);
-			new Exception().printStackTrace();
+			log.error("{} Error: Could not find the uniform: {}", getClass().getName(), uniform, new Exception());
 			System.exit(1);
 		}
 		
@@ -80,8 +94,7 @@ public class Shader {
 		int uniformLocation = GL31.glGetUniformBlockIndex(programID, uniform);
 		
 		if(uniformLocation == 0xFFFFFFFF) {
-			System.err.println(this.getClass().getName() + " Error: Could not find the uniform: " + uniform);
-			new Exception().printStackTrace();
+			log.error("{} Error: Could not find the uniform: {}", getClass().getName(), uniform, new Exception());
 			System.exit(1);
 		}
 		
@@ -149,14 +162,14 @@ public class Shader {
 		GL20.glLinkProgram(programID);
 		
 		if(GL20.glGetProgrami(programID, GL20.GL_LINK_STATUS) == 0) {
-			System.err.println(this.getClass().getName() + " " + GL20.glGetProgramInfoLog(programID, 1024));
+			log.error("{} {}", getClass().getName(), GL20.glGetProgramInfoLog(programID, 1024));
 			System.exit(1);
 		}
 		
 		GL20.glValidateProgram(programID);
 		
 		if(GL20.glGetProgrami(programID, GL20.GL_VALIDATE_STATUS) == 0) {
-			System.err.println(this.getClass().getName() + " " + GL20.glGetProgramInfoLog(programID, 1024));
+			log.error("{} {}", getClass().getName(), GL20.glGetProgramInfoLog(programID, 1024));
 			System.exit(1);
 		}
 	}
@@ -171,7 +184,7 @@ public class Shader {
 		int shader = GL20.glCreateShader(type);
 		
 		if(shader == 0) {
-			System.err.println(this.getClass().getName() + " Shader creation failed");
+			log.error("{} Shader creation failed", getClass().getName());
 			System.exit(1);
 		}
 		
@@ -179,7 +192,7 @@ public class Shader {
 		GL20.glCompileShader(shader);
 		
 		if(GL20.glGetShaderi(shader, GL20.GL_COMPILE_STATUS) == 0) {
-			System.err.println(this.getClass().getName() + " " + GL20.glGetShaderInfoLog(shader, 1024));
+			log.error("{} {}", getClass().getName(), GL20.glGetShaderInfoLog(shader, 1024));
 			System.exit(1);
 		}
 		
@@ -243,7 +256,7 @@ public class Shader {
 	 * @param value The value to store in the uniform
 	 */
 	public void setUniform(String uniformName, Matrix4f value) {
-		GL20.glUniformMatrix4(uniforms.get(uniformName), true, BufferUtil.createFlippedBuffer(value));
+		GL20.glUniformMatrix4(uniforms.get(uniformName), true, BufferUtil.fillFlippedBuffer(matrixBuffer, value));
 	}
 	
 	/**
@@ -270,6 +283,73 @@ public class Shader {
 		return programID;
 	}
 	
+	/**
+	 * Gets the Model View Projection Matrix to draw an object with, from the frame
+	 * snapshot being drawn if there is one, otherwise from the object itself
+	 * 
+	 * @param object The GameObject being drawn
+	 * @return The Model View Projection Matrix of the object, not to be changed
+	 */
+	protected Matrix4f getMVPMatrix(GameObject object) {
+		FrameSnapshot frame = FrameSnapshot.getDrawing();
+		if(frame == null)
+			return object.getWorldTransform().getMVPMatrix();
+		return frame.getMVPMatrix(object.getWorldTransform().getHandle(), snapshotMVP);
+	}
+	
+	/**
+	 * Gets the model matrix to draw an object with, from the frame snapshot being
+	 * drawn if there is one, otherwise from the object itself
+	 * 
+	 * @param object The GameObject being drawn
+	 * @return The model matrix of the object, not to be changed
+	 */
+	protected Matrix4f getModelMatrix(GameObject object) {
+		FrameSnapshot frame = FrameSnapshot.getDrawing();
+		if(frame == null)
+			return object.getWorldTransform().getModelMatrix();
+		return frame.getModelMatrix(object.getWorldTransform().getHandle(), snapshotModel);
+	}
+	
+	/**
+	 * Gets the view projection matrix to draw with, from the frame snapshot being
+	 * drawn if there is one, otherwise from the camera
+	 * 
+	 * @return The view projection matrix of the camera, not to be changed
+	 */
+	protected Matrix4f getViewProjectionMatrix() {
+		FrameSnapshot frame = FrameSnapshot.getDrawing();
+		return frame == null ? Camera.getInstance().getViewProjectionMatrix() : frame.getViewProjectionMatrix();
+	}
+	
+	/**
+	 * Gets the world position to draw an object at, from the frame snapshot being
+	 * drawn if there is one, otherwise from the object itself
+	 * 
+	 * @param object The GameObject being drawn
+	 * @return The world position of the object, not to be changed
+	 */
+	protected Vector3f getPosition(GameObject object) {
+		FrameSnapshot frame = FrameSnapshot.getDrawing();
+		if(frame == null) {
+			Matrix4f model = object.getWorldTransform().getModelMatrix();
+			snapshotPosition.set(model.get(0, 3), model.get(1, 3), model.get(2, 3));
+			return snapshotPosition;
+		}
+		return frame.getTranslation(object.getWorldTransform().getHandle(), snapshotPosition);
+	}
+	
+	/**
+	 * Gets the camera position to draw with, from the frame snapshot being drawn
+	 * if there is one, otherwise from the camera
+	 * 
+	 * @return The position of the camera, not to be changed
+	 */
+	protected Vector3f getCameraPosition() {
+		FrameSnapshot frame = FrameSnapshot.getDrawing();
+		return frame == null ? Camera.getInstance().getPosition() : frame.getCameraPosition();
+	}
+	
 	/**
 	 * A required method for all specific shader instances. Provides the shader with the location
 	 * of the object from which all required object rendering data can be found
@@ -277,4 +357,13 @@ public class Shader {
 	 * @param object The GameObject from which all rendering data can be found
 	 */
 	public void updateUniforms(GameObject object) {};
+	
+	/**
+	 * A required method for shaders that render many instances with one draw call, reading
+	 * each instances model matrix from the VAO rather than from a uniform. Called once per
+	 * draw call with the first of the instances, to set everything the instances share
+	 * 
+	 * @param object The first GameObject of the instances being rendered
+	 */
+	public void updateInstanceUniforms(GameObject object) {};
 }
@@ -0,0 +1,108 @@
+package rendering;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import rendering.config.RenderConfig;
+
+/**
+ * <h1>SortKey Class</h1>
+ * <p>
+ * Packs the state a draw needs into a single long, so that sorting draws by
+ * their keys puts draws that share state next to each other. From the most
+ * significant bit down a key holds the render config, the shader program, the
+ * texture, the vertex array and finally the depth, so draws are grouped by the
+ * most expensive state to change first and drawn front to back within a group.
+ * <p>
+ * Names wider than their field are cut down to the low bits, which can only
+ * make two draws share a group they would not otherwise, never change what is
+ * drawn, as the state itself is compared when it is bound.
+ *
+ * @author Graham
+ * @version 2.0.0
+ * @since 2026-10-18
+ */
+public class SortKey {
+
+	public static final int CONFIG_BITS = 4;
+	public static final int PROGRAM_BITS = 10;
+	public static final int TEXTURE_BITS = 16;
+	public static final int VERTEX_ARRAY_BITS = 16;
+	public static final int DEPTH_BITS = 18;
+
+	public static final int DEPTH_SHIFT = 0;
+	public static final int VERTEX_ARRAY_SHIFT = DEPTH_SHIFT + DEPTH_BITS;
+	public static final int TEXTURE_SHIFT = VERTEX_ARRAY_SHIFT + VERTEX_ARRAY_BITS;
+	public static final int PROGRAM_SHIFT = TEXTURE_SHIFT + TEXTURE_BITS;
+	public static final int CONFIG_SHIFT = PROGRAM_SHIFT + PROGRAM_BITS;
+
+	private static final int MAX_DEPTH = (1 << DEPTH_BITS) - 1;
+
+	// the config id of each config class, handed out in the order classes are first seen
+	private static final AtomicInteger nextConfig = new AtomicInteger();
+	private static final ClassValue<Integer> CONFIGS = new ClassValue<Integer>() {
+		@Override
+		protected Integer computeValue(Class<?> type) {
+			return nextConfig.getAndIncrement() & ((1 << CONFIG_BITS) - 1);
+		}
+	};
+
+	/**
+	 * packs the state of a draw into a sort key
+	 *
+	 * @param config The id of the render config, see getConfigId
+	 * @param program The shader program
+	 * @param texture The texture bound to the first unit, or 0 for none
+	 * @param vertexArray The vertex array
+	 * @param depth The distance to the camera as a fraction of the far plane, from 0 to 1, anything outside is clamped
+	 *
+	 * @return The sort key of the draw
+	 */
+	public static long pack(int config, int program, int texture, int vertexArray, float depth) {
+		return field(config, CONFIG_BITS, CONFIG_SHIFT) | field(program, PROGRAM_BITS, PROGRAM_SHIFT)
+				| field(texture, TEXTURE_BITS, TEXTURE_SHIFT)
+				| field(vertexArray, VERTEX_ARRAY_BITS, VERTEX_ARRAY_SHIFT)
+				| field(quantizeDepth(depth), DEPTH_BITS, DEPTH_SHIFT);
+	}
+
+	private static long field(int value, int bits, int shift) {
+		return (value & ((1L << bits) - 1)) << shift;
+	}
+
+	/**
+	 * @return The depth field of a depth from 0 to 1
+	 */
+	public static int quantizeDepth(float depth) {
+		if(!(depth > 0))
+			return 0;
+		if(depth >= 1)
+			return MAX_DEPTH;
+		return (int) (depth * MAX_DEPTH);
+	}
+
+	/**
+	 * @return The id of the class of a render config, every config of one class shares an id
+	 */
+	public static int getConfigId(RenderConfig config) {
+		return CONFIGS.get(config.getClass());
+	}
+
+	public static int getConfig(long key) {
+		return (int) (key >>> CONFIG_SHIFT) & ((1 << CONFIG_BITS) - 1);
+	}
+
+	public static int getProgram(long key) {
+		return (int) (key >>> PROGRAM_SHIFT) & ((1 << PROGRAM_BITS) - 1);
+	}
+
+	public static int getTexture(long key) {
+		return (int) (key >>> TEXTURE_SHIFT) & ((1 << TEXTURE_BITS) - 1);
+	}
+
+	public static int getVertexArray(long key) {
+		return (int) (key >>> VERTEX_ARRAY_SHIFT) & ((1 << VERTEX_ARRAY_BITS) - 1);
+	}
+
+	public static int getDepth(long key) {
+		return (int) (key >>> DEPTH_SHIFT) & MAX_DEPTH;
+	}
+}
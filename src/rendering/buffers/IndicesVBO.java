@@ -1,10 +1,13 @@
 package rendering.buffers;
 
 import java.nio.IntBuffer;
+import java.nio.ShortBuffer;
 
+import org.lwjgl.opengl.GL11;
 import org.lwjgl.opengl.GL15;
 
 import core.utils.BufferUtil;
+import rendering.state.GLStateCache;
 
 /**
  * <h1>IndicesVBO Class</h1>
@@ -20,6 +23,9 @@ public class IndicesVBO implements VBO{
 	private int id;
 	
 	private int[] data;
+	private IntBuffer intData;
+	private ShortBuffer shortData;
+	private int type;
 	
 	/**
 	 * creates an IndicesVBO filling the IndicesVBO with the given data only on the CPU side 
@@ -29,15 +35,42 @@ public class IndicesVBO implements VBO{
 	public IndicesVBO(int[] data) {
 		id = GL15.glGenBuffers();
 		this.data = data;
+		type = GL11.GL_UNSIGNED_INT;
+	}
+	
+	/**
+	 * creates an IndicesVBO from a direct buffer of index data, which is uploaded as is on creation
+	 * 
+	 * @param data The index data to fill the IndicesVBO with
+	 */
+	public IndicesVBO(IntBuffer data) {
+		id = GL15.glGenBuffers();
+		intData = data;
+		type = GL11.GL_UNSIGNED_INT;
+	}
+	
+	/**
+	 * creates an IndicesVBO from a direct buffer of unsigned short index data, which is uploaded as is on creation
+	 * 
+	 * @param data The index data to fill the IndicesVBO with
+	 */
+	public IndicesVBO(ShortBuffer data) {
+		id = GL15.glGenBuffers();
+		shortData = data;
+		type = GL11.GL_UNSIGNED_SHORT;
 	}
 	
 	/**
 	 * fills the IndicesVBO with the data passed in on creation on the GPU side
 	 */
 	public void create() {
-		IntBuffer buffer = BufferUtil.createFlippedBuffer(data);
 		bind();
-		GL15.glBufferData(GL15.GL_ELEMENT_ARRAY_BUFFER, buffer, GL15.GL_STATIC_DRAW);
+		if(shortData != null)
+			GL15.glBufferData(GL15.GL_ELEMENT_ARRAY_BUFFER, shortData, GL15.GL_STATIC_DRAW);
+		else if(intData != null)
+			GL15.glBufferData(GL15.GL_ELEMENT_ARRAY_BUFFER, intData, GL15.GL_STATIC_DRAW);
+		else
+			GL15.glBufferData(GL15.GL_ELEMENT_ARRAY_BUFFER, BufferUtil.createFlippedBuffer(data), GL15.GL_STATIC_DRAW);
 	}
 	
 	/**
@@ -45,7 +78,7 @@ public class IndicesVBO implements VBO{
 	 */
 	@Override
 	public void bind() {
-		GL15.glBindBuffer(GL15.GL_ELEMENT_ARRAY_BUFFER, id);
+		GLStateCache.getInstance().bindBuffer(GL15.GL_ELEMENT_ARRAY_BUFFER, id);
 	}
 
 	/**
@@ -53,7 +86,7 @@ public class IndicesVBO implements VBO{
 	 */
 	@Override
 	public void unbind() {
-		GL15.glBindBuffer(GL15.GL_ELEMENT_ARRAY_BUFFER, 0);
+		GLStateCache.getInstance().bindBuffer(GL15.GL_ELEMENT_ARRAY_BUFFER, 0);
 	}
 
 	/**
@@ -62,10 +95,18 @@ public class IndicesVBO implements VBO{
 	@Override
 	public void delete() {
 		GL15.glDeleteBuffers(id);
+		GLStateCache.getInstance().bufferDeleted(id);
 	}
 
 	@Override
 	public int getId() {
 		return id;
 	}
+	
+	/**
+	 * @return The GL type of the indices, either GL_UNSIGNED_INT or GL_UNSIGNED_SHORT
+	 */
+	public int getType() {
+		return type;
+	}
 }
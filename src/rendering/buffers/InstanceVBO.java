@@ -0,0 +1,156 @@
+package rendering.buffers;
+
+import java.nio.FloatBuffer;
+
+import org.lwjgl.opengl.GL15;
+
+import core.maths.matrix.Matrix4f;
+import core.utils.BufferUtil;
+import rendering.state.GLStateCache;
+
+/**
+ * <h1>InstanceVBO Class</h1>
+ * <p>
+ * A Vertex Buffer Object (VBO) streaming one model matrix per instance to the
+ * GPU each frame. Matrices are packed on the CPU side as they are added, row by
+ * row as the engine stores them, and uploaded together. Every upload orphans
+ * the GPU side storage so the driver never has to wait for draws still reading
+ * last frames matrices, and the storage keeps the size of the largest frame so
+ * far rather than being resized every frame.
+ * 
+ * @author Graham
+ * @version 2.0.0
+ * @since 2026-10-18
+ */
+public class InstanceVBO implements VBO{
+
+	public static final int FLOATS = 16;
+	public static final int BYTES = FLOATS * Float.BYTES;
+	
+	// created on the first bind, so matrices can be packed without an OpenGL context
+	private int id;
+	
+	private FloatBuffer data;
+	private int count;
+	// the size in bytes of the GPU side storage
+	private long storageSize;
+	
+	/**
+	 * creates an empty InstanceVBO
+	 * 
+	 * @param capacity The amount of instances the CPU side can hold before having to grow
+	 */
+	public InstanceVBO(int capacity) {
+		data = BufferUtil.createFloatBuffer(Math.max(capacity, 1) * FLOATS);
+	}
+	
+	/**
+	 * packs the model matrix of an instance after those already added
+	 * 
+	 * @param model The model matrix of the instance
+	 * @return The index of the instance
+	 */
+	public int add(Matrix4f model) {
+		ensureRemaining();
+		model.store(data);
+		return count++;
+	}
+	
+	/**
+	 * packs a model matrix stored row by row in an array after those already added,
+	 * such as one held by a TransformStore or FrameSnapshot
+	 * 
+	 * @param matrices The array holding the model matrix
+	 * @param offset The index of the first entry of the model matrix
+	 * @return The index of the instance
+	 */
+	public int add(float[] matrices, int offset) {
+		ensureRemaining();
+		data.put(matrices, offset, FLOATS);
+		return count++;
+	}
+	
+	private void ensureRemaining() {
+		if(data.remaining() < FLOATS) {
+			FloatBuffer grown = BufferUtil.createFloatBuffer(data.capacity() * 2);
+			data.flip();
+			grown.put(data);
+			data = grown;
+		}
+	}
+	
+	/**
+	 * removes every instance, keeping the CPU and GPU side storage
+	 */
+	public void clear() {
+		data.clear();
+		count = 0;
+	}
+	
+	/**
+	 * uploads every instance added since the last clear to the GPU side
+	 */
+	public void upload() {
+		bind();
+		long size = (long) data.capacity() * Float.BYTES;
+		if(size > storageSize)
+			storageSize = size;
+		// orphans the storage the last frame drew from before refilling it
+		GL15.glBufferData(GL15.GL_ARRAY_BUFFER, storageSize, GL15.GL_STREAM_DRAW);
+		
+		FloatBuffer filled = data.duplicate();
+		filled.flip();
+		GL15.glBufferSubData(GL15.GL_ARRAY_BUFFER, 0, filled);
+		unbind();
+	}
+	
+	/**
+	 * binds this VBO as the active VBO, replacing any previously active VBO
+	 */
+	@Override
+	public void bind() {
+		if(id == 0)
+			id = GL15.glGenBuffers();
+		GLStateCache.getInstance().bindBuffer(GL15.GL_ARRAY_BUFFER, id);
+	}
+
+	/**
+	 * un-binds this VBO, removing it as the active VBO
+	 */
+	@Override
+	public void unbind() {
+		GLStateCache.getInstance().bindBuffer(GL15.GL_ARRAY_BUFFER, 0);
+	}
+
+	/**
+	 * deletes this VBO's data from the GPU, the CPU side is kept
+	 */
+	@Override
+	public void delete() {
+		if(id == 0)
+			return;
+		GL15.glDeleteBuffers(id);
+		GLStateCache.getInstance().bufferDeleted(id);
+		id = 0;
+		storageSize = 0;
+	}
+
+	@Override
+	public int getId() {
+		return id;
+	}
+	
+	/**
+	 * @return The amount of instances added since the last clear
+	 */
+	public int getCount() {
+		return count;
+	}
+	
+	/**
+	 * @return The packed matrices, the first getCount() * FLOATS floats are valid
+	 */
+	public FloatBuffer getData() {
+		return data;
+	}
+}
@@ -0,0 +1,92 @@
+package rendering.buffers;
+
+import java.nio.FloatBuffer;
+
+import org.lwjgl.opengl.GL11;
+import org.lwjgl.opengl.GL15;
+import org.lwjgl.opengl.GL20;
+
+import rendering.state.GLStateCache;
+
+/**
+ * <h1>InterleavedVBO Class</h1>
+ * <p>
+ * A Vertex Buffer Object (VBO) to hold Mesh Vertex data with every attribute of a vertex stored
+ * together, feeding several consecutive Vertex Attribute Arrays from a single buffer
+ * 
+ * @author Graham
+ * @version 2.0.0
+ * @since 2026-10-18
+ */
+public class InterleavedVBO implements VBO{
+
+	private int id;
+	
+	private FloatBuffer data;
+	private int stride;
+	private int[] attributeSizes;
+	
+	/**
+	 * creates an InterleavedVBO filling the VBO with the given data only on the CPU side
+	 * 
+	 * @param data A direct buffer of the interleaved vertex data, uploaded as is on creation
+	 * @param stride The amount of floats each vertex takes up in the data
+	 * @param attributeSizes The amount of floats of each attribute to expose, in the order they are stored in each vertex starting from the first float
+	 */
+	public InterleavedVBO(FloatBuffer data, int stride, int... attributeSizes) {
+		id = GL15.glGenBuffers();
+		this.data = data;
+		this.stride = stride;
+		this.attributeSizes = attributeSizes;
+	}
+	
+	/**
+	 * fills the InterleavedVBO with the data passed in on creation on the GPU side
+	 * 
+	 * @param index The first VBO index within the VAO to store the attributes in, one index is used per attribute
+	 */
+	public void create(int index) {
+		bind();
+		GL15.glBufferData(GL15.GL_ARRAY_BUFFER, data, GL15.GL_STATIC_DRAW);
+		int offset = 0;
+		for(int i = 0; i < attributeSizes.length; i++) {
+			GL20.glVertexAttribPointer(index + i, attributeSizes[i], GL11.GL_FLOAT, false, stride * Float.BYTES, offset * Float.BYTES);
+			offset += attributeSizes[i];
+		}
+		unbind();
+	}
+	
+	/**
+	 * binds this VBO as the active VBO, replacing any previously active VBO
+	 */
+	@Override
+	public void bind() {
+		GLStateCache.getInstance().bindBuffer(GL15.GL_ARRAY_BUFFER, id);
+	}
+
+	/**
+	 * un-binds this VBO, removing it as the active VBO
+	 */
+	@Override
+	public void unbind() {
+		GLStateCache.getInstance().bindBuffer(GL15.GL_ARRAY_BUFFER, 0);
+	}
+
+	/**
+	 * deletes this VBO's data from the GPU, leaving the CPU data for standard garbage collection
+	 */
+	@Override
+	public void delete() {
+		GL15.glDeleteBuffers(id);
+		GLStateCache.getInstance().bufferDeleted(id);
+	}
+
+	@Override
+	public int getId() {
+		return id;
+	}
+	
+	public int getAttributeCount() {
+		return attributeSizes.length;
+	}
+}
@@ -7,6 +7,7 @@ import org.lwjgl.opengl.GL15;
 import org.lwjgl.opengl.GL20;
 
 import core.utils.BufferUtil;
+import rendering.state.GLStateCache;
 
 /**
  * <h1>MeshVBO Class</h1>
@@ -54,7 +55,7 @@ public class MeshVBO implements VBO{
 	 */
 	@Override
 	public void bind() {
-		GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, id);
+		GLStateCache.getInstance().bindBuffer(GL15.GL_ARRAY_BUFFER, id);
 	}
 
 	/**
@@ -62,7 +63,7 @@ public class MeshVBO implements VBO{
 	 */
 	@Override
 	public void unbind() {
-		GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, 0);
+		GLStateCache.getInstance().bindBuffer(GL15.GL_ARRAY_BUFFER, 0);
 	}
 
 	/**
@@ -71,6 +72,7 @@ public class MeshVBO implements VBO{
 	@Override
 	public void delete() {
 		GL15.glDeleteBuffers(id);
+		GLStateCache.getInstance().bufferDeleted(id);
 	}
 
 	@Override
@@ -7,6 +7,7 @@ import org.lwjgl.opengl.GL40;
 
 import core.maths.vector.Vector2f;
 import core.utils.BufferUtil;
+import rendering.state.GLStateCache;
 
 /**
  * <h1>PatchVBO Class</h1>
@@ -53,7 +54,7 @@ public class PatchVBO implements VBO{
 	 */
 	@Override
 	public void bind() {
-		GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, id);
+		GLStateCache.getInstance().bindBuffer(GL15.GL_ARRAY_BUFFER, id);
 	}
 
 	/**
@@ -61,7 +62,7 @@ public class PatchVBO implements VBO{
 	 */
 	@Override
 	public void unbind() {
-		GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, 0);
+		GLStateCache.getInstance().bindBuffer(GL15.GL_ARRAY_BUFFER, 0);
 	}
 
 	/**
@@ -70,6 +71,7 @@ public class PatchVBO implements VBO{
 	@Override
 	public void delete() {
 		GL15.glDeleteBuffers(id);
+		GLStateCache.getInstance().bufferDeleted(id);
 	}
 
 	@Override
@@ -1,5 +1,7 @@
 package rendering.buffers;
 
+import java.nio.IntBuffer;
+import java.nio.ShortBuffer;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -7,10 +9,14 @@ import org.lwjgl.opengl.GL11;
 import org.lwjgl.opengl.GL15;
 import org.lwjgl.opengl.GL20;
 import org.lwjgl.opengl.GL30;
+import org.lwjgl.opengl.GL33;
 import org.lwjgl.opengl.GL40;
+import org.lwjgl.opengl.GL42;
 
 import core.utils.Util;
+import rendering.state.GLStateCache;
 import resources.model.Mesh;
+import resources.model.Vertex;
 
 /**
  * <h1>VAO Class</h1>
@@ -25,6 +31,9 @@ public class VAO {
 
 	private static List<VAO> vaos = new ArrayList<VAO>();
 	
+	// the first of the four Vertex Attribute Arrays the per instance model matrix is read from
+	public static final int INSTANCE_LOCATION = 4;
+	
 	private int vaoId;
 	private boolean drawPatches;
 	private int dataSize = -1;
@@ -33,7 +42,11 @@ public class VAO {
 	private IndicesVBO indexVBO;
 	private VBO[] vbos = new VBO[15];
 	
-	private int vboIndex;
+	// the next free Vertex Attribute Array index, and the amount of VBO's stored in vbos
+	private int vboIndex, vboCount;
+	
+	// shared between VAO's and not owned by any, so it is kept out of vbos
+	private InstanceVBO instanceVBO;
 	
 	/**
 	 * creates a VAO given an IndicesVBO and an associated list of MeshVBO's of arbitrary size 
@@ -70,12 +83,21 @@ public class VAO {
 	public VAO(Mesh mesh) {
 		vaoId = GL30.glGenVertexArrays();
 		vboIndex = 0;
-		dataSize = mesh.getIndices().length;
-		float[][] data = Util.createFloatArraysOfVertexData(mesh.getVertices());
-		create(new IndicesVBO(mesh.getIndices()),
-				new MeshVBO(data[0], 3),
-				new MeshVBO(data[1], 2),
-				new MeshVBO(data[2], 3));
+		if(mesh.getVertexData() != null) {
+			dataSize = mesh.getIndexData().limit();
+			IndicesVBO indices = mesh.getIndexData() instanceof ShortBuffer
+					? new IndicesVBO((ShortBuffer) mesh.getIndexData())
+					: new IndicesVBO((IntBuffer) mesh.getIndexData());
+			//positions, textureCoords and normals, the tangent data is not used by any shader yet
+			create(indices, new InterleavedVBO(mesh.getVertexData(), Vertex.FLOATS, 3, 2, 3));
+		}else {
+			dataSize = mesh.getIndices().length;
+			float[][] data = Util.createFloatArraysOfVertexData(mesh.getVertices());
+			create(new IndicesVBO(mesh.getIndices()),
+					new MeshVBO(data[0], 3),
+					new MeshVBO(data[1], 2),
+					new MeshVBO(data[2], 3));
+		}
 		drawPatches = false;
 		vaos.add(this);
 	}
@@ -98,9 +120,21 @@ public class VAO {
 		indices.create();
 		indexVBO = indices;
 		for(MeshVBO vbo : meshVBOs) {
-			vbo.create(vboIndex);
-			vbos[vboIndex++] = vbo;
+			vbo.create(vboIndex++);
+			vbos[vboCount++] = vbo;
 		}
+		enableAttributes();
+		unbind();
+	}
+	
+	private void create(IndicesVBO indices, InterleavedVBO vbo) {
+		bind();
+		indices.create();
+		indexVBO = indices;
+		vbo.create(vboIndex);
+		vboIndex += vbo.getAttributeCount();
+		vbos[vboCount++] = vbo;
+		enableAttributes();
 		unbind();
 	}
 	
@@ -108,33 +142,45 @@ public class VAO {
 		bind();
 		indexVBO = null;
 		for(PatchVBO vbo : patchVBOs) {
-			vbo.create(vboIndex);
+			vbo.create(vboIndex++);
 			dataSize = vbo.getDataLength();
-			vbos[vboIndex++] = vbo;
+			vbos[vboCount++] = vbo;
 		}
+		enableAttributes();
 		unbind();
 	}
 	
 	private void create(MeshVBO vbo) {
 		bind();
 		indexVBO = null;
-		vbo.create(vboIndex);
-		vbos[vboIndex++] = vbo;
+		vbo.create(vboIndex++);
+		vbos[vboCount++] = vbo;
+		enableAttributes();
 		unbind();
 	}
 	
+	/**
+	 * enables every Vertex Attribute Array of this VAO, which is part of the VAO's own
+	 * state, so once done at creation binding the VAO is enough to render it
+	 */
+	private void enableAttributes() {
+		for(int i = 0; i < vboIndex; i++) {
+			GL20.glEnableVertexAttribArray(i);
+		}
+	}
+	
 	/**
 	 * binds this VAO as the active VAO, replacing any previously bound VAO's
 	 */
 	public void bind() {
-		GL30.glBindVertexArray(vaoId);
+		GLStateCache.getInstance().bindVertexArray(vaoId);
 	}
 	
 	/**
 	 * removes this VAO as the active VAO, leaving no VAO's as active
 	 */
 	public void unbind() {
-		GL30.glBindVertexArray(0);
+		GLStateCache.getInstance().bindVertexArray(0);
 	}
 	
 	/**
@@ -158,7 +204,9 @@ public class VAO {
 	}
 	
 	/**
-	 * renders this VAO, binding all Vertex Attribute Arrays if they have not manually been bound
+	 * renders this VAO, binding all Vertex Attribute Arrays if they have not manually been bound.
+	 * As the arrays are enabled when the VAO is created, binding the VAO is all that is needed
+	 * before a pre-bound render
 	 * 
 	 * @param preBound Determines if the Vertex Attribute Arrays have been manually bound before the render call, true if no further bounding is necessary, false if the VAO should bind all Vertex Attribute Arrays 
 	 */
@@ -167,13 +215,55 @@ public class VAO {
 			enable();
 		
 		if(!drawPatches) {
-			GL11.glDrawElements(GL11.GL_TRIANGLES, dataSize, GL11.GL_UNSIGNED_INT, 0);
+			GL11.glDrawElements(GL11.GL_TRIANGLES, dataSize, indexVBO != null ? indexVBO.getType() : GL11.GL_UNSIGNED_INT, 0);
 		}else {
 			GL11.glDrawArrays(GL40.GL_PATCHES, 0, dataSize);
 		}
 		
+		// only unbound, disabling the arrays would disable them for every later pre-bound render
 		if(!preBound)
-			disable();
+			unbind();
+	}
+	
+	/**
+	 * attaches an InstanceVBO to this VAO, feeding its model matrices to the four Vertex
+	 * Attribute Arrays starting at INSTANCE_LOCATION, advancing once per instance rather
+	 * than once per vertex. Replaces any InstanceVBO already attached
+	 * 
+	 * @param instances The InstanceVBO to read model matrices from
+	 */
+	public void setInstanceVBO(InstanceVBO instances) {
+		bind();
+		instances.bind();
+		for(int i = 0; i < 4; i++) {
+			GL20.glVertexAttribPointer(INSTANCE_LOCATION + i, 4, GL11.GL_FLOAT, false, InstanceVBO.BYTES, i * 4 * Float.BYTES);
+			GL33.glVertexAttribDivisor(INSTANCE_LOCATION + i, 1);
+			GL20.glEnableVertexAttribArray(INSTANCE_LOCATION + i);
+		}
+		instances.unbind();
+		instanceVBO = instances;
+	}
+	
+	/**
+	 * renders several instances of this VAO with a single draw call, each with its own
+	 * model matrix from the attached InstanceVBO. The VAO must already be bound
+	 * 
+	 * @param count The amount of instances to render
+	 * @param first The index in the InstanceVBO of the first instances model matrix
+	 */
+	public void renderInstanced(int count, int first) {
+		GL42.glDrawElementsInstancedBaseInstance(GL11.GL_TRIANGLES, dataSize, indexVBO != null ? indexVBO.getType() : GL11.GL_UNSIGNED_INT, 0, count, first);
+	}
+	
+	/**
+	 * @return True if this VAO can be rendered with renderInstanced
+	 */
+	public boolean isInstanceable() {
+		return !drawPatches && indexVBO != null;
+	}
+	
+	public InstanceVBO getInstanceVBO() {
+		return instanceVBO;
 	}
 	
 	/**
@@ -182,13 +272,15 @@ public class VAO {
 	public void delete() {
 		deleteVBOs();
 		GL30.glDeleteVertexArrays(vaoId);
+		GLStateCache.getInstance().vertexArrayDeleted(vaoId);
 		vaos.remove(this);
 	}
 	
 	//TODO: optimize VBO deletion
 	private void deleteVBOs() {
-		for(int i = 0; i < vboIndex; i++) {
+		for(int i = 0; i < vboCount; i++) {
 			GL15.glDeleteBuffers(vbos[i].getId());
+			GLStateCache.getInstance().bufferDeleted(vbos[i].getId());
 		}
 		vbos = null;
 	}
@@ -208,6 +300,7 @@ public class VAO {
 		for(VAO vao : vaos) {
 			vao.deleteVBOs();
 			GL30.glDeleteVertexArrays(vao.getId());
+			GLStateCache.getInstance().vertexArrayDeleted(vao.getId());
 		}
 		vaos.clear();
 	}
@@ -2,6 +2,8 @@ package rendering.config;
 
 import org.lwjgl.opengl.GL11;
 
+import rendering.state.GLStateCache;
+
 /**
  * <h1>CCW Class</h1>
  * <p>
@@ -17,11 +19,11 @@ public class CCW implements RenderConfig{
 
 	@Override
 	public void enable() {
-		GL11.glFrontFace(GL11.GL_CCW);
+		GLStateCache.getInstance().frontFace(GL11.GL_CCW);
 	}
 
 	@Override
 	public void disable() {
-		GL11.glFrontFace(GL11.GL_CW);
+		GLStateCache.getInstance().frontFace(GL11.GL_CW);
 	}
 }
@@ -42,4 +42,22 @@ public class MultiConfig implements RenderConfig{
 			config.disable();
 		}
 	}
+	
+	/**
+	 * a MultiConfig is only equivalent to another holding equivalent configurations
+	 * in the same order
+	 */
+	@Override
+	public boolean isEquivalent(RenderConfig other) {
+		if(!(other instanceof MultiConfig))
+			return false;
+		ArrayList<RenderConfig> others = ((MultiConfig) other).configs;
+		if(others.size() != configs.size())
+			return false;
+		for(int i = 0; i < configs.size(); i++) {
+			if(!configs.get(i).isEquivalent(others.get(i)))
+				return false;
+		}
+		return true;
+	}
 }
@@ -17,4 +17,17 @@ public interface RenderConfig {
 	public void enable();
 	
 	public void disable();
+	
+	/**
+	 * checks if enabling this config sets the same OpenGL rules as enabling
+	 * another, so that objects using either can be rendered one after another
+	 * with a single enable and disable. Configs of the same class are equivalent
+	 * unless the class says otherwise
+	 * 
+	 * @param other The config to compare against
+	 * @return True if the two configs set the same rules
+	 */
+	public default boolean isEquivalent(RenderConfig other) {
+		return other != null && other.getClass() == getClass();
+	}
 }
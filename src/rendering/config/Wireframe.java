@@ -2,6 +2,8 @@ package rendering.config;
 
 import org.lwjgl.opengl.GL11;
 
+import rendering.state.GLStateCache;
+
 /**
  * <h1>Wireframe Class</h1>
  * <p>
@@ -17,15 +19,15 @@ public class Wireframe implements RenderConfig{
 
 	@Override
 	public void enable() {
-		GL11.glDisable(GL11.GL_CULL_FACE);
-		GL11.glPolygonMode(GL11.GL_FRONT_AND_BACK, GL11.GL_LINE);
+		GLStateCache.getInstance().disable(GL11.GL_CULL_FACE);
+		GLStateCache.getInstance().polygonMode(GL11.GL_FRONT_AND_BACK, GL11.GL_LINE);
 	}
 
 	@Override
 	public void disable() {
-		GL11.glPolygonMode(GL11.GL_FRONT, GL11.GL_FILL);
-		GL11.glEnable(GL11.GL_CULL_FACE);
-		GL11.glCullFace(GL11.GL_BACK);
+		GLStateCache.getInstance().polygonMode(GL11.GL_FRONT, GL11.GL_FILL);
+		GLStateCache.getInstance().enable(GL11.GL_CULL_FACE);
+		GLStateCache.getInstance().cullFace(GL11.GL_BACK);
 	}
 
 }
@@ -0,0 +1,40 @@
+package rendering.state;
+
+/**
+ * <h1>GLBackend Interface</h1>
+ * <p>
+ * The OpenGL calls the GLStateCache forwards state changes to. The engine uses
+ * the LWJGL backend, any other implementation can stand in for OpenGL where
+ * there is no context, such as to record the calls that would have been made.
+ *
+ * @author Graham
+ * @version 2.0.0
+ * @since 2026-10-18
+ */
+public interface GLBackend {
+
+	public void useProgram(int program);
+
+	public void bindVertexArray(int vertexArray);
+
+	/**
+	 * @param unit The texture unit to make active, counted from zero rather than from GL_TEXTURE0
+	 */
+	public void activeTexture(int unit);
+
+	public void bindTexture(int target, int texture);
+
+	public void bindBuffer(int target, int buffer);
+
+	public void enable(int capability);
+
+	public void disable(int capability);
+
+	public void polygonMode(int face, int mode);
+
+	public void cullFace(int face);
+
+	public void frontFace(int direction);
+
+	public void blendFunc(int source, int destination);
+}
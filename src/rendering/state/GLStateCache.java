@@ -0,0 +1,399 @@
+package rendering.state;
+
+import java.util.Arrays;
+
+import org.lwjgl.opengl.GL11;
+import org.lwjgl.opengl.GL15;
+
+/**
+ * <h1>GLStateCache Class</h1>
+ * <p>
+ * Keeps track of the OpenGL state the engine sets, so that setting state that
+ * is already set costs a comparison instead of a call into the driver. The
+ * cache tracks the bound program, vertex array, array and element buffers, the
+ * 2D texture of every texture unit and the active unit, the polygon mode of
+ * each face, face culling and the front face, depth testing and blending. Every
+ * change to that state made by the engine should go through the cache, anything
+ * changed behind its back must be followed by a call to invalidate, after which
+ * the next change of each kind is always passed on.
+ * <p>
+ * The cache counts the calls it passes on and the calls it skips, which are
+ * totalled per frame by calling endFrame. OpenGL state belongs to the thread
+ * the context is current on, so the cache must only be used from that thread.
+ *
+ * @author Graham
+ * @version 2.0.0
+ * @since 2026-10-18
+ */
+public class GLStateCache {
+
+	public static final int MAX_TEXTURE_UNITS = 32;
+	// held while the state is not known, never a valid OpenGL value
+	private static final int UNKNOWN = -1;
+
+	// there is one OpenGL context, so the class is a single instance class
+	private static GLStateCache instance = null;
+
+	private GLBackend backend;
+
+	private int program;
+	private int vertexArray;
+	// the element buffer binding belongs to the bound vertex array
+	private int arrayBuffer, elementBuffer;
+	private int activeUnit;
+	// the 2D texture bound to each unit
+	private final int[] textures;
+
+	private int frontPolygonMode, backPolygonMode;
+	private int cullFace, frontFace;
+	private int blendSource, blendDestination;
+	// 1 for enabled, 0 for disabled, UNKNOWN if not known
+	private int cullEnabled, depthTestEnabled, blendEnabled;
+
+	// counts of the current frame, and totals of the last completed frame
+	private int issued, skipped;
+	private int frameIssued, frameSkipped;
+
+	/**
+	 * returns the current instance of the state cache, or if none exists, it
+	 * creates a new current instance that passes calls to LWJGL before returning
+	 * it
+	 *
+	 * @return the current instance of the state cache
+	 */
+	public static GLStateCache getInstance() {
+		if(instance == null)
+			instance = new GLStateCache(new LWJGLBackend());
+		return instance;
+	}
+
+	/**
+	 * creates a state cache that passes changes to the given backend, starting
+	 * with nothing known to be set
+	 *
+	 * @param backend The calls to make when the state changes
+	 */
+	public GLStateCache(GLBackend backend) {
+		this.backend = backend;
+		textures = new int[MAX_TEXTURE_UNITS];
+		invalidate();
+	}
+
+	/**
+	 * @return True if the call should be passed on, counting it either way
+	 */
+	private boolean changed(int current, int value) {
+		if(current == value) {
+			skipped++;
+			return false;
+		}
+		issued++;
+		return true;
+	}
+
+	/**
+	 * makes a shader program the active program, if it is not already
+	 */
+	public void useProgram(int program) {
+		if(!changed(this.program, program))
+			return;
+		this.program = program;
+		backend.useProgram(program);
+	}
+
+	/**
+	 * binds a vertex array, if it is not already bound
+	 */
+	public void bindVertexArray(int vertexArray) {
+		if(!changed(this.vertexArray, vertexArray))
+			return;
+		this.vertexArray = vertexArray;
+		// the element buffer of the new vertex array is not known
+		elementBuffer = UNKNOWN;
+		backend.bindVertexArray(vertexArray);
+	}
+
+	/**
+	 * binds a buffer, if it is not already bound. Array and element array buffers
+	 * are tracked, other targets are always passed on
+	 *
+	 * @param target The OpenGL buffer target, such as GL_ARRAY_BUFFER
+	 * @param buffer The buffer to bind
+	 */
+	public void bindBuffer(int target, int buffer) {
+		if(target == GL15.GL_ARRAY_BUFFER) {
+			if(!changed(arrayBuffer, buffer))
+				return;
+			arrayBuffer = buffer;
+		}else if(target == GL15.GL_ELEMENT_ARRAY_BUFFER) {
+			if(!changed(elementBuffer, buffer))
+				return;
+			elementBuffer = buffer;
+		}else {
+			issued++;
+		}
+		backend.bindBuffer(target, buffer);
+	}
+
+	/**
+	 * makes a texture unit the active unit, if it is not already
+	 *
+	 * @param unit The unit, counted from zero rather than from GL_TEXTURE0
+	 */
+	public void activeTexture(int unit) {
+		if(!changed(activeUnit, unit))
+			return;
+		activeUnit = unit;
+		backend.activeTexture(unit);
+	}
+
+	/**
+	 * binds a 2D texture to the active texture unit, if it is not already bound
+	 * there
+	 */
+	public void bindTexture(int texture) {
+		if(activeUnit == UNKNOWN)
+			activeTexture(0);
+		if(!changed(textures[activeUnit], texture))
+			return;
+		textures[activeUnit] = texture;
+		backend.bindTexture(GL11.GL_TEXTURE_2D, texture);
+	}
+
+	/**
+	 * binds a 2D texture to a texture unit, making the unit active only if the
+	 * texture is not already bound there
+	 *
+	 * @param unit The unit, counted from zero rather than from GL_TEXTURE0
+	 * @param texture The texture to bind
+	 */
+	public void bindTexture(int unit, int texture) {
+		if(!changed(textures[unit], texture))
+			return;
+		activeTexture(unit);
+		textures[unit] = texture;
+		backend.bindTexture(GL11.GL_TEXTURE_2D, texture);
+	}
+
+	/**
+	 * enables an OpenGL capability, if it is not already. Face culling, depth
+	 * testing and blending are tracked, other capabilities are always passed on
+	 */
+	public void enable(int capability) {
+		if(setCapability(capability, 1))
+			backend.enable(capability);
+	}
+
+	/**
+	 * disables an OpenGL capability, if it is not already. Face culling, depth
+	 * testing and blending are tracked, other capabilities are always passed on
+	 */
+	public void disable(int capability) {
+		if(setCapability(capability, 0))
+			backend.disable(capability);
+	}
+
+	/**
+	 * @return True if the change should be passed on
+	 */
+	private boolean setCapability(int capability, int state) {
+		switch(capability) {
+		case GL11.GL_CULL_FACE:
+			if(!changed(cullEnabled, state))
+				return false;
+			cullEnabled = state;
+			return true;
+		case GL11.GL_DEPTH_TEST:
+			if(!changed(depthTestEnabled, state))
+				return false;
+			depthTestEnabled = state;
+			return true;
+		case GL11.GL_BLEND:
+			if(!changed(blendEnabled, state))
+				return false;
+			blendEnabled = state;
+			return true;
+		default:
+			issued++;
+			return true;
+		}
+	}
+
+	/**
+	 * sets how polygons are rasterized, if they are not already
+	 *
+	 * @param face GL_FRONT, GL_BACK or GL_FRONT_AND_BACK
+	 * @param mode GL_POINT, GL_LINE or GL_FILL
+	 */
+	public void polygonMode(int face, int mode) {
+		boolean front = face != GL11.GL_BACK, back = face != GL11.GL_FRONT;
+		if((!front || frontPolygonMode == mode) && (!back || backPolygonMode == mode)) {
+			skipped++;
+			return;
+		}
+		issued++;
+		if(front)
+			frontPolygonMode = mode;
+		if(back)
+			backPolygonMode = mode;
+		backend.polygonMode(face, mode);
+	}
+
+	/**
+	 * sets which faces are culled when culling is enabled, if they are not already
+	 */
+	public void cullFace(int face) {
+		if(!changed(cullFace, face))
+			return;
+		cullFace = face;
+		backend.cullFace(face);
+	}
+
+	/**
+	 * sets the winding of front faces, if it is not already
+	 */
+	public void frontFace(int direction) {
+		if(!changed(frontFace, direction))
+			return;
+		frontFace = direction;
+		backend.frontFace(direction);
+	}
+
+	/**
+	 * sets the blend function, if it is not already
+	 */
+	public void blendFunc(int source, int destination) {
+		if(blendSource == source && blendDestination == destination) {
+			skipped++;
+			return;
+		}
+		issued++;
+		blendSource = source;
+		blendDestination = destination;
+		backend.blendFunc(source, destination);
+	}
+
+	/**
+	 * forgets all tracked state, to be called after OpenGL state has been changed
+	 * without going through the cache
+	 */
+	public void invalidate() {
+		program = UNKNOWN;
+		vertexArray = UNKNOWN;
+		arrayBuffer = UNKNOWN;
+		elementBuffer = UNKNOWN;
+		frontPolygonMode = UNKNOWN;
+		backPolygonMode = UNKNOWN;
+		cullFace = UNKNOWN;
+		frontFace = UNKNOWN;
+		blendSource = UNKNOWN;
+		blendDestination = UNKNOWN;
+		cullEnabled = UNKNOWN;
+		depthTestEnabled = UNKNOWN;
+		blendEnabled = UNKNOWN;
+		invalidateTextures();
+	}
+
+	/**
+	 * forgets which textures are bound and which unit is active, to be called
+	 * after a texture has been bound without going through the cache, as texture
+	 * loaders do
+	 */
+	public void invalidateTextures() {
+		activeUnit = UNKNOWN;
+		Arrays.fill(textures, UNKNOWN);
+	}
+
+	/**
+	 * to be called when a program is deleted, as OpenGL may give its name to a new
+	 * program
+	 */
+	public void programDeleted(int program) {
+		if(this.program == program)
+			this.program = UNKNOWN;
+	}
+
+	/**
+	 * to be called when a vertex array is deleted, OpenGL unbinds it and may give
+	 * its name to a new vertex array
+	 */
+	public void vertexArrayDeleted(int vertexArray) {
+		if(this.vertexArray == vertexArray) {
+			this.vertexArray = 0;
+			elementBuffer = UNKNOWN;
+		}
+	}
+
+	/**
+	 * to be called when a buffer is deleted, OpenGL unbinds it and may give its
+	 * name to a new buffer
+	 */
+	public void bufferDeleted(int buffer) {
+		if(arrayBuffer == buffer)
+			arrayBuffer = 0;
+		if(elementBuffer == buffer)
+			elementBuffer = 0;
+	}
+
+	/**
+	 * to be called when a texture is deleted, OpenGL unbinds it from every unit
+	 * and may give its name to a new texture
+	 */
+	public void textureDeleted(int texture) {
+		for(int i = 0; i < textures.length; i++)
+			if(textures[i] == texture)
+				textures[i] = 0;
+	}
+
+	/**
+	 * ends the counting of the current frame, its totals are kept until the next
+	 * frame ends
+	 */
+	public void endFrame() {
+		frameIssued = issued;
+		frameSkipped = skipped;
+		issued = 0;
+		skipped = 0;
+	}
+
+	/**
+	 * @return The amount of calls passed on to the backend in the last frame
+	 */
+	public int getIssued() {
+		return frameIssued;
+	}
+
+	/**
+	 * @return The amount of calls skipped as redundant in the last frame
+	 */
+	public int getSkipped() {
+		return frameSkipped;
+	}
+
+	/**
+	 * @return The issued and skipped calls of the last frame, as a single line of text
+	 */
+	public String getSummary() {
+		return "gl calls: " + frameIssued + " issued, " + frameSkipped + " skipped";
+	}
+
+	public GLBackend getBackend() {
+		return backend;
+	}
+
+	/**
+	 * replaces the backend calls are passed to, forgetting all tracked state
+	 */
+	public void setBackend(GLBackend backend) {
+		this.backend = backend;
+		invalidate();
+	}
+
+	/**
+	 * destroys the current state cache, to be called when the engine is shutting
+	 * down
+	 */
+	public static void cleanUp() {
+		instance = null;
+	}
+}
@@ -0,0 +1,74 @@
+package rendering.state;
+
+import org.lwjgl.opengl.GL11;
+import org.lwjgl.opengl.GL13;
+import org.lwjgl.opengl.GL15;
+import org.lwjgl.opengl.GL20;
+import org.lwjgl.opengl.GL30;
+
+/**
+ * <h1>LWJGLBackend Class</h1>
+ * <p>
+ * The GLBackend that passes every call straight to OpenGL through LWJGL
+ *
+ * @author Graham
+ * @version 2.0.0
+ * @since 2026-10-18
+ */
+public class LWJGLBackend implements GLBackend {
+
+	@Override
+	public void useProgram(int program) {
+		GL20.glUseProgram(program);
+	}
+
+	@Override
+	public void bindVertexArray(int vertexArray) {
+		GL30.glBindVertexArray(vertexArray);
+	}
+
+	@Override
+	public void activeTexture(int unit) {
+		GL13.glActiveTexture(GL13.GL_TEXTURE0 + unit);
+	}
+
+	@Override
+	public void bindTexture(int target, int texture) {
+		GL11.glBindTexture(target, texture);
+	}
+
+	@Override
+	public void bindBuffer(int target, int buffer) {
+		GL15.glBindBuffer(target, buffer);
+	}
+
+	@Override
+	public void enable(int capability) {
+		GL11.glEnable(capability);
+	}
+
+	@Override
+	public void disable(int capability) {
+		GL11.glDisable(capability);
+	}
+
+	@Override
+	public void polygonMode(int face, int mode) {
+		GL11.glPolygonMode(face, mode);
+	}
+
+	@Override
+	public void cullFace(int face) {
+		GL11.glCullFace(face);
+	}
+
+	@Override
+	public void frontFace(int direction) {
+		GL11.glFrontFace(direction);
+	}
+
+	@Override
+	public void blendFunc(int source, int destination) {
+		GL11.glBlendFunc(source, destination);
+	}
+}
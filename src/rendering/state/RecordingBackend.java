@@ -0,0 +1,111 @@
+package rendering.state;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <h1>RecordingBackend Class</h1>
+ * <p>
+ * A GLBackend that makes no OpenGL calls, only recording the calls it is
+ * given, so what the GLStateCache passes on can be checked without a GPU or an
+ * OpenGL context. Each call is recorded as its name followed by its arguments,
+ * separated by spaces, such as "useProgram 3".
+ *
+ * @author Graham
+ * @version 2.0.0
+ * @since 2026-10-18
+ */
+public class RecordingBackend implements GLBackend {
+
+	private final List<String> calls;
+
+	public RecordingBackend() {
+		calls = new ArrayList<String>();
+	}
+
+	private void record(String name, int... args) {
+		StringBuilder call = new StringBuilder(name);
+		for(int arg : args)
+			call.append(' ').append(arg);
+		calls.add(call.toString());
+	}
+
+	@Override
+	public void useProgram(int program) {
+		record("useProgram", program);
+	}
+
+	@Override
+	public void bindVertexArray(int vertexArray) {
+		record("bindVertexArray", vertexArray);
+	}
+
+	@Override
+	public void activeTexture(int unit) {
+		record("activeTexture", unit);
+	}
+
+	@Override
+	public void bindTexture(int target, int texture) {
+		record("bindTexture", target, texture);
+	}
+
+	@Override
+	public void bindBuffer(int target, int buffer) {
+		record("bindBuffer", target, buffer);
+	}
+
+	@Override
+	public void enable(int capability) {
+		record("enable", capability);
+	}
+
+	@Override
+	public void disable(int capability) {
+		record("disable", capability);
+	}
+
+	@Override
+	public void polygonMode(int face, int mode) {
+		record("polygonMode", face, mode);
+	}
+
+	@Override
+	public void cullFace(int face) {
+		record("cullFace", face);
+	}
+
+	@Override
+	public void frontFace(int direction) {
+		record("frontFace", direction);
+	}
+
+	@Override
+	public void blendFunc(int source, int destination) {
+		record("blendFunc", source, destination);
+	}
+
+	/**
+	 * @return Every call recorded since the backend was created or last cleared, in the order they were made
+	 */
+	public List<String> getCalls() {
+		return calls;
+	}
+
+	/**
+	 * @return The amount of recorded calls with the given name
+	 */
+	public int count(String name) {
+		int count = 0;
+		for(int i = 0; i < calls.size(); i++) {
+			String call = calls.get(i);
+			if(call.startsWith(name) && (call.length() == name.length() || call.charAt(name.length()) == ' '))
+				count++;
+		}
+		return count;
+	}
+
+	public void clear() {
+		calls.clear();
+	}
+}
@@ -1,5 +1,15 @@
 package resources.model;
 
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.ShortBuffer;
+
+import core.maths.BoundingBox;
+import core.maths.vector.Vector3f;
+import core.spatial.TriangleBVH;
+import core.utils.Util;
 import rendering.buffers.VAO;
 
 /**
@@ -7,7 +17,7 @@ import rendering.buffers.VAO;
  * <p>
  * This class holds all the data needed to represent a Mesh (a collection of
  * vertices connected in a listed order) in 3D space.
- * 
+ *
  * @author Graham
  * @version 2.0.0
  * @since 2019-05-16
@@ -17,22 +27,56 @@ public class Mesh {
 	private Vertex[] vertices;
 	private int[] indices;
 	private VAO vao;
-	
+	// bounds of the vertex positions in model space, calculated once when the mesh is created
+	private BoundingBox bounds;
+	// tree of the triangles for ray casts, read or built the first time the mesh is ray cast
+	private TriangleBVH triangleBVH;
+	// the tree as stored in a baked mesh, null if it has to be built
+	private ByteBuffer triangleBVHData;
+
+	// interleaved vertex data and index data, ready to be uploaded as is. Null unless created from buffers
+	private FloatBuffer vertexData;
+	private Buffer indexData;
+
 	/**
 	 * Creates a Mesh given a list of Vertices that make up the Mesh and a list of indices
 	 * that dictate the order in which to connect the Vertices
-	 * 
+	 *
 	 * @param vertices A Vertex array containing all vertices that make up the Mesh
 	 * @param indices An integer array containing the order in which the Vertex array should be connected to form the desired mesh
 	 */
 	public Mesh(Vertex[] vertices, int[] indices) {
 		this.vertices = vertices;
 		this.indices = indices;
-		
+
+		Vector3f[] positions = new Vector3f[vertices.length];
+		for(int i = 0; i < vertices.length; i++)
+			positions[i] = vertices[i].getPosition();
+		bounds = BoundingBox.fromPositions(positions);
+
+		vao = new VAO(this);
+	}
+
+	/**
+	 * Creates a Mesh from interleaved vertex data, Vertex.FLOATS floats per vertex, and
+	 * a buffer of indices. The buffers are uploaded to the GPU as is, the vertex and index
+	 * arrays are only created if they are requested
+	 *
+	 * @param vertexData A direct buffer containing the interleaved data of every vertex in the Mesh
+	 * @param indexData A direct IntBuffer, or ShortBuffer of unsigned shorts, containing the order in which to connect the vertices
+	 */
+	public Mesh(FloatBuffer vertexData, Buffer indexData) {
+		this.vertexData = vertexData;
+		this.indexData = indexData;
+
+		bounds = BoundingBox.fromVertexData(vertexData, Vertex.FLOATS);
+
 		vao = new VAO(this);
 	}
 
 	public Vertex[] getVertices() {
+		if(vertices == null && vertexData != null)
+			vertices = Util.toVertexArray(vertexData.duplicate());
 		return vertices;
 	}
 
@@ -41,6 +85,16 @@ public class Mesh {
 	}
 
 	public int[] getIndices() {
+		if(indices == null && indexData != null) {
+			indices = new int[indexData.limit()];
+			if(indexData instanceof ShortBuffer) {
+				ShortBuffer data = (ShortBuffer) indexData;
+				for(int i = 0; i < indices.length; i++)
+					indices[i] = data.get(i) & 0xFFFF;
+			}else {
+				((IntBuffer) indexData).duplicate().get(indices);
+			}
+		}
 		return indices;
 	}
 
@@ -48,6 +102,73 @@ public class Mesh {
 		this.indices = indices;
 	}
 
+	public FloatBuffer getVertexData() {
+		return vertexData;
+	}
+
+	public Buffer getIndexData() {
+		return indexData;
+	}
+
+	/**
+	 * @return The bounding box and sphere of the mesh in model space
+	 */
+	public BoundingBox getBounds() {
+		return bounds;
+	}
+
+	/**
+	 * @return The x, y and z of the position of each vertex, in a new array
+	 */
+	public float[] getPositions() {
+		if(vertexData != null) {
+			float[] positions = new float[vertexData.limit() / Vertex.FLOATS * 3];
+			for(int i = 0, v = 0; i < positions.length; i += 3, v += Vertex.FLOATS) {
+				positions[i] = vertexData.get(v);
+				positions[i + 1] = vertexData.get(v + 1);
+				positions[i + 2] = vertexData.get(v + 2);
+			}
+			return positions;
+		}
+		
+		float[] positions = new float[vertices.length * 3];
+		for(int i = 0; i < vertices.length; i++) {
+			Vector3f position = vertices[i].getPosition();
+			positions[i * 3] = position.getX();
+			positions[i * 3 + 1] = position.getY();
+			positions[i * 3 + 2] = position.getZ();
+		}
+		return positions;
+	}
+	
+	/**
+	 * returns the tree of the meshes triangles in model space, reading it from the
+	 * baked mesh or building it the first time it is needed. Meshes are shared
+	 * through the MeshLoader's mesh map, so each model file's tree is only made
+	 * once. Should only be called from one thread
+	 * 
+	 * @return The triangle tree of the mesh
+	 */
+	public TriangleBVH getTriangleBVH() {
+		if(triangleBVH == null) {
+			float[] positions = getPositions();
+			if(triangleBVHData != null)
+				triangleBVH = TriangleBVH.read(triangleBVHData, positions, getIndices());
+			if(triangleBVH == null)
+				triangleBVH = new TriangleBVH(positions, getIndices());
+			triangleBVHData = null;
+		}
+		return triangleBVH;
+	}
+	
+	/**
+	 * sets the serialized triangle tree of the mesh, as written by
+	 * TriangleBVH.write, to be read the first time the tree is needed
+	 */
+	public void setTriangleBVHData(ByteBuffer triangleBVHData) {
+		this.triangleBVHData = triangleBVHData;
+	}
+
 	public VAO getVao() {
 		return vao;
 	}
@@ -8,6 +8,7 @@ import org.lwjgl.opengl.GL13;
 import org.lwjgl.opengl.GL30;
 
 import core.utils.fileIO.ResourceLoader;
+import rendering.state.GLStateCache;
 
 /**
  * A container class to hold OpenGL texture information such as width, height,
@@ -46,8 +47,42 @@ public class Texture2D {
 		return new Texture2D(file);
 	}
 
+	/**
+	 * creates a new texture from image data that has already been uploaded to
+	 * OpenGL, such as by an asynchronous load, if that texture does not already
+	 * exist. If it already exists the already existing texture is returned
+	 * 
+	 * @param file
+	 *            The location of the image file within the engines directory
+	 * @param data
+	 *            The images ID, width, and height in that order
+	 * 
+	 * @return A texture that represents the colour data stored in the image
+	 */
+	public static Texture2D createTexture(String file, int[] data) {
+		if(textureMap.containsKey(file))
+			return textureMap.get(file);
+		return new Texture2D(file, data);
+	}
+
+	/**
+	 * checks if the image at the specified file location has already been loaded
+	 * as a texture
+	 * 
+	 * @param file
+	 *            The location of the image file within the engines directory
+	 * 
+	 * @return True if a texture of the image already exists
+	 */
+	public static boolean isLoaded(String file) {
+		return textureMap.containsKey(file);
+	}
+
 	protected Texture2D(String file) {
-		int[] data = ResourceLoader.loadImage(file);
+		this(file, ResourceLoader.loadImage(file));
+	}
+
+	protected Texture2D(String file, int[] data) {
 		id = data[0];
 		width = data[1];
 		height = data[2];
@@ -61,7 +96,18 @@ public class Texture2D {
 	 * either unbound or a new texture in bound in its place
 	 */
 	public void bind() {
-		GL11.glBindTexture(GL11.GL_TEXTURE_2D, id);
+		GLStateCache.getInstance().bindTexture(id);
+	}
+
+	/**
+	 * binds this texture to a texture unit, to be sampled by shader uniforms set to
+	 * that unit. Nothing is changed if the texture is already bound there
+	 * 
+	 * @param unit
+	 *            The texture unit, counted from zero
+	 */
+	public void bind(int unit) {
+		GLStateCache.getInstance().bindTexture(unit, id);
 	}
 
 	/**
@@ -80,6 +126,7 @@ public class Texture2D {
 	 */
 	public void delete() {
 		GL11.glDeleteTextures(id);
+		GLStateCache.getInstance().textureDeleted(id);
 		textureMap.remove(file);
 	}
 
@@ -88,7 +135,7 @@ public class Texture2D {
 	 * manipulation will not affect this texture unless it is rebound
 	 */
 	public void unbind() {
-		GL11.glBindTexture(GL11.GL_TEXTURE_2D, 0);
+		GLStateCache.getInstance().bindTexture(0);
 	}
 
 	/**
@@ -150,6 +197,7 @@ public class Texture2D {
 	public static void cleanUp() {
 		for (Texture2D tex : textureMap.values()) {
 			GL11.glDeleteTextures(tex.getId());
+			GLStateCache.getInstance().textureDeleted(tex.getId());
 		}
 		textureMap.clear();
 	}
@@ -0,0 +1,323 @@
+package core.ecs;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * <h1>WorldTest Class</h1>
+ * <p>
+ * Creates, destroys, and adds and removes the components of random entities,
+ * following what every living entity should hold in a plain map. Each entity
+ * writes its own serial number into every component it has, so an entity moved
+ * between archetypes, or moved into the row of a removed entity, must still
+ * read back its own values, and a new component must read back as zero. Every
+ * chunk must hold each living entity exactly once. Ids kept after their entity
+ * is destroyed must stay dead when the index is given to a new entity, and be
+ * refused by every call. Last, a system destroying entities from inside an
+ * update must only have them destroyed once the update is done. Runs headless,
+ * exiting with a non zero status if any check fails.
+ *
+ * @author Graham
+ * @version 2.0.0
+ * @since 2026-10-18
+ */
+public class WorldTest {
+
+	private static final int OPERATIONS = 120000;
+	private static final int CHECK_EVERY = 10000;
+	// enough entities for the archetypes to need several chunks each
+	private static final int LIVING = 30000;
+	private static final ComponentType TAG = ComponentType.ints("Test Tag", 2);
+	private static final ComponentType[] TYPES = { Components.POSITION, Components.VELOCITY, Components.TRANSFORM,
+			TAG };
+
+	private static int failures = 0;
+
+	public static void main(String[] args) {
+		randomChanges();
+		reusedIds();
+		destroyedInUpdate();
+
+		if(failures > 0)
+			System.exit(1);
+		System.out.println("WorldTest passed");
+	}
+
+	/**
+	 * makes random changes to a world, checking every entity against the map of
+	 * what it should hold
+	 */
+	private static void randomChanges() {
+		Random random = new Random(12);
+		World world = new World();
+		Map<Integer, Integer> serials = new HashMap<Integer, Integer>();
+		Map<Integer, Long> masks = new HashMap<Integer, Long>();
+		List<Integer> living = new ArrayList<Integer>();
+		List<Integer> destroyed = new ArrayList<Integer>();
+		int serial = 1, notZero = 0, lostValues = 0, moves = 0;
+
+		for(int operation = 1; operation <= OPERATIONS; operation++) {
+			int choice = random.nextInt(10);
+			// only creates until the world is full enough, then creates as often as it destroys
+			if(living.isEmpty() || choice < (living.size() < LIVING ? 4 : 2)) {
+				List<ComponentType> types = new ArrayList<ComponentType>();
+				for(ComponentType type : TYPES)
+					if(random.nextBoolean())
+						types.add(type);
+				int entity = world.create(types.toArray(new ComponentType[types.size()]));
+				long mask = 0;
+				for(ComponentType type : types) {
+					mask |= type.getBit();
+					if(!isZero(world, entity, type))
+						notZero++;
+				}
+				serials.put(entity, serial);
+				masks.put(entity, mask);
+				living.add(entity);
+				write(world, entity, mask, serial++);
+			}else if(choice < 4) {
+				int entity = living.remove(random.nextInt(living.size()));
+				world.destroy(entity);
+				serials.remove(entity);
+				masks.remove(entity);
+				destroyed.add(entity);
+			}else {
+				int entity = living.get(random.nextInt(living.size()));
+				ComponentType type = TYPES[random.nextInt(TYPES.length)];
+				long mask = masks.get(entity);
+				if((mask & type.getBit()) == 0) {
+					world.addComponent(entity, type);
+					if(!isZero(world, entity, type))
+						notZero++;
+					mask |= type.getBit();
+					write(world, entity, type.getBit(), serials.get(entity));
+				}else {
+					world.removeComponent(entity, type);
+					mask &= ~type.getBit();
+				}
+				masks.put(entity, mask);
+				moves++;
+				if(!holds(world, entity, mask, serials.get(entity)))
+					lostValues++;
+			}
+
+			if(operation % CHECK_EVERY == 0)
+				compare(world, living, masks, serials, destroyed, operation);
+		}
+
+		int deepest = 0;
+		for(Archetype archetype : world.getArchetypes())
+			deepest = Math.max(deepest, archetype.getChunks().size());
+		check(deepest > 1, "no archetype needed more than one chunk");
+		check(notZero == 0, notZero + " new components did not start at zero");
+		check(lostValues == 0, lostValues + " entities lost their values moving between archetypes");
+		System.out.println(OPERATIONS + " operations, " + moves + " archetype moves, " + living.size()
+				+ " entities left in " + world.getArchetypes().size() + " archetypes, up to " + deepest
+				+ " chunks deep");
+	}
+
+	/**
+	 * checks every living entity holds its own values, every destroyed id is
+	 * refused, and the chunks hold exactly the living entities
+	 */
+	private static void compare(World world, List<Integer> living, Map<Integer, Long> masks,
+			Map<Integer, Integer> serials, List<Integer> destroyed, int operation) {
+		int wrongValues = 0, wrongComponents = 0, dead = 0, staleAlive = 0, staleAccepted = 0;
+		for(int entity : living) {
+			if(!world.isAlive(entity)) {
+				dead++;
+				continue;
+			}
+			long mask = masks.get(entity);
+			for(ComponentType type : TYPES)
+				if(world.hasComponent(entity, type) != ((mask & type.getBit()) != 0))
+					wrongComponents++;
+			if(!holds(world, entity, mask, serials.get(entity)))
+				wrongValues++;
+		}
+		for(int entity : destroyed) {
+			if(world.isAlive(entity))
+				staleAlive++;
+			try {
+				world.getFloat(entity, Components.POSITION, 0);
+				staleAccepted++;
+			} catch (IllegalArgumentException e) {
+			}
+		}
+
+		Set<Integer> stored = new HashSet<Integer>();
+		int repeated = 0, total = 0;
+		for(Archetype archetype : world.getArchetypes()) {
+			total += archetype.size();
+			for(Chunk chunk : archetype.getChunks()) {
+				for(int row = 0; row < chunk.size(); row++) {
+					int entity = chunk.getEntity(row);
+					if(!stored.add(entity))
+						repeated++;
+					if(masks.containsKey(entity) && masks.get(entity) != archetype.getMask())
+						wrongComponents++;
+				}
+			}
+		}
+
+		String stage = "after " + operation + " operations: ";
+		check(dead == 0, stage + dead + " living entities were not alive");
+		check(wrongComponents == 0, stage + wrongComponents + " components were in the wrong archetype");
+		check(wrongValues == 0, stage + wrongValues + " entities read back values that were not their own");
+		check(staleAlive == 0, stage + staleAlive + " destroyed ids were alive");
+		check(staleAccepted == 0, stage + staleAccepted + " destroyed ids were read from");
+		check(repeated == 0, stage + repeated + " entities were stored in more than one row");
+		check(stored.equals(new HashSet<Integer>(living)), stage + "the chunks held " + stored.size()
+				+ " entities, not the " + living.size() + " living");
+		check(total == living.size() && world.getEntityCount() == living.size(), stage + "the archetypes held "
+				+ total + " entities and the world counted " + world.getEntityCount() + ", not " + living.size());
+	}
+
+	/**
+	 * checks an id destroyed and given to a new entity stays dead, and is refused
+	 * by every call that takes an entity
+	 */
+	private static void reusedIds() {
+		World world = new World();
+		int first = world.create(Components.POSITION);
+		world.setFloat(first, Components.POSITION, 0, 5);
+		world.destroy(first);
+		int second = world.create(Components.POSITION, Components.VELOCITY);
+
+		check((second & (World.MAX_ENTITIES - 1)) == (first & (World.MAX_ENTITIES - 1)),
+				"the index of a destroyed entity was not reused");
+		check(second != first, "a reused index was given the id of the entity destroyed");
+		check(!world.isAlive(first), "a destroyed id was alive once its index was reused");
+		check(world.getFloat(second, Components.POSITION, 0) == 0, "a reused index kept the values of the entity "
+				+ "destroyed");
+
+		int refused = 0;
+		Runnable[] calls = { () -> world.destroy(first), () -> world.addComponent(first, TAG),
+				() -> world.removeComponent(first, Components.POSITION),
+				() -> world.hasComponent(first, Components.POSITION),
+				() -> world.setFloat(first, Components.POSITION, 0, 1),
+				() -> world.getFloat(first, Components.POSITION, 0) };
+		for(Runnable call : calls) {
+			try {
+				call.run();
+			} catch (IllegalArgumentException e) {
+				refused++;
+			}
+		}
+		check(refused == calls.length, "only " + refused + " of " + calls.length + " calls refused a destroyed id");
+		check(world.isAlive(second) && world.getEntityCount() == 1, "a call with a destroyed id changed the entity "
+				+ "given its index");
+
+		// every generation an index can have, until the generation wraps around to the first id's
+		int entity = second, repeats = 0, generations = 0;
+		do {
+			world.destroy(entity);
+			entity = world.create();
+			generations++;
+			if(entity == second)
+				repeats++;
+		} while(entity != first && generations < 1 << 12);
+		check(repeats == 0, "an id was given out again before every generation of its index was used");
+		check(generations >= 1 << 8, "an id was given out again after only " + generations + " generations");
+	}
+
+	/**
+	 * destroys entities from inside a system, which must only take effect once the
+	 * update is done
+	 */
+	private static void destroyedInUpdate() {
+		World world = new World();
+		List<Integer> entities = new ArrayList<Integer>();
+		for(int i = 0; i < Chunk.CAPACITY * 3; i++) {
+			int entity = world.create(Components.POSITION, Components.VELOCITY);
+			world.setFloat(entity, Components.VELOCITY, 0, i);
+			entities.add(entity);
+		}
+
+		int[] seen = { 0 }, createRefused = { 0 };
+		world.addSystem(new ComponentSystem(Components.VELOCITY) {
+			@Override
+			public void update(Chunk chunk, float delta) {
+				float[] velocities = chunk.getFloats(Components.VELOCITY);
+				for(int row = 0; row < chunk.size(); row++) {
+					seen[0]++;
+					if((int) velocities[row * 3] % 2 == 0)
+						world.destroyLater(chunk.getEntity(row));
+				}
+				try {
+					world.create(Components.POSITION);
+				} catch (IllegalStateException e) {
+					createRefused[0]++;
+				}
+			}
+		});
+		world.update(1);
+
+		check(seen[0] == entities.size(), "the system saw " + seen[0] + " of " + entities.size()
+				+ " entities, some were destroyed during the update");
+		check(createRefused[0] == 3, "creating entities inside a system was refused " + createRefused[0]
+				+ " times, not once per chunk");
+		int wrong = 0;
+		for(int i = 0; i < entities.size(); i++)
+			if(world.isAlive(entities.get(i)) != (i % 2 == 1))
+				wrong++;
+		check(wrong == 0, wrong + " entities were left alive or destroyed wrongly after the update");
+		check(world.getEntityCount() == entities.size() / 2, "the world counted " + world.getEntityCount()
+				+ " entities after the update, not " + entities.size() / 2);
+	}
+
+	/**
+	 * writes a serial number into the given components of an entity, offset by
+	 * the element so every element differs
+	 */
+	private static void write(World world, int entity, long mask, int serial) {
+		for(ComponentType type : TYPES) {
+			if((mask & type.getBit()) == 0)
+				continue;
+			for(int element = 0; element < type.getWidth(); element++) {
+				if(type.isInts())
+					world.setInt(entity, type, element, serial * 4 + element);
+				else
+					world.setFloat(entity, type, element, serial * 4 + element);
+			}
+		}
+	}
+
+	/**
+	 * @return True if every component an entity has holds the values written for its serial number
+	 */
+	private static boolean holds(World world, int entity, long mask, int serial) {
+		for(ComponentType type : TYPES) {
+			if((mask & type.getBit()) == 0)
+				continue;
+			for(int element = 0; element < type.getWidth(); element++) {
+				float value = type.isInts() ? world.getInt(entity, type, element)
+						: world.getFloat(entity, type, element);
+				if(value != serial * 4 + element)
+					return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean isZero(World world, int entity, ComponentType type) {
+		for(int element = 0; element < type.getWidth(); element++) {
+			float value = type.isInts() ? world.getInt(entity, type, element) : world.getFloat(entity, type, element);
+			if(value != 0)
+				return false;
+		}
+		return true;
+	}
+
+	private static void check(boolean condition, String message) {
+		if(condition)
+			return;
+		System.err.println("FAILED: " + message);
+		failures++;
+	}
+}
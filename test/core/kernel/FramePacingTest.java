@@ -0,0 +1,173 @@
+package core.kernel;
+
+/**
+ * <h1>FramePacingTest Class</h1>
+ * <p>
+ * Runs the fixed step loop of the engine with stand in updates and frames that
+ * only spin for a set time, waiting on a FrameClock between them as the engine
+ * does, and reports the mean and standard deviation of the time between frames.
+ * The same stand ins are run by a loop that sleeps a fixed amount whenever
+ * nothing is due, as the engine did before, for comparison. The FrameClock
+ * must never wake before its deadline, and the frames must come at the display
+ * rate on average. Runs headless, exiting with a non zero status if any check
+ * fails.
+ *
+ * @author Graham
+ * @version 2.0.0
+ * @since 2026-10-18
+ */
+public class FramePacingTest {
+
+	private static final long TICK = 1000000000L / 120;
+	private static final long DISPLAY = 1000000000L / 60;
+	private static final int MAX_CATCH_UP_STEPS = 5;
+	private static final long UPDATE_WORK = 500000, RENDER_WORK = 1000000;
+	private static final int FRAMES = 180;
+
+	private static int failures = 0;
+
+	public static void main(String[] args) throws InterruptedException {
+		long[] clocked = clockedLoop();
+		long[] slept = sleepingLoop();
+
+		double mean = report("FrameClock", clocked);
+		report("sleep(10)", slept);
+		check(Math.abs(mean - DISPLAY) < DISPLAY / 10, "frames came every " + mean / 1e6 + "ms on average, not "
+				+ DISPLAY / 1e6 + "ms");
+
+		if(failures > 0)
+			System.exit(1);
+		System.out.println("FramePacingTest passed");
+	}
+
+	/**
+	 * the loop of the engine, waiting for whichever of the next update or frame
+	 * falls due first
+	 *
+	 * @return The time between each frame and the one before
+	 */
+	private static long[] clockedLoop() {
+		FrameClock clock = new FrameClock();
+		long[] intervals = new long[FRAMES];
+		int frames = 0, early = 0;
+		long lastFrame = 0;
+
+		long lastTime = System.nanoTime();
+		long unprocessedTime = 0;
+		long nextFrame = lastTime;
+		while(frames < FRAMES) {
+			long startTime = System.nanoTime();
+			unprocessedTime += startTime - lastTime;
+			lastTime = startTime;
+
+			int steps = 0;
+			while(unprocessedTime >= TICK) {
+				if(steps == MAX_CATCH_UP_STEPS) {
+					unprocessedTime %= TICK;
+					break;
+				}
+				unprocessedTime -= TICK;
+				steps++;
+				work(UPDATE_WORK);
+			}
+
+			if(startTime - nextFrame >= 0) {
+				work(RENDER_WORK);
+				long now = System.nanoTime();
+				if(lastFrame != 0)
+					intervals[frames++] = now - lastFrame;
+				lastFrame = now;
+				nextFrame += DISPLAY;
+				if(startTime - nextFrame >= 0)
+					nextFrame = startTime + DISPLAY;
+			}
+
+			long nextTick = startTime + TICK - unprocessedTime;
+			long deadline = nextTick - nextFrame < 0 ? nextTick : nextFrame;
+			clock.waitUntil(deadline);
+			if(System.nanoTime() - deadline < 0)
+				early++;
+		}
+
+		check(early == 0, "the frame clock woke " + early + " times before its deadline");
+		System.out.println("FrameClock slack settled at " + clock.getSlack() / 1000 + "us");
+		return intervals;
+	}
+
+	/**
+	 * the loop the engine ran before, drawing after every update and sleeping ten
+	 * milliseconds whenever no update was due
+	 *
+	 * @return The time between each frame and the one before
+	 */
+	private static long[] sleepingLoop() throws InterruptedException {
+		long[] intervals = new long[FRAMES];
+		int frames = 0;
+		long lastFrame = 0;
+
+		long lastTime = System.nanoTime();
+		long unprocessedTime = 0;
+		while(frames < FRAMES) {
+			boolean render = false;
+			long startTime = System.nanoTime();
+			unprocessedTime += startTime - lastTime;
+			lastTime = startTime;
+
+			while(unprocessedTime > TICK) {
+				render = true;
+				unprocessedTime -= TICK;
+				work(UPDATE_WORK);
+			}
+
+			if(render) {
+				work(RENDER_WORK);
+				long now = System.nanoTime();
+				if(lastFrame != 0)
+					intervals[frames++] = now - lastFrame;
+				lastFrame = now;
+			}else {
+				Thread.sleep(10);
+			}
+		}
+		return intervals;
+	}
+
+	/**
+	 * prints the mean, standard deviation and largest gap between frames
+	 *
+	 * @return The mean time between frames
+	 */
+	private static double report(String name, long[] intervals) {
+		double mean = 0;
+		long longest = 0;
+		for(long interval : intervals) {
+			mean += interval;
+			longest = Math.max(longest, interval);
+		}
+		mean /= intervals.length;
+		double variance = 0;
+		for(long interval : intervals)
+			variance += (interval - mean) * (interval - mean);
+		variance /= intervals.length;
+
+		System.out.printf("%-10s %d frames, %.3f +- %.3fms apart, longest %.3fms%n", name, intervals.length,
+				mean / 1e6, Math.sqrt(variance) / 1e6, longest / 1e6);
+		return mean;
+	}
+
+	/**
+	 * spins for a time, standing in for an update or a frame
+	 */
+	private static void work(long nanoseconds) {
+		long end = System.nanoTime() + nanoseconds;
+		while(System.nanoTime() - end < 0)
+			;
+	}
+
+	private static void check(boolean condition, String message) {
+		if(condition)
+			return;
+		System.err.println("FAILED: " + message);
+		failures++;
+	}
+}
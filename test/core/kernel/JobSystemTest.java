@@ -0,0 +1,241 @@
+package core.kernel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <h1>JobSystemTest Class</h1>
+ * <p>
+ * Schedules random graphs of jobs and checks no job starts before every job it
+ * depends on has finished, including jobs depending on ones already finished.
+ * A job that throws must still release the jobs after it and rethrow from join.
+ * parallelFor must run every index of a range exactly once, whatever its size
+ * and grain, including when called from inside a job or another parallelFor.
+ * Then a parallelFor over a large array is timed with more and more workers.
+ * Runs headless, exiting with a non zero status if any check fails.
+ *
+ * @author Graham
+ * @version 2.0.0
+ * @since 2026-10-18
+ */
+public class JobSystemTest {
+
+	private static final int GRAPHS = 20;
+	private static final int JOBS = 300;
+	private static final int TIMED_ROUNDS = 20;
+
+	private static int failures = 0;
+
+	public static void main(String[] args) {
+		JobSystem jobs = new JobSystem(3);
+		dependencies(jobs);
+		exceptions(jobs);
+		ranges(jobs);
+		nested(jobs);
+		jobs.shutdown();
+
+		scaling();
+
+		if(failures > 0)
+			System.exit(1);
+		System.out.println("JobSystemTest passed");
+	}
+
+	/**
+	 * schedules graphs of jobs each depending on up to three earlier jobs, and
+	 * checks each started after its dependencies finished
+	 */
+	private static void dependencies(JobSystem jobs) {
+		Random random = new Random(3);
+		int early = 0, unfinished = 0;
+		for(int graph = 0; graph < GRAPHS; graph++) {
+			AtomicInteger clock = new AtomicInteger();
+			// the first job is held until every job is scheduled, so the jobs after it are scheduled while it runs
+			CountDownLatch scheduled = new CountDownLatch(1);
+			int[] started = new int[JOBS], finished = new int[JOBS];
+			int[][] dependsOn = new int[JOBS][];
+			Job[] handles = new Job[JOBS];
+			for(int i = 0; i < JOBS; i++) {
+				dependsOn[i] = new int[i == 0 ? 0 : random.nextInt(Math.min(i, 3) + 1)];
+				Job[] dependencies = new Job[dependsOn[i].length];
+				for(int d = 0; d < dependsOn[i].length; d++) {
+					dependsOn[i][d] = random.nextInt(i);
+					dependencies[d] = handles[dependsOn[i][d]];
+				}
+				int job = i;
+				handles[i] = jobs.schedule(() -> {
+					started[job] = clock.incrementAndGet();
+					if(job == 0)
+						await(scheduled);
+					// uneven jobs, so dependencies are often still running when their dependents are scheduled
+					if(job % 7 == 0)
+						spin(20000);
+					finished[job] = clock.incrementAndGet();
+				}, dependencies);
+			}
+			scheduled.countDown();
+			for(Job handle : handles)
+				handle.join();
+
+			for(int i = 0; i < JOBS; i++) {
+				if(!handles[i].isDone() || finished[i] == 0)
+					unfinished++;
+				for(int dependency : dependsOn[i])
+					if(started[i] < finished[dependency])
+						early++;
+			}
+		}
+		check(unfinished == 0, unfinished + " jobs had not finished once joined");
+		check(early == 0, early + " jobs started before a job they depend on finished");
+
+		// a job depending on one that has already finished is run straight away
+		Job done = jobs.schedule(() -> {});
+		done.join();
+		AtomicInteger ran = new AtomicInteger();
+		jobs.schedule(() -> ran.incrementAndGet(), done, done).join();
+		check(ran.get() == 1, "a job depending on a finished job ran " + ran.get() + " times");
+	}
+
+	/**
+	 * checks a job that throws still releases its dependents, and that join
+	 * rethrows what it threw
+	 */
+	private static void exceptions(JobSystem jobs) {
+		Job failing = jobs.schedule(() -> {
+			spin(100000);
+			throw new IllegalStateException("job failed on purpose");
+		});
+		AtomicInteger after = new AtomicInteger();
+		Job dependent = jobs.schedule(() -> after.incrementAndGet(), failing);
+		dependent.join();
+		check(after.get() == 1, "the job after a failed job ran " + after.get() + " times");
+
+		RuntimeException thrown = null;
+		try {
+			failing.join();
+		} catch (RuntimeException e) {
+			thrown = e;
+		}
+		boolean rethrown = false;
+		for(Throwable cause = thrown; cause != null && !rethrown; cause = cause.getCause())
+			rethrown = cause instanceof IllegalStateException && "job failed on purpose".equals(cause.getMessage());
+		check(rethrown, "joining a failed job threw " + thrown + " rather than what the job threw");
+		check(failing.isDone(), "a failed job was not done");
+	}
+
+	/**
+	 * runs parallelFor over ranges of many sizes and grains, counting how many
+	 * times each index is run
+	 */
+	private static void ranges(JobSystem jobs) {
+		int[][] cases = { { 0, 0, 1 }, { 5, 3, 1 }, { 0, 1, 1 }, { 0, 10, 100 }, { 0, 1000, 1 }, { -500, 500, 7 },
+				{ 3, 100003, 64 }, { 0, 1000003, 1000 }, { 0, 4096, 0 } };
+		for(int[] range : cases) {
+			int from = range[0], to = range[1], grain = range[2];
+			AtomicIntegerArray runs = new AtomicIntegerArray(Math.max(to - from, 0));
+			AtomicInteger outside = new AtomicInteger();
+			jobs.parallelFor(from, to, grain, (start, end) -> {
+				if(start < from || end > to || start >= end)
+					outside.incrementAndGet();
+				for(int i = Math.max(start, from); i < Math.min(end, to); i++)
+					runs.incrementAndGet(i - from);
+			});
+
+			int wrong = 0;
+			for(int i = 0; i < runs.length(); i++)
+				if(runs.get(i) != 1)
+					wrong++;
+			check(wrong == 0, wrong + " indices of [" + from + ", " + to + ") grain " + grain
+					+ " were not run exactly once");
+			check(outside.get() == 0, outside.get() + " pieces of [" + from + ", " + to + ") grain " + grain
+					+ " were empty or outside the range");
+		}
+	}
+
+	/**
+	 * runs parallelFor from inside jobs and from inside another parallelFor
+	 */
+	private static void nested(JobSystem jobs) {
+		int outer = 64, inner = 1000;
+		long expected = (long) inner * (inner - 1) / 2;
+
+		AtomicLong fromJob = new AtomicLong();
+		List<Job> handles = new ArrayList<Job>();
+		for(int i = 0; i < 8; i++)
+			handles.add(jobs.schedule(() -> jobs.parallelFor(0, inner, 10, (from, to) -> {
+				for(int k = from; k < to; k++)
+					fromJob.addAndGet(k);
+			})));
+		for(Job handle : handles)
+			handle.join();
+		check(fromJob.get() == expected * 8, "parallelFor inside jobs summed to " + fromJob.get() + ", not "
+				+ expected * 8);
+
+		AtomicLong fromRange = new AtomicLong();
+		jobs.parallelFor(0, outer, 1, (from, to) -> {
+			for(int i = from; i < to; i++)
+				jobs.parallelFor(0, inner, 10, (start, end) -> {
+					for(int k = start; k < end; k++)
+						fromRange.addAndGet(k);
+				});
+		});
+		check(fromRange.get() == expected * outer, "parallelFor inside parallelFor summed to " + fromRange.get()
+				+ ", not " + expected * outer);
+	}
+
+	/**
+	 * times the same parallelFor with one worker and up to one per core, printing
+	 * the fastest round of each and its speed up over one worker
+	 */
+	private static void scaling() {
+		float[] data = new float[1 << 22];
+		int cores = Runtime.getRuntime().availableProcessors();
+		long single = 0;
+		for(int workers = 1; workers <= Math.max(2, cores); workers++) {
+			JobSystem jobs = new JobSystem(workers);
+			long best = Long.MAX_VALUE;
+			for(int round = 0; round < TIMED_ROUNDS; round++) {
+				long start = System.nanoTime();
+				jobs.parallelFor(0, data.length, 16384, (from, to) -> {
+					for(int i = from; i < to; i++)
+						data[i] = data[i] * 0.5f + (float) Math.sqrt(i);
+				});
+				best = Math.min(best, System.nanoTime() - start);
+			}
+			jobs.shutdown();
+			if(workers == 1)
+				single = best;
+			System.out.printf("%d workers on %d cores: %.2fms, %.2fx%n", workers, cores, best / 1e6,
+					single / (double) best);
+		}
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * spins for a time, standing in for a job doing some work
+	 */
+	private static void spin(long nanoseconds) {
+		long end = System.nanoTime() + nanoseconds;
+		while(System.nanoTime() - end < 0)
+			;
+	}
+
+	private static void check(boolean condition, String message) {
+		if(condition)
+			return;
+		System.err.println("FAILED: " + message);
+		failures++;
+	}
+}
@@ -0,0 +1,148 @@
+package core.kernel;
+
+import java.util.Random;
+
+import core.maths.TransformStore;
+import core.maths.vector.Vector3f;
+
+/**
+ * <h1>SnapshotBufferTest Class</h1>
+ * <p>
+ * Checks the triple buffered handoff between the simulation and render
+ * threads. Random publishes and acquires on one thread must always hand the
+ * render thread the newest published snapshot and never give the simulation
+ * thread the snapshot being drawn. Then a writer thread captures and publishes
+ * frames as fast as it can while a reader draws them slowly, checking every
+ * frame it acquires holds one whole tick, still holds it after being drawn,
+ * and is never older than the frame before. Runs headless, exiting with a non
+ * zero status if any check fails.
+ *
+ * @author Graham
+ * @version 2.0.0
+ * @since 2026-10-18
+ */
+public class SnapshotBufferTest {
+
+	private static final int OPERATIONS = 100000;
+	private static final int FRAMES = 20000;
+	private static final int TRANSFORMS = 2000;
+
+	private static int failures = 0;
+
+	public static void main(String[] args) throws InterruptedException {
+		handoff();
+		threaded();
+
+		if(failures > 0)
+			System.exit(1);
+		System.out.println("SnapshotBufferTest passed");
+	}
+
+	/**
+	 * publishes and acquires in a random order on one thread, following which
+	 * snapshot each side should hold
+	 */
+	private static void handoff() {
+		Random random = new Random(5);
+		SnapshotBuffer buffer = new SnapshotBuffer();
+		check(buffer.acquire() == null, "a snapshot was acquired before any was published");
+
+		FrameSnapshot published = null, drawing = null;
+		int reused = 0, stale = 0;
+		for(int i = 0; i < OPERATIONS; i++) {
+			if(random.nextBoolean()) {
+				published = buffer.getWriteSnapshot();
+				buffer.publish();
+			}else if(published != null) {
+				drawing = buffer.acquire();
+				if(drawing != published)
+					stale++;
+			}
+			if(drawing != null && buffer.getWriteSnapshot() == drawing)
+				reused++;
+		}
+
+		check(reused == 0, reused + " times the snapshot being drawn was handed back to be written");
+		check(stale == 0, stale + " acquires did not return the newest published snapshot");
+	}
+
+	/**
+	 * captures frames on a writer thread while this thread draws them, each
+	 * transform of frame t at (t, i, 0)
+	 */
+	private static void threaded() throws InterruptedException {
+		SnapshotBuffer buffer = new SnapshotBuffer();
+		TransformStore store = new TransformStore(TRANSFORMS);
+		int[] handles = new int[TRANSFORMS];
+		for(int i = 0; i < TRANSFORMS; i++)
+			handles[i] = store.allocate();
+
+		Thread writer = new Thread(() -> {
+			for(int tick = 1; tick <= FRAMES; tick++) {
+				for(int i = 0; i < TRANSFORMS; i++)
+					store.setTranslation(handles[i], tick, i, 0);
+				buffer.getWriteSnapshot().capture(store, null, tick);
+				buffer.publish();
+			}
+		}, "Snapshot Writer");
+		writer.start();
+
+		Vector3f translation = new Vector3f();
+		long last = 0, start = System.nanoTime();
+		int frames = 0, torn = 0, overwritten = 0, older = 0;
+		while(last < FRAMES && System.nanoTime() - start < 60_000_000_000L) {
+			FrameSnapshot snapshot = buffer.acquire();
+			if(snapshot == null || snapshot.getTick() == last) {
+				Thread.yield();
+				continue;
+			}
+			long tick = snapshot.getTick();
+			if(tick < last)
+				older++;
+			last = tick;
+			frames++;
+
+			if(!holds(snapshot, handles, tick, translation))
+				torn++;
+			// a slow frame, long enough for the writer to publish many times over
+			if(frames % 20 == 0)
+				Thread.sleep(2);
+			else
+				Thread.yield();
+			if(snapshot.getTick() != tick || !holds(snapshot, handles, tick, translation))
+				overwritten++;
+		}
+		writer.join();
+
+		check(last == FRAMES, "the last frame acquired was " + last + ", not the last published " + FRAMES);
+		check(frames > 10 && frames < FRAMES, "the reader drew " + frames
+				+ " frames, too few or too many to have raced");
+		check(torn == 0, torn + " frames held more than one tick");
+		check(overwritten == 0, overwritten + " frames were written while being drawn");
+		check(older == 0, older + " frames were older than the frame before");
+
+		System.out.println(FRAMES + " frames published, " + frames + " drawn");
+	}
+
+	/**
+	 * @return True if every transform of a snapshot is where it was put in the
+	 *         given tick
+	 */
+	private static boolean holds(FrameSnapshot snapshot, int[] handles, long tick, Vector3f translation) {
+		if(snapshot.getTransformCount() != TRANSFORMS)
+			return false;
+		for(int i = 0; i < TRANSFORMS; i++) {
+			snapshot.getTranslation(handles[i], translation);
+			if(translation.getX() != tick || translation.getY() != i)
+				return false;
+		}
+		return true;
+	}
+
+	private static void check(boolean condition, String message) {
+		if(condition)
+			return;
+		System.err.println("FAILED: " + message);
+		failures++;
+	}
+}
@@ -0,0 +1,195 @@
+package core.maths;
+
+import java.util.Random;
+
+import core.maths.matrix.Matrix4f;
+import core.maths.vector.Vector3f;
+
+/**
+ * <h1>FrustumTest Class</h1>
+ * <p>
+ * Checks frustum culling against brute force for random bounds moved by random
+ * model matrices, each a parent and child with non uniform scales and rotations
+ * composed as Node composes them. The corners of every model space box are
+ * moved one at a time and tested against every plane, then compared with the
+ * sphere and box the renderer and the scene index cull with. The batched
+ * cullSpheres is then timed against testing each sphere with intersectsSphere,
+ * reporting how many spheres each culls per millisecond. Runs headless,
+ * exiting with a non zero status if any check fails.
+ *
+ * @author Graham
+ * @version 2.0.0
+ * @since 2026-10-18
+ */
+public class FrustumTest {
+
+	private static final int COUNT = 100000;
+	// how close to a plane a distance can be before rounding may decide it
+	private static final float EPSILON = 1e-3f;
+	private static final int TIMED_ROUNDS = 50;
+
+	private static int failures = 0;
+
+	public static void main(String[] args) {
+		Matrix4f projection = new Matrix4f().setPerspectiveProjection(70, 1280, 720, 0.1f, 1000);
+		Matrix4f view = new Matrix4f().setView(new Vector3f(0.3f, 0.1f, 1).normalize(), new Vector3f(0, 1, 0));
+		Matrix4f translation = new Matrix4f().setTranslation(new Vector3f(-5, -2, 3));
+		Matrix4f viewProjection = projection.mul(view.mul(translation, new Matrix4f()), new Matrix4f());
+		Frustum frustum = new Frustum().extract(viewProjection);
+
+		Random random = new Random(1);
+		Matrix4f parent = new Matrix4f(), local = new Matrix4f(), model = new Matrix4f();
+		BoundingBox bounds = new BoundingBox(), world = new BoundingBox();
+		float[] x = new float[COUNT], y = new float[COUNT], z = new float[COUNT], radius = new float[COUNT];
+		float[] corners = new float[24];
+		boolean[] expected = new boolean[COUNT];
+		int inside = 0, sphereMisses = 0, boxMisses = 0, boxMismatches = 0, uncontained = 0;
+
+		for(int i = 0; i < COUNT; i++) {
+			randomTransform(random, parent, 400);
+			randomTransform(random, local, 50);
+			parent.mul(local, model);
+
+			float cx = random.nextFloat() * 4 - 2, cy = random.nextFloat() * 4 - 2, cz = random.nextFloat() * 4 - 2;
+			bounds.set(cx - random.nextFloat() * 3, cy - random.nextFloat() * 3, cz - random.nextFloat() * 3,
+					cx + random.nextFloat() * 3, cy + random.nextFloat() * 3, cz + random.nextFloat() * 3);
+			bounds.transform(model, world);
+			Vector3f centre = world.getCentre();
+			x[i] = centre.getX();
+			y[i] = centre.getY();
+			z[i] = centre.getZ();
+			radius[i] = world.getRadius();
+
+			// the corners of the model space box, moved into world space one at a time
+			Vector3f min = bounds.getMin(), max = bounds.getMax();
+			for(int corner = 0; corner < 8; corner++) {
+				float px = (corner & 1) == 0 ? min.getX() : max.getX();
+				float py = (corner & 2) == 0 ? min.getY() : max.getY();
+				float pz = (corner & 4) == 0 ? min.getZ() : max.getZ();
+				for(int row = 0; row < 3; row++)
+					corners[corner * 3 + row] = model.get(row, 0) * px + model.get(row, 1) * py
+							+ model.get(row, 2) * pz + model.get(row, 3);
+
+				float dx = corners[corner * 3] - x[i], dy = corners[corner * 3 + 1] - y[i],
+						dz = corners[corner * 3 + 2] - z[i];
+				if(dx * dx + dy * dy + dz * dz > radius[i] * radius[i] * (1 + EPSILON))
+					uncontained++;
+			}
+
+			// a box with a corner clearly inside every plane must never be culled
+			boolean visible = false;
+			for(int corner = 0; corner < 8 && !visible; corner++)
+				visible = insideAll(frustum, corners[corner * 3], corners[corner * 3 + 1], corners[corner * 3 + 2]);
+			if(visible) {
+				inside++;
+				if(!frustum.intersectsSphere(x[i], y[i], z[i], radius[i]))
+					sphereMisses++;
+				if(!frustum.intersectsBox(world))
+					boxMisses++;
+			}
+
+			// the world box is culled exactly when all its corners are outside one plane
+			if(frustum.intersectsBox(world) != !outsideOne(frustum, world))
+				boxMismatches++;
+
+			expected[i] = frustum.intersectsSphere(x[i], y[i], z[i], radius[i]);
+		}
+
+		int[] visible = new int[COUNT];
+		int visibleCount = frustum.cullSpheres(x, y, z, radius, COUNT, new float[COUNT], visible);
+		int batchMismatches = 0, next = 0;
+		for(int i = 0; i < COUNT; i++) {
+			boolean batched = next < visibleCount && visible[next] == i;
+			if(batched)
+				next++;
+			if(batched != expected[i] && !nearPlane(frustum, x[i], y[i], z[i], radius[i]))
+				batchMismatches++;
+		}
+
+		check(inside > 1000 && inside < COUNT - 1000, "too few visible and culled bounds to be a test, " + inside
+				+ " of " + COUNT + " visible");
+		check(uncontained == 0, uncontained + " moved corners outside their world sphere");
+		check(sphereMisses == 0, sphereMisses + " visible bounds culled by their world sphere");
+		check(boxMisses == 0, boxMisses + " visible bounds culled by their world box");
+		check(boxMismatches == 0, boxMismatches + " world boxes culled differently to brute force");
+		check(batchMismatches == 0, batchMismatches + " spheres culled differently by cullSpheres");
+
+		System.out.println(COUNT + " bounds, " + inside + " visible, " + visibleCount + " spheres passed the batch");
+		time(frustum, x, y, z, radius);
+		if(failures > 0)
+			System.exit(1);
+		System.out.println("FrustumTest passed");
+	}
+
+	/**
+	 * culls the spheres many times over with cullSpheres and with intersectsSphere
+	 * one sphere at a time, and prints the rate of each from its fastest round
+	 */
+	private static void time(Frustum frustum, float[] x, float[] y, float[] z, float[] radius) {
+		float[] distances = new float[COUNT];
+		int[] visible = new int[COUNT];
+		long batched = Long.MAX_VALUE, scalar = Long.MAX_VALUE;
+		int batchedCount = 0, scalarCount = 0;
+		for(int round = 0; round < TIMED_ROUNDS; round++) {
+			long start = System.nanoTime();
+			batchedCount = frustum.cullSpheres(x, y, z, radius, COUNT, distances, visible);
+			batched = Math.min(batched, System.nanoTime() - start);
+
+			start = System.nanoTime();
+			scalarCount = 0;
+			for(int i = 0; i < COUNT; i++)
+				if(frustum.intersectsSphere(x[i], y[i], z[i], radius[i]))
+					visible[scalarCount++] = i;
+			scalar = Math.min(scalar, System.nanoTime() - start);
+		}
+
+		// the two only differ on spheres within rounding of a plane
+		check(Math.abs(batchedCount - scalarCount) < COUNT / 1000, "cullSpheres kept " + batchedCount
+				+ " spheres, intersectsSphere " + scalarCount);
+		System.out.printf("cullSpheres %.0f culls/ms, intersectsSphere %.0f culls/ms (%.2fx)%n",
+				COUNT / (batched / 1e6), COUNT / (scalar / 1e6), scalar / (double) batched);
+	}
+
+	private static void randomTransform(Random random, Matrix4f dest, float range) {
+		dest.setTransform(
+				new Vector3f((random.nextFloat() * 2 - 1) * range, (random.nextFloat() * 2 - 1) * range,
+						(random.nextFloat() * 2 - 1) * range),
+				new Vector3f(random.nextFloat() * 360, random.nextFloat() * 360, random.nextFloat() * 360),
+				new Vector3f(0.1f + random.nextFloat() * 5, 0.1f + random.nextFloat() * 5,
+						0.1f + random.nextFloat() * 5));
+	}
+
+	private static boolean insideAll(Frustum frustum, float x, float y, float z) {
+		for(int plane = 0; plane < Frustum.PLANES; plane++)
+			if(frustum.distance(plane, x, y, z) <= EPSILON)
+				return false;
+		return true;
+	}
+
+	private static boolean outsideOne(Frustum frustum, BoundingBox box) {
+		Vector3f min = box.getMin(), max = box.getMax();
+		for(int plane = 0; plane < Frustum.PLANES; plane++) {
+			boolean outside = true;
+			for(int corner = 0; corner < 8 && outside; corner++)
+				outside = frustum.distance(plane, (corner & 1) == 0 ? min.getX() : max.getX(),
+						(corner & 2) == 0 ? min.getY() : max.getY(), (corner & 4) == 0 ? min.getZ() : max.getZ()) < 0;
+			if(outside)
+				return true;
+		}
+		return false;
+	}
+
+	private static boolean nearPlane(Frustum frustum, float x, float y, float z, float radius) {
+		for(int plane = 0; plane < Frustum.PLANES; plane++)
+			if(Math.abs(frustum.distance(plane, x, y, z) + radius) < EPSILON)
+				return true;
+		return false;
+	}
+
+	private static void check(boolean condition, String message) {
+		if(condition)
+			return;
+		System.err.println("FAILED: " + message);
+		failures++;
+	}
+}
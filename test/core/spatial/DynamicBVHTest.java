@@ -0,0 +1,391 @@
+package core.spatial;
+
+import java.util.Random;
+
+import core.maths.BoundingBox;
+import core.maths.Frustum;
+import core.maths.matrix.Matrix4f;
+import core.maths.vector.Vector3f;
+import core.utils.IntList;
+
+/**
+ * <h1>DynamicBVHTest Class</h1>
+ * <p>
+ * Fills a DynamicBVH with random boxes, half added and built and half inserted,
+ * then moves, removes, inserts again and updates them in place, rebuilding at
+ * the end. After each step every frustum, box, sphere and ray query is compared
+ * with a brute force test of every box. A query must find every box it touches,
+ * and nothing it finds may be removed, found twice, or have a box the query
+ * does not touch. A ray must stop at the same closest box, and proxy ids given
+ * to new objects must only hold the new object. Then the build, refit and
+ * queries of trees of ten thousand, a hundred thousand and a million boxes are
+ * timed. Runs headless, exiting with a non zero status if any check fails.
+ *
+ * @author Graham
+ * @version 2.0.0
+ * @since 2026-10-18
+ */
+public class DynamicBVHTest {
+
+	private static final int OBJECTS = 10000;
+	private static final int QUERIES = 50;
+	private static final float WORLD = 2000;
+	private static final float MARGIN = 0.5f;
+	private static final int[] BENCHMARK_SIZES = { 10000, 100000, 1000000 };
+	private static final int BENCHMARK_QUERIES = 1000;
+
+	private static int failures = 0;
+	private static Random random = new Random(7);
+
+	// six floats per object: min x, y, z then max x, y, z
+	private static float[] boxes = new float[OBJECTS * 6];
+	private static boolean[] alive = new boolean[OBJECTS];
+	private static int[] proxies = new int[OBJECTS];
+
+	public static void main(String[] args) {
+		fuzz();
+		for(int size : BENCHMARK_SIZES)
+			benchmark(size);
+
+		if(failures > 0)
+			System.exit(1);
+		System.out.println("DynamicBVHTest passed");
+	}
+
+	/**
+	 * changes the tree in every way it can be changed, comparing the queries with
+	 * brute force after each step
+	 */
+	private static void fuzz() {
+		DynamicBVH tree = new DynamicBVH(MARGIN);
+		for(int i = 0; i < OBJECTS / 2; i++) {
+			randomBox(boxes, i, WORLD);
+			proxies[i] = tree.add(boxes[i * 6], boxes[i * 6 + 1], boxes[i * 6 + 2], boxes[i * 6 + 3],
+					boxes[i * 6 + 4], boxes[i * 6 + 5], i);
+			alive[i] = true;
+		}
+		tree.build();
+		for(int i = OBJECTS / 2; i < OBJECTS; i++)
+			insert(tree, i);
+		compare("built and inserted", tree);
+
+		for(int k = 0; k < OBJECTS / 2; k++) {
+			int i = random.nextInt(OBJECTS);
+			if(!alive[i])
+				continue;
+			float dx = random.nextFloat() * 20 - 10, dy = random.nextFloat() * 6 - 3;
+			for(int axis = 0; axis < 6; axis += 3) {
+				boxes[i * 6 + axis] += dx;
+				boxes[i * 6 + axis + 1] += dy;
+			}
+			tree.move(proxies[i], boxes[i * 6], boxes[i * 6 + 1], boxes[i * 6 + 2], boxes[i * 6 + 3],
+					boxes[i * 6 + 4], boxes[i * 6 + 5], dx, dy, 0);
+		}
+		int removed = 0;
+		boolean[] freed = new boolean[OBJECTS * 2];
+		for(int k = 0; k < OBJECTS / 10; k++) {
+			int i = random.nextInt(OBJECTS);
+			if(alive[i]) {
+				tree.remove(proxies[i]);
+				freed[proxies[i]] = true;
+				alive[i] = false;
+				removed++;
+			}
+		}
+		// the removed ids are handed out again, and must only hold their new object
+		int reused = 0, wrongData = 0;
+		for(int k = 0; k < OBJECTS / 20; k++) {
+			int i = random.nextInt(OBJECTS);
+			if(alive[i])
+				continue;
+			insert(tree, i);
+			if(proxies[i] < freed.length && freed[proxies[i]])
+				reused++;
+			if(!Integer.valueOf(i).equals(tree.getUserData(proxies[i])))
+				wrongData++;
+		}
+		check(reused > 0, "no removed proxy id was given to a new object");
+		check(wrongData == 0, wrongData + " inserted proxies did not hold their object");
+		int count = 0;
+		for(int i = 0; i < OBJECTS; i++)
+			if(alive[i])
+				count++;
+		check(tree.getProxyCount() == count, "the tree holds " + tree.getProxyCount() + " proxies, not " + count);
+		compare("moved, removed " + removed + " and inserted again", tree);
+
+		for(int i = 0; i < OBJECTS; i++) {
+			if(!alive[i])
+				continue;
+			float d = random.nextFloat() * 6 - 3;
+			for(int axis = 0; axis < 6; axis++)
+				boxes[i * 6 + axis] += d;
+			tree.update(proxies[i], boxes[i * 6], boxes[i * 6 + 1], boxes[i * 6 + 2], boxes[i * 6 + 3],
+					boxes[i * 6 + 4], boxes[i * 6 + 5]);
+		}
+		compare("updated in place and refitted", tree);
+
+		tree.build();
+		compare("rebuilt", tree);
+
+		tree.clear();
+		IntList found = new IntList();
+		tree.queryBox(-WORLD, -WORLD, -WORLD, WORLD, WORLD, WORLD, found);
+		check(tree.getProxyCount() == 0 && found.size() == 0, "the cleared tree still found " + found.size()
+				+ " proxies");
+		System.out.println(reused + " proxy ids were given to new objects");
+	}
+
+	/**
+	 * inserts an object as a dynamic proxy
+	 */
+	private static void insert(DynamicBVH tree, int i) {
+		randomBox(boxes, i, WORLD);
+		proxies[i] = tree.insert(boxes[i * 6], boxes[i * 6 + 1], boxes[i * 6 + 2], boxes[i * 6 + 3], boxes[i * 6 + 4],
+				boxes[i * 6 + 5], i);
+		alive[i] = true;
+	}
+
+	/**
+	 * runs a frustum query and random box, sphere and ray queries, checking each
+	 * against every live box
+	 */
+	private static void compare(String stage, DynamicBVH tree) {
+		IntList found = new IntList();
+		BoundingBox bounds = new BoundingBox();
+		boolean[] seen = new boolean[OBJECTS];
+		int missed = 0, extra = 0, duplicated = 0, dead = 0, wrongRay = 0;
+
+		Frustum frustum = frustum(WORLD * 0.4f);
+		tree.queryFrustum(frustum, found);
+		int inFrustum = found.size();
+		for(int k = 0; k < found.size(); k++) {
+			int i = (Integer) tree.getUserData(found.get(k));
+			tree.getBounds(found.get(k), bounds);
+			if(!alive[i] || proxies[i] != found.get(k))
+				dead++;
+			if(seen[i])
+				duplicated++;
+			seen[i] = true;
+			if(!frustum.intersectsBox(bounds))
+				extra++;
+		}
+		for(int i = 0; i < OBJECTS; i++) {
+			if(alive[i] && !seen[i] && frustum.intersectsBox(boxes[i * 6], boxes[i * 6 + 1], boxes[i * 6 + 2],
+					boxes[i * 6 + 3], boxes[i * 6 + 4], boxes[i * 6 + 5]))
+				missed++;
+			seen[i] = false;
+		}
+
+		for(int query = 0; query < QUERIES; query++) {
+			float x = random.nextFloat() * WORLD - WORLD / 2, y = random.nextFloat() * WORLD - WORLD / 2;
+			float z = random.nextFloat() * WORLD - WORLD / 2, size = random.nextFloat() * 100;
+
+			found.clear();
+			tree.queryBox(x - size, y - size, z - size, x + size, y + size, z + size, found);
+			for(int k = 0; k < found.size(); k++) {
+				int i = (Integer) tree.getUserData(found.get(k));
+				tree.getBounds(found.get(k), bounds);
+				if(!alive[i] || proxies[i] != found.get(k))
+					dead++;
+				if(seen[i])
+					duplicated++;
+				seen[i] = true;
+				if(boxDistance(bounds, x, y, z, size) > 0)
+					extra++;
+			}
+			for(int i = 0; i < OBJECTS; i++) {
+				if(alive[i] && !seen[i] && boxDistance(i, x, y, z, size) <= 0)
+					missed++;
+				seen[i] = false;
+			}
+
+			found.clear();
+			tree.querySphere(x, y, z, size, found);
+			for(int k = 0; k < found.size(); k++) {
+				int i = (Integer) tree.getUserData(found.get(k));
+				tree.getBounds(found.get(k), bounds);
+				if(!alive[i] || proxies[i] != found.get(k))
+					dead++;
+				if(seen[i])
+					duplicated++;
+				seen[i] = true;
+				if(sphereDistance(bounds, x, y, z) > size * size)
+					extra++;
+			}
+			for(int i = 0; i < OBJECTS; i++) {
+				if(alive[i] && !seen[i] && sphereDistance(i, x, y, z) <= size * size)
+					missed++;
+				seen[i] = false;
+			}
+
+			float dx = random.nextFloat() - 0.5f, dy = random.nextFloat() - 0.5f, dz = random.nextFloat() - 0.5f;
+			float closest = Float.MAX_VALUE;
+			for(int i = 0; i < OBJECTS; i++)
+				if(alive[i])
+					closest = Math.min(closest, slab(i, x, y, z, dx, dy, dz));
+			float[] hit = { Float.MAX_VALUE };
+			tree.raycast(x, y, z, dx, dy, dz, Float.MAX_VALUE, (proxy, maxDistance) -> {
+				int i = (Integer) tree.getUserData(proxy);
+				float distance = alive[i] ? slab(i, x, y, z, dx, dy, dz) : Float.MAX_VALUE;
+				if(distance >= hit[0])
+					return maxDistance;
+				hit[0] = distance;
+				return distance;
+			});
+			if(hit[0] != closest)
+				wrongRay++;
+		}
+
+		check(inFrustum > 0 && inFrustum < tree.getProxyCount(), stage + ": the frustum found " + inFrustum
+				+ " proxies, too few or too many to be a test");
+		check(missed == 0, stage + ": queries missed " + missed + " boxes they touch");
+		check(extra == 0, stage + ": queries found " + extra + " proxies whose boxes they do not touch");
+		check(duplicated == 0, stage + ": queries found " + duplicated + " proxies more than once");
+		check(dead == 0, stage + ": queries found " + dead + " removed proxies");
+		check(wrongRay == 0, stage + ": " + wrongRay + " of " + QUERIES + " rays stopped at the wrong box");
+
+		System.out.println(stage + ": " + tree.getProxyCount() + " proxies, " + inFrustum + " in the frustum, height "
+				+ tree.getHeight() + ", cost " + tree.getCost());
+	}
+
+	/**
+	 * times building, refitting and querying a tree of the given size, the world
+	 * growing with it so each query finds about as many boxes
+	 */
+	private static void benchmark(int size) {
+		float world = WORLD * (float) Math.cbrt(size / (double) OBJECTS);
+		float[] boxes = new float[size * 6];
+		for(int i = 0; i < size; i++)
+			randomBox(boxes, i, world);
+
+		DynamicBVH tree = new DynamicBVH(MARGIN);
+		int[] proxies = new int[size];
+		long start = System.nanoTime();
+		for(int i = 0; i < size; i++)
+			proxies[i] = tree.add(boxes[i * 6], boxes[i * 6 + 1], boxes[i * 6 + 2], boxes[i * 6 + 3],
+					boxes[i * 6 + 4], boxes[i * 6 + 5], i);
+		tree.build();
+		long build = System.nanoTime() - start;
+
+		for(int i = 0; i < size; i++) {
+			float d = random.nextFloat() * 2 - 1;
+			for(int axis = 0; axis < 6; axis++)
+				boxes[i * 6 + axis] += d;
+		}
+		start = System.nanoTime();
+		for(int i = 0; i < size; i++)
+			tree.update(proxies[i], boxes[i * 6], boxes[i * 6 + 1], boxes[i * 6 + 2], boxes[i * 6 + 3],
+					boxes[i * 6 + 4], boxes[i * 6 + 5]);
+		tree.refit();
+		long refit = System.nanoTime() - start;
+
+		IntList found = new IntList();
+		Frustum frustum = frustum(world * 0.4f);
+		start = System.nanoTime();
+		for(int query = 0; query < BENCHMARK_QUERIES; query++) {
+			found.clear();
+			tree.queryFrustum(frustum, found);
+		}
+		long frustumTime = System.nanoTime() - start;
+		int inFrustum = found.size();
+
+		long hits = 0;
+		start = System.nanoTime();
+		for(int query = 0; query < BENCHMARK_QUERIES; query++) {
+			float x = random.nextFloat() * world - world / 2, y = random.nextFloat() * world - world / 2;
+			float z = random.nextFloat() * world - world / 2;
+			found.clear();
+			tree.queryBox(x - 50, y - 50, z - 50, x + 50, y + 50, z + 50, found);
+			hits += found.size();
+		}
+		long boxTime = System.nanoTime() - start;
+
+		System.out.printf("%d proxies: build %.1fms, update and refit %.1fms, frustum query %.3fms (%d found), "
+				+ "box query %.4fms (%.1f found)%n", size, build / 1e6, refit / 1e6,
+				frustumTime / 1e6 / BENCHMARK_QUERIES, inFrustum, boxTime / 1e6 / BENCHMARK_QUERIES,
+				hits / (double) BENCHMARK_QUERIES);
+	}
+
+	/**
+	 * sets the box of an object to a random cube inside the world
+	 */
+	private static void randomBox(float[] boxes, int i, float world) {
+		float x = random.nextFloat() * world - world / 2, y = random.nextFloat() * world - world / 2;
+		float z = random.nextFloat() * world - world / 2, size = random.nextFloat() * 4 + 0.5f;
+		boxes[i * 6] = x - size;
+		boxes[i * 6 + 1] = y - size;
+		boxes[i * 6 + 2] = z - size;
+		boxes[i * 6 + 3] = x + size;
+		boxes[i * 6 + 4] = y + size;
+		boxes[i * 6 + 5] = z + size;
+	}
+
+	/**
+	 * @return A frustum looking into the world from near its centre
+	 */
+	private static Frustum frustum(float far) {
+		Matrix4f projection = new Matrix4f().setPerspectiveProjection(70, 1280, 720, 0.1f, far);
+		Matrix4f view = new Matrix4f().setView(new Vector3f(0.3f, 0.1f, 1).normalize(), new Vector3f(0, 1, 0));
+		Matrix4f translation = new Matrix4f().setTranslation(new Vector3f(-5, -2, 3));
+		return new Frustum().extract(projection.mul(view.mul(translation, new Matrix4f()), new Matrix4f()));
+	}
+
+	/**
+	 * @return How far a box is outside a cube, zero or less if they touch
+	 */
+	private static float boxDistance(BoundingBox box, float x, float y, float z, float size) {
+		Vector3f min = box.getMin(), max = box.getMax();
+		return Math.max(Math.max(Math.max(min.getX() - x, x - max.getX()), Math.max(min.getY() - y, y - max.getY())),
+				Math.max(min.getZ() - z, z - max.getZ())) - size;
+	}
+
+	/**
+	 * @return How far the box of an object is outside a cube, zero or less if they touch
+	 */
+	private static float boxDistance(int i, float x, float y, float z, float size) {
+		return boxDistance(new BoundingBox().set(boxes[i * 6], boxes[i * 6 + 1], boxes[i * 6 + 2], boxes[i * 6 + 3],
+				boxes[i * 6 + 4], boxes[i * 6 + 5]), x, y, z, size);
+	}
+
+	/**
+	 * @return The squared distance from a point to a box
+	 */
+	private static float sphereDistance(BoundingBox box, float x, float y, float z) {
+		Vector3f min = box.getMin(), max = box.getMax();
+		float dx = Math.max(Math.max(min.getX() - x, x - max.getX()), 0);
+		float dy = Math.max(Math.max(min.getY() - y, y - max.getY()), 0);
+		float dz = Math.max(Math.max(min.getZ() - z, z - max.getZ()), 0);
+		return dx * dx + dy * dy + dz * dz;
+	}
+
+	/**
+	 * @return The squared distance from a point to the box of an object
+	 */
+	private static float sphereDistance(int i, float x, float y, float z) {
+		return sphereDistance(new BoundingBox().set(boxes[i * 6], boxes[i * 6 + 1], boxes[i * 6 + 2],
+				boxes[i * 6 + 3], boxes[i * 6 + 4], boxes[i * 6 + 5]), x, y, z);
+	}
+
+	/**
+	 * @return The distance along a ray to the box of an object, or the largest
+	 *         float if it is missed
+	 */
+	private static float slab(int i, float ox, float oy, float oz, float dx, float dy, float dz) {
+		float[] origin = { ox, oy, oz }, direction = { dx, dy, dz };
+		float near = 0, far = Float.MAX_VALUE;
+		for(int axis = 0; axis < 3; axis++) {
+			float t1 = (boxes[i * 6 + axis] - origin[axis]) / direction[axis];
+			float t2 = (boxes[i * 6 + 3 + axis] - origin[axis]) / direction[axis];
+			near = Math.max(near, Math.min(t1, t2));
+			far = Math.min(far, Math.max(t1, t2));
+		}
+		return near <= far ? near : Float.MAX_VALUE;
+	}
+
+	private static void check(boolean condition, String message) {
+		if(condition)
+			return;
+		System.err.println("FAILED: " + message);
+		failures++;
+	}
+}
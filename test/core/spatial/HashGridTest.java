@@ -0,0 +1,399 @@
+package core.spatial;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import core.kernel.JobSystem;
+import core.utils.IntList;
+
+/**
+ * <h1>HashGridTest Class</h1>
+ * <p>
+ * Fills a HashGrid with random boxes, one in fifty too large to fit a cell, and
+ * compares its queries with brute force, first as inserted and again after
+ * moving, growing, shrinking, removing and inserting boxes. Every overlapping
+ * pair must be found by queryPairs exactly once, lower proxy first, matching a
+ * test of every pair. Neighbour, box and sphere queries must find exactly the
+ * boxes they touch, batches of box and sphere queries run in parallel must find
+ * the same as each query run alone, and rays must stop at the same closest
+ * box. The pairs and the batches are also timed against the brute force pair
+ * loop and the queries run one at a time. Runs headless, exiting with a non
+ * zero status if any check fails.
+ *
+ * @author Graham
+ * @version 2.0.0
+ * @since 2026-10-18
+ */
+public class HashGridTest {
+
+	private static final int OBJECTS = 6000;
+	private static final int QUERIES = 200;
+	private static final float WORLD = 600;
+	private static final float CELL = 10;
+
+	private static int failures = 0;
+	private static Random random = new Random(11);
+
+	// six floats per object: min x, y, z then max x, y, z
+	private static float[] boxes = new float[OBJECTS * 6];
+	private static boolean[] alive = new boolean[OBJECTS];
+	private static int[] proxies = new int[OBJECTS];
+
+	public static void main(String[] args) {
+		HashGrid grid = new HashGrid(CELL);
+		for(int i = 0; i < OBJECTS; i++)
+			insert(grid, i);
+		compare("inserted", grid);
+
+		int grown = 0;
+		for(int k = 0; k < OBJECTS * 3; k++) {
+			int i = random.nextInt(OBJECTS);
+			float dx = random.nextFloat() * 20 - 10, dy = random.nextFloat() * 6 - 3;
+			// every fiftieth move grows the box past a cell, or shrinks it back if it already is
+			float grow = 0;
+			if(k % 50 == 0) {
+				grow = boxes[i * 6 + 3] - boxes[i * 6] > CELL ? -(boxes[i * 6 + 3] - boxes[i * 6]) / 2 : CELL * 3;
+				grown++;
+			}
+			for(int axis = 0; axis < 6; axis += 3) {
+				boxes[i * 6 + axis] += dx;
+				boxes[i * 6 + axis + 1] += dy;
+			}
+			for(int axis = 3; axis < 6; axis++)
+				boxes[i * 6 + axis] += grow;
+			grid.move(proxies[i], boxes[i * 6], boxes[i * 6 + 1], boxes[i * 6 + 2], boxes[i * 6 + 3], boxes[i * 6 + 4],
+					boxes[i * 6 + 5], dx, dy, 0);
+		}
+		for(int k = 0; k < OBJECTS / 3; k++) {
+			int i = random.nextInt(OBJECTS);
+			if(alive[i]) {
+				grid.remove(proxies[i]);
+				alive[i] = false;
+			}
+		}
+		for(int k = 0; k < OBJECTS / 8; k++) {
+			int i = random.nextInt(OBJECTS);
+			if(!alive[i])
+				insert(grid, i);
+		}
+		compare("moved, resized " + grown + " times, removed and inserted again", grid);
+
+		for(int i = 0; i < OBJECTS; i++) {
+			if(alive[i]) {
+				grid.remove(proxies[i]);
+				alive[i] = false;
+			}
+		}
+		check(grid.getProxyCount() == 0 && grid.getCellCount() == 0, "the emptied grid still holds "
+				+ grid.getProxyCount() + " proxies in " + grid.getCellCount() + " cells");
+
+		benchmark();
+
+		JobSystem.cleanUp();
+		if(failures > 0)
+			System.exit(1);
+		System.out.println("HashGridTest passed");
+	}
+
+	/**
+	 * inserts an object with a random box, one in fifty larger than a cell
+	 */
+	private static void insert(HashGrid grid, int i) {
+		float x = random.nextFloat() * WORLD - WORLD / 2, y = random.nextFloat() * WORLD - WORLD / 2;
+		float z = random.nextFloat() * WORLD - WORLD / 2;
+		float size = random.nextInt(50) == 0 ? random.nextFloat() * 40 + CELL : random.nextFloat() * 4 + 0.5f;
+		boxes[i * 6] = x - size;
+		boxes[i * 6 + 1] = y - size;
+		boxes[i * 6 + 2] = z - size;
+		boxes[i * 6 + 3] = x + size;
+		boxes[i * 6 + 4] = y + size;
+		boxes[i * 6 + 5] = z + size;
+		proxies[i] = grid.insert(boxes[i * 6], boxes[i * 6 + 1], boxes[i * 6 + 2], boxes[i * 6 + 3], boxes[i * 6 + 4],
+				boxes[i * 6 + 5], i);
+		alive[i] = true;
+	}
+
+	/**
+	 * checks the pairs, neighbours, box, sphere and ray queries of the grid, and
+	 * the batched queries, against every live box
+	 */
+	private static void compare(String stage, HashGrid grid) {
+		int oversized = 0;
+		for(int i = 0; i < OBJECTS; i++)
+			if(alive[i] && boxes[i * 6 + 3] - boxes[i * 6] > CELL)
+				oversized++;
+
+		Set<Long> pairs = new HashSet<Long>();
+		int[] repeated = { 0 }, unordered = { 0 };
+		grid.queryPairs((a, b) -> {
+			if(a >= b)
+				unordered[0]++;
+			int i = (Integer) grid.getUserData(a), j = (Integer) grid.getUserData(b);
+			if(!pairs.add(pairKey(i, j)))
+				repeated[0]++;
+		});
+		int expected = 0, missedPairs = 0;
+		for(int i = 0; i < OBJECTS; i++) {
+			if(!alive[i])
+				continue;
+			for(int j = i + 1; j < OBJECTS; j++) {
+				if(alive[j] && separation(i, boxes, j * 6) <= 0) {
+					expected++;
+					if(!pairs.contains(pairKey(i, j)))
+						missedPairs++;
+				}
+			}
+		}
+		check(missedPairs == 0, stage + ": queryPairs missed " + missedPairs + " of " + expected + " pairs");
+		check(pairs.size() == expected, stage + ": queryPairs found " + pairs.size() + " pairs, brute force "
+				+ expected);
+		check(repeated[0] == 0, stage + ": queryPairs found " + repeated[0] + " pairs more than once");
+		check(unordered[0] == 0, stage + ": queryPairs passed " + unordered[0] + " pairs higher proxy first");
+
+		IntList found = new IntList();
+		int wrongNeighbours = 0;
+		for(int query = 0; query < QUERIES; query++) {
+			int i = random.nextInt(OBJECTS);
+			if(!alive[i])
+				continue;
+			float distance = random.nextFloat() * 4;
+			found.clear();
+			grid.queryNeighbours(proxies[i], distance, found);
+			float[] near = { boxes[i * 6] - distance, boxes[i * 6 + 1] - distance, boxes[i * 6 + 2] - distance,
+					boxes[i * 6 + 3] + distance, boxes[i * 6 + 4] + distance, boxes[i * 6 + 5] + distance };
+			Set<Integer> expectedNeighbours = new HashSet<Integer>();
+			for(int j = 0; j < OBJECTS; j++)
+				if(alive[j] && j != i && separation(j, near, 0) <= 0)
+					expectedNeighbours.add(j);
+			if(!objects(grid, found).equals(expectedNeighbours) || found.size() != expectedNeighbours.size())
+				wrongNeighbours++;
+		}
+		check(wrongNeighbours == 0, stage + ": " + wrongNeighbours + " neighbour queries found the wrong proxies");
+
+		float[] queryBoxes = new float[QUERIES * 6], querySpheres = new float[QUERIES * 4];
+		IntList[] boxResults = new IntList[QUERIES], sphereResults = new IntList[QUERIES];
+		int wrongBoxes = 0, wrongSpheres = 0, wrongRays = 0;
+		for(int query = 0; query < QUERIES; query++) {
+			float x = random.nextFloat() * WORLD - WORLD / 2, y = random.nextFloat() * WORLD - WORLD / 2;
+			float z = random.nextFloat() * WORLD - WORLD / 2, size = random.nextFloat() * (query % 10 == 0 ? 300 : 30);
+			float[] box = { x - size, y - size, z - size, x + size, y + size, z + size };
+			System.arraycopy(box, 0, queryBoxes, query * 6, 6);
+			querySpheres[query * 4] = x;
+			querySpheres[query * 4 + 1] = y;
+			querySpheres[query * 4 + 2] = z;
+			querySpheres[query * 4 + 3] = size;
+			boxResults[query] = new IntList();
+			sphereResults[query] = new IntList();
+
+			Set<Integer> inBox = new HashSet<Integer>(), inSphere = new HashSet<Integer>();
+			for(int i = 0; i < OBJECTS; i++) {
+				if(!alive[i])
+					continue;
+				if(separation(i, box, 0) <= 0)
+					inBox.add(i);
+				float dx = Math.max(Math.max(boxes[i * 6] - x, x - boxes[i * 6 + 3]), 0);
+				float dy = Math.max(Math.max(boxes[i * 6 + 1] - y, y - boxes[i * 6 + 4]), 0);
+				float dz = Math.max(Math.max(boxes[i * 6 + 2] - z, z - boxes[i * 6 + 5]), 0);
+				if(dx * dx + dy * dy + dz * dz <= size * size)
+					inSphere.add(i);
+			}
+			found.clear();
+			grid.queryBox(box[0], box[1], box[2], box[3], box[4], box[5], found);
+			if(found.size() != inBox.size() || !objects(grid, found).equals(inBox))
+				wrongBoxes++;
+			found.clear();
+			grid.querySphere(x, y, z, size, found);
+			if(found.size() != inSphere.size() || !objects(grid, found).equals(inSphere))
+				wrongSpheres++;
+
+			// rays start anywhere around the world, every seventh parallel to a plane of the cells
+			float ox = random.nextFloat() * WORLD * 2 - WORLD, oy = random.nextFloat() * WORLD * 2 - WORLD;
+			float oz = random.nextFloat() * WORLD * 2 - WORLD;
+			float dx = random.nextFloat() - 0.5f, dy = random.nextFloat() - 0.5f;
+			float dz = query % 7 == 0 ? 0 : random.nextFloat() - 0.5f;
+			float closest = Float.MAX_VALUE;
+			for(int i = 0; i < OBJECTS; i++)
+				if(alive[i])
+					closest = Math.min(closest, slab(i, ox, oy, oz, dx, dy, dz));
+			float[] hit = { Float.MAX_VALUE };
+			grid.raycast(ox, oy, oz, dx, dy, dz, Float.MAX_VALUE, (proxy, maxDistance) -> {
+				float distance = slab((Integer) grid.getUserData(proxy), ox, oy, oz, dx, dy, dz);
+				if(distance >= hit[0])
+					return maxDistance;
+				hit[0] = distance;
+				return distance;
+			});
+			if(hit[0] != closest)
+				wrongRays++;
+		}
+		check(wrongBoxes == 0, stage + ": " + wrongBoxes + " box queries found the wrong proxies");
+		check(wrongSpheres == 0, stage + ": " + wrongSpheres + " sphere queries found the wrong proxies");
+		check(wrongRays == 0, stage + ": " + wrongRays + " of " + QUERIES + " rays stopped at the wrong box");
+
+		grid.queryBoxes(queryBoxes, QUERIES, boxResults);
+		grid.querySpheres(querySpheres, QUERIES, sphereResults);
+		int batchDiffers = 0;
+		for(int query = 0; query < QUERIES; query++) {
+			int b = query * 6, s = query * 4;
+			found.clear();
+			grid.queryBox(queryBoxes[b], queryBoxes[b + 1], queryBoxes[b + 2], queryBoxes[b + 3], queryBoxes[b + 4],
+					queryBoxes[b + 5], found);
+			if(!sameProxies(found, boxResults[query]))
+				batchDiffers++;
+			found.clear();
+			grid.querySphere(querySpheres[s], querySpheres[s + 1], querySpheres[s + 2], querySpheres[s + 3], found);
+			if(!sameProxies(found, sphereResults[query]))
+				batchDiffers++;
+		}
+		check(batchDiffers == 0, stage + ": " + batchDiffers + " batched queries found different proxies alone");
+
+		check(oversized > 0, stage + ": no box was too large for a cell");
+		System.out.println(stage + ": " + grid.getProxyCount() + " proxies, " + oversized + " oversized, "
+				+ grid.getCellCount() + " cells, " + expected + " pairs");
+	}
+
+	/**
+	 * times queryPairs against testing every pair, and batches of queries in
+	 * parallel against running them one at a time, over a denser world
+	 */
+	private static void benchmark() {
+		int count = 20000;
+		float world = (float) Math.cbrt(count) * 8;
+		HashGrid grid = new HashGrid(4);
+		float[] boxes = new float[count * 6];
+		for(int i = 0; i < count; i++) {
+			float x = random.nextFloat() * world, y = random.nextFloat() * world, z = random.nextFloat() * world;
+			float size = 0.5f + random.nextFloat();
+			boxes[i * 6] = x - size;
+			boxes[i * 6 + 1] = y - size;
+			boxes[i * 6 + 2] = z - size;
+			boxes[i * 6 + 3] = x + size;
+			boxes[i * 6 + 4] = y + size;
+			boxes[i * 6 + 5] = z + size;
+			grid.insert(boxes[i * 6], boxes[i * 6 + 1], boxes[i * 6 + 2], boxes[i * 6 + 3], boxes[i * 6 + 4],
+					boxes[i * 6 + 5], i);
+		}
+
+		long[] pairs = { 0 };
+		long start = System.nanoTime();
+		grid.queryPairs((a, b) -> pairs[0]++);
+		long gridTime = System.nanoTime() - start;
+
+		long brutePairs = 0;
+		start = System.nanoTime();
+		for(int i = 0; i < count; i++)
+			for(int j = i + 1; j < count; j++)
+				if(separation(i, boxes, boxes, j * 6) <= 0)
+					brutePairs++;
+		long bruteTime = System.nanoTime() - start;
+		check(pairs[0] == brutePairs, "queryPairs found " + pairs[0] + " pairs in the dense world, brute force "
+				+ brutePairs);
+
+		int queries = 20000;
+		float[] spheres = new float[queries * 4];
+		IntList[] results = new IntList[queries];
+		for(int query = 0; query < queries; query++) {
+			for(int axis = 0; axis < 3; axis++)
+				spheres[query * 4 + axis] = random.nextFloat() * world;
+			spheres[query * 4 + 3] = 4;
+			results[query] = new IntList();
+		}
+		// both are run once before being timed, so neither pays for compiling the queries
+		IntList found = new IntList();
+		grid.querySpheres(spheres, queries, results);
+		long serialTime = 0, parallelTime = 0;
+		for(int round = 0; round < 2; round++) {
+			start = System.nanoTime();
+			for(int query = 0; query < queries; query++) {
+				found.clear();
+				int s = query * 4;
+				grid.querySphere(spheres[s], spheres[s + 1], spheres[s + 2], spheres[s + 3], found);
+			}
+			serialTime = System.nanoTime() - start;
+
+			for(IntList result : results)
+				result.clear();
+			start = System.nanoTime();
+			grid.querySpheres(spheres, queries, results);
+			parallelTime = System.nanoTime() - start;
+		}
+
+		System.out.printf("%d proxies: queryPairs %.1fms, brute force %.1fms (%d pairs); %d sphere queries one at a "
+				+ "time %.1fms, in parallel %.1fms on %d cores%n", count, gridTime / 1e6, bruteTime / 1e6, brutePairs,
+				queries, serialTime / 1e6, parallelTime / 1e6, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * @return The objects of a list of proxies
+	 */
+	private static Set<Integer> objects(HashGrid grid, IntList proxies) {
+		Set<Integer> objects = new HashSet<Integer>();
+		for(int k = 0; k < proxies.size(); k++)
+			objects.add((Integer) grid.getUserData(proxies.get(k)));
+		return objects;
+	}
+
+	/**
+	 * @return True if two lists hold the same proxies, in any order
+	 */
+	private static boolean sameProxies(IntList a, IntList b) {
+		if(a.size() != b.size())
+			return false;
+		Set<Integer> proxies = new HashSet<Integer>();
+		for(int k = 0; k < a.size(); k++)
+			proxies.add(a.get(k));
+		for(int k = 0; k < b.size(); k++)
+			if(!proxies.contains(b.get(k)))
+				return false;
+		return true;
+	}
+
+	/**
+	 * @return A key for a pair of objects, the same whichever order they are given in
+	 */
+	private static long pairKey(int i, int j) {
+		return (long) Math.min(i, j) * OBJECTS + Math.max(i, j);
+	}
+
+	/**
+	 * @return How far the box of an object is from a box, zero or less if they touch
+	 */
+	private static float separation(int i, float[] other, int o) {
+		return separation(i, boxes, other, o);
+	}
+
+	/**
+	 * @return How far the box of an object is from a box, zero or less if they touch
+	 */
+	private static float separation(int i, float[] boxes, float[] other, int o) {
+		int b = i * 6;
+		float x = Math.max(boxes[b] - other[o + 3], other[o] - boxes[b + 3]);
+		float y = Math.max(boxes[b + 1] - other[o + 4], other[o + 1] - boxes[b + 4]);
+		float z = Math.max(boxes[b + 2] - other[o + 5], other[o + 2] - boxes[b + 5]);
+		return Math.max(x, Math.max(y, z));
+	}
+
+	/**
+	 * @return The distance along a ray to the box of an object, or the largest
+	 *         float if it is missed
+	 */
+	private static float slab(int i, float ox, float oy, float oz, float dx, float dy, float dz) {
+		float[] origin = { ox, oy, oz }, direction = { dx, dy, dz };
+		float near = 0, far = Float.MAX_VALUE;
+		for(int axis = 0; axis < 3; axis++) {
+			float t1 = (boxes[i * 6 + axis] - origin[axis]) / direction[axis];
+			float t2 = (boxes[i * 6 + 3 + axis] - origin[axis]) / direction[axis];
+			near = Math.max(near, Math.min(t1, t2));
+			far = Math.min(far, Math.max(t1, t2));
+		}
+		return near <= far ? near : Float.MAX_VALUE;
+	}
+
+	private static void check(boolean condition, String message) {
+		if(condition)
+			return;
+		System.err.println("FAILED: " + message);
+		failures++;
+	}
+}
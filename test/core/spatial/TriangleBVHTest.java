@@ -0,0 +1,272 @@
+package core.spatial;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.Random;
+
+import core.kernel.JobSystem;
+import core.maths.vector.Vector3f;
+import core.utils.fileIO.objLoader.IndexedModel;
+import core.utils.fileIO.objLoader.OBJModel;
+
+/**
+ * <h1>TriangleBVHTest Class</h1>
+ * <p>
+ * Casts random rays at the light model, and at a random triangle soup large
+ * enough to be built in parallel, and compares the closest hit of the tree
+ * with a brute force Moller Trumbore test of every triangle. The distance of
+ * each hit must match, and the triangle and barycentric coordinates it reports
+ * must put the hit on the ray. Each tree is also written out and read back, in
+ * both byte orders, and must write the same bytes and cast every ray the same
+ * way, while data that does not fit the mesh is refused. Runs headless, exiting
+ * with a non zero status if any check fails.
+ *
+ * @author Graham
+ * @version 2.0.0
+ * @since 2026-10-18
+ */
+public class TriangleBVHTest {
+
+	private static final int RAYS = 2000;
+	private static final float EPSILON = 1e-4f;
+
+	private static int failures = 0;
+
+	public static void main(String[] args) {
+		IndexedModel model = new OBJModel("light/light.obj").toIndexedModel();
+		float[] positions = new float[model.getPositions().size() * 3];
+		for(int i = 0; i < model.getPositions().size(); i++) {
+			Vector3f position = model.getPositions().get(i);
+			positions[i * 3] = position.getX();
+			positions[i * 3 + 1] = position.getY();
+			positions[i * 3 + 2] = position.getZ();
+		}
+		raycast("light.obj", positions, model.getIndices().toArray());
+
+		Random random = new Random(11);
+		int count = 20000;
+		float[] soup = new float[count * 9];
+		int[] indices = new int[count * 3];
+		for(int t = 0; t < count; t++) {
+			float x = random.nextFloat() * 100, y = random.nextFloat() * 100, z = random.nextFloat() * 100;
+			for(int i = 0; i < 9; i++)
+				soup[t * 9 + i] = (i % 3 == 0 ? x : i % 3 == 1 ? y : z) + random.nextFloat() * 4 - 2;
+			for(int i = 0; i < 3; i++)
+				indices[t * 3 + i] = t * 3 + i;
+		}
+		raycast("triangle soup", soup, indices);
+
+		JobSystem.cleanUp();
+		if(failures > 0)
+			System.exit(1);
+		System.out.println("TriangleBVHTest passed");
+	}
+
+	/**
+	 * casts rays from around the bounds of a mesh towards random points inside
+	 * them, some along the axes, and checks each against brute force
+	 */
+	private static void raycast(String name, float[] positions, int[] indices) {
+		TriangleBVH tree = new TriangleBVH(positions, indices);
+		check(tree.getTriangleCount() == indices.length / 3, name + " tree holds " + tree.getTriangleCount()
+				+ " of " + indices.length / 3 + " triangles");
+		TriangleBVH copy = roundTrip(name, tree, positions, indices, ByteOrder.nativeOrder());
+		roundTrip(name, tree, positions, indices, ByteOrder.BIG_ENDIAN);
+
+		float[] min = { Float.MAX_VALUE, Float.MAX_VALUE, Float.MAX_VALUE };
+		float[] max = { -Float.MAX_VALUE, -Float.MAX_VALUE, -Float.MAX_VALUE };
+		for(int i = 0; i < positions.length; i++) {
+			min[i % 3] = Math.min(min[i % 3], positions[i]);
+			max[i % 3] = Math.max(max[i % 3], positions[i]);
+		}
+		float extent = Math.max(max[0] - min[0], Math.max(max[1] - min[1], max[2] - min[2]));
+
+		Random random = new Random(5);
+		RayHit hit = new RayHit(), copyHit = new RayHit();
+		float[] origin = new float[3], direction = new float[3];
+		int hits = 0, missed = 0, extra = 0, wrongDistance = 0, wrongTriangle = 0, wrongPoint = 0, copyDiffers = 0;
+		for(int ray = 0; ray < RAYS; ray++) {
+			float length = 0;
+			for(int axis = 0; axis < 3; axis++) {
+				origin[axis] = (min[axis] + max[axis]) / 2 + (random.nextFloat() - 0.5f) * extent * 3;
+				direction[axis] = min[axis] + random.nextFloat() * (max[axis] - min[axis]) - origin[axis];
+				length += direction[axis] * direction[axis];
+			}
+			length = (float) Math.sqrt(length);
+			for(int axis = 0; axis < 3; axis++)
+				direction[axis] /= length;
+			// every tenth ray runs along an axis, where one inverse direction is infinite
+			if(ray % 10 == 0) {
+				int axis = ray / 10 % 3;
+				direction[0] = direction[1] = direction[2] = 0;
+				direction[axis] = ray % 20 == 0 ? 1 : -1;
+			}
+
+			double expected = bruteForce(positions, indices, origin, direction);
+			hit.reset(Float.POSITIVE_INFINITY);
+			boolean found = tree.raycast(origin[0], origin[1], origin[2], direction[0], direction[1], direction[2], hit);
+			if(copy != null) {
+				copyHit.reset(Float.POSITIVE_INFINITY);
+				boolean copyFound = copy.raycast(origin[0], origin[1], origin[2], direction[0], direction[1],
+						direction[2], copyHit);
+				if(copyFound != found || copyHit.getDistance() != hit.getDistance()
+						|| copyHit.getTriangle() != hit.getTriangle() || copyHit.getU() != hit.getU()
+						|| copyHit.getV() != hit.getV())
+					copyDiffers++;
+			}
+
+			if(found)
+				hits++;
+			if(found != (expected != Double.POSITIVE_INFINITY)) {
+				// a ray through the edge between two triangles may be decided either way by rounding
+				if(!grazes(positions, indices, origin, direction)) {
+					if(found)
+						extra++;
+					else
+						missed++;
+				}
+				continue;
+			}
+			if(!found)
+				continue;
+
+			if(Math.abs(hit.getDistance() - expected) > EPSILON * Math.max(1, expected))
+				wrongDistance++;
+			double own = intersect(positions, indices, hit.getTriangle(), origin, direction, null);
+			if(Math.abs(own - hit.getDistance()) > EPSILON * Math.max(1, own))
+				wrongTriangle++;
+
+			// the hit point from the triangle's corners and the barycentric coordinates
+			int a = indices[hit.getTriangle() * 3] * 3, b = indices[hit.getTriangle() * 3 + 1] * 3;
+			int c = indices[hit.getTriangle() * 3 + 2] * 3;
+			for(int axis = 0; axis < 3; axis++) {
+				float point = positions[a + axis] + hit.getU() * (positions[b + axis] - positions[a + axis])
+						+ hit.getV() * (positions[c + axis] - positions[a + axis]);
+				float onRay = origin[axis] + direction[axis] * hit.getDistance();
+				if(Math.abs(point - onRay) > EPSILON * Math.max(1, extent)) {
+					wrongPoint++;
+					break;
+				}
+			}
+		}
+
+		check(hits > RAYS / 10 && hits < RAYS - RAYS / 10, name + " had " + hits + " of " + RAYS
+				+ " rays hit, too few hits and misses to be a test");
+		check(missed == 0, name + " tree missed " + missed + " rays brute force hit");
+		check(extra == 0, name + " tree hit " + extra + " rays brute force missed");
+		check(wrongDistance == 0, name + " tree found " + wrongDistance + " hits at the wrong distance");
+		check(wrongTriangle == 0, name + " tree reported " + wrongTriangle + " hits on the wrong triangle");
+		check(wrongPoint == 0, name + " tree reported " + wrongPoint + " hits with coordinates off the ray");
+		check(copyDiffers == 0, name + " tree read back hit " + copyDiffers + " rays differently to the tree written");
+
+		System.out.println(name + ": " + indices.length / 3 + " triangles, " + tree.getNodeCount() + " nodes, " + hits
+				+ " of " + RAYS + " rays hit");
+	}
+
+	/**
+	 * writes a tree to a buffer and reads it back, checking the copy writes the
+	 * same bytes, and that the data is refused by a different mesh or once cut
+	 * short or corrupted
+	 *
+	 * @return The tree read back, or null if it could not be read
+	 */
+	private static TriangleBVH roundTrip(String name, TriangleBVH tree, float[] positions, int[] indices,
+			ByteOrder order) {
+		ByteBuffer data = ByteBuffer.allocateDirect(tree.getSerializedBytes()).order(order);
+		tree.write(data);
+		check(!data.hasRemaining(), name + " tree wrote " + data.position() + " of " + data.limit()
+				+ " serialized bytes in " + order);
+		data.flip();
+
+		TriangleBVH copy = TriangleBVH.read(data, positions, indices);
+		check(copy != null, name + " tree could not be read back in " + order);
+		if(copy == null)
+			return null;
+		check(data.position() == 0, name + " tree read moved the position of the buffer");
+		check(copy.getNodeCount() == tree.getNodeCount() && copy.getTriangleCount() == tree.getTriangleCount(),
+				name + " tree read back with " + copy.getNodeCount() + " nodes and " + copy.getTriangleCount()
+						+ " triangles in " + order);
+
+		ByteBuffer again = ByteBuffer.allocateDirect(copy.getSerializedBytes()).order(order);
+		copy.write(again);
+		again.flip();
+		check(again.equals(data), name + " tree read back wrote different bytes in " + order);
+
+		check(TriangleBVH.read(data, positions, Arrays.copyOf(indices, indices.length - 3)) == null,
+				name + " tree was read for a mesh with a different triangle count in " + order);
+		ByteBuffer cut = data.duplicate().order(order);
+		cut.limit(cut.limit() - Integer.BYTES);
+		check(TriangleBVH.read(cut, positions, indices) == null, name + " tree was read from cut short data in "
+				+ order);
+		ByteBuffer corrupt = ByteBuffer.allocateDirect(data.limit()).order(order);
+		corrupt.put(data.duplicate()).flip();
+		corrupt.putInt(corrupt.limit() - Integer.BYTES, indices.length);
+		check(TriangleBVH.read(corrupt, positions, indices) == null, name + " tree was read with a triangle id past "
+				+ "the end of the mesh in " + order);
+		return copy;
+	}
+
+	/**
+	 * @return The distance to the closest triangle along a ray, or infinity if no triangle is hit
+	 */
+	private static double bruteForce(float[] positions, int[] indices, float[] origin, float[] direction) {
+		double closest = Double.POSITIVE_INFINITY;
+		for(int t = 0; t < indices.length / 3; t++)
+			closest = Math.min(closest, intersect(positions, indices, t, origin, direction, null));
+		return closest;
+	}
+
+	/**
+	 * @return True if the ray passes within rounding of the edge of any triangle
+	 */
+	private static boolean grazes(float[] positions, int[] indices, float[] origin, float[] direction) {
+		boolean[] grazed = new boolean[1];
+		for(int t = 0; t < indices.length / 3 && !grazed[0]; t++)
+			intersect(positions, indices, t, origin, direction, grazed);
+		return grazed[0];
+	}
+
+	/**
+	 * the Moller Trumbore ray triangle test in doubles, hitting both sides of the
+	 * triangle
+	 *
+	 * @param grazed Set if the ray passes within rounding of the triangle's edges, or null if not needed
+	 *
+	 * @return The distance to the triangle along the ray, or infinity if it is missed
+	 */
+	private static double intersect(float[] positions, int[] indices, int triangle, float[] origin, float[] direction,
+			boolean[] grazed) {
+		int a = indices[triangle * 3] * 3, b = indices[triangle * 3 + 1] * 3, c = indices[triangle * 3 + 2] * 3;
+		double e1x = positions[b] - positions[a], e1y = positions[b + 1] - positions[a + 1];
+		double e1z = positions[b + 2] - positions[a + 2];
+		double e2x = positions[c] - positions[a], e2y = positions[c + 1] - positions[a + 1];
+		double e2z = positions[c + 2] - positions[a + 2];
+		double dx = direction[0], dy = direction[1], dz = direction[2];
+
+		double px = dy * e2z - dz * e2y, py = dz * e2x - dx * e2z, pz = dx * e2y - dy * e2x;
+		double determinant = e1x * px + e1y * py + e1z * pz;
+		if(determinant == 0)
+			return Double.POSITIVE_INFINITY;
+
+		double sx = origin[0] - positions[a], sy = origin[1] - positions[a + 1], sz = origin[2] - positions[a + 2];
+		double u = (sx * px + sy * py + sz * pz) / determinant;
+		double qx = sy * e1z - sz * e1y, qy = sz * e1x - sx * e1z, qz = sx * e1y - sy * e1x;
+		double v = (dx * qx + dy * qy + dz * qz) / determinant;
+		double distance = (e2x * qx + e2y * qy + e2z * qz) / determinant;
+
+		if(grazed != null && distance >= 0 && u > -EPSILON && v > -EPSILON && u + v < 1 + EPSILON
+				&& (u < EPSILON || v < EPSILON || u + v > 1 - EPSILON))
+			grazed[0] = true;
+		if(u < 0 || v < 0 || u + v > 1 || distance < 0)
+			return Double.POSITIVE_INFINITY;
+		return distance;
+	}
+
+	private static void check(boolean condition, String message) {
+		if(condition)
+			return;
+		System.err.println("FAILED: " + message);
+		failures++;
+	}
+}
@@ -0,0 +1,163 @@
+package core.structure;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import core.maths.Transform;
+import core.maths.TransformStore;
+import core.maths.matrix.Matrix4f;
+import core.maths.vector.Vector3f;
+
+/**
+ * <h1>NodeTest Class</h1>
+ * <p>
+ * Checks updateWorldTransforms against brute force on random trees. After
+ * random local transforms are moved and random branches are moved from one
+ * tree to another, every world matrix must equal the product of the matrices
+ * from its top node down, and a tree nothing happened to must be left alone.
+ * Drawn part way through a tick, every world matrix must be the product of the
+ * blended matrices above it, and be put back once the tick ends. A tree that
+ * is shut down must hand its transforms back to the store. Runs
+ * headless, exiting with a non zero status if any check fails.
+ *
+ * @author Graham
+ * @version 2.0.0
+ * @since 2026-10-18
+ */
+public class NodeTest {
+
+	private static final int NODES = 2000;
+	private static final int ROUNDS = 200;
+	private static final float EPSILON = 1e-3f;
+
+	private static int failures = 0;
+
+	public static void main(String[] args) {
+		Random random = new Random(7);
+		Node first = new Node(), second = new Node(), untouched = new Node();
+		List<Node> nodes = new ArrayList<Node>();
+		nodes.add(first);
+		nodes.add(second);
+		for(int i = 0; i < NODES; i++) {
+			Node node = new Node();
+			nodes.get(random.nextInt(nodes.size())).addChild(node);
+			move(random, node);
+			nodes.add(node);
+		}
+		Node leaf = new Node();
+		untouched.addChild(leaf);
+		leaf.getLocalTransform().setTranslation(new Vector3f(1, 2, 3));
+
+		Matrix4f expected = new Matrix4f();
+		for(int round = 0; round < ROUNDS; round++) {
+			untouched.updateWorldTransforms();
+			int version = leaf.getWorldTransform().getVersion();
+
+			for(int i = 0; i < 20; i++)
+				move(random, nodes.get(2 + random.nextInt(NODES)));
+			if(round % 10 == 0)
+				first.getWorldTransform().setRotation(new Vector3f(0, round, 0));
+
+			// moves a branch, unless that would put a node below itself
+			Node branch = nodes.get(2 + random.nextInt(NODES));
+			Node target = nodes.get(random.nextInt(nodes.size()));
+			if(!isBelow(target, branch)) {
+				branch.getParent().removeChild(branch);
+				target.addChild(branch);
+			}
+
+			first.updateWorldTransforms();
+			second.updateWorldTransforms();
+			untouched.updateWorldTransforms();
+			check(version == leaf.getWorldTransform().getVersion(), "a tree was recalculated when another changed");
+
+			for(int i = 2; i < nodes.size(); i++) {
+				bruteForce(nodes.get(i), expected);
+				check(matches(expected, nodes.get(i).getWorldTransform().getModelMatrix()),
+						"world matrix of node " + i + " differs from brute force in round " + round);
+			}
+		}
+
+		// drawn half way through a tick, every child must follow its blended parent without being sheared
+		TransformStore store = TransformStore.getInstance();
+		store.saveState();
+		for(int i = 0; i < 200; i++)
+			move(random, nodes.get(2 + random.nextInt(NODES)));
+		first.getWorldTransform().setRotation(new Vector3f(40, ROUNDS, 10));
+		first.getWorldTransform().setTranslation(new Vector3f(5, 0, -5));
+		first.updateWorldTransforms();
+		second.updateWorldTransforms();
+		Matrix4f[] exact = new Matrix4f[nodes.size()];
+		for(int i = 2; i < nodes.size(); i++)
+			exact[i] = new Matrix4f().set(nodes.get(i).getWorldTransform().getModelMatrix());
+
+		store.interpolate(0.5f);
+		int blended = 0;
+		for(int i = 2; i < nodes.size(); i++) {
+			Matrix4f world = nodes.get(i).getWorldTransform().getModelMatrix();
+			check(matches(bruteForce(nodes.get(i), expected), world), "interpolated world matrix of node " + i
+					+ " is not the product of the blended matrices above it");
+			if(!matches(exact[i], world))
+				blended++;
+		}
+		check(blended > 0, "no world matrix was blended");
+
+		store.saveState();
+		for(int i = 2; i < nodes.size(); i++)
+			check(matches(exact[i], nodes.get(i).getWorldTransform().getModelMatrix()),
+					"world matrix of node " + i + " was not put back to its exact value once the tick ended");
+
+		// the two nodes of the shut down tree free four transforms, which are reused before the store grows
+		int size = store.size();
+		untouched.shutdown();
+		for(int i = 0; i < 4; i++)
+			new Transform();
+		check(store.size() == size, "the store grew from " + size + " to " + store.size()
+				+ " transforms after a tree was shut down");
+
+		if(failures > 0)
+			System.exit(1);
+		System.out.println("NodeTest passed");
+	}
+
+	private static void move(Random random, Node node) {
+		node.getLocalTransform().setTranslation(new Vector3f(random.nextFloat() * 2 - 1,
+				random.nextFloat() * 2 - 1, random.nextFloat() * 2 - 1));
+		node.getLocalTransform().setRotation(new Vector3f(random.nextFloat() * 360, random.nextFloat() * 360,
+				random.nextFloat() * 360));
+	}
+
+	private static boolean isBelow(Node node, Node ancestor) {
+		for(Node n = node; n != null; n = n.getParent())
+			if(n == ancestor)
+				return true;
+		return false;
+	}
+
+	/**
+	 * multiplies the matrices from the top of the tree down to a node
+	 */
+	private static Matrix4f bruteForce(Node node, Matrix4f dest) {
+		if(node.getParent() == null)
+			return dest.set(node.getWorldTransform().getModelMatrix());
+		bruteForce(node.getParent(), dest);
+		return dest.set(dest.mul(node.getLocalTransform().getModelMatrix(), new Matrix4f()));
+	}
+
+	private static boolean matches(Matrix4f a, Matrix4f b) {
+		for(int row = 0; row < 4; row++)
+			for(int column = 0; column < 4; column++)
+				if(Math.abs(a.get(row, column) - b.get(row, column)) > EPSILON * Math.max(1, Math.abs(a.get(row, column))))
+					return false;
+		return true;
+	}
+
+	private static void check(boolean condition, String message) {
+		if(condition)
+			return;
+		if(failures < 10)
+			System.err.println("FAILED: " + message);
+		failures++;
+	}
+}
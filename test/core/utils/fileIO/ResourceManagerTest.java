@@ -0,0 +1,207 @@
+package core.utils.fileIO;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.newdawn.slick.opengl.ImageData;
+
+import core.utils.Constants;
+import core.utils.fileIO.objLoader.MeshLoader;
+
+/**
+ * <h1>ResourceManagerTest Class</h1>
+ * <p>
+ * Loads every model and image under res/models through the ResourceManager
+ * while a stand in main loop keeps calling update and dispatch, the same way
+ * the engine does, and checks the loop never waits on the disk. Requests must
+ * return at once, every file must be read and decoded on a loading thread,
+ * every callback must run on the main loop, and no update may take much longer
+ * than its frame budget. Then a stand in render thread calls update while the
+ * main loop dispatches, as in the threaded engine, checking every finisher runs
+ * on the render thread and every callback on the main loop. The finishers stop
+ * short of OpenGL, so this runs headless, exiting with a non zero status if
+ * any check fails.
+ *
+ * @author Graham
+ * @version 2.0.0
+ * @since 2026-10-18
+ */
+public class ResourceManagerTest {
+
+	private static final String MODELS = "./res/models/";
+	// the longest a request or an update may take before the main loop counts as blocked
+	private static final long MAX_STALL = 20 * Constants.NANOSECOND / 1000;
+	private static final long TIMEOUT = 120 * Constants.NANOSECOND;
+	private static final int THREADED_REQUESTS = 2000;
+
+	private static int failures = 0;
+	private static Thread main;
+	private static AtomicInteger decodedOnMain = new AtomicInteger(), callbacksOffMain = new AtomicInteger();
+
+	public static void main(String[] args) {
+		main = Thread.currentThread();
+		List<String> completed = new ArrayList<String>();
+		ResourceManager resources = ResourceManager.getInstance();
+		// the first request starts the loading threads, which is not the disk
+		resources.requireNow(resources.load("warm up", ResourceManager.NORMAL_PRIORITY, 0, () -> 0, zero -> zero,
+				zero -> {}));
+
+		// every request is built before any is made, so only the calls to load are timed
+		List<String> names = new ArrayList<String>();
+		List<Callable<Object>> decoders = new ArrayList<Callable<Object>>();
+		List<Consumer<Object>> callbacks = new ArrayList<Consumer<Object>>();
+		for(File folder : new File(MODELS).listFiles(File::isDirectory)) {
+			for(File file : folder.listFiles()) {
+				String name = file.getName();
+				if(name.endsWith(".obj")) {
+					String fileName = folder.getName() + "/" + name;
+					names.add("mesh:" + fileName);
+					decoders.add(offMain(() -> MeshLoader.decodeMesh(fileName)));
+					callbacks.add(onMain(baked -> {
+						if(((ByteBuffer) baked).limit() > 0)
+							completed.add(fileName);
+					}));
+				}else if(name.endsWith(".png") || name.endsWith(".jpg")) {
+					String fileName = MODELS + folder.getName() + "/" + name;
+					names.add("image:" + fileName);
+					decoders.add(offMain(() -> ResourceLoader.decodeImage(fileName)));
+					callbacks.add(onMain(image -> {
+						if(((ImageData) image).getWidth() > 0)
+							completed.add(fileName);
+					}));
+				}
+			}
+		}
+
+		Function<Object, Object> finisher = resource -> resource;
+		List<LoadRequest<Object>> requests = new ArrayList<LoadRequest<Object>>();
+		long slowestRequest = 0;
+		for(int i = 0; i < names.size(); i++) {
+			long start = System.nanoTime();
+			requests.add(resources.load(names.get(i), ResourceManager.NORMAL_PRIORITY, 0, decoders.get(i), finisher,
+					callbacks.get(i)));
+			slowestRequest = Math.max(slowestRequest, System.nanoTime() - start);
+		}
+
+		// the stand in main loop, running at about a thousand frames a second until everything is loaded
+		int frames = 0, framesWhileLoading = 0;
+		long slowestUpdate = 0;
+		long begin = System.nanoTime();
+		while(resources.getOutstanding() > 0 && System.nanoTime() - begin < TIMEOUT) {
+			long start = System.nanoTime();
+			resources.update();
+			resources.dispatch();
+			slowestUpdate = Math.max(slowestUpdate, System.nanoTime() - start);
+			frames++;
+			if(resources.getOutstanding() > 0)
+				framesWhileLoading++;
+			LockSupport.parkNanos(Constants.NANOSECOND / 1000);
+		}
+		long loadTime = System.nanoTime() - begin;
+		resources.dispatch();
+
+		int failed = 0;
+		for(LoadRequest<Object> request : requests)
+			if(request.getState() != LoadRequest.State.COMPLETE)
+				failed++;
+
+		check(requests.size() > 0, "nothing was found to load under " + MODELS);
+		check(failed == 0, failed + " of " + requests.size() + " files did not load");
+		check(completed.size() == requests.size(), completed.size() + " of " + requests.size()
+				+ " callbacks received their resource");
+		check(decodedOnMain.get() == 0, decodedOnMain.get() + " files were read on the main loop");
+		check(callbacksOffMain.get() == 0, callbacksOffMain.get() + " callbacks ran off the main loop");
+		check(slowestRequest < MAX_STALL, "a request held the main loop for " + slowestRequest / 1000 + "us");
+		check(slowestUpdate < MAX_STALL, "an update held the main loop for " + slowestUpdate / 1000 + "us");
+		check(framesWhileLoading > 0, "the main loop did not run while files were loading");
+
+		System.out.println(requests.size() + " files loaded in " + loadTime / 1000000 + "ms over " + frames
+				+ " frames, slowest request " + slowestRequest / 1000 + "us, slowest update "
+				+ slowestUpdate / 1000 + "us");
+
+		threaded(resources);
+		ResourceManager.cleanUp();
+		if(failures > 0)
+			System.exit(1);
+		System.out.println("ResourceManagerTest passed");
+	}
+
+	/**
+	 * finishes requests on a stand in render thread while this thread dispatches
+	 * their callbacks, as the engine does when the simulation is threaded
+	 */
+	private static void threaded(ResourceManager resources) {
+		AtomicInteger finishedOffRender = new AtomicInteger();
+		AtomicInteger callbacks = new AtomicInteger();
+		Thread render = new Thread(() -> {
+			long begin = System.nanoTime();
+			while(callbacks.get() < THREADED_REQUESTS && System.nanoTime() - begin < TIMEOUT) {
+				resources.update();
+				LockSupport.parkNanos(Constants.NANOSECOND / 1000);
+			}
+		}, "Render Stand In");
+		Function<Object, Object> finisher = resource -> {
+			if(Thread.currentThread() != render)
+				finishedOffRender.incrementAndGet();
+			return resource;
+		};
+		Consumer<Object> callback = onMain(resource -> callbacks.incrementAndGet());
+
+		render.start();
+		for(int i = 0; i < THREADED_REQUESTS; i++) {
+			int value = i;
+			resources.load("threaded " + i, ResourceManager.NORMAL_PRIORITY, 0, () -> value, finisher, callback);
+		}
+		long begin = System.nanoTime();
+		while(callbacks.get() < THREADED_REQUESTS && System.nanoTime() - begin < TIMEOUT) {
+			resources.dispatch();
+			LockSupport.parkNanos(Constants.NANOSECOND / 1000);
+		}
+		try {
+			render.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+
+		check(callbacks.get() == THREADED_REQUESTS, callbacks.get() + " of " + THREADED_REQUESTS
+				+ " callbacks ran with the update on another thread");
+		check(finishedOffRender.get() == 0, finishedOffRender.get() + " requests were finished off the render thread");
+		check(callbacksOffMain.get() == 0, callbacksOffMain.get() + " callbacks ran off the main loop");
+	}
+
+	/**
+	 * wraps a decoder to count the times it is run on the main loop
+	 */
+	private static Callable<Object> offMain(Callable<Object> decoder) {
+		return () -> {
+			if(Thread.currentThread() == main)
+				decodedOnMain.incrementAndGet();
+			return decoder.call();
+		};
+	}
+
+	/**
+	 * wraps a callback to count the times it is run off the main loop
+	 */
+	private static Consumer<Object> onMain(Consumer<Object> callback) {
+		return resource -> {
+			if(Thread.currentThread() != main)
+				callbacksOffMain.incrementAndGet();
+			callback.accept(resource);
+		};
+	}
+
+	private static void check(boolean condition, String message) {
+		if(condition)
+			return;
+		System.err.println("FAILED: " + message);
+		failures++;
+	}
+}
@@ -0,0 +1,352 @@
+package rendering;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.lwjgl.opengl.GL11;
+
+import core.kernel.FrameSnapshot;
+import core.maths.Frustum;
+import core.maths.TransformStore;
+import core.maths.matrix.Matrix4f;
+import core.maths.vector.Vector3f;
+import core.structure.GameObject;
+import core.utils.Constants.RenderComponents;
+import rendering.buffers.InstanceVBO;
+import rendering.config.CCW;
+import rendering.config.Default;
+import rendering.config.Points;
+import rendering.config.RenderConfig;
+import rendering.config.Wireframe;
+import rendering.state.GLStateCache;
+import rendering.state.RecordingBackend;
+
+/**
+ * <h1>RenderQueueTest Class</h1>
+ * <p>
+ * Pushes draws with known sort keys through the RenderQueue and the
+ * GLStateCache into a RecordingBackend. A small frame is checked call by call
+ * against the sequence worked out by hand, with the issued and skipped counts
+ * of the frame. A large random frame is then replayed from the recording to
+ * check every draw saw the program, texture, vertex array and config its key
+ * asked for, that the draws came in sorted and stable order, that exactly the
+ * draws inside the frustum were drawn, and that sorting issued fewer calls
+ * than drawing in submitted order. Last a frame of many fern instances sharing
+ * one mesh must batch into a single instanced draw, and the time taken to
+ * batch it and to pack its model matrices is reported. Runs headless, exiting
+ * with a non zero status if any check fails.
+ *
+ * @author Graham
+ * @version 2.0.0
+ * @since 2026-10-18
+ */
+public class RenderQueueTest {
+
+	private static final int DRAWS = 5000;
+	private static final int INSTANCES = 100000;
+	private static final int FRAMES = 20;
+
+	private static int failures = 0;
+	private static RecordingBackend recording = new RecordingBackend();
+	private static GLStateCache cache = GLStateCache.getInstance();
+
+	public static void main(String[] args) {
+		// the config ids are handed out in the order the classes are first seen
+		RenderConfig[] configs = { new Default(), new Points(), new CCW(), new Wireframe() };
+		for(int i = 0; i < configs.length; i++)
+			check(SortKey.getConfigId(configs[i]) == i, "config " + i + " was given id "
+					+ SortKey.getConfigId(configs[i]));
+
+		Matrix4f projection = new Matrix4f().setPerspectiveProjection(70, 1280, 720, 0.1f, 1000);
+		Matrix4f view = new Matrix4f().setView(new Vector3f(0, 0, 1), new Vector3f(0, 1, 0));
+		FrameSnapshot frame = new FrameSnapshot();
+		frame.getFrustum().extract(projection.mul(view, new Matrix4f()));
+		FrameSnapshot.setDrawing(frame);
+		cache.setBackend(recording);
+
+		knownFrame(configs);
+		randomFrame(configs);
+
+		FrameSnapshot.setDrawing(null);
+		instancedFrame(configs[0]);
+		GLStateCache.cleanUp();
+		if(failures > 0)
+			System.exit(1);
+		System.out.println("RenderQueueTest passed");
+	}
+
+	/**
+	 * draws six objects submitted out of order, and checks every call that
+	 * reaches the backend
+	 */
+	private static void knownFrame(RenderConfig[] configs) {
+		RenderQueue queue = new RenderQueue();
+		TestRenderer[] draws = {
+				new TestRenderer(0, configs[0], 1, 10, 5, 0.5f),
+				new TestRenderer(1, configs[0], 1, 10, 5, 0.2f),
+				new TestRenderer(2, configs[0], 1, 11, 6, 0.1f),
+				new TestRenderer(3, configs[0], 2, 10, 7, 0.3f),
+				new TestRenderer(4, configs[1], 2, 10, 5, 0.3f),
+				new TestRenderer(5, configs[1], 2, 10, 5, 0.1f) };
+		for(int i : new int[] { 4, 0, 3, 2, 5, 1 })
+			queue.submit(draws[i], draws[i].key);
+
+		cache.invalidate();
+		recording.clear();
+		queue.flush();
+		cache.endFrame();
+
+		int texture2D = GL11.GL_TEXTURE_2D;
+		List<String> expected = Arrays.asList(
+				"useProgram 1", "activeTexture 0", "bindTexture " + texture2D + " 10", "bindVertexArray 5", "draw 1",
+				"draw 0",
+				"bindTexture " + texture2D + " 11", "bindVertexArray 6", "draw 2",
+				"useProgram 2", "bindTexture " + texture2D + " 10", "bindVertexArray 7", "draw 3",
+				"disable " + GL11.GL_CULL_FACE, "polygonMode " + GL11.GL_FRONT_AND_BACK + " " + GL11.GL_POINT,
+				"bindVertexArray 5", "draw 5",
+				"draw 4",
+				"polygonMode " + GL11.GL_FRONT + " " + GL11.GL_FILL, "enable " + GL11.GL_CULL_FACE,
+				"cullFace " + GL11.GL_BACK);
+		check(recording.getCalls().equals(expected), "the known frame recorded " + recording.getCalls()
+				+ "\n        expected " + expected);
+		check(cache.getIssued() == 15, "the known frame issued " + cache.getIssued() + " calls, expected 15");
+		check(cache.getSkipped() == 11, "the known frame skipped " + cache.getSkipped() + " calls, expected 11");
+		check(queue.size() == 0, "the queue was not cleared by the flush");
+	}
+
+	/**
+	 * draws many random objects, some outside the frustum, and replays the
+	 * recording to check the state each draw was made with
+	 */
+	private static void randomFrame(RenderConfig[] configs) {
+		Random random = new Random(3);
+		RenderQueue queue = new RenderQueue();
+		Frustum frustum = FrameSnapshot.getDrawing().getFrustum();
+		List<TestRenderer> draws = new ArrayList<TestRenderer>();
+		int expectedVisible = 0;
+		for(int i = 0; i < DRAWS; i++) {
+			// few depths, so some keys are equal and the order between them is tested
+			TestRenderer draw = new TestRenderer(i, configs[random.nextInt(configs.length)], 1 + random.nextInt(4),
+					1 + random.nextInt(8), 1 + random.nextInt(8), random.nextInt(4) / 4f);
+			float x = random.nextFloat() * 200 - 100, y = random.nextFloat() * 200 - 100;
+			float z = random.nextFloat() * 200 - 100, radius = random.nextFloat() * 5;
+			draw.visible = frustum.intersectsSphere(x, y, z, radius);
+			if(draw.visible)
+				expectedVisible++;
+			draws.add(draw);
+			queue.submit(draw, draw.key, x, y, z, radius);
+		}
+
+		// the same draws in submitted order, as they were drawn before the queue sorted them
+		cache.invalidate();
+		for(TestRenderer draw : draws) {
+			if(!draw.visible)
+				continue;
+			draw.getConfig().enable();
+			draw.draw();
+			draw.getConfig().disable();
+		}
+		cache.endFrame();
+		int unsortedIssued = cache.getIssued();
+
+		cache.invalidate();
+		recording.clear();
+		queue.flush();
+		cache.endFrame();
+
+		// replays the recording, drawing nothing but checking the state at each draw
+		int program = -1, vertexArray = -1, activeUnit = -1, texture = -1, polygonMode = -1, frontFace = -1;
+		int issued = 0, drawn = 0, unsorted = 0, unstable = 0, wrongState = 0, invisible = 0;
+		TestRenderer previous = null;
+		for(String call : recording.getCalls()) {
+			String[] parts = call.split(" ");
+			switch(parts[0]) {
+			case "draw":
+				TestRenderer draw = draws.get(Integer.parseInt(parts[1]));
+				drawn++;
+				if(!draw.visible)
+					invisible++;
+				if(previous != null) {
+					int order = Long.compareUnsigned(previous.key, draw.key);
+					if(order > 0)
+						unsorted++;
+					else if(order == 0 && previous.id > draw.id)
+						unstable++;
+				}
+				previous = draw;
+				if(program != draw.program || texture != draw.texture || vertexArray != draw.vertexArray
+						|| polygonMode != expectedPolygonMode(draw.getConfig(), polygonMode)
+						|| frontFace != expectedFrontFace(draw.getConfig(), frontFace))
+					wrongState++;
+				continue;
+			case "useProgram":
+				program = Integer.parseInt(parts[1]);
+				break;
+			case "bindVertexArray":
+				vertexArray = Integer.parseInt(parts[1]);
+				break;
+			case "activeTexture":
+				activeUnit = Integer.parseInt(parts[1]);
+				break;
+			case "bindTexture":
+				if(activeUnit == 0)
+					texture = Integer.parseInt(parts[2]);
+				break;
+			case "polygonMode":
+				if(Integer.parseInt(parts[1]) != GL11.GL_BACK)
+					polygonMode = Integer.parseInt(parts[2]);
+				break;
+			case "frontFace":
+				frontFace = Integer.parseInt(parts[1]);
+				break;
+			}
+			issued++;
+		}
+
+		check(expectedVisible > DRAWS / 10 && expectedVisible < DRAWS - DRAWS / 10,
+				"too few visible and culled draws to be a test, " + expectedVisible + " of " + DRAWS + " visible");
+		check(drawn == expectedVisible, drawn + " draws were made, " + expectedVisible + " were inside the frustum");
+		check(invisible == 0, invisible + " draws outside the frustum were not culled");
+		check(unsorted == 0, unsorted + " draws came before a draw with a smaller key");
+		check(unstable == 0, unstable + " draws with equal keys were drawn out of submitted order");
+		check(wrongState == 0, wrongState + " draws were made with the wrong state bound");
+		check(issued == cache.getIssued(), "the cache counted " + cache.getIssued() + " issued calls, the backend saw "
+				+ issued);
+		check(cache.getIssued() < unsortedIssued, "the sorted frame issued " + cache.getIssued()
+				+ " calls, no fewer than the " + unsortedIssued + " of the unsorted frame");
+
+		System.out.println(DRAWS + " draws, " + drawn + " visible, " + cache.getSummary() + ", " + unsortedIssued
+				+ " issued unsorted");
+	}
+
+	/**
+	 * submits many renderers sharing one mesh, shader and config, as a field of
+	 * ferns would, and times batching them and packing their model matrices
+	 */
+	private static void instancedFrame(RenderConfig config) {
+		Random random = new Random(9);
+		InstanceRenderer[] ferns = new InstanceRenderer[INSTANCES];
+		for(int i = 0; i < INSTANCES; i++) {
+			GameObject fern = new GameObject();
+			fern.getWorldTransform().setTranslation(new Vector3f(random.nextFloat() * 1000, 0,
+					random.nextFloat() * 1000));
+			ferns[i] = new InstanceRenderer(config);
+			fern.addComponent(RenderComponents.RENDERER_COMPONENT, ferns[i]);
+		}
+		TransformStore.getInstance().updateMatrices();
+
+		RenderQueue queue = new RenderQueue();
+		InstanceVBO instances = new InstanceVBO(INSTANCES);
+		long batchTime = Long.MAX_VALUE, packTime = Long.MAX_VALUE;
+		// the fastest of several frames, so the first frames do not count the compiling of the loops
+		for(int frame = 0; frame < FRAMES; frame++) {
+			for(InstanceRenderer fern : ferns)
+				queue.submit(fern, fern.key);
+			queue.sort();
+			long start = System.nanoTime();
+			queue.batch();
+			batchTime = Math.min(batchTime, System.nanoTime() - start);
+			if(frame == 0) {
+				check(queue.getBatchCount() == 1, INSTANCES + " ferns sharing a mesh were drawn in "
+						+ queue.getBatchCount() + " instanced draws, not one");
+				check(queue.getInstanceCount() == INSTANCES, queue.getInstanceCount() + " of " + INSTANCES
+						+ " fern model matrices were packed");
+			}
+			queue.clear();
+
+			instances.clear();
+			start = System.nanoTime();
+			for(InstanceRenderer fern : ferns)
+				fern.packInstance(instances);
+			packTime = Math.min(packTime, System.nanoTime() - start);
+		}
+		check(instances.getCount() == INSTANCES, instances.getCount() + " of " + INSTANCES
+				+ " model matrices were packed by packInstance");
+
+		System.out.printf("%d instances: batch %.2fms, packInstance %.2fms (%.1fns each, %d bytes)%n", INSTANCES,
+				batchTime / 1e6, packTime / 1e6, packTime / (double) INSTANCES, INSTANCES * InstanceVBO.BYTES);
+	}
+
+	/**
+	 * @return The front polygon mode a draw with the config should be made with,
+	 *         or the current mode if the config does not set it
+	 */
+	private static int expectedPolygonMode(RenderConfig config, int current) {
+		if(config instanceof Points)
+			return GL11.GL_POINT;
+		if(config instanceof Wireframe)
+			return GL11.GL_LINE;
+		return current == -1 ? -1 : GL11.GL_FILL;
+	}
+
+	/**
+	 * @return The front face a draw with the config should be made with, or the
+	 *         current front face if the config does not set it
+	 */
+	private static int expectedFrontFace(RenderConfig config, int current) {
+		if(config instanceof CCW)
+			return GL11.GL_CCW;
+		return current == -1 ? -1 : GL11.GL_CW;
+	}
+
+	private static void check(boolean condition, String message) {
+		if(condition)
+			return;
+		System.err.println("FAILED: " + message);
+		failures++;
+	}
+
+	/**
+	 * a renderer binding the state its key asks for through the cache, and
+	 * recording each draw in the backend between the calls it made
+	 */
+	private static class TestRenderer extends Renderer {
+
+		private final int id, program, texture, vertexArray;
+		private final long key;
+		private boolean visible = true;
+
+		private TestRenderer(int id, RenderConfig config, int program, int texture, int vertexArray, float depth) {
+			this.id = id;
+			this.program = program;
+			this.texture = texture;
+			this.vertexArray = vertexArray;
+			key = SortKey.pack(SortKey.getConfigId(config), program, texture, vertexArray, depth);
+			setConfig(config);
+		}
+
+		@Override
+		public void draw() {
+			cache.useProgram(program);
+			cache.bindTexture(0, texture);
+			cache.bindVertexArray(vertexArray);
+			recording.getCalls().add("draw " + id);
+		}
+
+		@Override
+		public boolean isInstanceable() {
+			return false;
+		}
+	}
+
+	/**
+	 * a renderer of a mesh that would be instanced, standing in for one with a
+	 * vertex array, which would need an OpenGL context
+	 */
+	private static class InstanceRenderer extends Renderer {
+
+		private final long key;
+
+		private InstanceRenderer(RenderConfig config) {
+			key = SortKey.pack(SortKey.getConfigId(config), 1, 1, 1, 0);
+			setConfig(config);
+		}
+
+		@Override
+		public boolean isInstanceable() {
+			return true;
+		}
+	}
+}